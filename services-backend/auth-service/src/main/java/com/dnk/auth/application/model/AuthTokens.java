@@ -2,6 +2,11 @@ package com.dnk.auth.application.model;
 
 public record AuthTokens(
         String accessToken,
-        String refreshToken
+        String refreshToken,
+        String deviceToken
 ) {
+
+    public AuthTokens(String accessToken, String refreshToken) {
+        this(accessToken, refreshToken, null);
+    }
 }
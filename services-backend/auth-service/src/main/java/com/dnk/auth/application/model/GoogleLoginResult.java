@@ -3,6 +3,12 @@ package com.dnk.auth.application.model;
 public record GoogleLoginResult(
         String userId,
         String email,
-        boolean mfaRequired
+        boolean mfaRequired,
+        String mfaMethod,
+        AuthTokens tokens
 ) {
+
+    public GoogleLoginResult(String userId, String email, boolean mfaRequired, String mfaMethod) {
+        this(userId, email, mfaRequired, mfaMethod, null);
+    }
 }
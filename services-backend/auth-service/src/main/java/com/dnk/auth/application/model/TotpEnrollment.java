@@ -0,0 +1,7 @@
+package com.dnk.auth.application.model;
+
+public record TotpEnrollment(
+        String secret,
+        String otpauthUri
+) {
+}
@@ -0,0 +1,20 @@
+package com.dnk.auth.application.model;
+
+import java.util.List;
+
+/**
+ * A user's roles and permissions as of {@code version}, the user's rights version (global version plus the
+ * user's own stamp) read before they were loaded ({@link #UNKNOWN_VERSION} when it could not be read).
+ */
+public record UserRights(
+        List<String> roles,
+        List<String> permissions,
+        long version
+) {
+
+    public static final long UNKNOWN_VERSION = -1;
+
+    public boolean isCurrent(long currentVersion) {
+        return version != UNKNOWN_VERSION && version == currentVersion;
+    }
+}
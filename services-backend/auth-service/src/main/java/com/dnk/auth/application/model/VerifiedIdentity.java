@@ -1,8 +1,11 @@
 package com.dnk.auth.application.model;
 
+import java.time.Instant;
+
 public record VerifiedIdentity(
         String providerUserId,
         String email,
-        boolean emailVerified
+        boolean emailVerified,
+        Instant expiresAt
 ) {
 }
@@ -0,0 +1,17 @@
+package com.dnk.auth.application.model;
+
+import java.time.Instant;
+import java.util.List;
+
+public record VerifiedToken(
+        String userId,
+        String email,
+        List<String> roles,
+        List<String> permissions,
+        Instant issuedAt,
+        Instant expiresAt,
+        // Only set on refresh tokens that carry their rights
+        UserRights carriedRights,
+        boolean refreshToken
+) {
+}
@@ -0,0 +1,13 @@
+package com.dnk.auth.application.port.out;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface DeviceTokenPort {
+
+    String issue(UUID deviceId, Instant expiresAt);
+
+    /** Returns the device id of a well-signed, unexpired token. */
+    Optional<UUID> verify(String deviceToken, Instant now);
+}
@@ -0,0 +1,27 @@
+package com.dnk.auth.application.port.out;
+
+import java.util.function.Supplier;
+
+public interface LoginMetricsPort {
+
+    <T> T time(String stage, Supplier<T> step);
+
+    /** Counts one login's OTP outcome: {@code fresh} when a new code was issued, {@code coalesced} when reused. */
+    void otpIssued(String outcome);
+
+    /** Counts one login's MFA outcome: {@code required}, or {@code skipped} for a trusted device. */
+    void mfaOutcome(String outcome);
+
+    /**
+     * Counts one session refresh: {@code token} when the rights carried by the refresh token were still
+     * current, {@code lookup} when they had to be read again, {@code coalesced} when it joined a concurrent one.
+     */
+    void refreshOutcome(String outcome);
+
+    default void run(String stage, Runnable step) {
+        time(stage, () -> {
+            step.run();
+            return null;
+        });
+    }
+}
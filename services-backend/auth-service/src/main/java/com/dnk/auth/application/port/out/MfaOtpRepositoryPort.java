@@ -12,7 +12,14 @@ public interface MfaOtpRepositoryPort {
 
     Optional<MfaOtp> findValidByUserId(String userId, Instant now);
 
-    void markVerified(UUID id, Instant verifiedAt);
+    /**
+     * Atomically finds the user's valid OTP matching {@code rawOtp} and marks it verified.
+     * Returns empty when there is no such OTP or another request consumed it first.
+     */
+    Optional<MfaOtp> consumeValid(String userId, String rawOtp, Instant now);
 
     void invalidateAllForUser(String userId);
+
+    /** Records that the OTP's email was sent or queued; only delivered OTPs are reused by a later login. */
+    void markDelivered(UUID id, Instant deliveredAt);
 }
@@ -0,0 +1,6 @@
+package com.dnk.auth.application.port.out;
+
+public interface OtpEmailOutboxPort {
+
+    void enqueue(String toEmail, String otpCode);
+}
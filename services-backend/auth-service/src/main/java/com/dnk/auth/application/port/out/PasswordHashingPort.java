@@ -5,4 +5,12 @@ public interface PasswordHashingPort {
     String hash(String raw);
 
     boolean matches(String raw, String hash);
+
+    /**
+     * Whether {@link #hash} always yields the same value for the same input (no per-hash salt),
+     * so stored hashes can be matched by equality in a query.
+     */
+    default boolean isDeterministic() {
+        return false;
+    }
 }
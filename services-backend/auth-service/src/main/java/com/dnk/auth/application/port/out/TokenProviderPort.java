@@ -1,15 +1,24 @@
 package com.dnk.auth.application.port.out;
 
 import java.util.List;
+import java.util.Optional;
+
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.application.model.VerifiedToken;
 
 public interface TokenProviderPort {
     String generateAccessToken(String userId, String email, List<String> roles, List<String> permissions);
 
+    /** Access token stamped with the rights version the roles and permissions were read at. */
+    String generateAccessToken(String userId, String email, UserRights rights);
+
     String generateRefreshToken(String userId, String email);
 
-    boolean validateToken(String token);
+    /** Refresh token that carries the rights, so a refresh can reuse them while the version is unchanged. */
+    String generateRefreshToken(String userId, String email, UserRights rights);
 
-    String getUserIdFromToken(String token);
-    
-    String getEmailFromToken(String token);
+    /**
+     * Checks signature, issuer and expiry once and returns the token's claims, or empty if it is not valid.
+     */
+    Optional<VerifiedToken> verify(String token);
 }
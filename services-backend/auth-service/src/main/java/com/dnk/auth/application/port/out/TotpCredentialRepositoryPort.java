@@ -0,0 +1,28 @@
+package com.dnk.auth.application.port.out;
+
+import java.util.Optional;
+
+import com.dnk.auth.domain.model.TotpCredential;
+
+public interface TotpCredentialRepositoryPort {
+
+    Optional<TotpCredential> findByUserId(String userId);
+
+    /**
+     * Stores (or replaces) the user's pending secret; a confirmed secret is left untouched. The secret is
+     * encrypted by the adapter.
+     */
+    void savePending(String userId, String email, byte[] pendingSecret);
+
+    /**
+     * Makes the pending secret the confirmed one; returns false if there is no pending secret anymore or it
+     * is no longer {@code pendingSecret}.
+     */
+    boolean confirm(String userId, byte[] pendingSecret, long step);
+
+    /**
+     * Raises the persisted last-used step with a conditional update; returns false if the stored step was
+     * already equal or higher, i.e. the code was used before, possibly on another node.
+     */
+    boolean advanceUsedStep(String userId, long step);
+}
@@ -0,0 +1,7 @@
+package com.dnk.auth.application.port.out;
+
+public interface TransactionPort {
+
+    /** Runs {@code work} in one database transaction, joining the caller's transaction if there is one. */
+    void inTransaction(Runnable work);
+}
@@ -0,0 +1,21 @@
+package com.dnk.auth.application.port.out;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import com.dnk.auth.domain.model.TrustedDevice;
+
+public interface TrustedDeviceRegistryPort {
+
+    TrustedDevice register(String userId, String label, Instant expiresAt);
+
+    /** Looks a device up by id; expected to be served from memory on the login path. */
+    Optional<TrustedDevice> findById(UUID deviceId);
+
+    List<TrustedDevice> findActiveByUserId(String userId, Instant now);
+
+    /** Returns false when the device does not belong to the user or was already revoked. */
+    boolean revoke(String userId, UUID deviceId);
+}
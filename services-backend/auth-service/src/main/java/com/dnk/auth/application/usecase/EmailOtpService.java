@@ -1,16 +1,33 @@
 package com.dnk.auth.application.usecase;
 
 import com.dnk.auth.application.port.out.EmailSenderPort;
+import com.dnk.auth.application.port.out.OtpEmailOutboxPort;
 
 public class EmailOtpService {
 
     private final EmailSenderPort emailSenderPort;
+    private final OtpEmailOutboxPort otpEmailOutboxPort;
 
     public EmailOtpService(EmailSenderPort emailSenderPort) {
+        this(emailSenderPort, null);
+    }
+
+    public EmailOtpService(EmailSenderPort emailSenderPort, OtpEmailOutboxPort otpEmailOutboxPort) {
         this.emailSenderPort = emailSenderPort;
+        this.otpEmailOutboxPort = otpEmailOutboxPort;
+    }
+
+    /** True when {@link #sendOtp} only writes an outbox row, which must then commit together with the OTP. */
+    public boolean isQueued() {
+        return otpEmailOutboxPort != null;
     }
 
     public void sendOtp(String toEmail, String otpCode) {
+        // With the outbox enabled the email is delivered in the background, off the request thread
+        if (otpEmailOutboxPort != null) {
+            otpEmailOutboxPort.enqueue(toEmail, otpCode);
+            return;
+        }
         emailSenderPort.sendOtpEmail(toEmail, otpCode);
     }
 }
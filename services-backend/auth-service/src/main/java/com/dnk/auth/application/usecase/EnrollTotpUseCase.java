@@ -0,0 +1,26 @@
+package com.dnk.auth.application.usecase;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.model.TotpEnrollment;
+import com.dnk.auth.application.model.VerifiedToken;
+
+public class EnrollTotpUseCase {
+
+    private final TotpService totpService;
+
+    public EnrollTotpUseCase(TotpService totpService) {
+        this.totpService = totpService;
+    }
+
+    /** {@code currentCode} is only needed, and then required, when replacing a confirmed authenticator. */
+    public TotpEnrollment begin(VerifiedToken token, String currentCode) {
+        if (token.email() == null || token.email().isBlank()) {
+            throw new AuthException("Email not available for user: " + token.userId());
+        }
+        return totpService.beginEnrollment(token.userId(), token.email(), currentCode);
+    }
+
+    public void confirm(VerifiedToken token, String code) {
+        totpService.confirmEnrollment(token.userId(), code);
+    }
+}
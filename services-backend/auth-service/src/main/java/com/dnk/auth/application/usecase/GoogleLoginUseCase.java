@@ -1,13 +1,35 @@
 package com.dnk.auth.application.usecase;
 
 import java.security.SecureRandom;
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.exception.ServiceUnavailableException;
+import com.dnk.auth.application.model.AuthTokens;
 import com.dnk.auth.application.model.GoogleLoginResult;
+import com.dnk.auth.application.model.UserRights;
 import com.dnk.auth.application.model.VerifiedIdentity;
 import com.dnk.auth.application.port.out.IdentityProviderPort;
+import com.dnk.auth.application.port.out.LoginMetricsPort;
 import com.dnk.auth.application.port.out.MfaOtpRepositoryPort;
+import com.dnk.auth.application.port.out.TokenProviderPort;
+import com.dnk.auth.application.port.out.TransactionPort;
 import com.dnk.auth.domain.model.MfaOtp;
 import com.dnk.auth.infrastructure.persistence.UserRightsFetcher;
 
@@ -16,21 +38,54 @@ public class GoogleLoginUseCase {
     private final IdentityProviderPort identityProviderPort;
     private final MfaOtpRepositoryPort mfaOtpRepositoryPort;
     private final EmailOtpService emailOtpService;
+    private final TransactionPort transactionPort;
     private final UserRightsFetcher userRightsFetcher;
+    private final LoginMetricsPort loginMetrics;
+    private final boolean parallel;
+    private final Duration rolesTimeout;
+    private final Duration otpTimeout;
+    private final Duration otpCoalesceWindow;
+    private final TotpService totpService;
+    private final TokenProviderPort tokenProviderPort;
+    private final TrustedDeviceService trustedDeviceService;
     private final SecureRandom secureRandom = new SecureRandom();
+    // OTP issues in progress on this node; a concurrent double submit waits for the same outcome instead of mailing again
+    private final ConcurrentHashMap<String, CompletableFuture<Void>> issuing = new ConcurrentHashMap<>();
 
     public GoogleLoginUseCase(IdentityProviderPort identityProviderPort,
                               MfaOtpRepositoryPort mfaOtpRepositoryPort,
                               EmailOtpService emailOtpService,
-                              UserRightsFetcher userRightsFetcher) {
+                              TransactionPort transactionPort,
+                              UserRightsFetcher userRightsFetcher,
+                              LoginMetricsPort loginMetrics,
+                              boolean parallel,
+                              Duration rolesTimeout,
+                              Duration otpTimeout,
+                              Duration otpCoalesceWindow,
+                              TotpService totpService,
+                              TokenProviderPort tokenProviderPort,
+                              TrustedDeviceService trustedDeviceService) {
         this.identityProviderPort = identityProviderPort;
         this.mfaOtpRepositoryPort = mfaOtpRepositoryPort;
         this.emailOtpService = emailOtpService;
+        this.transactionPort = transactionPort;
         this.userRightsFetcher = userRightsFetcher;
+        this.loginMetrics = loginMetrics;
+        this.parallel = parallel;
+        this.rolesTimeout = rolesTimeout;
+        this.otpTimeout = otpTimeout;
+        this.otpCoalesceWindow = otpCoalesceWindow;
+        this.totpService = totpService;
+        this.tokenProviderPort = tokenProviderPort;
+        this.trustedDeviceService = trustedDeviceService;
     }
 
     public GoogleLoginResult execute(String idToken) {
-        VerifiedIdentity identity = identityProviderPort.verifyIdToken(idToken);
+        return execute(idToken, null);
+    }
+
+    public GoogleLoginResult execute(String idToken, String deviceToken) {
+        VerifiedIdentity identity = loginMetrics.time("identity", () -> identityProviderPort.verifyIdToken(idToken));
 
         String userId = identity.providerUserId();
         String email = identity.email();
@@ -38,18 +93,125 @@ public class GoogleLoginUseCase {
             throw new AuthException("Email not available for identity provider user: " + userId);
         }
 
-        // Auto-assign 'student' role if user has no roles
-        List<String> roles = userRightsFetcher.getUserRoles(userId);
-        if (roles.isEmpty()) {
-            userRightsFetcher.assignRole(userId, "student");
+        // A device that already passed MFA for this user goes straight to tokens: no OTP of any kind
+        if (trustedDeviceService != null && deviceToken != null
+                && loginMetrics.time("device_lookup", () -> trustedDeviceService.recognises(deviceToken, userId))) {
+            loginMetrics.mfaOutcome("skipped");
+            bootstrapRoles(userId);
+            return new GoogleLoginResult(userId, email, false, null, issueTokens(userId, email));
         }
+        loginMetrics.mfaOutcome("required");
 
-        // Invalidate previous OTPs for this user
-        mfaOtpRepositoryPort.invalidateAllForUser(userId);
+        // Users with an authenticator app get no email at all; the code is checked in memory on verify
+        if (totpService != null && loginMetrics.time("totp_lookup", () -> totpService.isEnrolled(userId))) {
+            bootstrapRoles(userId);
+            return new GoogleLoginResult(userId, email, true, "totp");
+        }
+
+        if (parallel) {
+            runInParallel(userId, email);
+        } else {
+            bootstrapRoles(userId);
+            issueOtp(userId, email);
+        }
+
+        return new GoogleLoginResult(userId, email, true, "email");
+    }
+
+    private AuthTokens issueTokens(String userId, String email) {
+        UserRights rights = userRightsFetcher.getUserRights(userId);
+
+        String accessToken = tokenProviderPort.generateAccessToken(userId, email, rights);
+        String refreshToken = tokenProviderPort.generateRefreshToken(userId, email, rights);
+        return new AuthTokens(accessToken, refreshToken);
+    }
+
+    private void bootstrapRoles(String userId) {
+        loginMetrics.run("roles", () -> {
+            // Auto-assign 'student' role if user has no roles
+            if (userRightsFetcher.getUserRights(userId).roles().isEmpty()) {
+                userRightsFetcher.assignRole(userId, "student");
+            }
+        });
+    }
+
+    /**
+     * Repeated logins inside the coalescing window reuse the pending OTP: the code already mailed stays
+     * valid, so nothing is hashed, stored or sent again. The window doubles as a per-user resend limit.
+     * A login racing one that is issuing right now waits for that issue and shares its success or failure.
+     */
+    private void issueOtp(String userId, String email) {
+        CompletableFuture<Void> issue = new CompletableFuture<>();
+        CompletableFuture<Void> inFlight = issuing.putIfAbsent(userId, issue);
+        if (inFlight != null) {
+            awaitConcurrentIssue(inFlight);
+            loginMetrics.otpIssued("coalesced");
+            return;
+        }
+        try {
+            if (hasDeliveredRecentOtp(userId, email)) {
+                loginMetrics.otpIssued("coalesced");
+            } else {
+                issueFreshOtp(userId, email);
+                loginMetrics.otpIssued("fresh");
+            }
+            issue.complete(null);
+        } catch (RuntimeException | Error ex) {
+            issue.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            issuing.remove(userId, issue);
+        }
+    }
+
+    private void awaitConcurrentIssue(CompletableFuture<Void> inFlight) {
+        try {
+            inFlight.get(otpTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Concurrent OTP issue failed", ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new ServiceUnavailableException("Timed out waiting for a concurrent OTP issue");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted waiting for a concurrent OTP issue");
+        }
+    }
 
+    private boolean hasDeliveredRecentOtp(String userId, String email) {
+        if (otpCoalesceWindow.isZero()) {
+            return false;
+        }
+        Instant now = Instant.now();
+        Optional<MfaOtp> pending = loginMetrics.time("otp_lookup", () -> mfaOtpRepositoryPort.findValidByUserId(userId, now));
+        // A pending OTP mailed to another address (the account email changed) is never reused, nor is one whose
+        // email was never sent or queued; issuing a fresh OTP invalidates it
+        return pending
+                .filter(otp -> email.equalsIgnoreCase(otp.getEmail()))
+                .filter(otp -> otp.getDeliveredAt() != null)
+                .filter(otp -> otp.getCreatedAt() != null && otp.getCreatedAt().isAfter(now.minus(otpCoalesceWindow)))
+                .isPresent();
+    }
+
+    private void issueFreshOtp(String userId, String email) {
         // Generate a new 6-digit OTP
         String otpCode = generateSixDigitOtp();
 
+        // A queued email commits with the OTP row or not at all, so no code is stored that will never be mailed.
+        // A direct SMTP send stays outside any transaction so it does not hold a connection open.
+        if (emailOtpService.isQueued()) {
+            transactionPort.inTransaction(() -> storeAndSendOtp(userId, email, otpCode));
+        } else {
+            storeAndSendOtp(userId, email, otpCode);
+        }
+    }
+
+    private void storeAndSendOtp(String userId, String email, String otpCode) {
+        // Invalidate previous OTPs for this user
+        loginMetrics.run("otp_invalidate", () -> mfaOtpRepositoryPort.invalidateAllForUser(userId));
+
         // Store OTP (hashing is handled in the infrastructure adapter)
         MfaOtp mfaOtp = new MfaOtp(
                 null, // id will be generated
@@ -60,12 +222,80 @@ public class GoogleLoginUseCase {
                 null, // verifiedAt
                 null  // createdAt - defaulted in adapter
         );
-        mfaOtpRepositoryPort.save(mfaOtp);
+        MfaOtp saved = loginMetrics.time("otp_save", () -> mfaOtpRepositoryPort.save(mfaOtp));
 
         // Send OTP via email
-        emailOtpService.sendOtp(email, otpCode);
+        loginMetrics.run("email", () -> emailOtpService.sendOtp(email, otpCode));
+
+        // Only now may another login coalesce onto this OTP; if the send failed it stays undelivered
+        loginMetrics.run("otp_delivered", () -> mfaOtpRepositoryPort.markDelivered(saved.getId(), Instant.now()));
+    }
+
+    /**
+     * Role bootstrap and OTP issue touch unrelated rows, so they run side by side. Each has its own
+     * deadline; whichever stage fails or times out first cancels (interrupts) the other, without waiting
+     * for it. The scope is not awaited on close, since a blocked JDBC or SMTP call may ignore the interrupt
+     * and would otherwise defeat the timeout.
+     */
+    private void runInParallel(String userId, String email) {
+        long start = System.nanoTime();
+        ExecutorService scope = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            CompletionService<String> stages = new ExecutorCompletionService<>(scope);
+            Map<Future<String>, String> tasks = new HashMap<>();
+            tasks.put(stages.submit(() -> bootstrapRoles(userId), "roles"), "roles");
+            tasks.put(stages.submit(() -> issueOtp(userId, email), "otp"), "otp");
+
+            Map<String, Long> deadlines = new HashMap<>();
+            deadlines.put("roles", start + rolesTimeout.toNanos());
+            deadlines.put("otp", start + otpTimeout.toNanos());
+            while (!deadlines.isEmpty()) {
+                Map.Entry<String, Long> nearest = Collections.min(deadlines.entrySet(), Map.Entry.comparingByValue());
+                deadlines.remove(awaitNext(stages, tasks, nearest.getKey(), nearest.getValue()));
+            }
+        } finally {
+            scope.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for the next stage to finish, up to the nearest pending deadline, and returns its name.
+     */
+    private static String awaitNext(CompletionService<String> stages, Map<Future<String>, String> tasks,
+                                    String nearestStage, long deadlineNanos) {
+        Future<String> finished;
+        try {
+            finished = stages.poll(Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            cancelAll(tasks);
+            throw new ServiceUnavailableException("Login interrupted during " + nearestStage + " stage");
+        }
+        if (finished == null) {
+            cancelAll(tasks);
+            throw new ServiceUnavailableException("Login timed out during " + nearestStage + " stage");
+        }
+
+        String stage = tasks.get(finished);
+        try {
+            return finished.get();
+        } catch (ExecutionException ex) {
+            cancelAll(tasks);
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Login " + stage + " stage failed", ex.getCause());
+        } catch (CancellationException ex) {
+            throw new ServiceUnavailableException("Login " + stage + " stage was cancelled");
+        } catch (InterruptedException ex) {
+            // Unreachable: the future is already done
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Login interrupted during " + stage + " stage");
+        }
+    }
 
-        return new GoogleLoginResult(userId, email, true);
+    private static void cancelAll(Map<Future<String>, String> tasks) {
+        tasks.keySet().forEach(task -> task.cancel(true));
     }
 
     private String generateSixDigitOtp() {
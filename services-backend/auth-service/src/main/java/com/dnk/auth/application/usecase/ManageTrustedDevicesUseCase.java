@@ -0,0 +1,25 @@
+package com.dnk.auth.application.usecase;
+
+import java.util.List;
+import java.util.UUID;
+
+import com.dnk.auth.application.model.VerifiedToken;
+import com.dnk.auth.domain.model.TrustedDevice;
+
+public class ManageTrustedDevicesUseCase {
+
+    private final TrustedDeviceService trustedDeviceService;
+
+    public ManageTrustedDevicesUseCase(TrustedDeviceService trustedDeviceService) {
+        this.trustedDeviceService = trustedDeviceService;
+    }
+
+    public List<TrustedDevice> list(VerifiedToken token) {
+        return trustedDeviceService.list(token.userId());
+    }
+
+    // Idempotent: revoking an unknown, foreign or already revoked device is a no-op
+    public void revoke(VerifiedToken token, UUID deviceId) {
+        trustedDeviceService.revoke(token.userId(), deviceId);
+    }
+}
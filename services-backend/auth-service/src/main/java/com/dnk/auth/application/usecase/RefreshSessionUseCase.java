@@ -1,37 +1,91 @@
 package com.dnk.auth.application.usecase;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
 import com.dnk.auth.application.exception.AuthException;
 import com.dnk.auth.application.model.AuthTokens;
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.application.model.VerifiedToken;
+import com.dnk.auth.application.port.out.LoginMetricsPort;
 import com.dnk.auth.application.port.out.TokenProviderPort;
 import com.dnk.auth.infrastructure.persistence.UserRightsFetcher;
 
-import java.util.List;
-
+/**
+ * Exchanges a refresh token for a new token pair. Concurrent refreshes for the same user (several tabs
+ * waking up together) share one in-flight exchange. The refresh token carries the rights it was issued
+ * with and the global rights version at that moment; while that version is still current the rights are
+ * reused as-is and no lookup is made.
+ */
 public class RefreshSessionUseCase {
 
     private final TokenProviderPort tokenProviderPort;
     private final UserRightsFetcher userRightsFetcher;
+    private final LoginMetricsPort loginMetrics;
+    private final ConcurrentHashMap<String, CompletableFuture<AuthTokens>> inFlight = new ConcurrentHashMap<>();
 
     public RefreshSessionUseCase(TokenProviderPort tokenProviderPort,
-                                 UserRightsFetcher userRightsFetcher) {
+                                 UserRightsFetcher userRightsFetcher,
+                                 LoginMetricsPort loginMetrics) {
         this.tokenProviderPort = tokenProviderPort;
         this.userRightsFetcher = userRightsFetcher;
+        this.loginMetrics = loginMetrics;
     }
 
     public AuthTokens execute(String refreshToken) {
-        if (!tokenProviderPort.validateToken(refreshToken)) {
-            throw new AuthException("Invalid refresh token");
+        // Verify before joining anything: a follower must prove it holds a valid refresh token of its own.
+        // An access token is signed with the same key but must never be exchanged for a new pair.
+        VerifiedToken verified = tokenProviderPort.verify(refreshToken)
+                .filter(VerifiedToken::refreshToken)
+                .orElseThrow(() -> new AuthException("Invalid refresh token"));
+        String userId = verified.userId();
+
+        CompletableFuture<AuthTokens> mine = new CompletableFuture<>();
+        CompletableFuture<AuthTokens> leader = inFlight.putIfAbsent(userId, mine);
+        if (leader != null) {
+            loginMetrics.refreshOutcome("coalesced");
+            return join(leader);
+        }
+
+        try {
+            AuthTokens tokens = refresh(verified);
+            mine.complete(tokens);
+            return tokens;
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(userId, mine);
         }
+    }
 
-        String userId = tokenProviderPort.getUserIdFromToken(refreshToken);
-        String email = tokenProviderPort.getEmailFromToken(refreshToken);
+    private AuthTokens refresh(VerifiedToken verified) {
+        String userId = verified.userId();
+        String email = verified.email();
 
-        List<String> roles = userRightsFetcher.getUserRoles(userId);
-        List<String> permissions = userRightsFetcher.getUserPermissions(userId);
+        UserRights rights = verified.carriedRights();
+        if (rights != null && rights.isCurrent(userRightsFetcher.currentRightsVersion(userId))) {
+            loginMetrics.refreshOutcome("token");
+        } else {
+            rights = userRightsFetcher.getUserRights(userId);
+            loginMetrics.refreshOutcome("lookup");
+        }
 
-        String newAccessToken = tokenProviderPort.generateAccessToken(userId, email, roles, permissions);
-        String newRefreshToken = tokenProviderPort.generateRefreshToken(userId, email);
+        String newAccessToken = tokenProviderPort.generateAccessToken(userId, email, rights);
+        String newRefreshToken = tokenProviderPort.generateRefreshToken(userId, email, rights);
 
         return new AuthTokens(newAccessToken, newRefreshToken);
     }
+
+    private static AuthTokens join(CompletableFuture<AuthTokens> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
 }
@@ -0,0 +1,248 @@
+package com.dnk.auth.application.usecase;
+
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.model.TotpEnrollment;
+import com.dnk.auth.application.port.out.TotpCredentialRepositoryPort;
+import com.dnk.auth.domain.model.TotpCredential;
+
+/**
+ * RFC 6238 TOTP (HMAC-SHA1, 30 second steps, 6 digits) as an MFA channel that needs no SMTP and no
+ * BCrypt. Credentials are cached in memory, so once loaded a verification is a handful of HMACs with no
+ * I/O apart from one conditional update. Replays are refused by that update, which only raises the stored
+ * last-used step if it is still lower, so a code is accepted once across every node and restart; the
+ * highest step seen here is kept in memory as well, to turn away obvious replays without a round trip.
+ */
+public class TotpService {
+
+    public static final int DIGITS = 6;
+    public static final long STEP_SECONDS = 30;
+    private static final int SECRET_BYTES = 20;
+    private static final int[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    private static final char[] BASE32 = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567".toCharArray();
+
+    private final TotpCredentialRepositoryPort repository;
+    private final String issuer;
+    private final int allowedSkewSteps;
+    private final long cacheTtlNanos;
+    private final int maxEntries;
+    private final Clock clock;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Empty optionals are cached too: most users never enroll, and every login asks
+    private final ConcurrentHashMap<String, CachedCredential> credentials = new ConcurrentHashMap<>();
+    // Highest accepted step per user; an entry older than the skew window can no longer block anything
+    private final ConcurrentHashMap<String, Long> lastUsedSteps = new ConcurrentHashMap<>();
+
+    public TotpService(TotpCredentialRepositoryPort repository,
+                       String issuer,
+                       int allowedSkewSteps,
+                       Duration cacheTtl,
+                       int maxEntries,
+                       Clock clock) {
+        this.repository = repository;
+        this.issuer = issuer;
+        this.allowedSkewSteps = allowedSkewSteps;
+        this.cacheTtlNanos = cacheTtl.toNanos();
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    public boolean isEnrolled(String userId) {
+        return credential(userId).filter(TotpCredential::isConfirmed).isPresent();
+    }
+
+    /**
+     * Starts an enrollment with a fresh secret. A user who already has a confirmed authenticator must prove
+     * it with {@code currentCode}; its secret stays active until the new one is confirmed.
+     */
+    public TotpEnrollment beginEnrollment(String userId, String email, String currentCode) {
+        boolean enrolled = repository.findByUserId(userId).filter(TotpCredential::isConfirmed).isPresent();
+        if (enrolled) {
+            if (currentCode == null || currentCode.isBlank()) {
+                throw new AuthException("A code from the enrolled authenticator is required to replace it");
+            }
+            verify(userId, currentCode);
+        }
+
+        byte[] secret = new byte[SECRET_BYTES];
+        secureRandom.nextBytes(secret);
+        repository.savePending(userId, email, secret);
+
+        String encodedSecret = base32(secret);
+        return new TotpEnrollment(encodedSecret, otpauthUri(email, encodedSecret));
+    }
+
+    public void confirmEnrollment(String userId, String code) {
+        // Read through the cache: the pending secret was just written, possibly by another node
+        byte[] pendingSecret = repository.findByUserId(userId)
+                .filter(TotpCredential::hasPendingEnrollment)
+                .map(TotpCredential::getPendingSecret)
+                .orElseThrow(() -> new AuthException("No pending TOTP enrollment"));
+
+        long step = matchingStep(pendingSecret, code)
+                .orElseThrow(() -> new AuthException("Invalid TOTP code"));
+        if (!repository.confirm(userId, pendingSecret, step)) {
+            throw new AuthException("No pending TOTP enrollment");
+        }
+        lastUsedSteps.merge(userId, step, Math::max);
+        credentials.remove(userId);
+    }
+
+    /**
+     * Verifies a code for an enrolled user and returns the credential it matched.
+     */
+    public TotpCredential verify(String userId, String code) {
+        TotpCredential credential = credential(userId)
+                .filter(TotpCredential::isConfirmed)
+                .orElseThrow(() -> new AuthException("TOTP is not enrolled"));
+
+        long step = matchingStep(credential.getSecret(), code)
+                .orElseThrow(() -> new AuthException("Invalid TOTP code"));
+        // The in-memory record only rejects early; the conditional update decides
+        if (!advance(userId, step, credential.getLastUsedStep()) || !repository.advanceUsedStep(userId, step)) {
+            throw new AuthException("TOTP code already used");
+        }
+        return credential;
+    }
+
+    /**
+     * Checks the current step and {@code allowedSkewSteps} on either side. Every candidate is computed and
+     * compared in constant time, so the response time does not reveal which one matched.
+     */
+    Optional<Long> matchingStep(byte[] secret, String code) {
+        if (code == null || code.length() != DIGITS) {
+            return Optional.empty();
+        }
+        byte[] given = code.getBytes(StandardCharsets.US_ASCII);
+        long current = currentStep();
+
+        Long matched = null;
+        for (long step = current - allowedSkewSteps; step <= current + allowedSkewSteps; step++) {
+            byte[] expected = String.format("%0" + DIGITS + "d", generate(secret, step)).getBytes(StandardCharsets.US_ASCII);
+            if (MessageDigest.isEqual(expected, given) && matched == null) {
+                matched = step;
+            }
+        }
+        return Optional.ofNullable(matched);
+    }
+
+    static int generate(byte[] secret, long step) {
+        byte[] hash;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA1");
+            mac.init(new SecretKeySpec(secret, "HmacSHA1"));
+            hash = mac.doFinal(ByteBuffer.allocate(Long.BYTES).putLong(step).array());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA1 not available", ex);
+        }
+
+        // Dynamic truncation (RFC 4226 section 5.3)
+        int offset = hash[hash.length - 1] & 0x0f;
+        int binary = ((hash[offset] & 0x7f) << 24)
+                | ((hash[offset + 1] & 0xff) << 16)
+                | ((hash[offset + 2] & 0xff) << 8)
+                | (hash[offset + 3] & 0xff);
+        return binary % POWERS_OF_TEN[DIGITS];
+    }
+
+    private boolean advance(String userId, long step, long persistedStep) {
+        if (lastUsedSteps.size() >= maxEntries) {
+            long oldestUseful = currentStep() - allowedSkewSteps;
+            lastUsedSteps.values().removeIf(last -> last < oldestUseful);
+        }
+
+        boolean[] accepted = new boolean[1];
+        lastUsedSteps.compute(userId, (key, previous) -> {
+            long last = Math.max(previous != null ? previous : Long.MIN_VALUE, persistedStep);
+            if (step > last) {
+                accepted[0] = true;
+                return step;
+            }
+            return last;
+        });
+        return accepted[0];
+    }
+
+    private Optional<TotpCredential> credential(String userId) {
+        long now = System.nanoTime();
+        CachedCredential cached = credentials.get(userId);
+        if (cached != null && cached.expiresAtNanos() - now > 0) {
+            return cached.credential();
+        }
+
+        Optional<TotpCredential> loaded = repository.findByUserId(userId);
+        if (credentials.size() >= maxEntries && !credentials.containsKey(userId)) {
+            evict();
+        }
+        credentials.put(userId, new CachedCredential(loaded, now + cacheTtlNanos));
+        return loaded;
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        credentials.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+        if (credentials.size() < maxEntries) {
+            return;
+        }
+
+        // Still full of live entries: drop an arbitrary tenth rather than growing past the bound
+        int toDrop = Math.max(1, maxEntries / 10);
+        Iterator<String> keys = new ArrayList<>(credentials.keySet()).iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            credentials.remove(keys.next());
+        }
+    }
+
+    private long currentStep() {
+        return Math.floorDiv(clock.millis() / 1000, STEP_SECONDS);
+    }
+
+    private String otpauthUri(String email, String encodedSecret) {
+        String label = encode(issuer) + ":" + encode(email);
+        return "otpauth://totp/" + label
+                + "?secret=" + encodedSecret
+                + "&issuer=" + encode(issuer)
+                + "&algorithm=SHA1&digits=" + DIGITS + "&period=" + STEP_SECONDS;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    static String base32(byte[] data) {
+        StringBuilder out = new StringBuilder((data.length * 8 + 4) / 5);
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : data) {
+            buffer = (buffer << 8) | (b & 0xff);
+            bits += 8;
+            while (bits >= 5) {
+                out.append(BASE32[(buffer >> (bits - 5)) & 0x1f]);
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            out.append(BASE32[(buffer << (5 - bits)) & 0x1f]);
+        }
+        return out.toString();
+    }
+
+    private record CachedCredential(Optional<TotpCredential> credential, long expiresAtNanos) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.dnk.auth.application.usecase;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import com.dnk.auth.application.port.out.DeviceTokenPort;
+import com.dnk.auth.application.port.out.TrustedDeviceRegistryPort;
+import com.dnk.auth.domain.model.TrustedDevice;
+
+/**
+ * Devices that completed MFA can be remembered for {@code ttl}. The device token is signed, so forged or
+ * expired tokens are refused without a lookup; a genuine one is then checked against the registry for
+ * revocation and ownership.
+ */
+public class TrustedDeviceService {
+
+    private static final int MAX_LABEL_LENGTH = 255;
+
+    private final TrustedDeviceRegistryPort registry;
+    private final DeviceTokenPort deviceTokenPort;
+    private final Duration ttl;
+    private final Clock clock;
+
+    public TrustedDeviceService(TrustedDeviceRegistryPort registry,
+                                DeviceTokenPort deviceTokenPort,
+                                Duration ttl,
+                                Clock clock) {
+        this.registry = registry;
+        this.deviceTokenPort = deviceTokenPort;
+        this.ttl = ttl;
+        this.clock = clock;
+    }
+
+    public String trust(String userId, String label) {
+        Instant expiresAt = clock.instant().plus(ttl);
+        String trimmedLabel = label != null && label.length() > MAX_LABEL_LENGTH ? label.substring(0, MAX_LABEL_LENGTH) : label;
+
+        TrustedDevice device = registry.register(userId, trimmedLabel, expiresAt);
+        return deviceTokenPort.issue(device.getId(), expiresAt);
+    }
+
+    public boolean recognises(String deviceToken, String userId) {
+        if (deviceToken == null || deviceToken.isBlank()) {
+            return false;
+        }
+        Instant now = clock.instant();
+        return deviceTokenPort.verify(deviceToken, now)
+                .flatMap(registry::findById)
+                .filter(device -> device.isActive(now) && device.getUserId().equals(userId))
+                .isPresent();
+    }
+
+    public List<TrustedDevice> list(String userId) {
+        return registry.findActiveByUserId(userId, clock.instant());
+    }
+
+    public boolean revoke(String userId, UUID deviceId) {
+        return registry.revoke(userId, deviceId);
+    }
+}
@@ -1,56 +1,80 @@
 package com.dnk.auth.application.usecase;
 
 import java.time.Instant;
-import java.util.Optional;
 
 import com.dnk.auth.application.exception.AuthException;
 import com.dnk.auth.application.model.AuthTokens;
+import com.dnk.auth.application.model.UserRights;
 import com.dnk.auth.application.port.out.MfaOtpRepositoryPort;
-import com.dnk.auth.application.port.out.PasswordHashingPort;
 import com.dnk.auth.application.port.out.TokenProviderPort;
 import com.dnk.auth.domain.model.MfaOtp;
+import com.dnk.auth.domain.model.TotpCredential;
 
 import com.dnk.auth.infrastructure.persistence.UserRightsFetcher;
-import java.util.List;
 
 public class VerifyMfaOtpUseCase {
 
     private final MfaOtpRepositoryPort mfaOtpRepositoryPort;
     private final TokenProviderPort tokenProviderPort;
-    private final PasswordHashingPort passwordHashingPort;
     private final UserRightsFetcher userRightsFetcher;
+    private final TotpService totpService;
+    private final TrustedDeviceService trustedDeviceService;
 
     public VerifyMfaOtpUseCase(MfaOtpRepositoryPort mfaOtpRepositoryPort,
                                TokenProviderPort tokenProviderPort,
-                               PasswordHashingPort passwordHashingPort,
                                UserRightsFetcher userRightsFetcher) {
+        this(mfaOtpRepositoryPort, tokenProviderPort, userRightsFetcher, null, null);
+    }
+
+    public VerifyMfaOtpUseCase(MfaOtpRepositoryPort mfaOtpRepositoryPort,
+                               TokenProviderPort tokenProviderPort,
+                               UserRightsFetcher userRightsFetcher,
+                               TotpService totpService,
+                               TrustedDeviceService trustedDeviceService) {
         this.mfaOtpRepositoryPort = mfaOtpRepositoryPort;
         this.tokenProviderPort = tokenProviderPort;
-        this.passwordHashingPort = passwordHashingPort;
         this.userRightsFetcher = userRightsFetcher;
+        this.totpService = totpService;
+        this.trustedDeviceService = trustedDeviceService;
     }
 
     public AuthTokens execute(String userId, String otp) {
-        Instant now = Instant.now();
+        return execute(userId, otp, false, null);
+    }
 
-        Optional<MfaOtp> maybeMfaOtp = mfaOtpRepositoryPort.findValidByUserId(userId, now);
-        MfaOtp mfaOtp = maybeMfaOtp.orElseThrow(() -> new AuthException("Invalid or expired OTP"));
+    /**
+     * With {@code rememberDevice} (and trusted devices enabled) the response also carries a device token
+     * that lets later Google logins from this device skip MFA.
+     */
+    public AuthTokens execute(String userId, String otp, boolean rememberDevice, String deviceLabel) {
+        // The channel is chosen server-side: enrolled users must use their authenticator app
+        String email = totpService != null && totpService.isEnrolled(userId)
+                ? verifyTotp(userId, otp)
+                : verifyEmailOtp(userId, otp);
 
-        String hashedOtp = mfaOtp.getOtpHash();
-        if (hashedOtp == null || !passwordHashingPort.matches(otp, hashedOtp)) {
-            throw new AuthException("Invalid OTP");
-        }
+        UserRights rights = userRightsFetcher.getUserRights(userId);
 
-        mfaOtpRepositoryPort.markVerified(mfaOtp.getId(), now);
+        String accessToken = tokenProviderPort.generateAccessToken(userId, email, rights);
+        String refreshToken = tokenProviderPort.generateRefreshToken(userId, email, rights);
 
-        String email = mfaOtp.getEmail();
-        
-        List<String> roles = userRightsFetcher.getUserRoles(userId);
-        List<String> permissions = userRightsFetcher.getUserPermissions(userId);
+        String deviceToken = rememberDevice && trustedDeviceService != null
+                ? trustedDeviceService.trust(userId, deviceLabel)
+                : null;
 
-        String accessToken = tokenProviderPort.generateAccessToken(userId, email, roles, permissions);
-        String refreshToken = tokenProviderPort.generateRefreshToken(userId, email);
+        return new AuthTokens(accessToken, refreshToken, deviceToken);
+    }
+
+    private String verifyTotp(String userId, String code) {
+        TotpCredential credential = totpService.verify(userId, code);
+        return credential.getEmail();
+    }
+
+    private String verifyEmailOtp(String userId, String otp) {
+        Instant now = Instant.now();
 
-        return new AuthTokens(accessToken, refreshToken);
+        // Finds, checks and consumes the OTP in one step, so two concurrent verifies cannot both succeed
+        MfaOtp mfaOtp = mfaOtpRepositoryPort.consumeValid(userId, otp, now)
+                .orElseThrow(() -> new AuthException("Invalid or expired OTP"));
+        return mfaOtp.getEmail();
     }
 }
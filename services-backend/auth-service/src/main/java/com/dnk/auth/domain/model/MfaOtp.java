@@ -1,10 +1,13 @@
 package com.dnk.auth.domain.model;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.UUID;
 
 public class MfaOtp {
 
+    public static final Duration DEFAULT_EXPIRATION = Duration.ofMinutes(5);
+
     private final UUID id;
     private final String userId;
     private final String email;
@@ -12,6 +15,8 @@ public class MfaOtp {
     private final Instant expiresAt;
     private final Instant verifiedAt;
     private final Instant createdAt;
+    // When the email was sent or queued; null until then, and such an OTP is never reused by another login
+    private final Instant deliveredAt;
 
     public MfaOtp(UUID id,
                   String userId,
@@ -20,6 +25,17 @@ public class MfaOtp {
                   Instant expiresAt,
                   Instant verifiedAt,
                   Instant createdAt) {
+        this(id, userId, email, otpHash, expiresAt, verifiedAt, createdAt, null);
+    }
+
+    public MfaOtp(UUID id,
+                  String userId,
+                  String email,
+                  String otpHash,
+                  Instant expiresAt,
+                  Instant verifiedAt,
+                  Instant createdAt,
+                  Instant deliveredAt) {
         this.id = id;
         this.userId = userId;
         this.email = email;
@@ -27,6 +43,7 @@ public class MfaOtp {
         this.expiresAt = expiresAt;
         this.verifiedAt = verifiedAt;
         this.createdAt = createdAt;
+        this.deliveredAt = deliveredAt;
     }
 
     public UUID getId() {
@@ -56,4 +73,8 @@ public class MfaOtp {
     public Instant getCreatedAt() {
         return createdAt;
     }
+
+    public Instant getDeliveredAt() {
+        return deliveredAt;
+    }
 }
@@ -0,0 +1,68 @@
+package com.dnk.auth.domain.model;
+
+import java.time.Instant;
+
+public class TotpCredential {
+
+    private final String userId;
+    private final String email;
+    private final byte[] secret;
+    private final byte[] pendingSecret;
+    private final Instant confirmedAt;
+    private final long lastUsedStep;
+
+    public TotpCredential(String userId,
+                          String email,
+                          byte[] secret,
+                          Instant confirmedAt,
+                          long lastUsedStep) {
+        this(userId, email, secret, null, confirmedAt, lastUsedStep);
+    }
+
+    public TotpCredential(String userId,
+                          String email,
+                          byte[] secret,
+                          byte[] pendingSecret,
+                          Instant confirmedAt,
+                          long lastUsedStep) {
+        this.userId = userId;
+        this.email = email;
+        this.secret = secret;
+        this.pendingSecret = pendingSecret;
+        this.confirmedAt = confirmedAt;
+        this.lastUsedStep = lastUsedStep;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public byte[] getSecret() {
+        return secret;
+    }
+
+    /** Secret of an enrollment that has not been confirmed yet; the confirmed secret stays in use until then. */
+    public byte[] getPendingSecret() {
+        return pendingSecret;
+    }
+
+    public Instant getConfirmedAt() {
+        return confirmedAt;
+    }
+
+    public long getLastUsedStep() {
+        return lastUsedStep;
+    }
+
+    public boolean hasPendingEnrollment() {
+        return pendingSecret != null;
+    }
+
+    public boolean isConfirmed() {
+        return confirmedAt != null;
+    }
+}
@@ -0,0 +1,56 @@
+package com.dnk.auth.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public class TrustedDevice {
+
+    private final UUID id;
+    private final String userId;
+    private final String label;
+    private final Instant createdAt;
+    private final Instant expiresAt;
+    private final Instant revokedAt;
+
+    public TrustedDevice(UUID id,
+                         String userId,
+                         String label,
+                         Instant createdAt,
+                         Instant expiresAt,
+                         Instant revokedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.label = label;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public boolean isActive(Instant now) {
+        return revokedAt == null && expiresAt.isAfter(now);
+    }
+}
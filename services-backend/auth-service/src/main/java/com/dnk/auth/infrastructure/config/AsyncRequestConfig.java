@@ -0,0 +1,59 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.dnk.auth.infrastructure.persistence.BulkheadDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Login, verify and refresh run on virtual threads instead of holding a Tomcat worker for the whole
+ * Firebase, database and SMTP sequence. The database is the one resource that cannot grow with them,
+ * so the DataSource is wrapped in a bulkhead sized to the pool.
+ */
+@Configuration
+public class AsyncRequestConfig {
+
+    public static final String AUTH_REQUEST_EXECUTOR = "authRequestExecutor";
+
+    @Bean(name = AUTH_REQUEST_EXECUTOR, destroyMethod = "close")
+    public ExecutorService authRequestExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("auth-request-", 0).factory());
+    }
+
+    // Static, and lazy providers only, so this post-processor does not drag other beans in early
+    @Bean
+    public static BeanPostProcessor databaseBulkheadPostProcessor(ObjectProvider<DatabaseBulkheadProperties> properties,
+                                                                  ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+                    return bean;
+                }
+                DatabaseBulkheadProperties bulkhead = properties.getObject();
+                if (!bulkhead.isEnabled()) {
+                    return bean;
+                }
+                int maxConcurrent = bulkhead.getMaxConcurrent();
+                if (maxConcurrent == 0 && bean instanceof HikariDataSource hikari) {
+                    maxConcurrent = hikari.getMaximumPoolSize();
+                }
+                if (maxConcurrent <= 0) {
+                    return bean;
+                }
+                return new BulkheadDataSource(dataSource, maxConcurrent, bulkhead.getAcquireTimeout(),
+                        meterRegistry.getObject());
+            }
+        };
+    }
+}
@@ -0,0 +1,47 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.login")
+public class AuthLoginProperties {
+
+    // Run the role bootstrap and the OTP issue/send side by side on virtual threads
+    private boolean parallel;
+    private Duration rolesTimeout = Duration.ofSeconds(3);
+    // Covers invalidate + save + email, so it must exceed the SMTP timeouts
+    private Duration otpTimeout = Duration.ofSeconds(15);
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public Duration getRolesTimeout() {
+        return rolesTimeout;
+    }
+
+    public void setRolesTimeout(Duration rolesTimeout) {
+        if (rolesTimeout.isNegative() || rolesTimeout.isZero()) {
+            throw new IllegalArgumentException("Login roles timeout must be positive");
+        }
+        this.rolesTimeout = rolesTimeout;
+    }
+
+    public Duration getOtpTimeout() {
+        return otpTimeout;
+    }
+
+    public void setOtpTimeout(Duration otpTimeout) {
+        if (otpTimeout.isNegative() || otpTimeout.isZero()) {
+            throw new IllegalArgumentException("Login OTP timeout must be positive");
+        }
+        this.otpTimeout = otpTimeout;
+    }
+}
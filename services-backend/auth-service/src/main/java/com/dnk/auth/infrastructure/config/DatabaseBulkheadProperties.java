@@ -0,0 +1,47 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.db.bulkhead")
+public class DatabaseBulkheadProperties {
+
+    private boolean enabled = true;
+    // Concurrent connections handed out; 0 means the Hikari maximum pool size
+    private int maxConcurrent;
+    // How long a request waits for a slot before failing with 503, well below the Hikari connection timeout
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public void setMaxConcurrent(int maxConcurrent) {
+        if (maxConcurrent < 0) {
+            throw new IllegalArgumentException("Database bulkhead max concurrent must not be negative");
+        }
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public Duration getAcquireTimeout() {
+        return acquireTimeout;
+    }
+
+    public void setAcquireTimeout(Duration acquireTimeout) {
+        if (acquireTimeout.isNegative() || acquireTimeout.isZero()) {
+            throw new IllegalArgumentException("Database bulkhead acquire timeout must be positive");
+        }
+        this.acquireTimeout = acquireTimeout;
+    }
+}
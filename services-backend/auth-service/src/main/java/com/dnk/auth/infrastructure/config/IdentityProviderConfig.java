@@ -0,0 +1,39 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Clock;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import com.dnk.auth.application.port.out.IdentityProviderPort;
+import com.dnk.auth.infrastructure.firebase.CachingIdentityProvider;
+import com.dnk.auth.infrastructure.firebase.FirebaseIdentityProvider;
+import com.dnk.auth.infrastructure.firebase.ResilientIdentityProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Wraps the Firebase adapter in the optional decorators; use cases receive the outermost one.
+ * The cache sits outside so hits and coalesced calls never reach the deadline/hedging layer.
+ */
+@Configuration
+public class IdentityProviderConfig {
+
+    @Bean
+    @Primary
+    public IdentityProviderPort identityProviderPort(FirebaseIdentityProvider firebaseIdentityProvider,
+                                                     IdentityCacheProperties cacheProperties,
+                                                     IdentityResilienceProperties resilienceProperties,
+                                                     MeterRegistry meterRegistry) {
+        IdentityProviderPort provider = firebaseIdentityProvider;
+        if (resilienceProperties.isEnabled()) {
+            provider = new ResilientIdentityProvider(provider, resilienceProperties, meterRegistry);
+        }
+        if (cacheProperties.isEnabled()) {
+            provider = new CachingIdentityProvider(provider, cacheProperties.getMaxEntries(), meterRegistry,
+                    Clock.systemUTC());
+        }
+        return provider;
+    }
+}
@@ -10,6 +10,8 @@ public class JwtProperties {
     private String secret;
     private String issuer;
     private long expiration;
+    // Send known permissions as a dictionary bitmask (pv + pbm claims) instead of a string array
+    private boolean compactPermissions;
 
     public String getSecret() {
         return secret;
@@ -43,4 +45,12 @@ public class JwtProperties {
         }
         this.expiration = expiration;
     }
+
+    public boolean isCompactPermissions() {
+        return compactPermissions;
+    }
+
+    public void setCompactPermissions(boolean compactPermissions) {
+        this.compactPermissions = compactPermissions;
+    }
 }
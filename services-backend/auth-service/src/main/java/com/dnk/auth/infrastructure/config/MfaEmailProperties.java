@@ -0,0 +1,188 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "mfa.email")
+public class MfaEmailProperties {
+
+    // "simple" (one SMTP connection per message, default) or "pooled"
+    private String transport = "simple";
+    private final Outbox outbox = new Outbox();
+    private final Pool pool = new Pool();
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public void setTransport(String transport) {
+        this.transport = transport;
+    }
+
+    public Outbox getOutbox() {
+        return outbox;
+    }
+
+    public Pool getPool() {
+        return pool;
+    }
+
+    public static class Outbox {
+
+        private boolean enabled;
+        private Duration pollInterval = Duration.ofSeconds(1);
+        private int batchSize = 20;
+        private int maxConcurrency = 4;
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofSeconds(2);
+        private Duration maxBackoff = Duration.ofMinutes(1);
+        // Claimed rows become due again after this, in case the dispatcher dies mid-send
+        private Duration claimLease = Duration.ofSeconds(30);
+        // Codes older than this are past the OTP expiration and are dropped instead of sent
+        private Duration maxAge = Duration.ofMinutes(5);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Outbox batch size must be positive");
+            }
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxConcurrency() {
+            return maxConcurrency;
+        }
+
+        public void setMaxConcurrency(int maxConcurrency) {
+            if (maxConcurrency <= 0) {
+                throw new IllegalArgumentException("Outbox max concurrency must be positive");
+            }
+            this.maxConcurrency = maxConcurrency;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            if (maxAttempts <= 0) {
+                throw new IllegalArgumentException("Outbox max attempts must be positive");
+            }
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getClaimLease() {
+            return claimLease;
+        }
+
+        public void setClaimLease(Duration claimLease) {
+            this.claimLease = claimLease;
+        }
+
+        public Duration getMaxAge() {
+            return maxAge;
+        }
+
+        public void setMaxAge(Duration maxAge) {
+            this.maxAge = maxAge;
+        }
+    }
+
+    public static class Pool {
+
+        private int size = 2;
+        private int batchSize = 10;
+        // Emails waiting for a connection beyond this are refused instead of queueing without bound
+        private int queueCapacity = 100;
+        // Connections idle longer than this are closed instead of being kept open with the provider
+        private Duration idleTimeout = Duration.ofSeconds(60);
+        private Duration sendTimeout = Duration.ofSeconds(15);
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            if (size <= 0) {
+                throw new IllegalArgumentException("SMTP pool size must be positive");
+            }
+            this.size = size;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("SMTP batch size must be positive");
+            }
+            this.batchSize = batchSize;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("SMTP pool queue capacity must be positive");
+            }
+            this.queueCapacity = queueCapacity;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public Duration getSendTimeout() {
+            return sendTimeout;
+        }
+
+        public void setSendTimeout(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+    }
+}
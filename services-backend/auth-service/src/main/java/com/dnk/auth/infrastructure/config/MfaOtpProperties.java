@@ -0,0 +1,142 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import com.dnk.auth.domain.model.MfaOtp;
+
+@Configuration
+@ConfigurationProperties(prefix = "mfa.otp")
+public class MfaOtpProperties {
+
+    // "bcrypt" (default) or "hmac"
+    private String hashing = "bcrypt";
+    private String hmacSecret;
+    // "database" (default) or "memory"
+    private String store = "database";
+    private int maxEntries = 100_000;
+    // Repeated logins within this window reuse the pending OTP instead of issuing and mailing a new one
+    private Duration coalesceWindow = Duration.ofSeconds(30);
+    private final Purge purge = new Purge();
+
+    public String getHashing() {
+        return hashing;
+    }
+
+    public void setHashing(String hashing) {
+        this.hashing = hashing;
+    }
+
+    public String getHmacSecret() {
+        return hmacSecret;
+    }
+
+    public void setHmacSecret(String hmacSecret) {
+        this.hmacSecret = hmacSecret;
+    }
+
+    public String getStore() {
+        return store;
+    }
+
+    public void setStore(String store) {
+        this.store = store;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("OTP store max entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getCoalesceWindow() {
+        return coalesceWindow;
+    }
+
+    public void setCoalesceWindow(Duration coalesceWindow) {
+        if (coalesceWindow.isNegative() || coalesceWindow.compareTo(MfaOtp.DEFAULT_EXPIRATION) >= 0) {
+            throw new IllegalArgumentException("OTP coalesce window must be between zero and the OTP lifetime");
+        }
+        this.coalesceWindow = coalesceWindow;
+    }
+
+    public Purge getPurge() {
+        return purge;
+    }
+
+    public static class Purge {
+
+        private boolean enabled = true;
+        // "delete" (keyset-batched row deletes, default) or "partition" (drop daily partitions)
+        private String mode = "delete";
+        private Duration interval = Duration.ofMinutes(5);
+        private int batchSize = 500;
+        // Partition mode: whole days (and DEFAULT-partition rows) older than this are removed; must exceed the OTP lifetime
+        private Duration retention = Duration.ofHours(1);
+        private int partitionsAhead = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(String mode) {
+            this.mode = mode;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("OTP purge batch size must be positive");
+            }
+            this.batchSize = batchSize;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            if (retention.compareTo(MfaOtp.DEFAULT_EXPIRATION) <= 0) {
+                throw new IllegalArgumentException("OTP purge retention must be longer than the OTP lifetime");
+            }
+            this.retention = retention;
+        }
+
+        public int getPartitionsAhead() {
+            return partitionsAhead;
+        }
+
+        public void setPartitionsAhead(int partitionsAhead) {
+            if (partitionsAhead < 1) {
+                throw new IllegalArgumentException("OTP purge must create at least one partition ahead");
+            }
+            this.partitionsAhead = partitionsAhead;
+        }
+    }
+}
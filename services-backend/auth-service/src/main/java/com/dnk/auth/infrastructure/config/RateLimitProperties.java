@@ -0,0 +1,112 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    // Bound on live buckets; idle (fully refilled) buckets are dropped first since they hold no state
+    private int maxEntries = 100_000;
+    private final Endpoint login = new Endpoint(new Limit(20, Duration.ofMinutes(1)), new Limit());
+    private final Endpoint verify = new Endpoint(new Limit(20, Duration.ofMinutes(1)), new Limit(5, Duration.ofMinutes(1)));
+    private final Endpoint refresh = new Endpoint(new Limit(30, Duration.ofMinutes(1)), new Limit());
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Rate limiter max entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public Endpoint getLogin() {
+        return login;
+    }
+
+    public Endpoint getVerify() {
+        return verify;
+    }
+
+    public Endpoint getRefresh() {
+        return refresh;
+    }
+
+    public static class Endpoint {
+
+        private final Limit ip;
+        private final Limit user;
+
+        public Endpoint(Limit ip, Limit user) {
+            this.ip = ip;
+            this.user = user;
+        }
+
+        public Limit getIp() {
+            return ip;
+        }
+
+        public Limit getUser() {
+            return user;
+        }
+    }
+
+    /**
+     * Up to {@code capacity} requests at once, refilled evenly over {@code period}. A capacity of 0
+     * turns the limit off.
+     */
+    public static class Limit {
+
+        private int capacity;
+        private Duration period = Duration.ofMinutes(1);
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, Duration period) {
+            this.capacity = capacity;
+            this.period = period;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            if (capacity < 0) {
+                throw new IllegalArgumentException("Rate limit capacity must not be negative");
+            }
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            if (period.isNegative() || period.isZero()) {
+                throw new IllegalArgumentException("Rate limit period must be positive");
+            }
+            this.period = period;
+        }
+
+        public boolean isEnabled() {
+            return capacity > 0;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.rights.cache")
+public class RightsCacheProperties {
+
+    private boolean enabled = true;
+    // Upper bound on how stale rights changed directly in iam-service can be in issued tokens
+    private Duration ttl = Duration.ofSeconds(60);
+    private int maxEntries = 10_000;
+    // How long the global rights version is reused before it is read again
+    private Duration versionTtl = Duration.ofSeconds(1);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Rights cache TTL must be positive");
+        }
+        this.ttl = ttl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Rights cache max entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    public Duration getVersionTtl() {
+        return versionTtl;
+    }
+
+    public void setVersionTtl(Duration versionTtl) {
+        if (versionTtl.isNegative()) {
+            throw new IllegalArgumentException("Rights version TTL must not be negative");
+        }
+        this.versionTtl = versionTtl;
+    }
+}
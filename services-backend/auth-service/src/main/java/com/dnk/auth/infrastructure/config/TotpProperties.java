@@ -0,0 +1,75 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "mfa.totp")
+public class TotpProperties {
+
+    private boolean enabled;
+    // Secrets are stored AES-GCM encrypted under a key derived from this value (32+ chars)
+    private String encryptionKey;
+    // Shown by authenticator apps next to the account
+    private String issuer = "SpaceDNK";
+    // Steps accepted on either side of the current one, to absorb phone clock drift
+    private int allowedSkewSteps = 1;
+    private Duration cacheTtl = Duration.ofMinutes(5);
+    private int maxEntries = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getEncryptionKey() {
+        return encryptionKey;
+    }
+
+    public void setEncryptionKey(String encryptionKey) {
+        this.encryptionKey = encryptionKey;
+    }
+
+    public String getIssuer() {
+        return issuer;
+    }
+
+    public void setIssuer(String issuer) {
+        this.issuer = issuer;
+    }
+
+    public int getAllowedSkewSteps() {
+        return allowedSkewSteps;
+    }
+
+    public void setAllowedSkewSteps(int allowedSkewSteps) {
+        if (allowedSkewSteps < 0 || allowedSkewSteps > 2) {
+            throw new IllegalArgumentException("TOTP allowed skew must be between 0 and 2 steps");
+        }
+        this.allowedSkewSteps = allowedSkewSteps;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    public void setCacheTtl(Duration cacheTtl) {
+        this.cacheTtl = cacheTtl;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("TOTP max entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+}
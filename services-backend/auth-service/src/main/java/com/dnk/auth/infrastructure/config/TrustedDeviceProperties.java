@@ -0,0 +1,56 @@
+package com.dnk.auth.infrastructure.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.device")
+public class TrustedDeviceProperties {
+
+    private boolean enabled;
+    // How long a device stays trusted after a successful MFA
+    private Duration ttl = Duration.ofDays(30);
+    // How often each node pulls revocations made on other nodes into its index
+    private Duration syncInterval = Duration.ofSeconds(30);
+    private int maxEntries = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Trusted device TTL must be positive");
+        }
+        this.ttl = ttl;
+    }
+
+    public Duration getSyncInterval() {
+        return syncInterval;
+    }
+
+    public void setSyncInterval(Duration syncInterval) {
+        this.syncInterval = syncInterval;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Trusted device max entries must be positive");
+        }
+        this.maxEntries = maxEntries;
+    }
+}
@@ -1,16 +1,29 @@
 package com.dnk.auth.infrastructure.config;
 
+import java.time.Clock;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.dnk.auth.application.port.out.DeviceTokenPort;
 import com.dnk.auth.application.port.out.EmailSenderPort;
 import com.dnk.auth.application.port.out.IdentityProviderPort;
+import com.dnk.auth.application.port.out.LoginMetricsPort;
 import com.dnk.auth.application.port.out.MfaOtpRepositoryPort;
-import com.dnk.auth.application.port.out.PasswordHashingPort;
+import com.dnk.auth.application.port.out.OtpEmailOutboxPort;
 import com.dnk.auth.application.port.out.TokenProviderPort;
+import com.dnk.auth.application.port.out.TotpCredentialRepositoryPort;
+import com.dnk.auth.application.port.out.TransactionPort;
+import com.dnk.auth.application.port.out.TrustedDeviceRegistryPort;
 import com.dnk.auth.application.service.JwtService;
 import com.dnk.auth.application.usecase.EmailOtpService;
+import com.dnk.auth.application.usecase.EnrollTotpUseCase;
 import com.dnk.auth.application.usecase.GoogleLoginUseCase;
+import com.dnk.auth.application.usecase.ManageTrustedDevicesUseCase;
+import com.dnk.auth.application.usecase.TotpService;
+import com.dnk.auth.application.usecase.TrustedDeviceService;
 import com.dnk.auth.application.usecase.VerifyMfaOtpUseCase;
 
 import com.dnk.auth.infrastructure.persistence.UserRightsFetcher;
@@ -21,24 +34,68 @@ import com.dnk.auth.application.usecase.RefreshSessionUseCase;
 public class UseCaseConfig {
 
     @Bean
-    public EmailOtpService emailOtpService(EmailSenderPort emailSenderPort) {
-        return new EmailOtpService(emailSenderPort);
+    public EmailOtpService emailOtpService(EmailSenderPort emailSenderPort,
+                                           ObjectProvider<OtpEmailOutboxPort> otpEmailOutboxPort) {
+        return new EmailOtpService(emailSenderPort, otpEmailOutboxPort.getIfAvailable());
     }
 
     @Bean
     public GoogleLoginUseCase googleLoginUseCase(IdentityProviderPort identityProviderPort,
                                                  MfaOtpRepositoryPort mfaOtpRepositoryPort,
                                                  EmailOtpService emailOtpService,
-                                                 UserRightsFetcher userRightsFetcher) {
-        return new GoogleLoginUseCase(identityProviderPort, mfaOtpRepositoryPort, emailOtpService, userRightsFetcher);
+                                                 TransactionPort transactionPort,
+                                                 UserRightsFetcher userRightsFetcher,
+                                                 LoginMetricsPort loginMetricsPort,
+                                                 AuthLoginProperties authLoginProperties,
+                                                 MfaOtpProperties mfaOtpProperties,
+                                                 ObjectProvider<TotpService> totpService,
+                                                 TokenProviderPort tokenProviderPort,
+                                                 ObjectProvider<TrustedDeviceService> trustedDeviceService) {
+        return new GoogleLoginUseCase(identityProviderPort, mfaOtpRepositoryPort, emailOtpService, transactionPort,
+                userRightsFetcher, loginMetricsPort, authLoginProperties.isParallel(),
+                authLoginProperties.getRolesTimeout(), authLoginProperties.getOtpTimeout(),
+                mfaOtpProperties.getCoalesceWindow(), totpService.getIfAvailable(),
+                tokenProviderPort, trustedDeviceService.getIfAvailable());
     }
 
     @Bean
     public VerifyMfaOtpUseCase verifyMfaOtpUseCase(MfaOtpRepositoryPort mfaOtpRepositoryPort,
                                                    TokenProviderPort tokenProviderPort,
-                                                   PasswordHashingPort passwordHashingPort,
-                                                   UserRightsFetcher userRightsFetcher) {
-        return new VerifyMfaOtpUseCase(mfaOtpRepositoryPort, tokenProviderPort, passwordHashingPort, userRightsFetcher);
+                                                   UserRightsFetcher userRightsFetcher,
+                                                   ObjectProvider<TotpService> totpService,
+                                                   ObjectProvider<TrustedDeviceService> trustedDeviceService) {
+        return new VerifyMfaOtpUseCase(mfaOtpRepositoryPort, tokenProviderPort, userRightsFetcher,
+                totpService.getIfAvailable(), trustedDeviceService.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mfa.totp.enabled", havingValue = "true")
+    public TotpService totpService(TotpCredentialRepositoryPort totpCredentialRepositoryPort,
+                                   TotpProperties totpProperties) {
+        return new TotpService(totpCredentialRepositoryPort, totpProperties.getIssuer(),
+                totpProperties.getAllowedSkewSteps(), totpProperties.getCacheTtl(), totpProperties.getMaxEntries(),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "mfa.totp.enabled", havingValue = "true")
+    public EnrollTotpUseCase enrollTotpUseCase(TotpService totpService) {
+        return new EnrollTotpUseCase(totpService);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.device.enabled", havingValue = "true")
+    public TrustedDeviceService trustedDeviceService(TrustedDeviceRegistryPort trustedDeviceRegistryPort,
+                                                     DeviceTokenPort deviceTokenPort,
+                                                     TrustedDeviceProperties trustedDeviceProperties) {
+        return new TrustedDeviceService(trustedDeviceRegistryPort, deviceTokenPort, trustedDeviceProperties.getTtl(),
+                Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.device.enabled", havingValue = "true")
+    public ManageTrustedDevicesUseCase manageTrustedDevicesUseCase(TrustedDeviceService trustedDeviceService) {
+        return new ManageTrustedDevicesUseCase(trustedDeviceService);
     }
 
     @Bean
@@ -48,7 +105,8 @@ public class UseCaseConfig {
 
     @Bean
     public RefreshSessionUseCase refreshSessionUseCase(TokenProviderPort tokenProviderPort,
-                                                       UserRightsFetcher userRightsFetcher) {
-        return new RefreshSessionUseCase(tokenProviderPort, userRightsFetcher);
+                                                       UserRightsFetcher userRightsFetcher,
+                                                       LoginMetricsPort loginMetricsPort) {
+        return new RefreshSessionUseCase(tokenProviderPort, userRightsFetcher, loginMetricsPort);
     }
 }
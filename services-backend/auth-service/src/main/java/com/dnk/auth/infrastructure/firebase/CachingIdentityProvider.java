@@ -0,0 +1,156 @@
+package com.dnk.auth.infrastructure.firebase;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.dnk.auth.application.model.VerifiedIdentity;
+import com.dnk.auth.application.port.out.IdentityProviderPort;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers verified ID tokens until their own {@code exp}, so frontend retries and double submits of the
+ * same token skip the provider. Keys are SHA-256 digests, never the token itself. Concurrent verifications
+ * of one token share a single in-flight call; failures are not cached.
+ */
+public class CachingIdentityProvider implements IdentityProviderPort {
+
+    private final IdentityProviderPort delegate;
+    private final int maxEntries;
+    private final Clock clock;
+    private final ConcurrentHashMap<String, CompletableFuture<VerifiedIdentity>> entries = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter coalesced;
+
+    public CachingIdentityProvider(IdentityProviderPort delegate, int maxEntries, MeterRegistry meterRegistry, Clock clock) {
+        this.delegate = delegate;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+
+        this.hits = resultCounter(meterRegistry, "hit");
+        this.misses = resultCounter(meterRegistry, "miss");
+        this.coalesced = resultCounter(meterRegistry, "coalesced");
+        Gauge.builder("auth.identity.cache.hit.ratio", this, CachingIdentityProvider::hitRatio)
+                .description("Share of ID token verifications served without calling the provider")
+                .register(meterRegistry);
+        Gauge.builder("auth.identity.cache.entries", entries, ConcurrentHashMap::size)
+                .description("Verified ID tokens held in the cache")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public VerifiedIdentity verifyIdToken(String idToken) {
+        if (idToken == null) {
+            return delegate.verifyIdToken(idToken);
+        }
+        String key = digest(idToken);
+
+        CompletableFuture<VerifiedIdentity> existing = entries.get(key);
+        if (existing != null) {
+            if (!existing.isDone()) {
+                coalesced.increment();
+                return join(existing);
+            }
+            VerifiedIdentity cached = existing.getNow(null);
+            if (cached != null && isLive(cached)) {
+                hits.increment();
+                return cached;
+            }
+            entries.remove(key, existing);
+        }
+
+        if (entries.size() >= maxEntries) {
+            evict();
+        }
+
+        CompletableFuture<VerifiedIdentity> mine = new CompletableFuture<>();
+        CompletableFuture<VerifiedIdentity> winner = entries.putIfAbsent(key, mine);
+        if (winner != null) {
+            // Another thread started (or finished) the same verification first
+            coalesced.increment();
+            return join(winner);
+        }
+
+        misses.increment();
+        try {
+            VerifiedIdentity identity = delegate.verifyIdToken(idToken);
+            mine.complete(identity);
+            if (!isLive(identity)) {
+                entries.remove(key, mine);
+            }
+            return identity;
+        } catch (RuntimeException ex) {
+            entries.remove(key, mine);
+            mine.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    private boolean isLive(VerifiedIdentity identity) {
+        Instant expiresAt = identity.expiresAt();
+        return expiresAt != null && expiresAt.isAfter(clock.instant());
+    }
+
+    private void evict() {
+        entries.entrySet().removeIf(entry -> {
+            VerifiedIdentity identity = entry.getValue().getNow(null);
+            return entry.getValue().isDone() && (identity == null || !isLive(identity));
+        });
+        if (entries.size() < maxEntries) {
+            return;
+        }
+
+        // Still full of live tokens: drop an arbitrary tenth rather than growing past the bound
+        int toDrop = Math.max(1, maxEntries / 10);
+        Iterator<String> keys = new ArrayList<>(entries.keySet()).iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            entries.remove(keys.next());
+        }
+    }
+
+    private double hitRatio() {
+        double served = hits.count() + coalesced.count();
+        double total = served + misses.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    private static VerifiedIdentity join(CompletableFuture<VerifiedIdentity> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw ex;
+        }
+    }
+
+    private static String digest(String idToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(idToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static Counter resultCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("auth.identity.cache")
+                .tag("result", result)
+                .description("ID token verifications by cache outcome")
+                .register(meterRegistry);
+    }
+}
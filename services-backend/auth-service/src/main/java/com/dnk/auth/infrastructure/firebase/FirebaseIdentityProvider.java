@@ -1,5 +1,7 @@
 package com.dnk.auth.infrastructure.firebase;
 
+import java.time.Instant;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -30,8 +32,10 @@ public class FirebaseIdentityProvider implements IdentityProviderPort {
             String providerUserId = decodedToken.getUid();
             String email = decodedToken.getEmail();
             boolean emailVerified = decodedToken.isEmailVerified();
+            Object exp = decodedToken.getClaims().get("exp");
+            Instant expiresAt = exp instanceof Number seconds ? Instant.ofEpochSecond(seconds.longValue()) : null;
 
-            return new VerifiedIdentity(providerUserId, email, emailVerified);
+            return new VerifiedIdentity(providerUserId, email, emailVerified, expiresAt);
         } catch (FirebaseAuthException | IllegalArgumentException ex) {
             log.warn("Invalid Firebase ID token", ex);
             throw new AuthException("Invalid Firebase ID token", ex);
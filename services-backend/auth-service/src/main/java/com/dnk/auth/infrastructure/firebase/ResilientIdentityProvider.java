@@ -0,0 +1,229 @@
+package com.dnk.auth.infrastructure.firebase;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.exception.ServiceUnavailableException;
+import com.dnk.auth.application.model.VerifiedIdentity;
+import com.dnk.auth.application.port.out.IdentityProviderPort;
+import com.dnk.auth.infrastructure.config.IdentityResilienceProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bounds identity verification in time. Each call runs on a virtual thread and the caller waits at most
+ * {@code timeout}; if the first attempt is slower than the configured percentile of recent latencies, a
+ * second (hedged) attempt starts and the first to succeed wins. Consecutive provider failures or timeouts
+ * open a circuit breaker that fails fast, then lets a single half-open probe through after {@code openDuration}.
+ * Rejected tokens ({@link AuthException}) are answers, not failures: they are neither hedged nor counted.
+ * An abandoned attempt is left to finish on its virtual thread, which costs no platform thread.
+ */
+public class ResilientIdentityProvider implements IdentityProviderPort {
+
+    private static final Logger log = LoggerFactory.getLogger(ResilientIdentityProvider.class);
+
+    private static final int SAMPLE_SIZE = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final IdentityProviderPort delegate;
+    private final long timeoutNanos;
+    private final double hedgePercentile;
+    private final long minHedgeDelayNanos;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final long[] samples = new long[SAMPLE_SIZE];
+    private int sampleCount;
+    private volatile long hedgeDelayNanos;
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final AtomicLong openedAtNanos = new AtomicLong();
+
+    private final Timer attemptLatency;
+    private final Counter hedges;
+    private final Counter timeouts;
+    private final Counter rejections;
+
+    public ResilientIdentityProvider(IdentityProviderPort delegate,
+                                     IdentityResilienceProperties properties,
+                                     MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.timeoutNanos = properties.getTimeout().toNanos();
+        this.hedgePercentile = properties.getHedgePercentile();
+        this.minHedgeDelayNanos = properties.getMinHedgeDelay().toNanos();
+        this.failureThreshold = properties.getFailureThreshold();
+        this.openDurationNanos = properties.getOpenDuration().toNanos();
+        this.hedgeDelayNanos = minHedgeDelayNanos;
+
+        this.attemptLatency = Timer.builder("auth.identity.provider.latency")
+                .description("Latency of single identity provider verification attempts")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .maximumExpectedValue(properties.getTimeout())
+                .register(meterRegistry);
+        this.hedges = Counter.builder("auth.identity.provider.hedges")
+                .description("Hedged second verification attempts started")
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("auth.identity.provider.timeouts")
+                .description("Verifications abandoned at the deadline")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("auth.identity.provider.circuit.rejections")
+                .description("Verifications rejected while the circuit breaker was open")
+                .register(meterRegistry);
+        Gauge.builder("auth.identity.provider.circuit.state", state, s -> s.get().ordinal())
+                .description("Circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public VerifiedIdentity verifyIdToken(String idToken) {
+        boolean probe = acquirePermission();
+        long deadline = System.nanoTime() + timeoutNanos;
+
+        CompletableFuture<VerifiedIdentity> first = attempt(idToken);
+        CompletableFuture<VerifiedIdentity> second = null;
+        try {
+            VerifiedIdentity identity;
+            if (probe) {
+                // Half-open probes are never hedged: the point is to test the provider with one call, given the full timeout
+                identity = first.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } else {
+                try {
+                    identity = first.get(Math.min(hedgeDelayNanos, timeoutNanos), TimeUnit.NANOSECONDS);
+                } catch (TimeoutException slow) {
+                    if (System.nanoTime() >= deadline) {
+                        throw slow;
+                    }
+                    hedges.increment();
+                    second = attempt(idToken);
+                    identity = firstSuccess(first, second).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                }
+            }
+            onSuccess();
+            return identity;
+        } catch (TimeoutException ex) {
+            timeouts.increment();
+            onFailure(probe);
+            throw new ServiceUnavailableException("Identity provider timed out", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause() instanceof CompletionException wrapped ? wrapped.getCause() : ex.getCause();
+            if (cause instanceof AuthException authException) {
+                onSuccess();
+                throw authException;
+            }
+            onFailure(probe);
+            throw new ServiceUnavailableException("Identity provider failed", cause);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            if (probe) {
+                onFailure(true);
+            }
+            throw new ServiceUnavailableException("Interrupted while verifying identity", ex);
+        } finally {
+            first.cancel(true);
+            if (second != null) {
+                second.cancel(true);
+            }
+        }
+    }
+
+    private CompletableFuture<VerifiedIdentity> attempt(String idToken) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            VerifiedIdentity identity = delegate.verifyIdToken(idToken);
+            long elapsed = System.nanoTime() - start;
+            attemptLatency.record(elapsed, TimeUnit.NANOSECONDS);
+            recordSample(elapsed);
+            return identity;
+        }, executor);
+    }
+
+    /**
+     * Completes with the first successful result; a rejected token wins immediately, and the future only
+     * fails once both attempts have failed.
+     */
+    private static CompletableFuture<VerifiedIdentity> firstSuccess(CompletableFuture<VerifiedIdentity> a,
+                                                                   CompletableFuture<VerifiedIdentity> b) {
+        CompletableFuture<VerifiedIdentity> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<VerifiedIdentity> attempt : List.of(a, b)) {
+            attempt.whenComplete((identity, error) -> {
+                if (error == null) {
+                    result.complete(identity);
+                } else if (unwrap(error) instanceof AuthException || failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(unwrap(error));
+                }
+            });
+        }
+        return result;
+    }
+
+    private boolean acquirePermission() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return false;
+        }
+        if (current == State.OPEN
+                && System.nanoTime() - openedAtNanos.get() >= openDurationNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN)) {
+            log.info("Identity provider circuit half-open, sending probe");
+            return true;
+        }
+        rejections.increment();
+        throw new ServiceUnavailableException("Identity provider temporarily unavailable");
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Identity provider circuit closed");
+        }
+    }
+
+    private void onFailure(boolean probe) {
+        if (probe || consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            openedAtNanos.set(System.nanoTime());
+            if (state.getAndSet(State.OPEN) != State.OPEN) {
+                log.warn("Identity provider circuit opened for {} ms", Duration.ofNanos(openDurationNanos).toMillis());
+            }
+        }
+    }
+
+    private synchronized void recordSample(long nanos) {
+        samples[sampleCount % SAMPLE_SIZE] = nanos;
+        sampleCount++;
+        if (sampleCount >= MIN_SAMPLES && sampleCount % RECOMPUTE_EVERY == 0) {
+            long[] window = Arrays.copyOf(samples, Math.min(sampleCount, SAMPLE_SIZE));
+            Arrays.sort(window);
+            long percentile = window[(int) Math.min(window.length - 1, Math.ceil(hedgePercentile * window.length) - 1)];
+            hedgeDelayNanos = Math.max(minHedgeDelayNanos, percentile);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
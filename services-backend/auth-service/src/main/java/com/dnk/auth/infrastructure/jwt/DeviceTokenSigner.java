@@ -0,0 +1,75 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.application.port.out.DeviceTokenPort;
+import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.dnk.auth.infrastructure.security.KeyedHmacSha256;
+
+/**
+ * Compact device tokens: {@code base64url(deviceId || exp) "." base64url(HMAC-SHA256)}. Deliberately not a
+ * JWT, so a device token can never be mistaken for an access or refresh token. The MAC key is derived from
+ * the JWT secret with a fixed label, keeping the two keys distinct without another secret to manage.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.device.enabled", havingValue = "true")
+public class DeviceTokenSigner implements DeviceTokenPort {
+
+    private static final byte[] KEY_LABEL = "trusted-device-token-v1".getBytes(StandardCharsets.US_ASCII);
+    // 16-byte device id followed by the 8-byte expiry in epoch seconds
+    private static final int BODY_BYTES = 3 * Long.BYTES;
+
+    private final KeyedHmacSha256 hmac;
+
+    public DeviceTokenSigner(JwtProperties jwtProperties) {
+        byte[] jwtSecret = jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8);
+        this.hmac = new KeyedHmacSha256(new KeyedHmacSha256(jwtSecret).doFinal(KEY_LABEL));
+    }
+
+    @Override
+    public String issue(UUID deviceId, Instant expiresAt) {
+        byte[] body = ByteBuffer.allocate(BODY_BYTES)
+                .putLong(deviceId.getMostSignificantBits())
+                .putLong(deviceId.getLeastSignificantBits())
+                .putLong(expiresAt.getEpochSecond())
+                .array();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(body) + "." + encoder.encodeToString(hmac.doFinal(body));
+    }
+
+    @Override
+    public Optional<UUID> verify(String deviceToken, Instant now) {
+        int dot = deviceToken.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+
+        byte[] body;
+        byte[] signature;
+        try {
+            body = Base64.getUrlDecoder().decode(deviceToken.substring(0, dot));
+            signature = Base64.getUrlDecoder().decode(deviceToken.substring(dot + 1));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        if (body.length != BODY_BYTES || !MessageDigest.isEqual(signature, hmac.doFinal(body))) {
+            return Optional.empty();
+        }
+
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        UUID deviceId = new UUID(buffer.getLong(), buffer.getLong());
+        if (!Instant.ofEpochSecond(buffer.getLong()).isAfter(now)) {
+            return Optional.empty();
+        }
+        return Optional.of(deviceId);
+    }
+}
@@ -0,0 +1,159 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+
+import com.dnk.auth.infrastructure.security.KeyedHmacSha256;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Minimal HS256 JWT signer/verifier for the tokens this service issues.
+ * The header is fixed and pre-encoded (byte-identical to the one jjwt produced, so existing tokens still
+ * verify), claims are written straight into a buffer, and the signature comes from a shared keyed HMAC.
+ * Verification accepts only that exact header, which also rules out algorithm substitution.
+ */
+final class Hs256TokenEngine {
+
+    private static final int MIN_KEY_BYTES = 32;
+    // base64url({"alg":"HS256"})
+    private static final String HEADER = "eyJhbGciOiJIUzI1NiJ9";
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final KeyedHmacSha256 hmac;
+    private final ObjectMapper objectMapper;
+
+    Hs256TokenEngine(byte[] secret, ObjectMapper objectMapper) {
+        if (secret.length < MIN_KEY_BYTES) {
+            throw new IllegalArgumentException("HS256 key must be at least " + MIN_KEY_BYTES + " bytes");
+        }
+        this.hmac = new KeyedHmacSha256(secret);
+        this.objectMapper = objectMapper;
+    }
+
+    String sign(JwtPayload payload) {
+        StringBuilder json = new StringBuilder(512);
+        writeClaims(json, payload);
+
+        String signingInput = HEADER + '.' + ENCODER.encodeToString(json.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signature = hmac.doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + ENCODER.encodeToString(signature);
+    }
+
+    /**
+     * Returns the payload of a correctly signed token, or throws {@link InvalidTokenException}.
+     * Issuer and expiry are left to the caller.
+     */
+    JwtPayload verify(String token) {
+        if (token == null) {
+            throw new InvalidTokenException("Token is missing");
+        }
+        int firstDot = token.indexOf('.');
+        int secondDot = token.indexOf('.', firstDot + 1);
+        if (firstDot < 0 || secondDot < 0 || token.indexOf('.', secondDot + 1) >= 0) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        if (firstDot != HEADER.length() || !token.startsWith(HEADER)) {
+            throw new InvalidTokenException("Unsupported token header");
+        }
+
+        byte[] expected = hmac.doFinal(token.substring(0, secondDot).getBytes(StandardCharsets.US_ASCII));
+        byte[] actual;
+        byte[] payload;
+        try {
+            actual = DECODER.decode(token.substring(secondDot + 1));
+            payload = DECODER.decode(token.substring(firstDot + 1, secondDot));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidTokenException("Malformed token encoding");
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            throw new InvalidTokenException("Invalid token signature");
+        }
+
+        try {
+            return objectMapper.readValue(payload, JwtPayload.class);
+        } catch (IOException ex) {
+            throw new InvalidTokenException("Malformed token claims");
+        }
+    }
+
+    private static void writeClaims(StringBuilder json, JwtPayload payload) {
+        json.append('{');
+        appendString(json, "sub", payload.sub(), true);
+        appendString(json, "iss", payload.iss(), false);
+        json.append(",\"iat\":").append(payload.iat());
+        json.append(",\"exp\":").append(payload.exp());
+        appendString(json, "email", payload.email(), false);
+        appendArray(json, "roles", payload.roles());
+        appendArray(json, "permissions", payload.permissions());
+        if (payload.pv() != null) {
+            json.append(",\"pv\":").append(payload.pv());
+        }
+        appendString(json, "pbm", payload.pbm(), false);
+        if (payload.rv() != null) {
+            json.append(",\"rv\":").append(payload.rv());
+        }
+        appendArray(json, "rr", payload.rr());
+        appendArray(json, "rp", payload.rp());
+        appendString(json, "typ", payload.typ(), false);
+        json.append('}');
+    }
+
+    private static void appendString(StringBuilder json, String name, String value, boolean first) {
+        if (value == null) {
+            return;
+        }
+        if (!first) {
+            json.append(',');
+        }
+        json.append('"').append(name).append("\":");
+        appendQuoted(json, value);
+    }
+
+    private static void appendArray(StringBuilder json, String name, List<String> values) {
+        if (values == null || values.isEmpty()) {
+            return;
+        }
+        json.append(",\"").append(name).append("\":[");
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            appendQuoted(json, values.get(i));
+        }
+        json.append(']');
+    }
+
+    private static void appendQuoted(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    static final class InvalidTokenException extends RuntimeException {
+
+        InvalidTokenException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * Claims of the tokens this service issues, in the order they are written. {@code rv} is the user's rights
+ * version; refresh tokens carry their rights as {@code rr}/{@code rp} rather than roles/permissions, so a
+ * resource server can never mistake one for an access token, and are marked with {@code typ: "refresh"} so
+ * this service does not either.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+record JwtPayload(
+        String sub,
+        String iss,
+        Long iat,
+        Long exp,
+        String email,
+        List<String> roles,
+        List<String> permissions,
+        Integer pv,
+        String pbm,
+        Long rv,
+        List<String> rr,
+        List<String> rp,
+        String typ
+) {
+}
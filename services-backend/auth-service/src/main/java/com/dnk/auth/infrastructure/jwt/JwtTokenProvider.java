@@ -1,22 +1,25 @@
 package com.dnk.auth.infrastructure.jwt;
 
 import java.nio.charset.StandardCharsets;
-import java.security.Key;
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Date;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
 
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.application.model.VerifiedToken;
 import com.dnk.auth.application.port.out.TokenProviderPort;
 import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
 import lombok.RequiredArgsConstructor;
 
 @Component
@@ -26,14 +29,16 @@ public class JwtTokenProvider implements TokenProviderPort {
     private static final Logger log = LoggerFactory.getLogger(JwtTokenProvider.class);
 
     private static final Duration REFRESH_TOKEN_VALIDITY = Duration.ofDays(7);
+    private static final String REFRESH_TYPE = "refresh";
 
     private final JwtProperties jwtProperties;
-    private Key signingKey;
+    private final ObjectMapper objectMapper;
+    private Hs256TokenEngine engine;
 
     @PostConstruct
     private void init() {
         try {
-            this.signingKey = Keys.hmacShaKeyFor(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8));
+            this.engine = new Hs256TokenEngine(jwtProperties.getSecret().getBytes(StandardCharsets.UTF_8), objectMapper);
         } catch (IllegalArgumentException ex) {
             throw new IllegalStateException("Invalid JWT secret: " + ex.getMessage(), ex);
         }
@@ -43,57 +48,123 @@ public class JwtTokenProvider implements TokenProviderPort {
     }
 
     @Override
-    public String generateAccessToken(String userId, String email, java.util.List<String> roles, java.util.List<String> permissions) {
-        return generateToken(userId, email, roles, permissions, Duration.ofSeconds(jwtProperties.getExpiration()));
+    public String generateAccessToken(String userId, String email, List<String> roles, List<String> permissions) {
+        return generateToken(userId, email, roles, permissions, null, null, null,
+                Duration.ofSeconds(jwtProperties.getExpiration()));
     }
 
     @Override
-    public String generateRefreshToken(String userId, String email) {
-        return generateToken(userId, email, null, null, REFRESH_TOKEN_VALIDITY);
+    public String generateAccessToken(String userId, String email, UserRights rights) {
+        return generateToken(userId, email, rights.roles(), rights.permissions(), versionOf(rights), null, null,
+                Duration.ofSeconds(jwtProperties.getExpiration()));
     }
 
     @Override
-    public boolean validateToken(String token) {
-        try {
-            Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            log.error("Invalid JWT token: {}", e.getMessage());
-            return false;
-        }
+    public String generateRefreshToken(String userId, String email) {
+        return generateToken(userId, email, null, null, null, null, REFRESH_TYPE, REFRESH_TOKEN_VALIDITY);
     }
 
     @Override
-    public String getUserIdFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(signingKey).build()
-                .parseClaimsJws(token).getBody().getSubject();
+    public String generateRefreshToken(String userId, String email, UserRights rights) {
+        Long version = versionOf(rights);
+        // Rights without a known version could never be reused, so they are not worth the bytes
+        return generateToken(userId, email, null, null, version, version != null ? rights : null, REFRESH_TYPE,
+                REFRESH_TOKEN_VALIDITY);
     }
 
     @Override
-    public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder().setSigningKey(signingKey).build()
-                .parseClaimsJws(token).getBody().get("email", String.class);
+    public Optional<VerifiedToken> verify(String token) {
+        JwtPayload payload;
+        try {
+            payload = engine.verify(token);
+        } catch (Hs256TokenEngine.InvalidTokenException ex) {
+            log.error("Invalid JWT token: {}", ex.getMessage());
+            return Optional.empty();
+        }
+
+        if (payload.sub() == null || payload.exp() == null || !jwtProperties.getIssuer().equals(payload.iss())) {
+            log.error("Invalid JWT token: missing subject/expiration or unexpected issuer");
+            return Optional.empty();
+        }
+        Instant expiresAt = Instant.ofEpochSecond(payload.exp());
+        if (!expiresAt.isAfter(Instant.now())) {
+            log.error("Invalid JWT token: expired at {}", expiresAt);
+            return Optional.empty();
+        }
+
+        return Optional.of(new VerifiedToken(
+                payload.sub(),
+                payload.email(),
+                payload.roles() != null ? payload.roles() : List.of(),
+                permissionsOf(payload),
+                payload.iat() != null ? Instant.ofEpochSecond(payload.iat()) : null,
+                expiresAt,
+                carriedRightsOf(payload),
+                isRefreshToken(payload)));
     }
 
-    private String generateToken(String userId, String email, java.util.List<String> roles, java.util.List<String> permissions, Duration validity) {
+    private String generateToken(String userId, String email, List<String> roles, List<String> permissions,
+                                 Long rightsVersion, UserRights carriedRights, String type, Duration validity) {
         Instant now = Instant.now();
         Instant expiresAt = now.plus(validity);
 
-        var builder = Jwts.builder()
-                .setSubject(userId)
-                .setIssuer(jwtProperties.getIssuer())
-                .setIssuedAt(Date.from(now))
-                .setExpiration(Date.from(expiresAt))
-                .claim("email", email);
+        List<String> permissionNames = permissions;
+        Integer dictionaryVersion = null;
+        String permissionBits = null;
+
+        // pbm is the base64url BitSet (little-endian bit order) over PermissionDictionary; permissions
+        // missing from the dictionary still travel as strings so nothing is lost before it is extended
+        if (permissions != null && !permissions.isEmpty() && jwtProperties.isCompactPermissions()) {
+            List<String> unmapped = new ArrayList<>();
+            BitSet bits = PermissionDictionary.encode(permissions, unmapped);
+            permissionNames = unmapped;
+            dictionaryVersion = PermissionDictionary.VERSION;
+            permissionBits = Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray());
+        }
+
+        return engine.sign(new JwtPayload(
+                userId,
+                jwtProperties.getIssuer(),
+                now.getEpochSecond(),
+                expiresAt.getEpochSecond(),
+                email,
+                roles,
+                permissionNames,
+                dictionaryVersion,
+                permissionBits,
+                rightsVersion,
+                carriedRights != null ? carriedRights.roles() : null,
+                carriedRights != null ? carriedRights.permissions() : null,
+                type));
+    }
 
-        if (roles != null && !roles.isEmpty()) {
-            builder.claim("roles", roles);
+    private static Long versionOf(UserRights rights) {
+        return rights.version() != UserRights.UNKNOWN_VERSION ? rights.version() : null;
+    }
+
+    private boolean isRefreshToken(JwtPayload payload) {
+        if (REFRESH_TYPE.equals(payload.typ())) {
+            return true;
         }
-        if (permissions != null && !permissions.isEmpty()) {
-            builder.claim("permissions", permissions);
+        // Refresh tokens issued before typ existed are told apart by a lifetime no access token has
+        return payload.iat() != null && payload.exp() - payload.iat() > jwtProperties.getExpiration();
+    }
+
+    private static UserRights carriedRightsOf(JwtPayload payload) {
+        if (payload.rv() == null || payload.rr() == null) {
+            return null;
         }
+        return new UserRights(payload.rr(), payload.rp() != null ? payload.rp() : List.of(), payload.rv());
+    }
 
-        return builder.signWith(signingKey, SignatureAlgorithm.HS256)
-                .compact();
+    private static List<String> permissionsOf(JwtPayload payload) {
+        List<String> permissions = new ArrayList<>();
+        if (payload.pbm() != null && Integer.valueOf(PermissionDictionary.VERSION).equals(payload.pv())) {
+            permissions.addAll(PermissionDictionary.decode(BitSet.valueOf(Base64.getUrlDecoder().decode(payload.pbm()))));
+        }
+        if (payload.permissions() != null) {
+            permissions.addAll(payload.permissions());
+        }
+        return permissions;
     }
 }
@@ -0,0 +1,69 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned permission index shared with the token validators (a copy lives in enrollment-service).
+ * A permission's position is its bit in the compact {@code pbm} claim, so entries may only be appended;
+ * any other change needs a new {@link #VERSION} rolled out to validators before issuers.
+ */
+public final class PermissionDictionary {
+
+    public static final int VERSION = 1;
+
+    private static final List<String> PERMISSIONS = List.of(
+            "courses:read",
+            "courses:create",
+            "courses:update",
+            "courses:delete",
+            "enrollments:create",
+            "enrollments:read:me",
+            "enrollments:read:all");
+
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+
+    static {
+        for (int i = 0; i < PERMISSIONS.size(); i++) {
+            INDEX.put(PERMISSIONS.get(i), i);
+        }
+    }
+
+    private PermissionDictionary() {
+    }
+
+    public static int indexOf(String permission) {
+        return INDEX.getOrDefault(permission, -1);
+    }
+
+    /**
+     * Sets the bit of every known permission and adds the rest to {@code unmapped}.
+     */
+    public static BitSet encode(Collection<String> permissions, Collection<String> unmapped) {
+        BitSet bits = new BitSet(PERMISSIONS.size());
+        for (String permission : permissions) {
+            int index = indexOf(permission);
+            if (index >= 0) {
+                bits.set(index);
+            } else {
+                unmapped.add(permission);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Names of the set bits; bits beyond this version's dictionary are ignored.
+     */
+    public static List<String> decode(BitSet bits) {
+        List<String> permissions = new ArrayList<>(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i >= 0 && i < PERMISSIONS.size(); i = bits.nextSetBit(i + 1)) {
+            permissions.add(PERMISSIONS.get(i));
+        }
+        return permissions;
+    }
+}
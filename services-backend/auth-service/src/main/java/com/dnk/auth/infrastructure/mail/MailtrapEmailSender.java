@@ -2,6 +2,7 @@ package com.dnk.auth.infrastructure.mail;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Component;
@@ -9,6 +10,7 @@ import org.springframework.stereotype.Component;
 import com.dnk.auth.application.port.out.EmailSenderPort;
 
 @Component
+@ConditionalOnProperty(name = "mfa.email.transport", havingValue = "simple", matchIfMissing = true)
 public class MailtrapEmailSender implements EmailSenderPort {
 
     private static final Logger log = LoggerFactory.getLogger(MailtrapEmailSender.class);
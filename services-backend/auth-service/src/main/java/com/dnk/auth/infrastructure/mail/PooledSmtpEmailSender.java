@@ -0,0 +1,233 @@
+package com.dnk.auth.infrastructure.mail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.application.port.out.EmailSenderPort;
+import com.dnk.auth.infrastructure.config.MfaEmailProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Keeps a small pool of authenticated SMTP connections open and sends queued OTP emails
+ * in batches over them, instead of paying a TCP + STARTTLS handshake per message.
+ * Each pool slot is a worker thread that owns one {@link Transport}.
+ */
+@Component
+@ConditionalOnProperty(name = "mfa.email.transport", havingValue = "pooled")
+public class PooledSmtpEmailSender implements EmailSenderPort, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(PooledSmtpEmailSender.class);
+
+    private static final String SUBJECT = "Your verification code";
+
+    private final JavaMailSenderImpl mailSender;
+    private final MfaEmailProperties.Pool properties;
+    private final BlockingQueue<PendingEmail> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private volatile boolean running = true;
+
+    private final DistributionSummary sendsPerConnection;
+    private final Counter reconnects;
+    private final Counter rejected;
+
+    public PooledSmtpEmailSender(JavaMailSenderImpl mailSender,
+                                 MfaEmailProperties mfaEmailProperties,
+                                 MeterRegistry meterRegistry) {
+        this.mailSender = mailSender;
+        this.properties = mfaEmailProperties.getPool();
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        Gauge.builder("mfa.email.smtp.pool.connections", openConnections, AtomicInteger::get)
+                .description("Open SMTP connections in the pool")
+                .register(meterRegistry);
+        Gauge.builder("mfa.email.smtp.pool.queue", queue, BlockingQueue::size)
+                .description("OTP emails waiting for a pooled SMTP connection")
+                .register(meterRegistry);
+        this.sendsPerConnection = DistributionSummary.builder("mfa.email.smtp.sends.per.connection")
+                .description("Messages sent over a pooled SMTP connection before it was closed")
+                .register(meterRegistry);
+        this.reconnects = Counter.builder("mfa.email.smtp.pool.reconnects")
+                .description("Pooled SMTP connections replaced after being found dead")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("mfa.email.smtp.pool.rejected")
+                .description("OTP emails refused because the pool queue was full")
+                .register(meterRegistry);
+
+        // Platform threads: jakarta.mail blocks inside synchronized methods, which would pin virtual threads
+        for (int i = 0; i < properties.getSize(); i++) {
+            workers.add(Thread.ofPlatform()
+                    .daemon()
+                    .name("smtp-pool-" + i)
+                    .start(this::runWorker));
+        }
+        log.info("Pooled SMTP sender started with {} connections, batch size {}, queue capacity {}",
+                properties.getSize(), properties.getBatchSize(), properties.getQueueCapacity());
+    }
+
+    @Override
+    public void sendOtpEmail(String toEmail, String otpCode) {
+        PendingEmail pending = new PendingEmail(toEmail, otpCode, new CompletableFuture<>());
+        // A full queue means the provider is not keeping up; failing now beats waiting out the send timeout
+        if (!queue.offer(pending)) {
+            rejected.increment();
+            throw new MailSendException("SMTP pool queue is full, OTP email to " + toEmail + " not sent");
+        }
+
+        try {
+            pending.result().get(properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw new MailSendException("Failed to send OTP email to " + toEmail, ex.getCause());
+        } catch (TimeoutException ex) {
+            pending.result().cancel(false);
+            throw new MailSendException("Timed out sending OTP email to " + toEmail, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted sending OTP email to " + toEmail, ex);
+        }
+
+        log.info("OTP email sent to {}", toEmail);
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+
+        PendingEmail pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(new IllegalStateException("SMTP pool is shutting down"));
+        }
+    }
+
+    private void runWorker() {
+        Connection connection = null;
+        List<PendingEmail> batch = new ArrayList<>(properties.getBatchSize());
+
+        while (running) {
+            PendingEmail first;
+            try {
+                first = queue.poll(properties.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException ex) {
+                break;
+            }
+
+            if (first == null) {
+                connection = close(connection);
+                continue;
+            }
+
+            batch.clear();
+            batch.add(first);
+            queue.drainTo(batch, properties.getBatchSize() - 1);
+
+            // One liveness check (SMTP NOOP) per batch; dead connections are replaced before sending
+            if (connection != null && !connection.transport().isConnected()) {
+                connection = close(connection);
+                reconnects.increment();
+            }
+
+            for (PendingEmail email : batch) {
+                if (email.result().isDone()) {
+                    continue; // caller already gave up
+                }
+                connection = send(connection, email);
+            }
+        }
+
+        close(connection);
+    }
+
+    private Connection send(Connection connection, PendingEmail email) {
+        MimeMessage message;
+        try {
+            message = buildMessage(email);
+        } catch (MessagingException ex) {
+            email.result().completeExceptionally(ex);
+            return connection;
+        }
+
+        // A failed send is retried once on a fresh connection, since the old one may have been dropped
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                if (connection == null) {
+                    connection = open();
+                }
+                connection.transport().sendMessage(message, message.getAllRecipients());
+                connection.sent().incrementAndGet();
+                email.result().complete(null);
+                return connection;
+            } catch (MessagingException ex) {
+                connection = close(connection);
+                if (attempt == 0) {
+                    reconnects.increment();
+                    log.warn("Pooled SMTP send to {} failed, retrying on a new connection: {}", email.toEmail(), ex.getMessage());
+                } else {
+                    email.result().completeExceptionally(ex);
+                }
+            }
+        }
+        return connection;
+    }
+
+    private MimeMessage buildMessage(PendingEmail email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(email.toEmail()));
+        message.setSubject(SUBJECT);
+        message.setText("Your verification code is: " + email.otpCode());
+        message.saveChanges();
+        return message;
+    }
+
+    private Connection open() throws MessagingException {
+        String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+        Transport transport = mailSender.getSession().getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        openConnections.incrementAndGet();
+        return new Connection(transport, new AtomicInteger());
+    }
+
+    private Connection close(Connection connection) {
+        if (connection == null) {
+            return null;
+        }
+        openConnections.decrementAndGet();
+        sendsPerConnection.record(connection.sent().get());
+        try {
+            connection.transport().close();
+        } catch (MessagingException ex) {
+            log.debug("Error closing pooled SMTP connection: {}", ex.getMessage());
+        }
+        return null;
+    }
+
+    private record PendingEmail(String toEmail, String otpCode, CompletableFuture<Void> result) {
+    }
+
+    private record Connection(Transport transport, AtomicInteger sent) {
+    }
+}
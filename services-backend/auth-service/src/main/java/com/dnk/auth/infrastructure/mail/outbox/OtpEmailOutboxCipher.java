@@ -0,0 +1,90 @@
+package com.dnk.auth.infrastructure.mail.outbox;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.infrastructure.config.JwtProperties;
+
+/**
+ * AES-256-GCM for OTP codes waiting in the outbox, stored as {@code v1$<base64url(iv || ciphertext)>}. The row
+ * id is bound as associated data, so a ciphertext copied onto another row does not decrypt. The key is derived
+ * from the JWT secret with a fixed label, like the trusted-device key, so there is no extra secret to manage.
+ */
+@Component
+@ConditionalOnProperty(name = "mfa.email.outbox.enabled", havingValue = "true")
+public class OtpEmailOutboxCipher {
+
+    private static final String PREFIX = "v1$";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final String KEY_DERIVATION = "HmacSHA256";
+    private static final byte[] KEY_LABEL = "otp-email-outbox-v1".getBytes(StandardCharsets.US_ASCII);
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+
+    private final SecretKeySpec key;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public OtpEmailOutboxCipher(JwtProperties jwtProperties) {
+        this.key = new SecretKeySpec(deriveKey(jwtProperties.getSecret()), "AES");
+    }
+
+    public String encrypt(UUID id, String otpCode) {
+        byte[] iv = new byte[IV_BYTES];
+        secureRandom.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(associatedData(id));
+            byte[] sealed = cipher.doFinal(otpCode.getBytes(StandardCharsets.US_ASCII));
+
+            byte[] out = ByteBuffer.allocate(IV_BYTES + sealed.length).put(iv).put(sealed).array();
+            return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(out);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not encrypt outbox OTP code", ex);
+        }
+    }
+
+    public String decrypt(UUID id, String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            throw new IllegalStateException("Unsupported outbox OTP format for message " + id);
+        }
+        try {
+            byte[] in = Base64.getUrlDecoder().decode(stored.substring(PREFIX.length()));
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, in, 0, IV_BYTES));
+            cipher.updateAAD(associatedData(id));
+            return new String(cipher.doFinal(in, IV_BYTES, in.length - IV_BYTES), StandardCharsets.US_ASCII);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Could not decrypt outbox OTP code for message " + id, ex);
+        }
+    }
+
+    private static byte[] associatedData(UUID id) {
+        return ByteBuffer.allocate(2 * Long.BYTES)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+
+    private static byte[] deriveKey(String jwtSecret) {
+        try {
+            Mac mac = Mac.getInstance(KEY_DERIVATION);
+            mac.init(new SecretKeySpec(jwtSecret.getBytes(StandardCharsets.UTF_8), KEY_DERIVATION));
+            return mac.doFinal(KEY_LABEL);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("HmacSHA256 not available", ex);
+        }
+    }
+}
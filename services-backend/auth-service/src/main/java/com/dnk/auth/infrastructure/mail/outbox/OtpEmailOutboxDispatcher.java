@@ -0,0 +1,138 @@
+package com.dnk.auth.infrastructure.mail.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.application.port.out.EmailSenderPort;
+import com.dnk.auth.infrastructure.config.MfaEmailProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+@ConditionalOnProperty(name = "mfa.email.outbox.enabled", havingValue = "true")
+public class OtpEmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OtpEmailOutboxDispatcher.class);
+
+    private final OtpEmailOutboxRepositoryAdapter outbox;
+    private final EmailSenderPort emailSenderPort;
+    private final MfaEmailProperties.Outbox properties;
+    private final Semaphore sendPermits;
+
+    private final Timer deliveryLag;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dropped;
+
+    public OtpEmailOutboxDispatcher(OtpEmailOutboxRepositoryAdapter outbox,
+                                    EmailSenderPort emailSenderPort,
+                                    MfaEmailProperties mfaEmailProperties,
+                                    MeterRegistry meterRegistry) {
+        this.outbox = outbox;
+        this.emailSenderPort = emailSenderPort;
+        this.properties = mfaEmailProperties.getOutbox();
+        this.sendPermits = new Semaphore(properties.getMaxConcurrency());
+
+        this.deliveryLag = Timer.builder("mfa.otp.email.delivery.lag")
+                .description("Time from OTP enqueue to successful SMTP delivery")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.retried = outcomeCounter(meterRegistry, "retry");
+        this.dropped = outcomeCounter(meterRegistry, "dropped");
+    }
+
+    @Scheduled(fixedDelayString = "${mfa.email.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        List<OtpEmailOutboxMessage> batch;
+        do {
+            Instant now = Instant.now();
+            batch = outbox.claimDue(now, properties.getBatchSize(), now.plus(properties.getClaimLease()));
+            if (batch.isEmpty()) {
+                return;
+            }
+
+            // Closing the executor waits for every send of the batch before the next claim
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (OtpEmailOutboxMessage message : batch) {
+                    executor.submit(() -> deliverWithPermit(message));
+                }
+            }
+        } while (batch.size() == properties.getBatchSize());
+    }
+
+    private void deliverWithPermit(OtpEmailOutboxMessage message) {
+        try {
+            sendPermits.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            deliver(message);
+        } finally {
+            sendPermits.release();
+        }
+    }
+
+    private void deliver(OtpEmailOutboxMessage message) {
+        Instant now = Instant.now();
+        if (message.createdAt().plus(properties.getMaxAge()).isBefore(now)) {
+            log.warn("Dropping outbox OTP email {} to {}: code already expired", message.id(), message.toEmail());
+            outbox.remove(message.id());
+            dropped.increment();
+            return;
+        }
+
+        try {
+            emailSenderPort.sendOtpEmail(message.toEmail(), message.otpCode());
+        } catch (RuntimeException ex) {
+            handleFailure(message, ex);
+            return;
+        }
+
+        outbox.remove(message.id());
+        deliveryLag.record(Duration.between(message.createdAt(), Instant.now()));
+        sent.increment();
+    }
+
+    private void handleFailure(OtpEmailOutboxMessage message, RuntimeException ex) {
+        int attempts = message.attempts() + 1;
+        if (attempts >= properties.getMaxAttempts()) {
+            log.error("Giving up on outbox OTP email {} to {} after {} attempts", message.id(), message.toEmail(), attempts, ex);
+            outbox.remove(message.id());
+            dropped.increment();
+            return;
+        }
+
+        Duration backoff = backoff(attempts);
+        log.warn("OTP email {} to {} failed (attempt {}), retrying in {} ms: {}",
+                message.id(), message.toEmail(), attempts, backoff.toMillis(), ex.getMessage());
+        outbox.scheduleRetry(message.id(), Instant.now().plus(backoff), ex.getMessage());
+        retried.increment();
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("mfa.otp.email.outbox")
+                .description("OTP outbox delivery outcomes")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,90 @@
+package com.dnk.auth.infrastructure.mail.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "otp_email_outbox", schema = "auth_schema")
+public class OtpEmailOutboxEntity {
+
+    @Id
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    @Column(name = "to_email", nullable = false)
+    private String toEmail;
+
+    // AES-GCM sealed by OtpEmailOutboxCipher; the plain code never reaches the table
+    @Column(name = "otp_ciphertext", nullable = false)
+    private String otpCiphertext;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    protected OtpEmailOutboxEntity() {
+        // for JPA
+    }
+
+    public OtpEmailOutboxEntity(UUID id, String toEmail, String otpCiphertext, Instant createdAt) {
+        this.id = id;
+        this.toEmail = toEmail;
+        this.otpCiphertext = otpCiphertext;
+        this.attempts = 0;
+        this.nextAttemptAt = createdAt;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public String getToEmail() {
+        return toEmail;
+    }
+
+    public String getOtpCiphertext() {
+        return otpCiphertext;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Instant getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Instant nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,13 @@
+package com.dnk.auth.infrastructure.mail.outbox;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record OtpEmailOutboxMessage(
+        UUID id,
+        String toEmail,
+        String otpCode,
+        int attempts,
+        Instant createdAt
+) {
+}
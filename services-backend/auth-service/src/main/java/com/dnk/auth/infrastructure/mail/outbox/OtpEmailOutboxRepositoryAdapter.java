@@ -0,0 +1,86 @@
+package com.dnk.auth.infrastructure.mail.outbox;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dnk.auth.application.port.out.OtpEmailOutboxPort;
+
+@Repository
+@ConditionalOnProperty(name = "mfa.email.outbox.enabled", havingValue = "true")
+public class OtpEmailOutboxRepositoryAdapter implements OtpEmailOutboxPort {
+
+    private static final Logger log = LoggerFactory.getLogger(OtpEmailOutboxRepositoryAdapter.class);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final SpringDataOtpEmailOutboxRepository jpaRepository;
+    private final OtpEmailOutboxCipher cipher;
+
+    public OtpEmailOutboxRepositoryAdapter(SpringDataOtpEmailOutboxRepository jpaRepository,
+                                           OtpEmailOutboxCipher cipher) {
+        this.jpaRepository = jpaRepository;
+        this.cipher = cipher;
+    }
+
+    // Only ever joins the login's transaction, so the row commits together with the OTP it delivers
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String toEmail, String otpCode) {
+        UUID id = UUID.randomUUID();
+        jpaRepository.save(new OtpEmailOutboxEntity(id, toEmail, cipher.encrypt(id, otpCode), Instant.now()));
+    }
+
+    /**
+     * Locks up to {@code limit} due rows and pushes their next attempt past the lease,
+     * so the sends can run outside the transaction without another poller picking them up.
+     */
+    @Transactional
+    public List<OtpEmailOutboxMessage> claimDue(Instant now, int limit, Instant leaseUntil) {
+        List<OtpEmailOutboxEntity> due = jpaRepository.findDueForUpdate(now, limit);
+
+        List<OtpEmailOutboxMessage> claimed = new ArrayList<>(due.size());
+        for (OtpEmailOutboxEntity entity : due) {
+            String otpCode;
+            try {
+                otpCode = cipher.decrypt(entity.getId(), entity.getOtpCiphertext());
+            } catch (IllegalStateException ex) {
+                // Sealed under a previous JWT secret: it can never be sent, and retrying would block the batch
+                log.error("Dropping outbox OTP email {} to {}: {}", entity.getId(), entity.getToEmail(), ex.getMessage());
+                jpaRepository.deleteByIdDirect(entity.getId());
+                continue;
+            }
+            entity.setNextAttemptAt(leaseUntil);
+            claimed.add(new OtpEmailOutboxMessage(
+                    entity.getId(),
+                    entity.getToEmail(),
+                    otpCode,
+                    entity.getAttempts(),
+                    entity.getCreatedAt()));
+        }
+        return claimed;
+    }
+
+    // Delivered or abandoned rows are deleted so the code does not outlive its use, even encrypted
+    @Transactional
+    public void remove(UUID id) {
+        jpaRepository.deleteByIdDirect(id);
+    }
+
+    @Transactional
+    public void scheduleRetry(UUID id, Instant nextAttemptAt, String lastError) {
+        String error = lastError;
+        if (error != null && error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        jpaRepository.scheduleRetry(id, nextAttemptAt, error);
+    }
+}
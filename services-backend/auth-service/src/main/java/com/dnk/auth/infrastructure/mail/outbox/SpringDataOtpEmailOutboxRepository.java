@@ -0,0 +1,31 @@
+package com.dnk.auth.infrastructure.mail.outbox;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SpringDataOtpEmailOutboxRepository extends JpaRepository<OtpEmailOutboxEntity, UUID> {
+
+    // SKIP LOCKED lets several instances drain the outbox without handing out the same row twice
+    @Query(value = "SELECT * FROM auth_schema.otp_email_outbox " +
+                   "WHERE next_attempt_at <= :now " +
+                   "ORDER BY next_attempt_at " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OtpEmailOutboxEntity> findDueForUpdate(@Param("now") Instant now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("update OtpEmailOutboxEntity o set o.attempts = o.attempts + 1, o.nextAttemptAt = :nextAttemptAt, " +
+           "o.lastError = :lastError where o.id = :id")
+    void scheduleRetry(@Param("id") UUID id,
+                       @Param("nextAttemptAt") Instant nextAttemptAt,
+                       @Param("lastError") String lastError);
+
+    @Modifying
+    @Query("delete from OtpEmailOutboxEntity o where o.id = :id")
+    void deleteByIdDirect(@Param("id") UUID id);
+}
@@ -0,0 +1,88 @@
+package com.dnk.auth.infrastructure.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.application.port.out.LoginMetricsPort;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+@Component
+public class MicrometerLoginMetrics implements LoginMetricsPort {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Timer> timers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> otpOutcomes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> refreshOutcomes = new ConcurrentHashMap<>();
+    private final Counter mfaRequired;
+    private final Counter mfaSkipped;
+
+    public MicrometerLoginMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.mfaRequired = mfaCounter("required");
+        this.mfaSkipped = mfaCounter("skipped");
+        Gauge.builder("auth.login.mfa.skip.ratio", this, MicrometerLoginMetrics::mfaSkipRatio)
+                .description("Share of Google logins that skipped MFA on a trusted device")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public <T> T time(String stage, Supplier<T> step) {
+        return timers.computeIfAbsent(stage, this::stageTimer).record(step);
+    }
+
+    @Override
+    public void otpIssued(String outcome) {
+        otpOutcomes.computeIfAbsent(outcome, this::otpCounter).increment();
+    }
+
+    @Override
+    public void mfaOutcome(String outcome) {
+        ("skipped".equals(outcome) ? mfaSkipped : mfaRequired).increment();
+    }
+
+    @Override
+    public void refreshOutcome(String outcome) {
+        refreshOutcomes.computeIfAbsent(outcome, this::refreshCounter).increment();
+    }
+
+    private double mfaSkipRatio() {
+        double total = mfaRequired.count() + mfaSkipped.count();
+        return total == 0 ? 0 : mfaSkipped.count() / total;
+    }
+
+    private Timer stageTimer(String stage) {
+        return Timer.builder("auth.login.stage")
+                .tag("stage", stage)
+                .description("Duration of one step of the Google login flow")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private Counter otpCounter(String outcome) {
+        return Counter.builder("auth.otp.issued")
+                .tag("outcome", outcome)
+                .description("Google logins by OTP outcome: freshly issued or coalesced onto a pending one")
+                .register(meterRegistry);
+    }
+
+    private Counter refreshCounter(String outcome) {
+        return Counter.builder("auth.refresh")
+                .tag("outcome", outcome)
+                .description("Session refreshes by how rights were resolved: from the token, a lookup, or coalesced")
+                .register(meterRegistry);
+    }
+
+    private Counter mfaCounter(String outcome) {
+        return Counter.builder("auth.login.mfa")
+                .tag("outcome", outcome)
+                .description("Google logins by MFA outcome: required, or skipped on a trusted device")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.dnk.auth.infrastructure.persistence;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dnk.auth.application.port.out.TransactionPort;
+
+@Component
+public class TransactionTemplateAdapter implements TransactionPort {
+
+    private final TransactionTemplate transactionTemplate;
+
+    public TransactionTemplateAdapter(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void inTransaction(Runnable work) {
+        transactionTemplate.executeWithoutResult(status -> work.run());
+    }
+}
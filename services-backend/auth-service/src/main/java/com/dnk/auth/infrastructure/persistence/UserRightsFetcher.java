@@ -1,37 +1,187 @@
 package com.dnk.auth.infrastructure.persistence;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.infrastructure.config.RightsCacheProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.Query;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Component
 public class UserRightsFetcher {
 
+    private static final Logger log = LoggerFactory.getLogger(UserRightsFetcher.class);
+
+    private static final String VERSION_SQL =
+            "SELECT version, clock_timestamp() FROM iam_schema.rights_version WHERE id = 1";
+    private static final String USER_VERSION_SQL =
+            "SELECT version FROM iam_schema.user_rights_version WHERE user_id = :userId";
+    private static final String CHANGED_USERS_SQL =
+            "SELECT user_id FROM iam_schema.user_rights_version WHERE changed_at >= :since";
+    // A role assignment is stamped when it is written but only seen once committed, so every poll looks back
+    // this far past the previous one; a transaction open for longer is only caught by the cache TTL
+    private static final Duration CHANGE_OVERLAP = Duration.ofSeconds(10);
+
+    // One row per (role, permission), permissions inherited through role_closure included; roles without
+    // permissions still come back with a null permission
+    private static final String RIGHTS_SQL =
+            "SELECT r.name, p.name FROM iam_schema.user_roles ur " +
+            "JOIN iam_schema.roles r ON r.id = ur.role_id " +
+            "LEFT JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+            "LEFT JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+            "LEFT JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+            "WHERE ur.user_id = :userId";
+
+    // Same shape, but permissions come from the rows iam-service materializes: no role_permissions join
+    private static final String MATERIALIZED_RIGHTS_SQL =
+            "SELECT r.name, CAST(NULL AS varchar) FROM iam_schema.user_roles ur " +
+            "JOIN iam_schema.roles r ON r.id = ur.role_id " +
+            "WHERE ur.user_id = :userId " +
+            "UNION ALL " +
+            "SELECT CAST(NULL AS varchar), e.permission_name FROM iam_schema.user_effective_permissions e " +
+            "WHERE e.user_id = :userId";
+
+    private static final String MATERIALIZE_ROLE_SQL =
+            "INSERT INTO iam_schema.user_effective_permissions (user_id, permission_name) " +
+            "SELECT DISTINCT :userId, p.name FROM iam_schema.roles r " +
+            "JOIN iam_schema.role_closure rc ON rc.descendant_id = r.id " +
+            "JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+            "JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+            "WHERE r.name = :roleName " +
+            "ON CONFLICT DO NOTHING";
+
     @PersistenceContext
     private EntityManager entityManager;
 
-    @SuppressWarnings("unchecked")
-    public List<String> getUserRoles(String userId) {
-        String sql = "SELECT r.name FROM iam_schema.roles r " +
-                     "JOIN iam_schema.user_roles ur ON r.id = ur.role_id " +
-                     "WHERE ur.user_id = :userId";
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter("userId", userId);
-        return query.getResultList();
+    private final RightsCacheProperties cacheProperties;
+    private final boolean materialized;
+    private final ConcurrentHashMap<String, CachedRights> cache = new ConcurrentHashMap<>();
+    private final AtomicReference<CachedVersion> version =
+            new AtomicReference<>(new CachedVersion(UserRights.UNKNOWN_VERSION, null, 0));
+    private volatile boolean versionUnavailableLogged;
+
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final Timer cachedLookups;
+    private final Timer databaseLookups;
+
+    public UserRightsFetcher(RightsCacheProperties cacheProperties,
+                             @Value("${auth.rights.materialized:false}") boolean materialized,
+                             MeterRegistry meterRegistry) {
+        this.cacheProperties = cacheProperties;
+        this.materialized = materialized;
+
+        this.cacheHits = Counter.builder("auth.rights.cache")
+                .tag("result", "hit")
+                .description("User rights lookups answered from the cache")
+                .register(meterRegistry);
+        this.cacheMisses = Counter.builder("auth.rights.cache")
+                .tag("result", "miss")
+                .description("User rights lookups that went to the database")
+                .register(meterRegistry);
+        // Same timer name with a source tag, so cached and database p99 can be compared side by side
+        this.cachedLookups = lookupTimer(meterRegistry, "cache");
+        this.databaseLookups = lookupTimer(meterRegistry, "database");
     }
 
-    @SuppressWarnings("unchecked")
-    public List<String> getUserPermissions(String userId) {
-        String sql = "SELECT DISTINCT p.name FROM iam_schema.permissions p " +
-                     "JOIN iam_schema.role_permissions rp ON p.id = rp.permission_id " +
-                     "JOIN iam_schema.user_roles ur ON rp.role_id = ur.role_id " +
-                     "WHERE ur.user_id = :userId";
-        Query query = entityManager.createNativeQuery(sql);
-        query.setParameter("userId", userId);
-        return query.getResultList();
+    public UserRights getUserRights(String userId) {
+        if (!cacheProperties.isEnabled()) {
+            return databaseLookups.record(() -> loadUserRights(userId, currentRightsVersion()));
+        }
+
+        long start = System.nanoTime();
+        // A change to roles or permissions bumps the global version and drops every entry; a change to one
+        // user's roles evicts only that user, here or when the next version read sees its stamp move. The
+        // version is read first, so an eviction made by that read is not undone by an entry fetched before it
+        long globalVersion = currentRightsVersion();
+        CachedRights cached = cache.get(userId);
+        if (isLive(cached, globalVersion, start)) {
+            cacheHits.increment();
+            cachedLookups.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached.rights();
+        }
+
+        cacheMisses.increment();
+        UserRights rights = databaseLookups.record(() -> loadUserRights(userId, globalVersion));
+        put(userId, rights, globalVersion);
+        return rights;
+    }
+
+    /**
+     * The user's rights version: the global version plus the user's own stamp in
+     * {@code iam_schema.user_rights_version}. Both only grow, so the sum changes whenever either does.
+     * Served from the rights cache when the user's entry is still live.
+     */
+    public long currentRightsVersion(String userId) {
+        long globalVersion = currentRightsVersion();
+        if (globalVersion == UserRights.UNKNOWN_VERSION) {
+            return UserRights.UNKNOWN_VERSION;
+        }
+        CachedRights cached = cacheProperties.isEnabled() ? cache.get(userId) : null;
+        if (isLive(cached, globalVersion, System.nanoTime())) {
+            return cached.rights().version();
+        }
+        return userVersion(userId, globalVersion);
+    }
+
+    /**
+     * The global rights version from {@code iam_schema.rights_version}, reused for {@code versionTtl}. Each
+     * read also evicts the users whose stamp moved since the previous one. Returns
+     * {@link UserRights#UNKNOWN_VERSION} when either table is missing, which disables every version-based
+     * shortcut rather than failing logins.
+     */
+    long currentRightsVersion() {
+        long now = System.nanoTime();
+        CachedVersion cached = version.get();
+        if (cached.readAtNanos() != 0 && now - cached.readAtNanos() < cacheProperties.getVersionTtl().toNanos()) {
+            return cached.version();
+        }
+
+        long current;
+        Instant readAt = null;
+        try {
+            Object[] row = (Object[]) entityManager.createNativeQuery(VERSION_SQL).getSingleResult();
+            current = ((Number) row[0]).longValue();
+            readAt = toInstant(row[1]);
+            if (cached.readAt() == null) {
+                // First read, or the first since the versions were unreadable: changes in between went unseen
+                cache.values().removeIf(entry -> entry.globalVersion() != UserRights.UNKNOWN_VERSION);
+            }
+            evictChangedUsers((cached.readAt() != null ? cached.readAt() : readAt).minus(CHANGE_OVERLAP));
+        } catch (RuntimeException ex) {
+            if (!versionUnavailableLogged) {
+                versionUnavailableLogged = true;
+                log.warn("Rights version unavailable, version shortcuts disabled: {}", ex.getMessage());
+            }
+            current = UserRights.UNKNOWN_VERSION;
+            readAt = null;
+        }
+        version.set(new CachedVersion(current, readAt, now));
+        return current;
     }
 
     @Transactional
@@ -43,5 +193,125 @@ public class UserRightsFetcher {
         query.setParameter("userId", userId);
         query.setParameter("roleName", roleName);
         query.executeUpdate();
+
+        if (materialized) {
+            // iam-service maintains these rows for its own assignments; this one bypasses it
+            Query materialize = entityManager.createNativeQuery(MATERIALIZE_ROLE_SQL);
+            materialize.setParameter("userId", userId);
+            materialize.setParameter("roleName", roleName);
+            materialize.executeUpdate();
+        }
+
+        // Evict now and again after commit, so a concurrent lookup cannot re-cache the pre-insert rights
+        cache.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.remove(userId);
+                }
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evictChangedUsers(Instant since) {
+        Query query = entityManager.createNativeQuery(CHANGED_USERS_SQL);
+        query.setParameter("since", since);
+        List<Object> changed = query.getResultList();
+        changed.forEach(cache::remove);
+        if (!changed.isEmpty()) {
+            log.debug("Rights of {} users changed since {}, evicted", changed.size(), since);
+        }
+    }
+
+    private long userVersion(String userId, long globalVersion) {
+        try {
+            Query query = entityManager.createNativeQuery(USER_VERSION_SQL);
+            query.setParameter("userId", userId);
+            List<?> stamp = query.getResultList();
+            return globalVersion + (stamp.isEmpty() ? 0 : ((Number) stamp.get(0)).longValue());
+        } catch (RuntimeException ex) {
+            log.warn("User rights version unavailable for {}: {}", userId, ex.getMessage());
+            return UserRights.UNKNOWN_VERSION;
+        }
+    }
+
+    private boolean isLive(CachedRights cached, long globalVersion, long nowNanos) {
+        return cached != null && cached.expiresAtNanos() - nowNanos > 0
+                && (cached.globalVersion() == UserRights.UNKNOWN_VERSION
+                || (globalVersion != UserRights.UNKNOWN_VERSION && cached.globalVersion() == globalVersion));
+    }
+
+    @SuppressWarnings("unchecked")
+    private UserRights loadUserRights(String userId, long globalVersion) {
+        // Read the versions first: a change committed during the load moves one of them, so these rights
+        // never get stamped with a version newer than what they reflect
+        long rightsVersion = globalVersion == UserRights.UNKNOWN_VERSION
+                ? UserRights.UNKNOWN_VERSION
+                : userVersion(userId, globalVersion);
+
+        Query query = entityManager.createNativeQuery(materialized ? MATERIALIZED_RIGHTS_SQL : RIGHTS_SQL);
+        query.setParameter("userId", userId);
+        List<Object[]> rows = query.getResultList();
+
+        Set<String> roles = new LinkedHashSet<>();
+        Set<String> permissions = new LinkedHashSet<>();
+        for (Object[] row : rows) {
+            if (row[0] != null) {
+                roles.add((String) row[0]);
+            }
+            if (row[1] != null) {
+                permissions.add((String) row[1]);
+            }
+        }
+        return new UserRights(List.copyOf(roles), List.copyOf(permissions), rightsVersion);
+    }
+
+    private void put(String userId, UserRights rights, long globalVersion) {
+        if (cache.size() >= cacheProperties.getMaxEntries() && !cache.containsKey(userId)) {
+            evict();
+        }
+        cache.put(userId, new CachedRights(rights, globalVersion, System.nanoTime() + cacheProperties.getTtl().toNanos()));
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+        cache.values().removeIf(entry -> entry.expiresAtNanos() - now <= 0);
+        if (cache.size() < cacheProperties.getMaxEntries()) {
+            return;
+        }
+
+        // Still full of live entries: drop an arbitrary tenth rather than growing past the bound
+        int toDrop = Math.max(1, cacheProperties.getMaxEntries() / 10);
+        Iterator<String> keys = new ArrayList<>(cache.keySet()).iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            cache.remove(keys.next());
+        }
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("auth.rights.lookup")
+                .tag("source", source)
+                .description("Latency of user rights resolution")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    private static Instant toInstant(Object timestamp) {
+        if (timestamp instanceof Instant instant) {
+            return instant;
+        }
+        if (timestamp instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        return ((Timestamp) timestamp).toInstant();
+    }
+
+    private record CachedRights(UserRights rights, long globalVersion, long expiresAtNanos) {
+    }
+
+    // readAt is the database clock at the read, the start of the next changed-users window
+    private record CachedVersion(long version, Instant readAt, long readAtNanos) {
     }
 }
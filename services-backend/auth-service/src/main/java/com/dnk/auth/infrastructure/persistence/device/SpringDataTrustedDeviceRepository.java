@@ -0,0 +1,24 @@
+package com.dnk.auth.infrastructure.persistence.device;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface SpringDataTrustedDeviceRepository extends JpaRepository<TrustedDeviceEntity, UUID> {
+
+    List<TrustedDeviceEntity> findByUserIdAndRevokedAtIsNullAndExpiresAtAfterOrderByCreatedAtDesc(String userId,
+            Instant now);
+
+    @Modifying
+    @Query("update TrustedDeviceEntity d set d.revokedAt = :now "
+            + "where d.id = :id and d.userId = :userId and d.revokedAt is null")
+    int revoke(@Param("userId") String userId, @Param("id") UUID id, @Param("now") Instant now);
+
+    @Query("select d.id from TrustedDeviceEntity d where d.revokedAt >= :since")
+    List<UUID> findIdsRevokedSince(@Param("since") Instant since);
+}
@@ -0,0 +1,151 @@
+package com.dnk.auth.infrastructure.persistence.device;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dnk.auth.application.port.out.TrustedDeviceRegistryPort;
+import com.dnk.auth.domain.model.TrustedDevice;
+import com.dnk.auth.infrastructure.config.TrustedDeviceProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Device registry in {@code auth_schema.trusted_device} with a read-through in-memory index, so a
+ * returning device is usually recognised without touching the database. Revocations made on this node
+ * update the index at once; those made elsewhere are pulled in every {@code syncInterval}.
+ */
+@Repository
+@ConditionalOnProperty(name = "auth.device.enabled", havingValue = "true")
+public class TrustedDeviceRegistryAdapter implements TrustedDeviceRegistryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(TrustedDeviceRegistryAdapter.class);
+
+    private final SpringDataTrustedDeviceRepository jpaRepository;
+    private final TrustedDeviceProperties properties;
+    // Revoked devices stay indexed (as tombstones) so a replayed token does not reach the database
+    private final ConcurrentHashMap<UUID, TrustedDevice> index = new ConcurrentHashMap<>();
+    private volatile Instant lastSync = Instant.now();
+
+    public TrustedDeviceRegistryAdapter(SpringDataTrustedDeviceRepository jpaRepository,
+                                        TrustedDeviceProperties properties,
+                                        MeterRegistry meterRegistry) {
+        this.jpaRepository = jpaRepository;
+        this.properties = properties;
+
+        Gauge.builder("auth.device.index.entries", index, ConcurrentHashMap::size)
+                .description("Trusted devices held in the in-memory index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public TrustedDevice register(String userId, String label, Instant expiresAt) {
+        TrustedDeviceEntity entity = new TrustedDeviceEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setUserId(userId);
+        entity.setLabel(label);
+        entity.setCreatedAt(Instant.now());
+        entity.setExpiresAt(expiresAt);
+
+        TrustedDevice device = mapToDomain(jpaRepository.save(entity));
+        put(device);
+        return device;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TrustedDevice> findById(UUID deviceId) {
+        TrustedDevice indexed = index.get(deviceId);
+        if (indexed != null) {
+            return Optional.of(indexed);
+        }
+
+        // Registered on another node, or evicted: load once and keep it
+        Optional<TrustedDevice> loaded = jpaRepository.findById(deviceId).map(this::mapToDomain);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<TrustedDevice> findActiveByUserId(String userId, Instant now) {
+        return jpaRepository.findByUserIdAndRevokedAtIsNullAndExpiresAtAfterOrderByCreatedAtDesc(userId, now).stream()
+                .map(this::mapToDomain)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public boolean revoke(String userId, UUID deviceId) {
+        Instant now = Instant.now();
+        if (jpaRepository.revoke(userId, deviceId, now) != 1) {
+            return false;
+        }
+        index.computeIfPresent(deviceId, (id, device) -> new TrustedDevice(id, device.getUserId(), device.getLabel(),
+                device.getCreatedAt(), device.getExpiresAt(), now));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.device.sync-interval:PT30S}", initialDelayString = "${auth.device.sync-interval:PT30S}")
+    @Transactional(readOnly = true)
+    public void syncRevocations() {
+        Instant now = Instant.now();
+        // Overlap the previous window by one interval to tolerate clock skew between nodes
+        Instant since = lastSync.minus(properties.getSyncInterval());
+        lastSync = now;
+
+        List<UUID> revoked = jpaRepository.findIdsRevokedSince(since);
+        // Dropped entries are re-read (now revoked) on their next lookup
+        revoked.forEach(index::remove);
+        index.values().removeIf(device -> !device.getExpiresAt().isAfter(now));
+
+        if (!revoked.isEmpty()) {
+            log.debug("Trusted device sync: {} revocations applied", revoked.size());
+        }
+    }
+
+    private void put(TrustedDevice device) {
+        if (index.size() >= properties.getMaxEntries() && !index.containsKey(device.getId())) {
+            evict();
+        }
+        index.put(device.getId(), device);
+    }
+
+    private void evict() {
+        Instant now = Instant.now();
+        index.values().removeIf(device -> !device.getExpiresAt().isAfter(now));
+        if (index.size() < properties.getMaxEntries()) {
+            return;
+        }
+
+        // Still full: drop an arbitrary tenth; evicted devices are simply re-read on their next login
+        int toDrop = Math.max(1, properties.getMaxEntries() / 10);
+        Iterator<UUID> keys = new ArrayList<>(index.keySet()).iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            index.remove(keys.next());
+        }
+    }
+
+    private TrustedDevice mapToDomain(TrustedDeviceEntity entity) {
+        return new TrustedDevice(
+                entity.getId(),
+                entity.getUserId(),
+                entity.getLabel(),
+                entity.getCreatedAt(),
+                entity.getExpiresAt(),
+                entity.getRevokedAt());
+    }
+}
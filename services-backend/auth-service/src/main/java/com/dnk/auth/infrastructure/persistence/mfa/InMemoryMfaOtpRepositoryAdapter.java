@@ -0,0 +1,213 @@
+package com.dnk.auth.infrastructure.persistence.mfa;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Repository;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.port.out.MfaOtpRepositoryPort;
+import com.dnk.auth.application.port.out.PasswordHashingPort;
+import com.dnk.auth.domain.model.MfaOtp;
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Node-local OTP store keyed by userId. Only the newest OTP per user is kept, which matches the
+ * database adapter because every login invalidates the previous codes before saving a new one.
+ * Expired entries are reclaimed by a one-second timing wheel that spans the OTP lifetime.
+ * Only suitable for single-instance deployments or sticky routing of login and verify.
+ */
+@Repository
+@ConditionalOnProperty(name = "mfa.otp.store", havingValue = "memory")
+public class InMemoryMfaOtpRepositoryAdapter implements MfaOtpRepositoryPort {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryMfaOtpRepositoryAdapter.class);
+
+    private static final long TICK_MILLIS = 1_000;
+    // One slot per second of the default lifetime plus slack, so a slot is never reused before it fires
+    private static final int WHEEL_SLOTS = (int) (MfaOtp.DEFAULT_EXPIRATION.toMillis() / TICK_MILLIS) + 2;
+
+    private final PasswordHashingPort passwordHashingPort;
+    private final int maxEntries;
+
+    private final ConcurrentHashMap<String, MfaOtp> otpByUser = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, String> userByOtpId = new ConcurrentHashMap<>();
+    private final List<Queue<WheelEntry>> wheel;
+    private volatile long currentTick;
+
+    public InMemoryMfaOtpRepositoryAdapter(PasswordHashingPort passwordHashingPort,
+                                           MfaOtpProperties properties,
+                                           MeterRegistry meterRegistry) {
+        this.passwordHashingPort = passwordHashingPort;
+        this.maxEntries = properties.getMaxEntries();
+
+        List<Queue<WheelEntry>> slots = new ArrayList<>(WHEEL_SLOTS);
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            slots.add(new ConcurrentLinkedQueue<>());
+        }
+        this.wheel = List.copyOf(slots);
+        this.currentTick = System.currentTimeMillis() / TICK_MILLIS;
+
+        Gauge.builder("mfa.otp.store.entries", otpByUser, ConcurrentHashMap::size)
+                .description("OTPs held by the in-memory store")
+                .register(meterRegistry);
+
+        log.info("Using in-memory OTP store (max {} entries)", maxEntries);
+    }
+
+    @Override
+    public MfaOtp save(MfaOtp mfaOtp) {
+        Instant now = Instant.now();
+
+        UUID id = mfaOtp.getId() != null ? mfaOtp.getId() : UUID.randomUUID();
+        Instant createdAt = mfaOtp.getCreatedAt() != null ? mfaOtp.getCreatedAt() : now;
+        Instant expiresAt = mfaOtp.getExpiresAt() != null ? mfaOtp.getExpiresAt() : createdAt.plus(MfaOtp.DEFAULT_EXPIRATION);
+
+        if (otpByUser.size() >= maxEntries && !otpByUser.containsKey(mfaOtp.getUserId())) {
+            expire(now);
+            if (otpByUser.size() >= maxEntries) {
+                throw new AuthException("Too many pending verifications, try again later");
+            }
+        }
+
+        MfaOtp stored = new MfaOtp(
+                id,
+                mfaOtp.getUserId(),
+                mfaOtp.getEmail(),
+                passwordHashingPort.hash(mfaOtp.getOtpHash()),
+                expiresAt,
+                mfaOtp.getVerifiedAt(),
+                createdAt,
+                mfaOtp.getDeliveredAt());
+
+        MfaOtp previous = otpByUser.put(stored.getUserId(), stored);
+        if (previous != null) {
+            userByOtpId.remove(previous.getId());
+        }
+        userByOtpId.put(id, stored.getUserId());
+        schedule(new WheelEntry(stored.getUserId(), id, expiresAt), now);
+
+        return stored;
+    }
+
+    @Override
+    public Optional<MfaOtp> findValidByUserId(String userId, Instant now) {
+        MfaOtp otp = otpByUser.get(userId);
+        if (otp == null || otp.getVerifiedAt() != null || !otp.getExpiresAt().isAfter(now)) {
+            return Optional.empty();
+        }
+        return Optional.of(otp);
+    }
+
+    @Override
+    public Optional<MfaOtp> consumeValid(String userId, String rawOtp, Instant now) {
+        // The check and removal run under the map's per-key lock, so only one concurrent caller wins;
+        // a verified OTP can never be valid again, so it is simply dropped
+        AtomicReference<MfaOtp> consumed = new AtomicReference<>();
+        otpByUser.computeIfPresent(userId, (key, otp) -> {
+            if (otp.getVerifiedAt() == null
+                    && otp.getExpiresAt().isAfter(now)
+                    && passwordHashingPort.matches(rawOtp, otp.getOtpHash())) {
+                consumed.set(otp);
+                return null;
+            }
+            return otp;
+        });
+
+        MfaOtp otp = consumed.get();
+        if (otp == null) {
+            return Optional.empty();
+        }
+        userByOtpId.remove(otp.getId());
+        return Optional.of(new MfaOtp(
+                otp.getId(),
+                otp.getUserId(),
+                otp.getEmail(),
+                otp.getOtpHash(),
+                otp.getExpiresAt(),
+                now,
+                otp.getCreatedAt(),
+                otp.getDeliveredAt()));
+    }
+
+    @Override
+    public void invalidateAllForUser(String userId) {
+        MfaOtp removed = otpByUser.remove(userId);
+        if (removed != null) {
+            userByOtpId.remove(removed.getId());
+        }
+    }
+
+    @Override
+    public void markDelivered(UUID id, Instant deliveredAt) {
+        String userId = userByOtpId.get(id);
+        if (userId == null) {
+            return;
+        }
+        otpByUser.computeIfPresent(userId, (key, otp) -> !otp.getId().equals(id) ? otp : new MfaOtp(
+                otp.getId(),
+                otp.getUserId(),
+                otp.getEmail(),
+                otp.getOtpHash(),
+                otp.getExpiresAt(),
+                otp.getVerifiedAt(),
+                otp.getCreatedAt(),
+                deliveredAt));
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        expire(Instant.now());
+    }
+
+    private synchronized void expire(Instant now) {
+        long targetTick = now.toEpochMilli() / TICK_MILLIS;
+        // Never walk more than one full revolution, even after a long pause
+        long fromTick = Math.max(currentTick, targetTick - WHEEL_SLOTS + 1);
+
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            Queue<WheelEntry> slot = wheel.get((int) (tick % WHEEL_SLOTS));
+            int pending = slot.size();
+            for (int i = 0; i < pending; i++) {
+                WheelEntry entry = slot.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entry.expiresAt().isAfter(now)) {
+                    // Not due yet (lifetime longer than the wheel or entry added after this pass)
+                    schedule(entry, now);
+                    continue;
+                }
+                otpByUser.computeIfPresent(entry.userId(),
+                        (key, otp) -> otp.getId().equals(entry.otpId()) ? null : otp);
+                userByOtpId.remove(entry.otpId());
+            }
+        }
+        currentTick = targetTick + 1;
+    }
+
+    private void schedule(WheelEntry entry, Instant now) {
+        long remainingMillis = Math.max(0, Duration.between(now, entry.expiresAt()).toMillis());
+        long ticksAhead = Math.min((remainingMillis + TICK_MILLIS - 1) / TICK_MILLIS, WHEEL_SLOTS - 1);
+        long tick = Math.max(now.toEpochMilli() / TICK_MILLIS + ticksAhead, currentTick);
+        wheel.get((int) (tick % WHEEL_SLOTS)).add(entry);
+    }
+
+    private record WheelEntry(String userId, UUID otpId, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.dnk.auth.infrastructure.persistence.mfa;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+
+/**
+ * Removes spent rows from {@code auth_schema.mfa_otp}: verified codes, and expired ones (including those
+ * {@code invalidateAllForUser} expired early). Nothing reads them again, so they go on the next run.
+ * <p>
+ * In {@code delete} mode rows are deleted oldest first in small batches, each in its own short
+ * transaction, walking a (created_at, id) keyset so dead index entries at the head are not rescanned.
+ * In {@code partition} mode (table converted with {@code database/mfa-otp-partitioning.sql}) upcoming
+ * daily partitions are created and whole days past the retention are dropped. Rows that land in the
+ * DEFAULT partition (no daily partition existed yet) move into their day's partition once it is created,
+ * and any left there past the retention are deleted.
+ */
+@Component
+@ConditionalOnExpression("'${mfa.otp.store:database}' == 'database' and ${mfa.otp.purge.enabled:true}")
+public class MfaOtpPurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(MfaOtpPurgeJob.class);
+
+    private static final String PARTITION_PREFIX = "mfa_otp_p";
+    private static final String DEFAULT_PARTITION = "mfa_otp_default";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    // DDL on the parent queues behind (and then blocks) logins, so give up quickly and retry next run
+    private static final String DDL_LOCK_TIMEOUT = "SET LOCAL lock_timeout = '2s'";
+
+    private static final String DELETE_BATCH_SQL =
+            "WITH batch AS ("
+                    + " SELECT id FROM auth_schema.mfa_otp"
+                    + " WHERE (verified_at IS NOT NULL OR expires_at < :now)"
+                    + " AND (created_at, id) > (:afterCreatedAt, :afterId)"
+                    + " ORDER BY created_at, id"
+                    + " LIMIT :limit"
+                    + " FOR UPDATE SKIP LOCKED)"
+                    + " DELETE FROM auth_schema.mfa_otp o USING batch WHERE o.id = batch.id"
+                    + " RETURNING o.created_at, o.id";
+
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i"
+                    + " JOIN pg_class c ON c.oid = i.inhrelid"
+                    + " JOIN pg_class p ON p.oid = i.inhparent"
+                    + " JOIN pg_namespace n ON n.oid = p.relnamespace"
+                    + " WHERE n.nspname = 'auth_schema' AND p.relname = 'mfa_otp'";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+    private final MfaOtpProperties.Purge properties;
+
+    private final Counter purgedRows;
+    private final Counter droppedPartitions;
+    private final Timer duration;
+
+    public MfaOtpPurgeJob(PlatformTransactionManager transactionManager,
+                          MfaOtpProperties mfaOtpProperties,
+                          MeterRegistry meterRegistry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = mfaOtpProperties.getPurge();
+
+        this.purgedRows = Counter.builder("mfa.otp.purge.rows")
+                .description("Expired or verified OTP rows deleted by the purge job")
+                .register(meterRegistry);
+        this.droppedPartitions = Counter.builder("mfa.otp.purge.partitions.dropped")
+                .description("Daily mfa_otp partitions dropped by the purge job")
+                .register(meterRegistry);
+        this.duration = Timer.builder("mfa.otp.purge.duration")
+                .description("Duration of one OTP purge run")
+                .register(meterRegistry);
+
+        log.info("OTP purge job enabled in {} mode every {}", properties.getMode(), properties.getInterval());
+    }
+
+    @Scheduled(fixedDelayString = "${mfa.otp.purge.interval:PT5M}", initialDelayString = "${mfa.otp.purge.interval:PT5M}")
+    public void purge() {
+        Instant now = Instant.now();
+        Instant cutoff = now.minus(properties.getRetention());
+        long start = System.nanoTime();
+
+        try {
+            if ("partition".equalsIgnoreCase(properties.getMode())) {
+                createUpcomingPartitions();
+                int dropped = dropPartitionsBefore(cutoff);
+                int strays = deleteDefaultPartitionRowsBefore(cutoff);
+                log.info("OTP purge dropped {} partitions and {} default-partition rows older than {}", dropped, strays, cutoff);
+            } else {
+                long deleted = deleteSpentRows(now);
+                log.info("OTP purge deleted {} verified or expired rows", deleted);
+            }
+        } catch (DataAccessException | PersistenceException ex) {
+            log.warn("OTP purge run failed, will retry next run: {}", ex.getMessage());
+        } finally {
+            duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private long deleteSpentRows(Instant now) {
+        Instant afterCreatedAt = Instant.EPOCH;
+        UUID afterId = new UUID(0L, 0L);
+        long total = 0;
+
+        while (true) {
+            List<Object[]> deleted = deleteBatch(now, afterCreatedAt, afterId);
+            total += deleted.size();
+            purgedRows.increment(deleted.size());
+
+            if (deleted.size() < properties.getBatchSize()) {
+                return total;
+            }
+
+            // Advance the keyset to the last deleted row; rows skipped because they were locked are left for the next run
+            for (Object[] row : deleted) {
+                Instant createdAt = (Instant) row[0];
+                UUID id = (UUID) row[1];
+                if (createdAt.isAfter(afterCreatedAt) || (createdAt.equals(afterCreatedAt) && id.compareTo(afterId) > 0)) {
+                    afterCreatedAt = createdAt;
+                    afterId = id;
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> deleteBatch(Instant now, Instant afterCreatedAt, UUID afterId) {
+        return transactionTemplate.execute(status -> entityManager.createNativeQuery(DELETE_BATCH_SQL)
+                .unwrap(NativeQuery.class)
+                .addScalar("created_at", Instant.class)
+                .addScalar("id", UUID.class)
+                .setParameter("now", now)
+                .setParameter("afterCreatedAt", afterCreatedAt)
+                .setParameter("afterId", afterId)
+                .setParameter("limit", properties.getBatchSize())
+                .getResultList());
+    }
+
+    private void createUpcomingPartitions() {
+        if (!exists(DEFAULT_PARTITION)) {
+            executeDdl("CREATE TABLE IF NOT EXISTS auth_schema." + DEFAULT_PARTITION + " PARTITION OF auth_schema.mfa_otp DEFAULT");
+        }
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= properties.getPartitionsAhead(); i++) {
+            createPartition(today.plusDays(i));
+        }
+    }
+
+    /**
+     * Creating a partition whose range has rows in the DEFAULT partition fails, so the new partition is
+     * built detached, takes over those rows, and is then attached, all in one transaction.
+     */
+    private void createPartition(LocalDate day) {
+        String partition = partitionName(day);
+        if (exists(partition)) {
+            return;
+        }
+
+        String from = "'" + day + " 00:00:00+00'";
+        String to = "'" + day.plusDays(1) + " 00:00:00+00'";
+        String inRange = " WHERE created_at >= " + from + " AND created_at < " + to;
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery(DDL_LOCK_TIMEOUT).executeUpdate();
+            entityManager.createNativeQuery("CREATE TABLE auth_schema." + partition
+                    + " (LIKE auth_schema.mfa_otp INCLUDING DEFAULTS)").executeUpdate();
+            entityManager.createNativeQuery("INSERT INTO auth_schema." + partition
+                    + " SELECT * FROM auth_schema." + DEFAULT_PARTITION + inRange).executeUpdate();
+            entityManager.createNativeQuery("DELETE FROM auth_schema." + DEFAULT_PARTITION + inRange).executeUpdate();
+            entityManager.createNativeQuery("ALTER TABLE auth_schema.mfa_otp ATTACH PARTITION auth_schema." + partition
+                    + " FOR VALUES FROM (" + from + ") TO (" + to + ")").executeUpdate();
+        });
+    }
+
+    private int deleteDefaultPartitionRowsBefore(Instant cutoff) {
+        Integer deleted = transactionTemplate.execute(status -> entityManager
+                .createNativeQuery("DELETE FROM auth_schema." + DEFAULT_PARTITION + " WHERE created_at < :cutoff")
+                .setParameter("cutoff", cutoff)
+                .executeUpdate());
+        int count = deleted == null ? 0 : deleted;
+        purgedRows.increment(count);
+        return count;
+    }
+
+    private boolean exists(String table) {
+        Object found = transactionTemplate.execute(status -> entityManager
+                .createNativeQuery("SELECT to_regclass(:name) IS NOT NULL")
+                .setParameter("name", "auth_schema." + table)
+                .getSingleResult());
+        return Boolean.TRUE.equals(found);
+    }
+
+    @SuppressWarnings("unchecked")
+    private int dropPartitionsBefore(Instant cutoff) {
+        List<String> partitions = transactionTemplate.execute(status ->
+                entityManager.createNativeQuery(LIST_PARTITIONS_SQL).getResultList());
+
+        int dropped = 0;
+        for (String partition : partitions) {
+            LocalDate day = partitionDay(partition);
+            // A partition is dropped only once its whole day is past the retention
+            if (day == null || day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().isAfter(cutoff)) {
+                continue;
+            }
+            executeDdl("DROP TABLE IF EXISTS auth_schema." + partition);
+            droppedPartitions.increment();
+            dropped++;
+        }
+        return dropped;
+    }
+
+    private void executeDdl(String sql) {
+        transactionTemplate.executeWithoutResult(status -> {
+            entityManager.createNativeQuery(DDL_LOCK_TIMEOUT).executeUpdate();
+            entityManager.createNativeQuery(sql).executeUpdate();
+        });
+    }
+
+    private static String partitionName(LocalDate day) {
+        return PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+    }
+
+    private static LocalDate partitionDay(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
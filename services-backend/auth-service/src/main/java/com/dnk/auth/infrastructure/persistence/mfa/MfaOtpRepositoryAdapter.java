@@ -1,28 +1,32 @@
 package com.dnk.auth.infrastructure.persistence.mfa;
 
-import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.dnk.auth.application.port.out.MfaOtpRepositoryPort;
+import com.dnk.auth.application.port.out.PasswordHashingPort;
 import com.dnk.auth.domain.model.MfaOtp;
 
 @Repository
+@ConditionalOnProperty(name = "mfa.otp.store", havingValue = "database", matchIfMissing = true)
 public class MfaOtpRepositoryAdapter implements MfaOtpRepositoryPort {
 
-    private static final Duration DEFAULT_EXPIRATION = Duration.ofMinutes(5);
-
     private final SpringDataMfaOtpRepository jpaRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingPort passwordHashingPort;
+    // Until when a row hashed with BCrypt before the switch to a deterministic hash can still be consumed;
+    // read once on the first miss, since this instance never writes such rows again
+    private volatile Instant saltedRowsValidUntil;
 
-    public MfaOtpRepositoryAdapter(SpringDataMfaOtpRepository jpaRepository) {
+    public MfaOtpRepositoryAdapter(SpringDataMfaOtpRepository jpaRepository,
+                                   PasswordHashingPort passwordHashingPort) {
         this.jpaRepository = jpaRepository;
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHashingPort = passwordHashingPort;
     }
 
     @Override
@@ -32,9 +36,9 @@ public class MfaOtpRepositoryAdapter implements MfaOtpRepositoryPort {
 
         UUID id = mfaOtp.getId() != null ? mfaOtp.getId() : UUID.randomUUID();
         Instant createdAt = mfaOtp.getCreatedAt() != null ? mfaOtp.getCreatedAt() : now;
-        Instant expiresAt = mfaOtp.getExpiresAt() != null ? mfaOtp.getExpiresAt() : createdAt.plus(DEFAULT_EXPIRATION);
+        Instant expiresAt = mfaOtp.getExpiresAt() != null ? mfaOtp.getExpiresAt() : createdAt.plus(MfaOtp.DEFAULT_EXPIRATION);
 
-        String hashedOtp = passwordEncoder.encode(mfaOtp.getOtpHash());
+        String hashedOtp = passwordHashingPort.hash(mfaOtp.getOtpHash());
 
         MfaOtpEntity entity = new MfaOtpEntity();
         entity.setId(id);
@@ -44,6 +48,7 @@ public class MfaOtpRepositoryAdapter implements MfaOtpRepositoryPort {
         entity.setExpiresAt(expiresAt);
         entity.setVerifiedAt(mfaOtp.getVerifiedAt());
         entity.setCreatedAt(createdAt);
+        entity.setDeliveredAt(mfaOtp.getDeliveredAt());
 
         MfaOtpEntity saved = jpaRepository.save(entity);
         return mapToDomain(saved);
@@ -59,8 +64,41 @@ public class MfaOtpRepositoryAdapter implements MfaOtpRepositoryPort {
 
     @Override
     @Transactional
-    public void markVerified(UUID id, Instant verifiedAt) {
-        jpaRepository.updateVerifiedAt(id, verifiedAt);
+    public Optional<MfaOtp> consumeValid(String userId, String rawOtp, Instant now) {
+        if (passwordHashingPort.isDeterministic()) {
+            List<MfaOtpEntity> consumed = jpaRepository.consumeByHash(userId, passwordHashingPort.hash(rawOtp), now);
+            if (!consumed.isEmpty()) {
+                return Optional.of(mapToDomain(consumed.get(0)));
+            }
+            if (!saltedRowsMayBeValid(now)) {
+                return Optional.empty();
+            }
+        }
+
+        // Salted hashes (and rows written before a switch to a deterministic hash) cannot be matched in SQL,
+        // so the newest valid row is checked here and then consumed only if still unverified
+        Optional<MfaOtpEntity> candidate = jpaRepository
+                .findFirstByUserIdAndVerifiedAtIsNullAndExpiresAtAfterOrderByCreatedAtDesc(userId, now);
+        if (candidate.isEmpty() || !passwordHashingPort.matches(rawOtp, candidate.get().getOtpHash())) {
+            return Optional.empty();
+        }
+        if (jpaRepository.consumeById(candidate.get().getId(), now).isEmpty()) {
+            return Optional.empty();
+        }
+        // The returned row resolves to the candidate already loaded in this persistence context, which still
+        // reads as unverified, so the consumed OTP is built from it with the timestamp the UPDATE wrote
+        MfaOtp otp = mapToDomain(candidate.get());
+        return Optional.of(new MfaOtp(otp.getId(), otp.getUserId(), otp.getEmail(), otp.getOtpHash(),
+                otp.getExpiresAt(), now, otp.getCreatedAt(), otp.getDeliveredAt()));
+    }
+
+    private boolean saltedRowsMayBeValid(Instant now) {
+        Instant validUntil = saltedRowsValidUntil;
+        if (validUntil == null) {
+            validUntil = jpaRepository.findLatestSaltedExpiry(now).orElse(now);
+            saltedRowsValidUntil = validUntil;
+        }
+        return now.isBefore(validUntil);
     }
 
     @Override
@@ -70,6 +108,12 @@ public class MfaOtpRepositoryAdapter implements MfaOtpRepositoryPort {
         jpaRepository.invalidateAllForUser(userId, now);
     }
 
+    @Override
+    @Transactional
+    public void markDelivered(UUID id, Instant deliveredAt) {
+        jpaRepository.markDelivered(id, deliveredAt);
+    }
+
     private MfaOtp mapToDomain(MfaOtpEntity entity) {
         return new MfaOtp(
                 entity.getId(),
@@ -78,6 +122,7 @@ public class MfaOtpRepositoryAdapter implements MfaOtpRepositoryPort {
                 entity.getOtpHash(),
                 entity.getExpiresAt(),
                 entity.getVerifiedAt(),
-                entity.getCreatedAt());
+                entity.getCreatedAt(),
+                entity.getDeliveredAt());
     }
 }
@@ -1,6 +1,7 @@
 package com.dnk.auth.infrastructure.persistence.mfa;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,11 +15,29 @@ public interface SpringDataMfaOtpRepository extends JpaRepository<MfaOtpEntity,
     Optional<MfaOtpEntity> findFirstByUserIdAndVerifiedAtIsNullAndExpiresAtAfterOrderByCreatedAtDesc(String userId,
             Instant now);
 
-    @Modifying
-    @Query("update MfaOtpEntity o set o.verifiedAt = :verifiedAt where o.id = :id")
-    void updateVerifiedAt(@Param("id") UUID id, @Param("verifiedAt") Instant verifiedAt);
+    // Finds and consumes in one statement; a concurrent consumer re-checks verified_at after the row lock and gets nothing
+    @Query(value = "UPDATE auth_schema.mfa_otp SET verified_at = :now "
+            + "WHERE user_id = :userId AND otp_hash = :otpHash AND verified_at IS NULL AND expires_at > :now "
+            + "RETURNING *", nativeQuery = true)
+    List<MfaOtpEntity> consumeByHash(@Param("userId") String userId,
+                                     @Param("otpHash") String otpHash,
+                                     @Param("now") Instant now);
+
+    @Query(value = "UPDATE auth_schema.mfa_otp SET verified_at = :now "
+            + "WHERE id = :id AND verified_at IS NULL AND expires_at > :now "
+            + "RETURNING *", nativeQuery = true)
+    List<MfaOtpEntity> consumeById(@Param("id") UUID id, @Param("now") Instant now);
+
+    // BCrypt hashes start with $2a$, $2b$ or $2y$; deterministic hashes carry their own prefix
+    @Query("select max(o.expiresAt) from MfaOtpEntity o "
+            + "where o.otpHash like '$2%' and o.verifiedAt is null and o.expiresAt > :now")
+    Optional<Instant> findLatestSaltedExpiry(@Param("now") Instant now);
 
     @Modifying
     @Query("update MfaOtpEntity o set o.expiresAt = :now where o.userId = :userId and o.verifiedAt is null and o.expiresAt > :now")
     void invalidateAllForUser(@Param("userId") String userId, @Param("now") Instant now);
+
+    @Modifying
+    @Query("update MfaOtpEntity o set o.deliveredAt = :deliveredAt where o.id = :id")
+    void markDelivered(@Param("id") UUID id, @Param("deliveredAt") Instant deliveredAt);
 }
@@ -0,0 +1,22 @@
+package com.dnk.auth.infrastructure.persistence.totp;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import jakarta.persistence.LockModeType;
+
+public interface SpringDataTotpCredentialRepository extends JpaRepository<TotpCredentialEntity, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from TotpCredentialEntity c where c.userId = :userId")
+    Optional<TotpCredentialEntity> findForUpdate(@Param("userId") String userId);
+
+    @Modifying
+    @Query("update TotpCredentialEntity c set c.lastUsedStep = :step where c.userId = :userId and c.lastUsedStep < :step")
+    int advanceLastUsedStep(@Param("userId") String userId, @Param("step") long step);
+}
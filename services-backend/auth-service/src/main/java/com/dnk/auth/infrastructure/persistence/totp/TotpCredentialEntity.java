@@ -0,0 +1,95 @@
+package com.dnk.auth.infrastructure.persistence.totp;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+@Entity
+@Table(name = "totp_credential", schema = "auth_schema")
+public class TotpCredentialEntity {
+
+    @Id
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "secret_ciphertext")
+    private String secretCiphertext;
+
+    @Column(name = "pending_secret_ciphertext")
+    private String pendingSecretCiphertext;
+
+    @Column(name = "confirmed_at")
+    private Instant confirmedAt;
+
+    @Column(name = "last_used_step", nullable = false)
+    private long lastUsedStep;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected TotpCredentialEntity() {
+        // for JPA
+    }
+
+    public TotpCredentialEntity(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getSecretCiphertext() {
+        return secretCiphertext;
+    }
+
+    public void setSecretCiphertext(String secretCiphertext) {
+        this.secretCiphertext = secretCiphertext;
+    }
+
+    public String getPendingSecretCiphertext() {
+        return pendingSecretCiphertext;
+    }
+
+    public void setPendingSecretCiphertext(String pendingSecretCiphertext) {
+        this.pendingSecretCiphertext = pendingSecretCiphertext;
+    }
+
+    public Instant getConfirmedAt() {
+        return confirmedAt;
+    }
+
+    public void setConfirmedAt(Instant confirmedAt) {
+        this.confirmedAt = confirmedAt;
+    }
+
+    public long getLastUsedStep() {
+        return lastUsedStep;
+    }
+
+    public void setLastUsedStep(long lastUsedStep) {
+        this.lastUsedStep = lastUsedStep;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dnk.auth.infrastructure.persistence.totp;
+
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dnk.auth.application.port.out.TotpCredentialRepositoryPort;
+import com.dnk.auth.domain.model.TotpCredential;
+import com.dnk.auth.infrastructure.security.TotpSecretCipher;
+
+@Repository
+@ConditionalOnProperty(name = "mfa.totp.enabled", havingValue = "true")
+public class TotpCredentialRepositoryAdapter implements TotpCredentialRepositoryPort {
+
+    private final SpringDataTotpCredentialRepository jpaRepository;
+    private final TotpSecretCipher secretCipher;
+
+    public TotpCredentialRepositoryAdapter(SpringDataTotpCredentialRepository jpaRepository,
+                                           TotpSecretCipher secretCipher) {
+        this.jpaRepository = jpaRepository;
+        this.secretCipher = secretCipher;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<TotpCredential> findByUserId(String userId) {
+        return jpaRepository.findById(userId).map(this::mapToDomain);
+    }
+
+    @Override
+    @Transactional
+    public void savePending(String userId, String email, byte[] pendingSecret) {
+        TotpCredentialEntity entity = jpaRepository.findById(userId)
+                .orElseGet(() -> new TotpCredentialEntity(userId));
+
+        // Only the pending secret is replaced: a confirmed secret stays active until the new one is confirmed
+        entity.setEmail(email);
+        entity.setPendingSecretCiphertext(secretCipher.encrypt(userId, pendingSecret));
+        entity.setCreatedAt(Instant.now());
+        jpaRepository.save(entity);
+    }
+
+    @Override
+    @Transactional
+    public boolean confirm(String userId, byte[] pendingSecret, long step) {
+        TotpCredentialEntity entity = jpaRepository.findForUpdate(userId).orElse(null);
+        if (entity == null || entity.getPendingSecretCiphertext() == null) {
+            return false;
+        }
+        // Another enrollment may have replaced the pending secret since the code was checked
+        byte[] stored = secretCipher.decrypt(userId, entity.getPendingSecretCiphertext());
+        if (!MessageDigest.isEqual(stored, pendingSecret)) {
+            return false;
+        }
+
+        entity.setSecretCiphertext(entity.getPendingSecretCiphertext());
+        entity.setPendingSecretCiphertext(null);
+        entity.setConfirmedAt(Instant.now());
+        entity.setLastUsedStep(Math.max(entity.getLastUsedStep(), step));
+        return true;
+    }
+
+    @Override
+    @Transactional
+    public boolean advanceUsedStep(String userId, long step) {
+        return jpaRepository.advanceLastUsedStep(userId, step) == 1;
+    }
+
+    private TotpCredential mapToDomain(TotpCredentialEntity entity) {
+        return new TotpCredential(
+                entity.getUserId(),
+                entity.getEmail(),
+                decrypt(entity.getUserId(), entity.getSecretCiphertext()),
+                decrypt(entity.getUserId(), entity.getPendingSecretCiphertext()),
+                entity.getConfirmedAt(),
+                entity.getLastUsedStep());
+    }
+
+    private byte[] decrypt(String userId, String ciphertext) {
+        return ciphertext != null ? secretCipher.decrypt(userId, ciphertext) : null;
+    }
+}
@@ -0,0 +1,86 @@
+package com.dnk.auth.infrastructure.ratelimit;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.application.exception.RateLimitExceededException;
+import com.dnk.auth.infrastructure.config.RateLimitProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Per-endpoint limits for the unauthenticated auth endpoints, keyed by client IP and, where the request
+ * names one, by user id. Runs before any BCrypt, database or SMTP work.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final TokenBucketRateLimiter limiter;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new TokenBucketRateLimiter(properties.getMaxEntries(), System::nanoTime);
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("auth.rate.limit.buckets", limiter, TokenBucketRateLimiter::size)
+                .description("Live rate limiter buckets")
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String clientIp) {
+        check("login", properties.getLogin(), clientIp, null);
+    }
+
+    public void checkVerify(String clientIp, String userId) {
+        check("verify", properties.getVerify(), clientIp, userId);
+    }
+
+    public void checkRefresh(String clientIp) {
+        check("refresh", properties.getRefresh(), clientIp, null);
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleBuckets() {
+        limiter.evictIdle();
+    }
+
+    private void check(String endpoint, RateLimitProperties.Endpoint limits, String clientIp, String userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // User first: it is the tighter limit and guards a single account against OTP guessing
+        if (userId != null) {
+            acquire(endpoint, "user", userId, limits.getUser());
+        }
+        if (clientIp != null) {
+            acquire(endpoint, "ip", clientIp, limits.getIp());
+        }
+    }
+
+    private void acquire(String endpoint, String scope, String key, RateLimitProperties.Limit limit) {
+        if (!limit.isEnabled()) {
+            return;
+        }
+        long waitNanos = limiter.tryAcquire(endpoint + ':' + scope + ':' + key, limit.getCapacity(), limit.getPeriod().toNanos());
+        if (waitNanos > 0) {
+            rejections.computeIfAbsent(endpoint + ':' + scope, k -> rejectionCounter(endpoint, scope)).increment();
+            throw new RateLimitExceededException("Too many requests", Duration.ofNanos(waitNanos));
+        }
+    }
+
+    private Counter rejectionCounter(String endpoint, String scope) {
+        return Counter.builder("auth.rate.limit.rejections")
+                .tag("endpoint", endpoint)
+                .tag("scope", scope)
+                .description("Requests rejected with 429 by the auth rate limiter")
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,81 @@
+package com.dnk.auth.infrastructure.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets kept as a single {@code long} per key: the "theoretical arrival time" of the generic cell
+ * rate algorithm, which is equivalent to a bucket of {@code capacity} tokens refilled one every
+ * {@code period / capacity}. Acquiring is one CAS loop on that long, so there are no locks, and the
+ * key map is a {@link ConcurrentHashMap} whose bins are already striped. A bucket whose arrival time has
+ * passed is full, i.e. indistinguishable from a new one, so idle buckets can be dropped without losing
+ * anything.
+ */
+public class TokenBucketRateLimiter {
+
+    private final int maxEntries;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    public TokenBucketRateLimiter(int maxEntries, LongSupplier nanoClock) {
+        this.maxEntries = maxEntries;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token from the bucket for {@code key}.
+     *
+     * @return 0 when allowed, otherwise the nanoseconds until a token becomes available
+     */
+    public long tryAcquire(String key, int capacity, long periodNanos) {
+        long interval = Math.max(1, periodNanos / capacity);
+        long tolerance = interval * capacity;
+        long now = nanoClock.getAsLong();
+
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries) {
+                evict(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long arrival = bucket.get();
+            long next = Math.max(arrival, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private void evict(long now) {
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+        if (buckets.size() < maxEntries) {
+            return;
+        }
+
+        // Still full of busy keys: drop an arbitrary tenth rather than growing past the bound
+        int toDrop = Math.max(1, maxEntries / 10);
+        Iterator<String> keys = new ArrayList<>(buckets.keySet()).iterator();
+        while (toDrop-- > 0 && keys.hasNext()) {
+            buckets.remove(keys.next());
+        }
+    }
+}
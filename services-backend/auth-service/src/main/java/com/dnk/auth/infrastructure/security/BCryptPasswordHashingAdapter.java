@@ -1,11 +1,13 @@
 package com.dnk.auth.infrastructure.security;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
 
 import com.dnk.auth.application.port.out.PasswordHashingPort;
 
 @Component
+@ConditionalOnProperty(name = "mfa.otp.hashing", havingValue = "bcrypt", matchIfMissing = true)
 public class BCryptPasswordHashingAdapter implements PasswordHashingPort {
 
     private final BCryptPasswordEncoder encoder;
@@ -0,0 +1,44 @@
+package com.dnk.auth.infrastructure.security;
+
+import java.io.IOException;
+import java.util.List;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.dnk.auth.application.port.out.TokenProviderPort;
+
+/**
+ * Authenticates requests that carry one of our own access tokens, for the few endpoints (TOTP enrollment)
+ * that act on an already signed-in user. The principal is the {@link com.dnk.auth.application.model.VerifiedToken}.
+ * Invalid tokens and refresh tokens are ignored here and rejected by the authorization rules.
+ */
+public class BearerTokenFilter extends OncePerRequestFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    private final TokenProviderPort tokenProviderPort;
+
+    public BearerTokenFilter(TokenProviderPort tokenProviderPort) {
+        this.tokenProviderPort = tokenProviderPort;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader("Authorization");
+        if (header != null && header.startsWith(PREFIX)) {
+            tokenProviderPort.verify(header.substring(PREFIX.length()))
+                    .filter(token -> !token.refreshToken())
+                    .ifPresent(token -> SecurityContextHolder.getContext().setAuthentication(
+                            new UsernamePasswordAuthenticationToken(token, null, List.of())));
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,75 @@
+package com.dnk.auth.infrastructure.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.application.port.out.PasswordHashingPort;
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+
+/**
+ * Server-keyed HMAC-SHA256 hashing for short-lived OTP codes.
+ * Hashes are stored as {@code hmac-sha256$<base64url>}; anything else is treated
+ * as a legacy BCrypt hash so rows written before the switch keep verifying.
+ */
+@Component
+@ConditionalOnProperty(name = "mfa.otp.hashing", havingValue = "hmac")
+public class HmacOtpHashingAdapter implements PasswordHashingPort {
+
+    private static final Logger log = LoggerFactory.getLogger(HmacOtpHashingAdapter.class);
+
+    private static final String PREFIX = "hmac-sha256$";
+    private static final int MIN_SECRET_LENGTH = 32;
+
+    private final KeyedHmacSha256 hmac;
+    private final BCryptPasswordEncoder legacyEncoder = new BCryptPasswordEncoder();
+
+    public HmacOtpHashingAdapter(MfaOtpProperties properties) {
+        String secret = properties.getHmacSecret();
+        if (secret == null || secret.length() < MIN_SECRET_LENGTH) {
+            throw new IllegalStateException("mfa.otp.hmac-secret must be at least " + MIN_SECRET_LENGTH
+                    + " characters when mfa.otp.hashing=hmac");
+        }
+        this.hmac = new KeyedHmacSha256(secret.getBytes(StandardCharsets.UTF_8));
+
+        log.info("OTP hashing mode: HMAC-SHA256 (legacy BCrypt hashes still accepted)");
+    }
+
+    @Override
+    public String hash(String raw) {
+        return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(mac(raw));
+    }
+
+    @Override
+    public boolean matches(String raw, String hash) {
+        if (raw == null || hash == null) {
+            return false;
+        }
+        if (!hash.startsWith(PREFIX)) {
+            return legacyEncoder.matches(raw, hash);
+        }
+
+        byte[] expected;
+        try {
+            expected = Base64.getUrlDecoder().decode(hash.substring(PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+        return MessageDigest.isEqual(expected, mac(raw));
+    }
+
+    @Override
+    public boolean isDeterministic() {
+        return true;
+    }
+
+    private byte[] mac(String raw) {
+        return hmac.doFinal(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
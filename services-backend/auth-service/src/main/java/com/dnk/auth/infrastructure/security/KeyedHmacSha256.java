@@ -0,0 +1,47 @@
+package com.dnk.auth.infrastructure.security;
+
+import java.security.GeneralSecurityException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * HMAC-SHA256 under one fixed key, safe to share between threads. Every call works on a clone of a
+ * prototype keyed once at construction, which copies the already computed key pads instead of looking up
+ * the provider and keying a new {@link Mac}. Requests run on virtual threads created per request, so a
+ * per-thread {@link Mac} would be keyed afresh on nearly every call; a clone does not depend on thread reuse.
+ */
+public final class KeyedHmacSha256 {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    // Only ever cloned, never updated, so concurrent clones see a stable state
+    private final Mac prototype;
+
+    public KeyedHmacSha256(byte[] key) {
+        this.key = new SecretKeySpec(key, ALGORITHM);
+        this.prototype = newMac();
+    }
+
+    public byte[] doFinal(byte[] data) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException ex) {
+            // Providers are not required to support cloning; the JDK one does
+            mac = newMac();
+        }
+        return mac.doFinal(data);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(ALGORITHM + " not available", ex);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.dnk.auth.infrastructure.security;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.dnk.auth.infrastructure.config.TotpProperties;
+
+/**
+ * AES-256-GCM for TOTP secrets at rest, stored as {@code v1$<base64url(iv || ciphertext)>}. The user id
+ * is bound as associated data, so a ciphertext copied onto another user's row does not decrypt.
+ */
+@Component
+@ConditionalOnProperty(name = "mfa.totp.enabled", havingValue = "true")
+public class TotpSecretCipher {
+
+    private static final String PREFIX = "v1$";
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    private static final int MIN_KEY_LENGTH = 32;
+
+    private final SecretKeySpec key;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public TotpSecretCipher(TotpProperties properties) {
+        String encryptionKey = properties.getEncryptionKey();
+        if (encryptionKey == null || encryptionKey.length() < MIN_KEY_LENGTH) {
+            throw new IllegalStateException("mfa.totp.encryption-key must be at least " + MIN_KEY_LENGTH
+                    + " characters when mfa.totp.enabled=true");
+        }
+        this.key = new SecretKeySpec(sha256(encryptionKey), "AES");
+    }
+
+    public String encrypt(String userId, byte[] secret) {
+        byte[] iv = new byte[IV_BYTES];
+        secureRandom.nextBytes(iv);
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(userId.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(secret);
+
+            byte[] out = ByteBuffer.allocate(IV_BYTES + sealed.length).put(iv).put(sealed).array();
+            return PREFIX + Base64.getUrlEncoder().withoutPadding().encodeToString(out);
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Could not encrypt TOTP secret", ex);
+        }
+    }
+
+    public byte[] decrypt(String userId, String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            throw new IllegalStateException("Unsupported TOTP secret format for user " + userId);
+        }
+        try {
+            byte[] in = Base64.getUrlDecoder().decode(stored.substring(PREFIX.length()));
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, in, 0, IV_BYTES));
+            cipher.updateAAD(userId.getBytes(StandardCharsets.UTF_8));
+            return cipher.doFinal(in, IV_BYTES, in.length - IV_BYTES);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Could not decrypt TOTP secret for user " + userId, ex);
+        }
+    }
+
+    private static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
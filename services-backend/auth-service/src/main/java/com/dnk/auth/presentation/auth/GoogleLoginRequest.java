@@ -3,6 +3,7 @@ package com.dnk.auth.presentation.auth;
 import jakarta.validation.constraints.NotBlank;
 
 public record GoogleLoginRequest(
-        @NotBlank String idToken
+        @NotBlank String idToken,
+        String deviceToken
 ) {
 }
@@ -3,6 +3,11 @@ package com.dnk.auth.presentation.auth;
 public record GoogleLoginResponse(
         boolean mfaRequired,
         String userId,
-        String email
+        String email,
+        String mfaMethod,
+        // Only set when a trusted device skipped MFA
+        String accessToken,
+        String refreshToken,
+        Long expiresInSeconds
 ) {
 }
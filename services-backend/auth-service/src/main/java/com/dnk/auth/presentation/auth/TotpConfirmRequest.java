@@ -0,0 +1,8 @@
+package com.dnk.auth.presentation.auth;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record TotpConfirmRequest(
+        @NotBlank String code
+) {
+}
@@ -0,0 +1,10 @@
+package com.dnk.auth.presentation.auth;
+
+/**
+ * Optional body of an enrollment; {@code code} comes from the currently enrolled authenticator and is
+ * required only when replacing it.
+ */
+public record TotpEnrollRequest(
+        String code
+) {
+}
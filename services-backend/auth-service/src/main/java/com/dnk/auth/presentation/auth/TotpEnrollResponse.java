@@ -0,0 +1,7 @@
+package com.dnk.auth.presentation.auth;
+
+public record TotpEnrollResponse(
+        String secret,
+        String otpauthUri
+) {
+}
@@ -0,0 +1,12 @@
+package com.dnk.auth.presentation.auth;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public record TrustedDeviceResponse(
+        UUID id,
+        String label,
+        Instant createdAt,
+        Instant expiresAt
+) {
+}
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.NotBlank;
 
 public record VerifyMfaOtpRequest(
         @NotBlank String userId,
-        @NotBlank String otp
+        @NotBlank String otp,
+        boolean rememberDevice
 ) {
 }
@@ -4,6 +4,7 @@ public record VerifyMfaOtpResponse(
         String accessToken,
         String refreshToken,
         String tokenType,
-        long expiresInSeconds
+        long expiresInSeconds,
+        String deviceToken
 ) {
 }
@@ -1,9 +1,15 @@
 package com.dnk.auth.presentation.controller;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -17,11 +23,18 @@ import com.dnk.auth.presentation.auth.VerifyMfaOtpRequest;
 import com.dnk.auth.presentation.auth.VerifyMfaOtpResponse;
 
 import com.dnk.auth.application.usecase.RefreshSessionUseCase;
+import com.dnk.auth.infrastructure.config.AsyncRequestConfig;
 import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.dnk.auth.infrastructure.ratelimit.AuthRateLimiter;
 import com.dnk.auth.presentation.auth.RefreshSessionRequest;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
+/**
+ * Validation and rate limiting happen on the servlet thread; the use case itself runs on a virtual thread
+ * and the servlet thread is released until the future completes.
+ */
 @RestController
 @RequestMapping("/auth")
 @Validated
@@ -31,52 +44,81 @@ public class AuthController {
     private final VerifyMfaOtpUseCase verifyMfaOtpUseCase;
     private final RefreshSessionUseCase refreshSessionUseCase;
     private final JwtProperties jwtProperties;
+    private final AuthRateLimiter rateLimiter;
+    private final ExecutorService requestExecutor;
 
     public AuthController(GoogleLoginUseCase googleLoginUseCase,
                           VerifyMfaOtpUseCase verifyMfaOtpUseCase,
                           RefreshSessionUseCase refreshSessionUseCase,
-                          JwtProperties jwtProperties) {
+                          JwtProperties jwtProperties,
+                          AuthRateLimiter rateLimiter,
+                          @Qualifier(AsyncRequestConfig.AUTH_REQUEST_EXECUTOR) ExecutorService requestExecutor) {
         this.googleLoginUseCase = googleLoginUseCase;
         this.verifyMfaOtpUseCase = verifyMfaOtpUseCase;
         this.refreshSessionUseCase = refreshSessionUseCase;
         this.jwtProperties = jwtProperties;
+        this.rateLimiter = rateLimiter;
+        this.requestExecutor = requestExecutor;
     }
 
     @PostMapping("/login/google")
-    public ResponseEntity<GoogleLoginResponse> loginWithGoogle(@Valid @RequestBody GoogleLoginRequest request) {
-        GoogleLoginResult result = googleLoginUseCase.execute(request.idToken());
-
-        GoogleLoginResponse response = new GoogleLoginResponse(
-                result.mfaRequired(),
-                result.userId(),
-                result.email());
-
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<GoogleLoginResponse>> loginWithGoogle(@Valid @RequestBody GoogleLoginRequest request,
+                                                                                  HttpServletRequest httpRequest) {
+        rateLimiter.checkLogin(httpRequest.getRemoteAddr());
+
+        return CompletableFuture.supplyAsync(() -> {
+            GoogleLoginResult result = googleLoginUseCase.execute(request.idToken(), request.deviceToken());
+            AuthTokens tokens = result.tokens();
+
+            GoogleLoginResponse response = new GoogleLoginResponse(
+                    result.mfaRequired(),
+                    result.userId(),
+                    result.email(),
+                    result.mfaMethod(),
+                    tokens != null ? tokens.accessToken() : null,
+                    tokens != null ? tokens.refreshToken() : null,
+                    tokens != null ? jwtProperties.getExpiration() : null);
+
+            return ResponseEntity.ok(response);
+        }, requestExecutor);
     }
 
     @PostMapping("/mfa/verify")
-    public ResponseEntity<VerifyMfaOtpResponse> verifyMfa(@Valid @RequestBody VerifyMfaOtpRequest request) {
-        AuthTokens tokens = verifyMfaOtpUseCase.execute(request.userId(), request.otp());
-
-        VerifyMfaOtpResponse response = new VerifyMfaOtpResponse(
-                tokens.accessToken(),
-                tokens.refreshToken(),
-                "Bearer",
-                jwtProperties.getExpiration());
-
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<VerifyMfaOtpResponse>> verifyMfa(@Valid @RequestBody VerifyMfaOtpRequest request,
+                                                                             @RequestHeader(value = HttpHeaders.USER_AGENT, required = false) String userAgent,
+                                                                             HttpServletRequest httpRequest) {
+        rateLimiter.checkVerify(httpRequest.getRemoteAddr(), request.userId());
+
+        return CompletableFuture.supplyAsync(() -> {
+            AuthTokens tokens = verifyMfaOtpUseCase.execute(request.userId(), request.otp(), request.rememberDevice(), userAgent);
+
+            VerifyMfaOtpResponse response = new VerifyMfaOtpResponse(
+                    tokens.accessToken(),
+                    tokens.refreshToken(),
+                    "Bearer",
+                    jwtProperties.getExpiration(),
+                    tokens.deviceToken());
+
+            return ResponseEntity.ok(response);
+        }, requestExecutor);
     }
 
     @PostMapping("/refresh")
-    public ResponseEntity<VerifyMfaOtpResponse> refreshSession(@Valid @RequestBody RefreshSessionRequest request) {
-        AuthTokens tokens = refreshSessionUseCase.execute(request.refreshToken());
-
-        VerifyMfaOtpResponse response = new VerifyMfaOtpResponse(
-                tokens.accessToken(),
-                tokens.refreshToken(),
-                "Bearer",
-                jwtProperties.getExpiration());
-
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<VerifyMfaOtpResponse>> refreshSession(@Valid @RequestBody RefreshSessionRequest request,
+                                                                                  HttpServletRequest httpRequest) {
+        rateLimiter.checkRefresh(httpRequest.getRemoteAddr());
+
+        return CompletableFuture.supplyAsync(() -> {
+            AuthTokens tokens = refreshSessionUseCase.execute(request.refreshToken());
+
+            VerifyMfaOtpResponse response = new VerifyMfaOtpResponse(
+                    tokens.accessToken(),
+                    tokens.refreshToken(),
+                    "Bearer",
+                    jwtProperties.getExpiration(),
+                    null);
+
+            return ResponseEntity.ok(response);
+        }, requestExecutor);
     }
 }
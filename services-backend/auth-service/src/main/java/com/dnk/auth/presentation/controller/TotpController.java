@@ -0,0 +1,48 @@
+package com.dnk.auth.presentation.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dnk.auth.application.model.TotpEnrollment;
+import com.dnk.auth.application.model.VerifiedToken;
+import com.dnk.auth.application.usecase.EnrollTotpUseCase;
+import com.dnk.auth.presentation.auth.TotpConfirmRequest;
+import com.dnk.auth.presentation.auth.TotpEnrollRequest;
+import com.dnk.auth.presentation.auth.TotpEnrollResponse;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/auth/mfa/totp")
+@Validated
+@ConditionalOnProperty(name = "mfa.totp.enabled", havingValue = "true")
+public class TotpController {
+
+    private final EnrollTotpUseCase enrollTotpUseCase;
+
+    public TotpController(EnrollTotpUseCase enrollTotpUseCase) {
+        this.enrollTotpUseCase = enrollTotpUseCase;
+    }
+
+    @PostMapping("/enroll")
+    public ResponseEntity<TotpEnrollResponse> enroll(@AuthenticationPrincipal VerifiedToken token,
+                                                     @RequestBody(required = false) TotpEnrollRequest request) {
+        TotpEnrollment enrollment = enrollTotpUseCase.begin(token, request != null ? request.code() : null);
+
+        return ResponseEntity.ok(new TotpEnrollResponse(enrollment.secret(), enrollment.otpauthUri()));
+    }
+
+    @PostMapping("/confirm")
+    public ResponseEntity<Void> confirm(@AuthenticationPrincipal VerifiedToken token,
+                                        @Valid @RequestBody TotpConfirmRequest request) {
+        enrollTotpUseCase.confirm(token, request.code());
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.dnk.auth.presentation.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.dnk.auth.application.model.VerifiedToken;
+import com.dnk.auth.application.usecase.ManageTrustedDevicesUseCase;
+import com.dnk.auth.presentation.auth.TrustedDeviceResponse;
+
+@RestController
+@RequestMapping("/auth/devices")
+@ConditionalOnProperty(name = "auth.device.enabled", havingValue = "true")
+public class TrustedDeviceController {
+
+    private final ManageTrustedDevicesUseCase manageTrustedDevicesUseCase;
+
+    public TrustedDeviceController(ManageTrustedDevicesUseCase manageTrustedDevicesUseCase) {
+        this.manageTrustedDevicesUseCase = manageTrustedDevicesUseCase;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<TrustedDeviceResponse>> list(@AuthenticationPrincipal VerifiedToken token) {
+        List<TrustedDeviceResponse> devices = manageTrustedDevicesUseCase.list(token).stream()
+                .map(device -> new TrustedDeviceResponse(
+                        device.getId(),
+                        device.getLabel(),
+                        device.getCreatedAt(),
+                        device.getExpiresAt()))
+                .toList();
+
+        return ResponseEntity.ok(devices);
+    }
+
+    @DeleteMapping("/{deviceId}")
+    public ResponseEntity<Void> revoke(@AuthenticationPrincipal VerifiedToken token, @PathVariable UUID deviceId) {
+        manageTrustedDevicesUseCase.revoke(token, deviceId);
+
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,368 @@
+package com.dnk.auth.application.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.application.exception.ServiceUnavailableException;
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.application.model.VerifiedIdentity;
+import com.dnk.auth.application.port.out.EmailSenderPort;
+import com.dnk.auth.application.port.out.LoginMetricsPort;
+import com.dnk.auth.application.port.out.MfaOtpRepositoryPort;
+import com.dnk.auth.application.port.out.OtpEmailOutboxPort;
+import com.dnk.auth.application.port.out.TransactionPort;
+import com.dnk.auth.domain.model.MfaOtp;
+import com.dnk.auth.infrastructure.persistence.UserRightsFetcher;
+
+class GoogleLoginUseCaseTest {
+
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private final RecordingTransactions transactions = new RecordingTransactions();
+    private final InMemoryOtpRepository otpRepository = new InMemoryOtpRepository();
+    private final RecordingLoginMetrics metrics = new RecordingLoginMetrics();
+
+    @Test
+    void queuedEmailIsWrittenInTheSameTransactionAsTheOtp() {
+        OtpEmailOutboxPort outbox = (toEmail, otpCode) -> events.add("enqueue:" + transactions.open);
+        GoogleLoginUseCase useCase = useCase(new EmailOtpService(failingSender(), outbox), Duration.ZERO);
+
+        useCase.execute("token");
+
+        assertThat(events).containsExactly("invalidate:true", "save:true", "enqueue:true", "delivered:true");
+        assertThat(transactions.count).isEqualTo(1);
+    }
+
+    @Test
+    void directSmtpSendRunsOutsideAnyTransaction() {
+        EmailSenderPort sender = (toEmail, otpCode) -> events.add("send:" + transactions.open);
+        GoogleLoginUseCase useCase = useCase(new EmailOtpService(sender), Duration.ZERO);
+
+        useCase.execute("token");
+
+        assertThat(events).containsExactly("invalidate:false", "save:false", "send:false", "delivered:false");
+        assertThat(transactions.count).isZero();
+    }
+
+    @Test
+    void repeatedLoginReusesTheDeliveredOtp() {
+        CountingSender sender = new CountingSender();
+        GoogleLoginUseCase useCase = useCase(new EmailOtpService(sender), Duration.ofSeconds(30));
+
+        useCase.execute("token");
+        useCase.execute("token");
+
+        assertThat(sender.sent).hasSize(1);
+        assertThat(metrics.outcomes).containsExactly("fresh", "coalesced");
+    }
+
+    @Test
+    void otpWhoseEmailFailedIsReplacedInsteadOfReused() {
+        CountingSender sender = new CountingSender();
+        sender.failuresLeft = 1;
+        GoogleLoginUseCase useCase = useCase(new EmailOtpService(sender), Duration.ofSeconds(30));
+
+        assertThatThrownBy(() -> useCase.execute("token")).isInstanceOf(IllegalStateException.class);
+        MfaOtp undelivered = otpRepository.byUser.get("user-1");
+        assertThat(undelivered.getDeliveredAt()).isNull();
+
+        useCase.execute("token");
+
+        assertThat(sender.sent).hasSize(1);
+        assertThat(otpRepository.byUser.get("user-1").getId()).isNotEqualTo(undelivered.getId());
+        assertThat(otpRepository.byUser.get("user-1").getDeliveredAt()).isNotNull();
+        assertThat(metrics.outcomes).containsExactly("fresh");
+    }
+
+    @Test
+    void concurrentLoginWaitsForTheIssueInProgress() throws Exception {
+        CountingSender sender = new CountingSender();
+        sender.gate = new CountDownLatch(1);
+        GoogleLoginUseCase useCase = useCase(new EmailOtpService(sender), Duration.ofSeconds(30));
+
+        try (ExecutorService logins = Executors.newFixedThreadPool(2)) {
+            Future<?> leader = logins.submit(() -> useCase.execute("token"));
+            assertThat(sender.entered.await(2, TimeUnit.SECONDS)).isTrue();
+            Future<?> follower = logins.submit(() -> useCase.execute("token"));
+
+            // The follower must not report success while the leader's email is still in flight
+            Thread.sleep(200);
+            assertThat(follower.isDone()).isFalse();
+
+            sender.gate.countDown();
+            leader.get(2, TimeUnit.SECONDS);
+            follower.get(2, TimeUnit.SECONDS);
+        }
+
+        assertThat(sender.sent).hasSize(1);
+        assertThat(metrics.outcomes).containsExactlyInAnyOrder("fresh", "coalesced");
+    }
+
+    @Test
+    void concurrentLoginSharesTheFailureOfTheIssueInProgress() throws Exception {
+        CountingSender sender = new CountingSender();
+        sender.gate = new CountDownLatch(1);
+        sender.failuresLeft = 1;
+        GoogleLoginUseCase useCase = useCase(new EmailOtpService(sender), Duration.ofSeconds(30));
+
+        try (ExecutorService logins = Executors.newFixedThreadPool(2)) {
+            Future<?> leader = logins.submit(() -> useCase.execute("token"));
+            assertThat(sender.entered.await(2, TimeUnit.SECONDS)).isTrue();
+            Future<?> follower = logins.submit(() -> useCase.execute("token"));
+            Thread.sleep(200);
+
+            sender.gate.countDown();
+            assertThatThrownBy(() -> leader.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> follower.get(2, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        }
+
+        assertThat(sender.sent).isEmpty();
+        assertThat(metrics.outcomes).isEmpty();
+    }
+
+    @Test
+    void parallelLoginBootstrapsRolesAndIssuesTheOtp() {
+        UserRightsFetcher rightsFetcher = mock(UserRightsFetcher.class);
+        when(rightsFetcher.getUserRights(anyString())).thenReturn(new UserRights(List.of(), List.of(), 1));
+        CountingSender sender = new CountingSender();
+
+        parallelUseCase(new EmailOtpService(sender), rightsFetcher, Duration.ofSeconds(2), Duration.ofSeconds(2))
+                .execute("token");
+
+        verify(rightsFetcher).assignRole("user-1", "student");
+        assertThat(sender.sent).hasSize(1);
+    }
+
+    @Test
+    void slowRoleBootstrapTimesOutOnItsOwnDeadlineAndInterruptsTheOtpIssue() {
+        BlockingStage roles = new BlockingStage();
+        BlockingStage email = new BlockingStage();
+        GoogleLoginUseCase useCase = parallelUseCase(new EmailOtpService((toEmail, otpCode) -> email.block()),
+                blockingRights(roles), Duration.ofMillis(200), Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> useCase.execute("token"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("Login timed out during roles stage");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(email.awaitInterrupted()).isTrue();
+        assertThat(roles.awaitInterrupted()).isTrue();
+    }
+
+    @Test
+    void slowOtpIssueTimesOutOnItsOwnDeadline() {
+        BlockingStage email = new BlockingStage();
+        UserRightsFetcher rightsFetcher = mock(UserRightsFetcher.class);
+        when(rightsFetcher.getUserRights(anyString())).thenReturn(new UserRights(List.of("student"), List.of(), 1));
+        GoogleLoginUseCase useCase = parallelUseCase(new EmailOtpService((toEmail, otpCode) -> email.block()),
+                rightsFetcher, Duration.ofSeconds(10), Duration.ofMillis(200));
+
+        assertThatThrownBy(() -> useCase.execute("token"))
+                .isInstanceOf(ServiceUnavailableException.class)
+                .hasMessage("Login timed out during otp stage");
+        assertThat(email.awaitInterrupted()).isTrue();
+    }
+
+    @Test
+    void failedOtpIssueCancelsTheRoleBootstrapWithoutWaitingForIt() {
+        BlockingStage roles = new BlockingStage();
+        CountingSender sender = new CountingSender();
+        sender.failuresLeft = 1;
+        GoogleLoginUseCase useCase = parallelUseCase(new EmailOtpService(sender), blockingRights(roles),
+                Duration.ofSeconds(10), Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> useCase.execute("token"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("SMTP unavailable");
+
+        // The roles deadline is far off; the OTP failure must surface as soon as it happens
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(roles.awaitInterrupted()).isTrue();
+    }
+
+    private GoogleLoginUseCase useCase(EmailOtpService emailOtpService, Duration coalesceWindow) {
+        UserRightsFetcher rightsFetcher = mock(UserRightsFetcher.class);
+        when(rightsFetcher.getUserRights(anyString())).thenReturn(new UserRights(List.of("student"), List.of(), 1));
+
+        return new GoogleLoginUseCase(
+                idToken -> new VerifiedIdentity("user-1", "user@example.com", true, Instant.now().plusSeconds(600)),
+                otpRepository, emailOtpService, transactions, rightsFetcher, metrics,
+                false, Duration.ofSeconds(2), Duration.ofSeconds(2), coalesceWindow, null, null, null);
+    }
+
+    private GoogleLoginUseCase parallelUseCase(EmailOtpService emailOtpService, UserRightsFetcher rightsFetcher,
+                                               Duration rolesTimeout, Duration otpTimeout) {
+        return new GoogleLoginUseCase(
+                idToken -> new VerifiedIdentity("user-1", "user@example.com", true, Instant.now().plusSeconds(600)),
+                otpRepository, emailOtpService, transactions, rightsFetcher, metrics,
+                true, rolesTimeout, otpTimeout, Duration.ZERO, null, null, null);
+    }
+
+    private static UserRightsFetcher blockingRights(BlockingStage stage) {
+        UserRightsFetcher rightsFetcher = mock(UserRightsFetcher.class);
+        when(rightsFetcher.getUserRights(anyString())).thenAnswer(invocation -> {
+            stage.block();
+            return new UserRights(List.of("student"), List.of(), 1);
+        });
+        return rightsFetcher;
+    }
+
+    private static EmailSenderPort failingSender() {
+        return (toEmail, otpCode) -> {
+            throw new AssertionError("SMTP must not be used while the outbox is enabled");
+        };
+    }
+
+    /**
+     * SMTP stand-in: optionally holds each send at a gate, and fails the first {@code failuresLeft} sends.
+     */
+    private static final class CountingSender implements EmailSenderPort {
+
+        private final List<String> sent = new CopyOnWriteArrayList<>();
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private volatile int failuresLeft;
+
+        @Override
+        public void sendOtpEmail(String toEmail, String otpCode) {
+            entered.countDown();
+            if (gate != null) {
+                try {
+                    gate.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("SMTP unavailable");
+            }
+            sent.add(otpCode);
+        }
+    }
+
+    /**
+     * A stage that hangs until it is interrupted, as a stuck JDBC or SMTP call would if it honoured interrupts.
+     */
+    private static final class BlockingStage {
+
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        void block() {
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                interrupted.countDown();
+                throw new IllegalStateException("Interrupted");
+            }
+        }
+
+        boolean awaitInterrupted() {
+            try {
+                return interrupted.await(2, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    private static final class RecordingTransactions implements TransactionPort {
+
+        private volatile boolean open;
+        private int count;
+
+        @Override
+        public void inTransaction(Runnable work) {
+            count++;
+            open = true;
+            try {
+                work.run();
+            } finally {
+                open = false;
+            }
+        }
+    }
+
+    private final class InMemoryOtpRepository implements MfaOtpRepositoryPort {
+
+        private final Map<String, MfaOtp> byUser = new ConcurrentHashMap<>();
+
+        @Override
+        public MfaOtp save(MfaOtp mfaOtp) {
+            events.add("save:" + transactions.open);
+            MfaOtp stored = new MfaOtp(UUID.randomUUID(), mfaOtp.getUserId(), mfaOtp.getEmail(), mfaOtp.getOtpHash(),
+                    Instant.now().plus(MfaOtp.DEFAULT_EXPIRATION), null, Instant.now());
+            byUser.put(mfaOtp.getUserId(), stored);
+            return stored;
+        }
+
+        @Override
+        public Optional<MfaOtp> findValidByUserId(String userId, Instant now) {
+            return Optional.ofNullable(byUser.get(userId));
+        }
+
+        @Override
+        public Optional<MfaOtp> consumeValid(String userId, String rawOtp, Instant now) {
+            return Optional.empty();
+        }
+
+        @Override
+        public void invalidateAllForUser(String userId) {
+            events.add("invalidate:" + transactions.open);
+            byUser.remove(userId);
+        }
+
+        @Override
+        public void markDelivered(UUID id, Instant deliveredAt) {
+            events.add("delivered:" + transactions.open);
+            byUser.computeIfPresent("user-1", (key, otp) -> new MfaOtp(otp.getId(), otp.getUserId(), otp.getEmail(),
+                    otp.getOtpHash(), otp.getExpiresAt(), otp.getVerifiedAt(), otp.getCreatedAt(), deliveredAt));
+        }
+    }
+
+    private static final class RecordingLoginMetrics implements LoginMetricsPort {
+
+        private final List<String> outcomes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public <T> T time(String stage, Supplier<T> step) {
+            return step.get();
+        }
+
+        @Override
+        public void otpIssued(String outcome) {
+            outcomes.add(outcome);
+        }
+
+        @Override
+        public void mfaOutcome(String outcome) {
+        }
+
+        @Override
+        public void refreshOutcome(String outcome) {
+        }
+    }
+}
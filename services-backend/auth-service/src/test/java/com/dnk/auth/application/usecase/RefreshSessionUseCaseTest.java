@@ -0,0 +1,105 @@
+package com.dnk.auth.application.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.model.AuthTokens;
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.application.port.out.LoginMetricsPort;
+import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.dnk.auth.infrastructure.jwt.JwtTokenProvider;
+import com.dnk.auth.infrastructure.persistence.UserRightsFetcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class RefreshSessionUseCaseTest {
+
+    private static final UserRights RIGHTS = new UserRights(List.of("student"), List.of("courses:read"), 7);
+
+    private final JwtTokenProvider tokenProvider = tokenProvider();
+    private final UserRightsFetcher rightsFetcher = mock(UserRightsFetcher.class);
+    private final RecordingLoginMetrics metrics = new RecordingLoginMetrics();
+    private final RefreshSessionUseCase useCase = new RefreshSessionUseCase(tokenProvider, rightsFetcher, metrics);
+
+    @Test
+    void refreshTokenIsExchangedForANewPair() {
+        when(rightsFetcher.currentRightsVersion("user-1")).thenReturn(7L);
+        String refreshToken = tokenProvider.generateRefreshToken("user-1", "user@example.com", RIGHTS);
+
+        AuthTokens tokens = useCase.execute(refreshToken);
+
+        assertThat(tokenProvider.verify(tokens.accessToken())).hasValueSatisfying(token -> {
+            assertThat(token.refreshToken()).isFalse();
+            assertThat(token.roles()).containsExactly("student");
+        });
+        assertThat(tokenProvider.verify(tokens.refreshToken())).hasValueSatisfying(token ->
+                assertThat(token.refreshToken()).isTrue());
+        assertThat(metrics.outcomes).containsExactly("token");
+        verify(rightsFetcher, never()).getUserRights(anyString());
+    }
+
+    @Test
+    void accessTokenIsRefused() {
+        String accessToken = tokenProvider.generateAccessToken("user-1", "user@example.com", RIGHTS);
+
+        assertThatThrownBy(() -> useCase.execute(accessToken))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("Invalid refresh token");
+        assertThat(metrics.outcomes).isEmpty();
+        verify(rightsFetcher, never()).currentRightsVersion(anyString());
+        verify(rightsFetcher, never()).getUserRights(anyString());
+    }
+
+    @Test
+    void invalidTokenIsRefused() {
+        assertThatThrownBy(() -> useCase.execute("garbage"))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("Invalid refresh token");
+    }
+
+    private static JwtTokenProvider tokenProvider() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("refresh-session-test-secret-of-at-least-32-bytes");
+        properties.setIssuer("auth-service");
+        properties.setExpiration(900);
+
+        JwtTokenProvider provider = new JwtTokenProvider(properties, new ObjectMapper());
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+
+    private static final class RecordingLoginMetrics implements LoginMetricsPort {
+
+        private final List<String> outcomes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public <T> T time(String stage, Supplier<T> step) {
+            return step.get();
+        }
+
+        @Override
+        public void otpIssued(String outcome) {
+        }
+
+        @Override
+        public void mfaOutcome(String outcome) {
+        }
+
+        @Override
+        public void refreshOutcome(String outcome) {
+            outcomes.add(outcome);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.dnk.auth.application.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.port.out.TotpCredentialRepositoryPort;
+import com.dnk.auth.domain.model.TotpCredential;
+
+class TotpServiceTest {
+
+    // RFC 6238 appendix B, SHA1 seed
+    private static final byte[] RFC_SECRET = "12345678901234567890".getBytes(StandardCharsets.US_ASCII);
+
+    private final InMemoryTotpRepository repository = new InMemoryTotpRepository();
+
+    @Test
+    void matchesRfc6238TestVectors() {
+        // The RFC lists 8-digit codes; 6-digit codes are their last six digits
+        assertThat(TotpService.generate(RFC_SECRET, 59 / TotpService.STEP_SECONDS)).isEqualTo(287082);
+        assertThat(TotpService.generate(RFC_SECRET, 1111111109 / TotpService.STEP_SECONDS)).isEqualTo(81804);
+        assertThat(TotpService.generate(RFC_SECRET, 1234567890 / TotpService.STEP_SECONDS)).isEqualTo(5924);
+        assertThat(TotpService.generate(RFC_SECRET, 2000000000 / TotpService.STEP_SECONDS)).isEqualTo(279037);
+    }
+
+    @Test
+    void encodesSecretsAsUnpaddedBase32() {
+        assertThat(TotpService.base32(RFC_SECRET)).isEqualTo("GEZDGNBVGY3TQOJQGEZDGNBVGY3TQOJQ");
+        assertThat(TotpService.base32("f".getBytes(StandardCharsets.US_ASCII))).isEqualTo("MY");
+    }
+
+    @Test
+    void acceptsCodesWithinTheSkewWindowOnly() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(1234567890));
+        TotpService service = enrolledService(clock);
+        long step = 1234567890 / TotpService.STEP_SECONDS;
+
+        assertThat(service.matchingStep(RFC_SECRET, code(step - 1))).contains(step - 1);
+        assertThat(service.matchingStep(RFC_SECRET, code(step + 1))).contains(step + 1);
+        assertThat(service.matchingStep(RFC_SECRET, code(step - 2))).isEmpty();
+        assertThat(service.matchingStep(RFC_SECRET, "12345")).isEmpty();
+    }
+
+    @Test
+    void refusesReplayedAndOlderCodes() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(1234567890));
+        TotpService service = enrolledService(clock);
+        long step = 1234567890 / TotpService.STEP_SECONDS;
+
+        service.verify("user-1", code(step));
+
+        assertThatThrownBy(() -> service.verify("user-1", code(step)))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("TOTP code already used");
+        assertThatThrownBy(() -> service.verify("user-1", code(step - 1)))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("TOTP code already used");
+
+        clock.advance(Duration.ofSeconds(TotpService.STEP_SECONDS));
+        assertThat(service.verify("user-1", code(step + 1)).getEmail()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void codeAcceptedOnOneNodeIsRefusedOnAnother() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(1234567890));
+        TotpService first = enrolledService(clock);
+        TotpService second = new TotpService(repository, "SpaceDNK", 1, Duration.ofMinutes(5), 100, clock);
+        long step = 1234567890 / TotpService.STEP_SECONDS;
+
+        // Both nodes cache the credential before either accepts a code
+        assertThat(first.isEnrolled("user-1")).isTrue();
+        assertThat(second.isEnrolled("user-1")).isTrue();
+
+        first.verify("user-1", code(step));
+
+        assertThatThrownBy(() -> second.verify("user-1", code(step)))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("TOTP code already used");
+        assertThat(repository.credentials.get("user-1").getLastUsedStep()).isEqualTo(step);
+    }
+
+    @Test
+    void enrollmentNeedsAValidCodeBeforeTheUserIsEnrolled() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(1234567890));
+        TotpService service = new TotpService(repository, "SpaceDNK", 1, Duration.ofMinutes(5), 100, clock);
+
+        service.beginEnrollment("user-2", "new@example.com", null);
+        assertThat(service.isEnrolled("user-2")).isFalse();
+
+        byte[] secret = repository.credentials.get("user-2").getPendingSecret();
+        assertThatThrownBy(() -> service.confirmEnrollment("user-2", "000000"))
+                .isInstanceOf(AuthException.class);
+
+        long step = 1234567890 / TotpService.STEP_SECONDS;
+        service.confirmEnrollment("user-2", String.format("%06d", TotpService.generate(secret, step)));
+
+        assertThat(service.isEnrolled("user-2")).isTrue();
+        // The code used to confirm cannot be replayed to log in
+        assertThatThrownBy(() -> service.verify("user-2", String.format("%06d", TotpService.generate(secret, step))))
+                .isInstanceOf(AuthException.class);
+    }
+
+    @Test
+    void replacingAnEnrolledAuthenticatorNeedsAValidCurrentCode() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(1234567890));
+        TotpService service = enrolledService(clock);
+        long step = 1234567890 / TotpService.STEP_SECONDS;
+
+        assertThatThrownBy(() -> service.beginEnrollment("user-1", "user@example.com", null))
+                .isInstanceOf(AuthException.class);
+        assertThatThrownBy(() -> service.beginEnrollment("user-1", "user@example.com", "000000"))
+                .isInstanceOf(AuthException.class);
+
+        TotpCredential stored = repository.credentials.get("user-1");
+        assertThat(stored.getPendingSecret()).isNull();
+        assertThat(stored.getSecret()).isEqualTo(RFC_SECRET);
+        assertThat(service.verify("user-1", code(step)).getEmail()).isEqualTo("user@example.com");
+    }
+
+    @Test
+    void enrolledSecretStaysActiveUntilTheReplacementIsConfirmed() {
+        MutableClock clock = new MutableClock(Instant.ofEpochSecond(1234567890));
+        TotpService service = enrolledService(clock);
+        long step = 1234567890 / TotpService.STEP_SECONDS;
+
+        service.beginEnrollment("user-1", "user@example.com", code(step));
+        byte[] replacement = repository.credentials.get("user-1").getPendingSecret();
+        assertThat(service.isEnrolled("user-1")).isTrue();
+
+        // An abandoned re-enrollment leaves the old authenticator working
+        clock.advance(Duration.ofSeconds(TotpService.STEP_SECONDS));
+        service.verify("user-1", code(step + 1));
+
+        clock.advance(Duration.ofSeconds(TotpService.STEP_SECONDS));
+        service.confirmEnrollment("user-1", String.format("%06d", TotpService.generate(replacement, step + 2)));
+
+        clock.advance(Duration.ofSeconds(TotpService.STEP_SECONDS));
+        assertThatThrownBy(() -> service.verify("user-1", code(step + 3)))
+                .isInstanceOf(AuthException.class)
+                .hasMessage("Invalid TOTP code");
+        service.verify("user-1", String.format("%06d", TotpService.generate(replacement, step + 3)));
+    }
+
+    private TotpService enrolledService(Clock clock) {
+        repository.credentials.put("user-1",
+                new TotpCredential("user-1", "user@example.com", RFC_SECRET, Instant.EPOCH, 0));
+        return new TotpService(repository, "SpaceDNK", 1, Duration.ofMinutes(5), 100, clock);
+    }
+
+    private static String code(long step) {
+        return String.format("%06d", TotpService.generate(RFC_SECRET, step));
+    }
+
+    private static final class InMemoryTotpRepository implements TotpCredentialRepositoryPort {
+
+        private final Map<String, TotpCredential> credentials = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<TotpCredential> findByUserId(String userId) {
+            return Optional.ofNullable(credentials.get(userId));
+        }
+
+        @Override
+        public void savePending(String userId, String email, byte[] pendingSecret) {
+            credentials.compute(userId, (key, existing) -> existing == null
+                    ? new TotpCredential(userId, email, null, pendingSecret, null, 0)
+                    : new TotpCredential(userId, email, existing.getSecret(), pendingSecret,
+                            existing.getConfirmedAt(), existing.getLastUsedStep()));
+        }
+
+        @Override
+        public boolean confirm(String userId, byte[] pendingSecret, long step) {
+            TotpCredential existing = credentials.get(userId);
+            if (existing == null || !Arrays.equals(existing.getPendingSecret(), pendingSecret)) {
+                return false;
+            }
+            credentials.put(userId, new TotpCredential(userId, existing.getEmail(), pendingSecret, null,
+                    Instant.now(), Math.max(step, existing.getLastUsedStep())));
+            return true;
+        }
+
+        @Override
+        public boolean advanceUsedStep(String userId, long step) {
+            boolean[] advanced = new boolean[1];
+            credentials.computeIfPresent(userId, (key, credential) -> {
+                if (credential.getLastUsedStep() >= step) {
+                    return credential;
+                }
+                advanced[0] = true;
+                return new TotpCredential(userId, credential.getEmail(), credential.getSecret(),
+                        credential.getPendingSecret(), credential.getConfirmedAt(), step);
+            });
+            return advanced[0];
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
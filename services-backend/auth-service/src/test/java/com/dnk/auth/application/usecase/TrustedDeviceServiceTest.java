@@ -0,0 +1,154 @@
+package com.dnk.auth.application.usecase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.application.port.out.TrustedDeviceRegistryPort;
+import com.dnk.auth.domain.model.TrustedDevice;
+import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.dnk.auth.infrastructure.jwt.DeviceTokenSigner;
+
+class TrustedDeviceServiceTest {
+
+    private final InMemoryDeviceRegistry registry = new InMemoryDeviceRegistry();
+    private final MutableClock clock = new MutableClock(Instant.ofEpochSecond(1_700_000_000));
+    private final TrustedDeviceService service = new TrustedDeviceService(
+            registry, new DeviceTokenSigner(jwtProperties()), Duration.ofDays(30), clock);
+
+    @Test
+    void recognisesATrustedDeviceOfTheSameUser() {
+        String token = service.trust("user-1", "Firefox on Linux");
+
+        assertThat(service.recognises(token, "user-1")).isTrue();
+        assertThat(service.list("user-1")).extracting(TrustedDevice::getLabel).containsExactly("Firefox on Linux");
+    }
+
+    @Test
+    void deviceTokenCannotBeReusedByAnotherUser() {
+        String token = service.trust("user-1", "Firefox on Linux");
+
+        assertThat(service.recognises(token, "user-2")).isFalse();
+    }
+
+    @Test
+    void forgetsDevicesOnceTheyExpire() {
+        String token = service.trust("user-1", "Firefox on Linux");
+
+        clock.advance(Duration.ofDays(30));
+
+        assertThat(service.recognises(token, "user-1")).isFalse();
+        assertThat(service.list("user-1")).isEmpty();
+    }
+
+    @Test
+    void revokedDeviceIsNoLongerRecognised() {
+        String token = service.trust("user-1", "Firefox on Linux");
+        UUID deviceId = service.list("user-1").get(0).getId();
+
+        // Only the owner can revoke it
+        assertThat(service.revoke("user-2", deviceId)).isFalse();
+        assertThat(service.recognises(token, "user-1")).isTrue();
+
+        assertThat(service.revoke("user-1", deviceId)).isTrue();
+        assertThat(service.recognises(token, "user-1")).isFalse();
+        assertThat(service.revoke("user-1", deviceId)).isFalse();
+    }
+
+    @Test
+    void refusesMissingAndForgedTokens() {
+        service.trust("user-1", "Firefox on Linux");
+
+        assertThat(service.recognises(null, "user-1")).isFalse();
+        assertThat(service.recognises(" ", "user-1")).isFalse();
+        assertThat(service.recognises("AAAA.BBBB", "user-1")).isFalse();
+    }
+
+    @Test
+    void truncatesOverlongLabels() {
+        service.trust("user-1", "x".repeat(300));
+
+        assertThat(service.list("user-1").get(0).getLabel()).hasSize(255);
+    }
+
+    private static JwtProperties jwtProperties() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("trusted-device-test-secret");
+        return properties;
+    }
+
+    private final class InMemoryDeviceRegistry implements TrustedDeviceRegistryPort {
+
+        private final Map<UUID, TrustedDevice> devices = new ConcurrentHashMap<>();
+
+        @Override
+        public TrustedDevice register(String userId, String label, Instant expiresAt) {
+            TrustedDevice device = new TrustedDevice(UUID.randomUUID(), userId, label, clock.instant(), expiresAt, null);
+            devices.put(device.getId(), device);
+            return device;
+        }
+
+        @Override
+        public Optional<TrustedDevice> findById(UUID deviceId) {
+            return Optional.ofNullable(devices.get(deviceId));
+        }
+
+        @Override
+        public List<TrustedDevice> findActiveByUserId(String userId, Instant now) {
+            return devices.values().stream()
+                    .filter(device -> device.getUserId().equals(userId) && device.isActive(now))
+                    .sorted(Comparator.comparing(TrustedDevice::getCreatedAt).reversed())
+                    .toList();
+        }
+
+        @Override
+        public boolean revoke(String userId, UUID deviceId) {
+            TrustedDevice device = devices.get(deviceId);
+            if (device == null || !device.getUserId().equals(userId) || device.getRevokedAt() != null) {
+                return false;
+            }
+            devices.put(deviceId, new TrustedDevice(deviceId, userId, device.getLabel(), device.getCreatedAt(),
+                    device.getExpiresAt(), clock.instant()));
+            return true;
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
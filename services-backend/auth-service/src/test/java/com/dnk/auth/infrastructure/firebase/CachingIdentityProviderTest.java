@@ -0,0 +1,157 @@
+package com.dnk.auth.infrastructure.firebase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.model.VerifiedIdentity;
+import com.dnk.auth.application.port.out.IdentityProviderPort;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CachingIdentityProviderTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final MutableClock clock = new MutableClock(NOW);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesRepeatedTokenFromCacheUntilItExpires() {
+        StandInIdentityProvider provider = new StandInIdentityProvider(NOW.plusSeconds(60));
+        CachingIdentityProvider cache = new CachingIdentityProvider(provider, 100, meterRegistry, clock);
+
+        VerifiedIdentity first = cache.verifyIdToken("token-a");
+        VerifiedIdentity second = cache.verifyIdToken("token-a");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(provider.calls.get()).isEqualTo(1);
+
+        clock.advance(Duration.ofSeconds(61));
+        cache.verifyIdToken("token-a");
+
+        assertThat(provider.calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.identity.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.identity.cache").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void doesNotCacheFailures() {
+        StandInIdentityProvider provider = new StandInIdentityProvider(NOW.plusSeconds(60));
+        provider.failing = true;
+        CachingIdentityProvider cache = new CachingIdentityProvider(provider, 100, meterRegistry, clock);
+
+        assertThatThrownBy(() -> cache.verifyIdToken("bad")).isInstanceOf(AuthException.class);
+        assertThatThrownBy(() -> cache.verifyIdToken("bad")).isInstanceOf(AuthException.class);
+
+        assertThat(provider.calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void collapsesConcurrentVerificationsOfTheSameToken() throws Exception {
+        StandInIdentityProvider provider = new StandInIdentityProvider(NOW.plusSeconds(60));
+        provider.gate = new CountDownLatch(1);
+        CachingIdentityProvider cache = new CachingIdentityProvider(provider, 100, meterRegistry, clock);
+
+        List<Future<VerifiedIdentity>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> cache.verifyIdToken("token-b")));
+            }
+            assertThat(provider.started.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(100);
+            provider.gate.countDown();
+
+            for (Future<VerifiedIdentity> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).providerUserId()).isEqualTo("uid-token-b");
+            }
+        }
+
+        assertThat(provider.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void staysWithinMaxEntries() {
+        StandInIdentityProvider provider = new StandInIdentityProvider(NOW.plusSeconds(60));
+        CachingIdentityProvider cache = new CachingIdentityProvider(provider, 10, meterRegistry, clock);
+
+        for (int i = 0; i < 50; i++) {
+            cache.verifyIdToken("token-" + i);
+        }
+
+        assertThat(meterRegistry.get("auth.identity.cache.entries").gauge().value()).isLessThanOrEqualTo(10);
+    }
+
+    private static final class StandInIdentityProvider implements IdentityProviderPort {
+
+        private final Instant expiresAt;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch started = new CountDownLatch(1);
+        private volatile CountDownLatch gate;
+        private volatile boolean failing;
+
+        private StandInIdentityProvider(Instant expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        @Override
+        public VerifiedIdentity verifyIdToken(String idToken) {
+            calls.incrementAndGet();
+            started.countDown();
+            if (gate != null) {
+                try {
+                    gate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failing) {
+                throw new AuthException("Invalid Firebase ID token");
+            }
+            return new VerifiedIdentity("uid-" + idToken, idToken + "@example.com", true, expiresAt);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
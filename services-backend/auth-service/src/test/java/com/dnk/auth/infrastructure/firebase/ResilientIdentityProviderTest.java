@@ -0,0 +1,158 @@
+package com.dnk.auth.infrastructure.firebase;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.exception.ServiceUnavailableException;
+import com.dnk.auth.application.model.VerifiedIdentity;
+import com.dnk.auth.application.port.out.IdentityProviderPort;
+import com.dnk.auth.infrastructure.config.IdentityResilienceProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ResilientIdentityProviderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void hedgesWhenFirstAttemptIsSlow() {
+        // First call stalls past the hedge delay, the hedged call answers quickly
+        DelayingIdentityProvider provider = new DelayingIdentityProvider(Duration.ofSeconds(2), Duration.ZERO);
+        ResilientIdentityProvider resilient = new ResilientIdentityProvider(provider, properties(), meterRegistry);
+
+        long start = System.nanoTime();
+        VerifiedIdentity identity = resilient.verifyIdToken("token");
+
+        assertThat(identity.providerUserId()).isEqualTo("uid-token");
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_000).isTrue();
+        assertThat(provider.calls.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.identity.provider.hedges").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void failsAtTheDeadlineWhenEveryAttemptStalls() {
+        DelayingIdentityProvider provider = new DelayingIdentityProvider(Duration.ofSeconds(5), Duration.ofSeconds(5));
+        ResilientIdentityProvider resilient = new ResilientIdentityProvider(provider, properties(), meterRegistry);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> resilient.verifyIdToken("token")).isInstanceOf(ServiceUnavailableException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1_000).isTrue();
+        assertThat(meterRegistry.get("auth.identity.provider.timeouts").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectedTokensAreNotHedgedOrCountedAsFailures() {
+        DelayingIdentityProvider provider = new DelayingIdentityProvider(Duration.ZERO);
+        provider.rejecting = true;
+        ResilientIdentityProvider resilient = new ResilientIdentityProvider(provider, properties(), meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> resilient.verifyIdToken("bad")).isInstanceOf(AuthException.class);
+        }
+
+        assertThat(provider.calls.get()).isEqualTo(5);
+        assertThat(meterRegistry.get("auth.identity.provider.circuit.state").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    void opensCircuitAndClosesAfterSuccessfulProbe() throws Exception {
+        DelayingIdentityProvider provider = new DelayingIdentityProvider(Duration.ZERO);
+        provider.failing = true;
+        ResilientIdentityProvider resilient = new ResilientIdentityProvider(provider, properties(), meterRegistry);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> resilient.verifyIdToken("token")).isInstanceOf(ServiceUnavailableException.class);
+        }
+        assertThat(meterRegistry.get("auth.identity.provider.circuit.state").gauge().value()).isEqualTo(1);
+
+        // Open: rejected without reaching the provider
+        assertThatThrownBy(() -> resilient.verifyIdToken("token")).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(provider.calls.get()).isEqualTo(2);
+
+        Thread.sleep(250);
+        provider.failing = false;
+
+        assertThat(resilient.verifyIdToken("token").providerUserId()).isEqualTo("uid-token");
+        assertThat(meterRegistry.get("auth.identity.provider.circuit.state").gauge().value()).isEqualTo(0);
+    }
+
+    @Test
+    void halfOpenProbeSlowerThanTheHedgeDelayStillClosesTheCircuit() throws Exception {
+        DelayingIdentityProvider provider = new DelayingIdentityProvider(Duration.ZERO);
+        provider.failing = true;
+        ResilientIdentityProvider resilient = new ResilientIdentityProvider(provider, properties(), meterRegistry);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> resilient.verifyIdToken("token")).isInstanceOf(ServiceUnavailableException.class);
+        }
+        Thread.sleep(250);
+
+        // The probe answers after 150 ms: past the 50 ms hedge delay, well within the 500 ms timeout
+        provider.failing = false;
+        provider.delays.clear();
+        provider.delays.add(Duration.ofMillis(150));
+
+        assertThat(resilient.verifyIdToken("token").providerUserId()).isEqualTo("uid-token");
+        assertThat(provider.calls.get()).isEqualTo(3);
+        assertThat(meterRegistry.get("auth.identity.provider.hedges").counter().count()).isZero();
+        assertThat(meterRegistry.get("auth.identity.provider.circuit.state").gauge().value()).isEqualTo(0);
+    }
+
+    private static IdentityResilienceProperties properties() {
+        IdentityResilienceProperties properties = new IdentityResilienceProperties();
+        properties.setTimeout(Duration.ofMillis(500));
+        properties.setMinHedgeDelay(Duration.ofMillis(50));
+        properties.setFailureThreshold(2);
+        properties.setOpenDuration(Duration.ofMillis(200));
+        return properties;
+    }
+
+    /**
+     * Stand-in provider that sleeps for a scripted delay per call (the last delay repeats).
+     */
+    private static final class DelayingIdentityProvider implements IdentityProviderPort {
+
+        private final Deque<Duration> delays = new ArrayDeque<>();
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile boolean failing;
+        private volatile boolean rejecting;
+
+        private DelayingIdentityProvider(Duration... delays) {
+            for (Duration delay : delays) {
+                this.delays.add(delay);
+            }
+        }
+
+        @Override
+        public VerifiedIdentity verifyIdToken(String idToken) {
+            calls.incrementAndGet();
+            Duration delay;
+            synchronized (delays) {
+                delay = delays.size() > 1 ? delays.poll() : delays.peek();
+            }
+            try {
+                Thread.sleep(delay.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (rejecting) {
+                throw new AuthException("Invalid Firebase ID token");
+            }
+            if (failing) {
+                throw new IllegalStateException("Firebase unavailable");
+            }
+            return new VerifiedIdentity("uid-" + idToken, idToken + "@example.com", true,
+                    Instant.now().plusSeconds(3600));
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.infrastructure.config.JwtProperties;
+
+class DeviceTokenSignerTest {
+
+    private static final Instant NOW = Instant.ofEpochSecond(1_700_000_000);
+
+    private final DeviceTokenSigner signer = new DeviceTokenSigner(jwtProperties("device-token-test-secret"));
+
+    @Test
+    void verifiesItsOwnTokensUntilTheyExpire() {
+        UUID deviceId = UUID.randomUUID();
+        String token = signer.issue(deviceId, NOW.plusSeconds(60));
+
+        assertThat(signer.verify(token, NOW)).contains(deviceId);
+        assertThat(signer.verify(token, NOW.plusSeconds(59))).contains(deviceId);
+        assertThat(signer.verify(token, NOW.plusSeconds(60))).isEmpty();
+    }
+
+    @Test
+    void refusesTamperedTokens() {
+        String token = signer.issue(UUID.randomUUID(), NOW.plusSeconds(60));
+        int dot = token.indexOf('.');
+        byte[] body = Base64.getUrlDecoder().decode(token.substring(0, dot));
+        byte[] signature = Base64.getUrlDecoder().decode(token.substring(dot + 1));
+
+        // Pushing the expiry forward invalidates the signature
+        byte[] extended = body.clone();
+        extended[extended.length - 1] ^= 0x01;
+        assertThat(signer.verify(encode(extended) + token.substring(dot), NOW)).isEmpty();
+
+        byte[] forged = signature.clone();
+        forged[0] ^= 0x01;
+        assertThat(signer.verify(token.substring(0, dot + 1) + encode(forged), NOW)).isEmpty();
+    }
+
+    @Test
+    void refusesMalformedTokensAndOtherKeys() {
+        String token = signer.issue(UUID.randomUUID(), NOW.plusSeconds(60));
+        DeviceTokenSigner otherKey = new DeviceTokenSigner(jwtProperties("another-device-token-secret"));
+
+        assertThat(otherKey.verify(token, NOW)).isEmpty();
+        assertThat(signer.verify(token.replace(".", ""), NOW)).isEmpty();
+        assertThat(signer.verify("not base64!.AAAA", NOW)).isEmpty();
+        assertThat(signer.verify(token.substring(0, 8) + token.substring(token.indexOf('.')), NOW)).isEmpty();
+    }
+
+    private static String encode(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static JwtProperties jwtProperties(String secret) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secret);
+        return properties;
+    }
+}
@@ -0,0 +1,128 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+
+class Hs256TokenEngineTest {
+
+    private static final String SECRET = "hs256-engine-test-secret-of-at-least-64-bytes-for-hs512-too!!!!!";
+    private static final String AWKWARD = "quote\" backslash\\ newline\n return\r tab\t bell\u0007 nul\u0000 eñe ✓";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Hs256TokenEngine engine = new Hs256TokenEngine(SECRET.getBytes(StandardCharsets.UTF_8), objectMapper);
+
+    @Test
+    void signedTokenRoundTripsEveryClaim() {
+        JwtPayload payload = new JwtPayload("user-1", "auth-service", 1_700_000_000L, 1_700_000_900L,
+                "user@example.com", List.of("student", AWKWARD), List.of("courses:read"), 1, "SQ", 42L,
+                List.of("student"), List.of("courses:read"), "refresh");
+
+        assertThat(engine.verify(engine.sign(payload))).isEqualTo(payload);
+    }
+
+    @Test
+    void claimsAreJsonThatJacksonReadsBack() throws Exception {
+        JwtPayload payload = new JwtPayload(AWKWARD, "auth-service", 1L, 2L, null, List.of(AWKWARD), null,
+                null, null, null, null, null, null);
+
+        String claims = engine.sign(payload).split("\\.")[1];
+        JsonNode json = objectMapper.readTree(Base64.getUrlDecoder().decode(claims));
+
+        assertThat(json.get("sub").asText()).isEqualTo(AWKWARD);
+        assertThat(json.get("roles").get(0).asText()).isEqualTo(AWKWARD);
+        // Absent claims are left out rather than written as null
+        assertThat(json.has("email")).isFalse();
+        assertThat(json.has("permissions")).isFalse();
+    }
+
+    @Test
+    void headerIsTheOneJjwtWrites() {
+        String header = engine.sign(payload()).split("\\.")[0];
+
+        assertThat(new String(Base64.getUrlDecoder().decode(header), StandardCharsets.UTF_8)).isEqualTo("{\"alg\":\"HS256\"}");
+    }
+
+    @Test
+    void rejectsATamperedSignatureOrPayload() {
+        String token = engine.sign(payload());
+        String[] parts = token.split("\\.");
+        String otherClaims = engine.sign(new JwtPayload("user-2", "auth-service", 1L, 2L, null, null, null,
+                null, null, null, null, null, null)).split("\\.")[1];
+        Hs256TokenEngine otherKey = new Hs256TokenEngine("another-secret-of-at-least-thirty-two-bytes".getBytes(StandardCharsets.UTF_8), objectMapper);
+
+        assertRejected(parts[0] + "." + parts[1] + "." + flipFirstChar(parts[2]), "Invalid token signature");
+        assertRejected(parts[0] + "." + otherClaims + "." + parts[2], "Invalid token signature");
+        assertRejected(otherKey.sign(payload()), "Invalid token signature");
+    }
+
+    @Test
+    void rejectsAnyOtherAlgorithm() {
+        String claims = engine.sign(payload()).split("\\.")[1];
+        String none = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String hs512 = Jwts.builder()
+                .setSubject("user-1")
+                .signWith(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA512"), SignatureAlgorithm.HS512)
+                .compact();
+
+        assertRejected(none + "." + claims + ".", "Unsupported token header");
+        assertRejected(hs512, "Unsupported token header");
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        String[] parts = engine.sign(payload()).split("\\.");
+
+        assertRejected(null, "Token is missing");
+        assertRejected("not-a-token", "Malformed token");
+        assertRejected(parts[0] + "." + parts[1], "Malformed token");
+        assertRejected(parts[0] + "." + parts[1] + "." + parts[2] + ".extra", "Malformed token");
+        assertRejected(parts[0] + "." + parts[1] + ".not*base64", "Malformed token encoding");
+        assertRejected(signedClaims("{\"sub\":"), "Malformed token claims");
+    }
+
+    @Test
+    void refusesAShortKey() {
+        assertThatThrownBy(() -> new Hs256TokenEngine(new byte[31], objectMapper))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void assertRejected(String token, String message) {
+        assertThatThrownBy(() -> engine.verify(token))
+                .isInstanceOf(Hs256TokenEngine.InvalidTokenException.class)
+                .hasMessage(message);
+    }
+
+    /**
+     * A correctly signed token around arbitrary claim bytes, as jjwt would sign them.
+     */
+    private static String signedClaims(String claims) {
+        return Jwts.builder()
+                .setPayload(claims)
+                .signWith(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private static JwtPayload payload() {
+        return new JwtPayload("user-1", "auth-service", 1L, 2L, "user@example.com", List.of("student"),
+                List.of("courses:read"), null, null, null, null, null, null);
+    }
+
+    private static String flipFirstChar(String value) {
+        return (value.charAt(0) == 'A' ? 'B' : 'A') + value.substring(1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dnk.auth.application.model.VerifiedToken;
+import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+class JwtTokenProviderTest {
+
+    private static final String SECRET = "token-provider-test-secret-of-at-least-32-bytes";
+    private static final String ISSUER = "auth-service";
+
+    private final JwtTokenProvider provider = provider(false);
+    private final Hs256TokenEngine engine = new Hs256TokenEngine(SECRET.getBytes(StandardCharsets.UTF_8), new ObjectMapper());
+
+    @Test
+    void verifiesTokensIssuedByJjwt() {
+        // Shape and header of the tokens issued before the HS256 engine replaced jjwt
+        String legacy = Jwts.builder()
+                .setSubject("user-1")
+                .setIssuer(ISSUER)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .claim("email", "user@example.com")
+                .claim("roles", List.of("student"))
+                .claim("permissions", List.of("courses:read"))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(provider.verify(legacy)).hasValueSatisfying(token -> {
+            assertThat(token.userId()).isEqualTo("user-1");
+            assertThat(token.email()).isEqualTo("user@example.com");
+            assertThat(token.roles()).containsExactly("student");
+            assertThat(token.permissions()).containsExactly("courses:read");
+            assertThat(token.refreshToken()).isFalse();
+        });
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        long now = Instant.now().getEpochSecond();
+
+        assertThat(provider.verify(sign(ISSUER, now - 120, now - 60))).isEmpty();
+        assertThat(provider.verify(sign(ISSUER, now - 60, now + 60))).isPresent();
+    }
+
+    @Test
+    void rejectsAnotherIssuerOrMissingClaims() {
+        long now = Instant.now().getEpochSecond();
+
+        assertThat(provider.verify(sign("someone-else", now, now + 60))).isEmpty();
+        assertThat(provider.verify(engine.sign(new JwtPayload("user-1", ISSUER, now, null, null, null, null,
+                null, null, null, null, null, null)))).isEmpty();
+        assertThat(provider.verify("garbage")).isEmpty();
+    }
+
+    @Test
+    void compactPermissionsRoundTripThroughTheProvider() {
+        JwtTokenProvider compact = provider(true);
+        String token = compact.generateAccessToken("user-1", "user@example.com", List.of("student"),
+                List.of("courses:read", "reports:export", "enrollments:read:all"));
+
+        assertThat(compact.verify(token)).get().extracting(VerifiedToken::permissions).asList()
+                .containsExactlyInAnyOrder("courses:read", "enrollments:read:all", "reports:export");
+    }
+
+    private String sign(String issuer, long issuedAt, long expiresAt) {
+        return engine.sign(new JwtPayload("user-1", issuer, issuedAt, expiresAt, "user@example.com",
+                List.of("student"), null, null, null, null, null, null, null));
+    }
+
+    private static JwtTokenProvider provider(boolean compactPermissions) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setIssuer(ISSUER);
+        properties.setExpiration(900);
+        properties.setCompactPermissions(compactPermissions);
+
+        JwtTokenProvider provider = new JwtTokenProvider(properties, new ObjectMapper());
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
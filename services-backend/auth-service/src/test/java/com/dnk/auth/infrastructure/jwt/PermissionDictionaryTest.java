@@ -0,0 +1,62 @@
+package com.dnk.auth.infrastructure.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class PermissionDictionaryTest {
+
+    // Dictionary version 1 as decoded by enrollment-service; PermissionSetTest there pins the same list and
+    // the same pbm fixture, so a drift in either copy fails one of the two builds
+    private static final List<String> VERSION_1 = List.of(
+            "courses:read",
+            "courses:create",
+            "courses:update",
+            "courses:delete",
+            "enrollments:create",
+            "enrollments:read:me",
+            "enrollments:read:all");
+
+    @Test
+    void dictionaryIsVersion1() {
+        assertThat(PermissionDictionary.VERSION).isEqualTo(1);
+        for (int i = 0; i < VERSION_1.size(); i++) {
+            assertThat(PermissionDictionary.indexOf(VERSION_1.get(i))).isEqualTo(i);
+        }
+        BitSet all = new BitSet();
+        all.set(0, VERSION_1.size() + 8);
+        assertThat(PermissionDictionary.decode(all)).containsExactlyElementsOf(VERSION_1);
+    }
+
+    @Test
+    void encodesToTheBitmaskValidatorsExpect() {
+        List<String> unmapped = new ArrayList<>();
+        BitSet bits = PermissionDictionary.encode(List.of("enrollments:read:all", "courses:read", "courses:delete"), unmapped);
+
+        assertThat(Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray())).isEqualTo("SQ");
+        assertThat(unmapped).isEmpty();
+    }
+
+    @Test
+    void roundTripsKnownPermissionsAndSetsAsideTheRest() {
+        List<String> unmapped = new ArrayList<>();
+        BitSet bits = PermissionDictionary.encode(List.of("courses:update", "reports:export", "enrollments:create"), unmapped);
+
+        assertThat(PermissionDictionary.decode(BitSet.valueOf(bits.toByteArray())))
+                .containsExactly("courses:update", "enrollments:create");
+        assertThat(unmapped).containsExactly("reports:export");
+    }
+
+    @Test
+    void ignoresBitsBeyondTheDictionary() {
+        BitSet bits = BitSet.valueOf(new byte[] {0x01, 0x02});
+
+        assertThat(PermissionDictionary.decode(bits)).containsExactly("courses:read");
+        assertThat(PermissionDictionary.indexOf("reports:export")).isEqualTo(-1);
+    }
+}
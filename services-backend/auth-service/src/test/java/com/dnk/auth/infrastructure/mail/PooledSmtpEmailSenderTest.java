@@ -0,0 +1,136 @@
+package com.dnk.auth.infrastructure.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.dnk.auth.infrastructure.config.MfaEmailProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+class PooledSmtpEmailSenderTest {
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<PooledSmtpEmailSender> senders = new ArrayList<>();
+
+    @AfterEach
+    void stopSenders() {
+        senders.forEach(PooledSmtpEmailSender::destroy);
+    }
+
+    @Test
+    void deliversConcurrentEmailsOverOneReusedConnection() throws Exception {
+        PooledSmtpEmailSender sender = sender(smtp.getSmtp().getPort(), properties(1, 100));
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(5)) {
+            List<CompletableFuture<Void>> sends = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                String to = "user" + i + "@example.com";
+                sends.add(CompletableFuture.runAsync(() -> sender.sendOtpEmail(to, "482913"), callers));
+            }
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get();
+        }
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(5);
+        assertThat(GreenMailUtil.getBody(received[0])).contains("482913");
+        assertThat(gauge("mfa.email.smtp.pool.connections")).isEqualTo(1);
+        assertThat(meterRegistry.get("mfa.email.smtp.pool.reconnects").counter().count()).isZero();
+    }
+
+    @Test
+    void refusesEmailsOnceTheQueueIsFull() throws Exception {
+        // Accepts connections but never sends the SMTP greeting, so the single worker stays stuck on its first email
+        try (ServerSocket silentServer = new ServerSocket(0);
+             ExecutorService callers = Executors.newFixedThreadPool(2)) {
+            List<Socket> accepted = new CopyOnWriteArrayList<>();
+            Thread.ofVirtual().start(() -> acceptForever(silentServer, accepted));
+
+            MfaEmailProperties properties = properties(1, 1);
+            properties.getPool().setSendTimeout(Duration.ofSeconds(2));
+            PooledSmtpEmailSender sender = sender(silentServer.getLocalPort(), properties);
+
+            CompletableFuture<Void> inFlight = CompletableFuture.runAsync(() -> sender.sendOtpEmail("a@example.com", "1"), callers);
+            awaitTrue(() -> !accepted.isEmpty());
+            CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> sender.sendOtpEmail("b@example.com", "2"), callers);
+            awaitTrue(() -> gauge("mfa.email.smtp.pool.queue") == 1);
+
+            long start = System.nanoTime();
+            assertThatThrownBy(() -> sender.sendOtpEmail("c@example.com", "3"))
+                    .isInstanceOf(MailSendException.class)
+                    .hasMessageContaining("queue is full");
+            assertThat(Duration.ofNanos(System.nanoTime() - start).toMillis() < 500).isTrue();
+            assertThat(meterRegistry.get("mfa.email.smtp.pool.rejected").counter().count()).isEqualTo(1);
+
+            // The callers already in line still get their own timeout, not an unbounded wait
+            assertThat(inFlight).failsWithin(Duration.ofSeconds(5));
+            assertThat(queued).failsWithin(Duration.ofSeconds(5));
+        }
+    }
+
+    private PooledSmtpEmailSender sender(int port, MfaEmailProperties properties) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+        mailSender.getJavaMailProperties().put("mail.smtp.timeout", "10000");
+
+        PooledSmtpEmailSender sender = new PooledSmtpEmailSender(mailSender, properties, meterRegistry);
+        senders.add(sender);
+        return sender;
+    }
+
+    private static MfaEmailProperties properties(int size, int queueCapacity) {
+        MfaEmailProperties properties = new MfaEmailProperties();
+        properties.getPool().setSize(size);
+        properties.getPool().setQueueCapacity(queueCapacity);
+        properties.getPool().setSendTimeout(Duration.ofSeconds(10));
+        return properties;
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private static void acceptForever(ServerSocket server, List<Socket> accepted) {
+        try {
+            while (true) {
+                accepted.add(server.accept());
+            }
+        } catch (IOException ex) {
+            // server closed at the end of the test
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() < deadline).isTrue();
+            Thread.sleep(10);
+        }
+    }
+}
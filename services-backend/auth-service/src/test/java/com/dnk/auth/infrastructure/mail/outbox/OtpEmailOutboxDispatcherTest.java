@@ -0,0 +1,119 @@
+package com.dnk.auth.infrastructure.mail.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.dnk.auth.infrastructure.config.MfaEmailProperties;
+import com.dnk.auth.infrastructure.mail.MailtrapEmailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+
+class OtpEmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static final GreenMailExtension smtp = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final SpringDataOtpEmailOutboxRepository jpaRepository = mock(SpringDataOtpEmailOutboxRepository.class);
+    private final OtpEmailOutboxCipher cipher = new OtpEmailOutboxCipher(jwtProperties("outbox-test-secret"));
+    private final OtpEmailOutboxRepositoryAdapter outbox = new OtpEmailOutboxRepositoryAdapter(jpaRepository, cipher);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void storesTheCodeEncryptedAndDeliversItOverSmtp() throws Exception {
+        OtpEmailOutboxEntity row = enqueue("user@example.com", "482913");
+
+        assertThat(row.getOtpCiphertext()).startsWith("v1$").doesNotContain("482913");
+
+        when(jpaRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(row)).thenReturn(List.of());
+        dispatcher(smtp.getSmtp().getPort()).dispatch();
+
+        MimeMessage[] received = smtp.getReceivedMessages();
+        assertThat(received).hasSize(1);
+        assertThat(received[0].getAllRecipients()[0].toString()).isEqualTo("user@example.com");
+        assertThat(GreenMailUtil.getBody(received[0])).contains("482913");
+        verify(jpaRepository).deleteByIdDirect(row.getId());
+        assertThat(meterRegistry.get("mfa.otp.email.outbox").tag("outcome", "sent").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsTheRowForRetryWhenSmtpIsDown() {
+        OtpEmailOutboxEntity row = enqueue("user@example.com", "482913");
+        when(jpaRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(row)).thenReturn(List.of());
+
+        // Nothing listens on the port of a stopped server
+        int closedPort = smtp.getSmtp().getPort() + 1;
+        dispatcher(closedPort).dispatch();
+
+        verify(jpaRepository).scheduleRetry(eq(row.getId()), any(), any());
+        verify(jpaRepository, never()).deleteByIdDirect(row.getId());
+        assertThat(smtp.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void dropsRowsSealedUnderAnotherKey() {
+        OtpEmailOutboxCipher previousKey = new OtpEmailOutboxCipher(jwtProperties("rotated-away-secret"));
+        UUID id = UUID.randomUUID();
+        OtpEmailOutboxEntity row = new OtpEmailOutboxEntity(id, "user@example.com",
+                previousKey.encrypt(id, "482913"), Instant.now());
+        when(jpaRepository.findDueForUpdate(any(), anyInt())).thenReturn(List.of(row)).thenReturn(List.of());
+
+        dispatcher(smtp.getSmtp().getPort()).dispatch();
+
+        verify(jpaRepository).deleteByIdDirect(id);
+        assertThat(smtp.getReceivedMessages()).isEmpty();
+    }
+
+    @Test
+    void ciphertextIsBoundToItsRow() {
+        UUID id = UUID.randomUUID();
+        String sealed = cipher.encrypt(id, "482913");
+
+        assertThat(cipher.decrypt(id, sealed)).isEqualTo("482913");
+        assertThatThrownBy(() -> cipher.decrypt(UUID.randomUUID(), sealed)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> cipher.decrypt(id, "482913")).isInstanceOf(IllegalStateException.class);
+    }
+
+    private OtpEmailOutboxEntity enqueue(String toEmail, String otpCode) {
+        outbox.enqueue(toEmail, otpCode);
+        ArgumentCaptor<OtpEmailOutboxEntity> saved = ArgumentCaptor.forClass(OtpEmailOutboxEntity.class);
+        verify(jpaRepository).save(saved.capture());
+        return saved.getValue();
+    }
+
+    private OtpEmailOutboxDispatcher dispatcher(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+
+        MfaEmailProperties properties = new MfaEmailProperties();
+        return new OtpEmailOutboxDispatcher(outbox, new MailtrapEmailSender(mailSender), properties, meterRegistry);
+    }
+
+    private static JwtProperties jwtProperties(String secret) {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(secret);
+        return properties;
+    }
+}
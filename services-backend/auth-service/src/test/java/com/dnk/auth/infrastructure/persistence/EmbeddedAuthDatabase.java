@@ -0,0 +1,79 @@
+package com.dnk.auth.infrastructure.persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * One embedded PostgreSQL per test JVM for the adapters whose SQL (UPDATE ... RETURNING, FOR UPDATE SKIP
+ * LOCKED, partitions) has no H2 equivalent. Each named database is created once from
+ * {@code database/init-db.sql} plus any further scripts from that folder, so a test class that migrates its
+ * schema does not change the one other classes see.
+ */
+public final class EmbeddedAuthDatabase {
+
+    private static final Path DATABASE_SCRIPTS = Path.of("..", "database");
+
+    private static EmbeddedPostgres postgres;
+    private static final Set<String> created = new HashSet<>();
+
+    private EmbeddedAuthDatabase() {
+    }
+
+    public static void register(DynamicPropertyRegistry registry) {
+        register(registry, "auth");
+    }
+
+    public static synchronized void register(DynamicPropertyRegistry registry, String database, String... scripts) {
+        EmbeddedPostgres server = start();
+        if (created.add(database)) {
+            execute(server, "postgres", "CREATE DATABASE " + database);
+            runScript(server, database, "init-db.sql");
+            for (String script : scripts) {
+                runScript(server, database, script);
+            }
+        }
+        registry.add("spring.datasource.url", () -> server.getJdbcUrl("postgres", database));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "");
+        registry.add("spring.jpa.properties.hibernate.default_schema", () -> "auth_schema");
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> 10);
+    }
+
+    private static void runScript(EmbeddedPostgres server, String database, String fileName) {
+        try {
+            execute(server, database, Files.readString(DATABASE_SCRIPTS.resolve(fileName)));
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not read " + fileName, ex);
+        }
+    }
+
+    private static void execute(EmbeddedPostgres server, String database, String sql) {
+        try (Connection connection = server.getDatabase("postgres", database).getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not prepare embedded database " + database, ex);
+        }
+    }
+
+    private static EmbeddedPostgres start() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.builder().start();
+            } catch (IOException ex) {
+                throw new IllegalStateException("Could not start embedded PostgreSQL", ex);
+            }
+        }
+        return postgres;
+    }
+}
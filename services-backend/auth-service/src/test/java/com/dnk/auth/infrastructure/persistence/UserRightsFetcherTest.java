@@ -0,0 +1,138 @@
+package com.dnk.auth.infrastructure.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.infrastructure.config.RightsCacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * The rights cache against the real iam_schema triggers: role changes made elsewhere reach it through the
+ * version stamps, and anything else at the latest after the TTL.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserRightsFetcherTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedAuthDatabase.register(registry);
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void cachedRightsAreServedUntilTheTtlRunsOut() throws Exception {
+        // The version is never re-read here, so only the TTL can pick up the change
+        UserRightsFetcher fetcher = fetcher(Duration.ofMillis(300), Duration.ofHours(1));
+        String userId = userWithRole("student");
+        fetcher.getUserRights(userId);
+
+        assign(userId, "admin");
+        assertThat(fetcher.getUserRights(userId).roles()).containsExactly("student");
+        assertThat(count("hit")).isEqualTo(1);
+
+        Thread.sleep(400);
+        assertThat(fetcher.getUserRights(userId).roles()).containsExactlyInAnyOrder("student", "admin");
+    }
+
+    @Test
+    void roleChangeMadeElsewhereEvictsOnlyThatUser() {
+        UserRightsFetcher fetcher = fetcher(Duration.ofHours(1), Duration.ZERO);
+        String changed = userWithRole("student");
+        String untouched = userWithRole("operator");
+        fetcher.getUserRights(changed);
+        fetcher.getUserRights(untouched);
+
+        assign(changed, "admin");
+
+        assertThat(fetcher.getUserRights(changed).permissions()).contains("courses:delete");
+        assertThat(fetcher.getUserRights(untouched).roles()).containsExactly("operator");
+        assertThat(count("miss")).isEqualTo(3);
+        assertThat(count("hit")).isEqualTo(1);
+    }
+
+    @Test
+    void globalRightsChangeDropsEveryEntry() {
+        UserRightsFetcher fetcher = fetcher(Duration.ofHours(1), Duration.ZERO);
+        String first = userWithRole("student");
+        String second = userWithRole("student");
+        fetcher.getUserRights(first);
+        fetcher.getUserRights(second);
+
+        String permission = "test:" + UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO iam_schema.permissions (id, name) VALUES (gen_random_uuid(), ?)", permission);
+        jdbcTemplate.update("INSERT INTO iam_schema.role_permissions (role_id, permission_id)"
+                + " SELECT r.id, p.id FROM iam_schema.roles r, iam_schema.permissions p"
+                + " WHERE r.name = 'student' AND p.name = ?", permission);
+
+        assertThat(fetcher.getUserRights(first).permissions()).contains(permission);
+        assertThat(fetcher.getUserRights(second).permissions()).contains(permission);
+        assertThat(count("hit")).isZero();
+    }
+
+    @Test
+    void userRightsVersionMovesWithTheUsersOwnStamp() {
+        UserRightsFetcher fetcher = fetcher(Duration.ofHours(1), Duration.ZERO);
+        String userId = userWithRole("student");
+        UserRights before = fetcher.getUserRights(userId);
+        assertThat(fetcher.currentRightsVersion(userId)).isEqualTo(before.version());
+
+        assign(userId, "operator");
+
+        assertThat(fetcher.currentRightsVersion(userId)).isGreaterThan(before.version());
+        assertThat(fetcher.getUserRights(userId).version()).isEqualTo(fetcher.currentRightsVersion(userId));
+    }
+
+    private UserRightsFetcher fetcher(Duration ttl, Duration versionTtl) {
+        RightsCacheProperties properties = new RightsCacheProperties();
+        properties.setTtl(ttl);
+        properties.setVersionTtl(versionTtl);
+        UserRightsFetcher fetcher = new UserRightsFetcher(properties, false, meterRegistry);
+        ReflectionTestUtils.setField(fetcher, "entityManager", entityManager);
+        return fetcher;
+    }
+
+    /**
+     * A user whose role was assigned long enough ago to be outside every changed-users window.
+     */
+    private String userWithRole(String roleName) {
+        String userId = "user-" + UUID.randomUUID();
+        assign(userId, roleName);
+        jdbcTemplate.update("UPDATE iam_schema.user_rights_version SET changed_at = now() - interval '1 hour'"
+                + " WHERE user_id = ?", userId);
+        return userId;
+    }
+
+    private void assign(String userId, String roleName) {
+        jdbcTemplate.update("INSERT INTO iam_schema.user_roles (user_id, role_id)"
+                + " SELECT ?, id FROM iam_schema.roles WHERE name = ?", userId, roleName);
+    }
+
+    private double count(String result) {
+        return meterRegistry.get("auth.rights.cache").tag("result", result).counter().count();
+    }
+}
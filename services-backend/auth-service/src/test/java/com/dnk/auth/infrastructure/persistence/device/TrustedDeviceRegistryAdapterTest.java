@@ -0,0 +1,85 @@
+package com.dnk.auth.infrastructure.persistence.device;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.domain.model.TrustedDevice;
+import com.dnk.auth.infrastructure.config.TrustedDeviceProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class TrustedDeviceRegistryAdapterTest {
+
+    private final SpringDataTrustedDeviceRepository jpaRepository = mock(SpringDataTrustedDeviceRepository.class);
+    private final TrustedDeviceRegistryAdapter registry = new TrustedDeviceRegistryAdapter(
+            jpaRepository, new TrustedDeviceProperties(), new SimpleMeterRegistry());
+
+    @Test
+    void revocationOnAnotherNodeIsPickedUpBySync() {
+        TrustedDeviceEntity entity = entity("user-1", null);
+        when(jpaRepository.findById(entity.getId())).thenReturn(Optional.of(entity));
+
+        // Indexed once, then served from memory
+        assertThat(registry.findById(entity.getId())).hasValueSatisfying(device -> assertThat(device.getRevokedAt()).isNull());
+        assertThat(registry.findById(entity.getId())).isPresent();
+        verify(jpaRepository, times(1)).findById(entity.getId());
+
+        Instant revokedAt = Instant.now();
+        entity.setRevokedAt(revokedAt);
+        when(jpaRepository.findIdsRevokedSince(any())).thenReturn(List.of(entity.getId()));
+        registry.syncRevocations();
+
+        assertThat(registry.findById(entity.getId()))
+                .hasValueSatisfying(device -> assertThat(device.isActive(Instant.now())).isFalse());
+    }
+
+    @Test
+    void localRevocationUpdatesTheIndexAtOnce() {
+        TrustedDeviceEntity entity = entity("user-1", null);
+        when(jpaRepository.findById(entity.getId())).thenReturn(Optional.of(entity));
+        registry.findById(entity.getId());
+
+        when(jpaRepository.revoke(eq("user-1"), eq(entity.getId()), any())).thenReturn(1);
+        assertThat(registry.revoke("user-1", entity.getId())).isTrue();
+
+        TrustedDevice device = registry.findById(entity.getId()).orElseThrow();
+        assertThat(device.getRevokedAt()).isNotNull();
+        verify(jpaRepository, times(1)).findById(entity.getId());
+    }
+
+    @Test
+    void revocationOfSomeoneElsesDeviceIsRefused() {
+        TrustedDeviceEntity entity = entity("user-1", null);
+        when(jpaRepository.findById(entity.getId())).thenReturn(Optional.of(entity));
+        registry.findById(entity.getId());
+
+        when(jpaRepository.revoke(eq("user-2"), eq(entity.getId()), any())).thenReturn(0);
+
+        assertThat(registry.revoke("user-2", entity.getId())).isFalse();
+        assertThat(registry.findById(entity.getId()).orElseThrow().getRevokedAt()).isNull();
+    }
+
+    private static TrustedDeviceEntity entity(String userId, Instant revokedAt) {
+        TrustedDeviceEntity entity = new TrustedDeviceEntity();
+        entity.setId(UUID.randomUUID());
+        entity.setUserId(userId);
+        entity.setLabel("Firefox on Linux");
+        entity.setCreatedAt(Instant.now());
+        entity.setExpiresAt(Instant.now().plus(30, ChronoUnit.DAYS));
+        entity.setRevokedAt(revokedAt);
+        return entity;
+    }
+}
@@ -0,0 +1,133 @@
+package com.dnk.auth.infrastructure.persistence.mfa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.dnk.auth.application.exception.AuthException;
+import com.dnk.auth.application.port.out.PasswordHashingPort;
+import com.dnk.auth.domain.model.MfaOtp;
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class InMemoryMfaOtpRepositoryAdapterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void codeIsConsumedOnlyOnce() throws Exception {
+        InMemoryMfaOtpRepositoryAdapter store = store(100);
+        store.save(otp("user-1", "482913", null));
+
+        CountDownLatch start = new CountDownLatch(1);
+        Callable<Optional<MfaOtp>> consume = () -> {
+            start.await();
+            return store.consumeValid("user-1", "482913", Instant.now());
+        };
+        List<Future<Optional<MfaOtp>>> results = new ArrayList<>();
+        try (ExecutorService callers = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                results.add(callers.submit(consume));
+            }
+            start.countDown();
+            int winners = 0;
+            for (Future<Optional<MfaOtp>> result : results) {
+                winners += result.get().isPresent() ? 1 : 0;
+            }
+            assertThat(winners).isEqualTo(1);
+        }
+        assertThat(store.findValidByUserId("user-1", Instant.now())).isEmpty();
+    }
+
+    @Test
+    void wrongCodeLeavesTheOtpInPlace() {
+        InMemoryMfaOtpRepositoryAdapter store = store(100);
+        store.save(otp("user-1", "482913", null));
+
+        assertThat(store.consumeValid("user-1", "000000", Instant.now())).isEmpty();
+        assertThat(store.consumeValid("user-1", "482913", Instant.now())).get()
+                .extracting(MfaOtp::getVerifiedAt).isNotNull();
+    }
+
+    @Test
+    void expiredOtpIsNeitherValidNorKeptPastTheNextTick() {
+        InMemoryMfaOtpRepositoryAdapter store = store(100);
+        store.save(otp("user-1", "482913", Instant.now().minusSeconds(1)));
+        store.save(otp("user-2", "123456", null));
+
+        assertThat(store.findValidByUserId("user-1", Instant.now())).isEmpty();
+        assertThat(store.consumeValid("user-1", "482913", Instant.now())).isEmpty();
+
+        store.tick();
+
+        assertThat(entries()).isEqualTo(1);
+        assertThat(store.findValidByUserId("user-2", Instant.now())).isPresent();
+    }
+
+    @Test
+    void fullStoreReclaimsExpiredEntriesBeforeRefusing() {
+        InMemoryMfaOtpRepositoryAdapter store = store(1);
+        store.save(otp("user-1", "482913", Instant.now().minusSeconds(1)));
+
+        store.save(otp("user-2", "123456", null));
+        // A user replacing their own OTP is always allowed
+        store.save(otp("user-2", "654321", null));
+
+        assertThat(entries()).isEqualTo(1);
+        assertThatThrownBy(() -> store.save(otp("user-3", "111111", null))).isInstanceOf(AuthException.class);
+    }
+
+    @Test
+    void markDeliveredOnlyTouchesTheCurrentOtp() {
+        InMemoryMfaOtpRepositoryAdapter store = store(100);
+        MfaOtp replaced = store.save(otp("user-1", "482913", null));
+        MfaOtp current = store.save(otp("user-1", "123456", null));
+
+        store.markDelivered(replaced.getId(), Instant.now());
+        assertThat(store.findValidByUserId("user-1", Instant.now())).get()
+                .extracting(MfaOtp::getDeliveredAt).isNull();
+
+        store.markDelivered(current.getId(), Instant.now());
+        assertThat(store.findValidByUserId("user-1", Instant.now())).get()
+                .extracting(MfaOtp::getDeliveredAt).isNotNull();
+    }
+
+    private InMemoryMfaOtpRepositoryAdapter store(int maxEntries) {
+        MfaOtpProperties properties = new MfaOtpProperties();
+        properties.setMaxEntries(maxEntries);
+        return new InMemoryMfaOtpRepositoryAdapter(new PlainHashing(), properties, meterRegistry);
+    }
+
+    private double entries() {
+        return meterRegistry.get("mfa.otp.store.entries").gauge().value();
+    }
+
+    private static MfaOtp otp(String userId, String code, Instant expiresAt) {
+        return new MfaOtp(null, userId, userId + "@example.com", code, expiresAt, null, null);
+    }
+
+    private static final class PlainHashing implements PasswordHashingPort {
+
+        @Override
+        public String hash(String raw) {
+            return "plain$" + raw;
+        }
+
+        @Override
+        public boolean matches(String raw, String hash) {
+            return hash.equals("plain$" + raw);
+        }
+    }
+}
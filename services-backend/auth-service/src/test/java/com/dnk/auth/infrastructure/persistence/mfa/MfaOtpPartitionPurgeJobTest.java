@@ -0,0 +1,115 @@
+package com.dnk.auth.infrastructure.persistence.mfa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+import com.dnk.auth.infrastructure.persistence.EmbeddedAuthDatabase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Partition mode against a table converted with {@code database/mfa-otp-partitioning.sql}.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MfaOtpPartitionPurgeJobTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedAuthDatabase.register(registry, "auth_partitioned", "mfa-otp-partitioning.sql");
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void rowsInTheDefaultPartitionMoveIntoTheirDayWhenItIsCreated() {
+        LocalDate day = today().plusDays(5);
+        UUID early = insert(day.atTime(9, 0).toInstant(ZoneOffset.UTC));
+        assertThat(partitionOf(early)).isEqualTo("auth_schema.mfa_otp_default");
+
+        job(6).purge();
+
+        assertThat(partitionOf(early)).isEqualTo("auth_schema." + partition(day));
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM auth_schema.mfa_otp_default", Long.class)).isZero();
+    }
+
+    @Test
+    void daysPastTheRetentionAreDroppedAndOldStraysDeleted() {
+        LocalDate oldDay = today().minusDays(3);
+        jdbcTemplate.execute("CREATE TABLE auth_schema." + partition(oldDay) + " PARTITION OF auth_schema.mfa_otp"
+                + " FOR VALUES FROM ('" + oldDay + " 00:00:00+00') TO ('" + oldDay.plusDays(1) + " 00:00:00+00')");
+        insert(oldDay.atTime(12, 0).toInstant(ZoneOffset.UTC));
+        // No partition exists for this day, so the row sits in DEFAULT
+        UUID stray = insert(today().minusDays(2).atTime(12, 0).toInstant(ZoneOffset.UTC));
+        UUID current = insert(Instant.now());
+
+        job(2).purge();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NULL", Boolean.class,
+                "auth_schema." + partition(oldDay))).isTrue();
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM auth_schema.mfa_otp", UUID.class))
+                .contains(current)
+                .doesNotContain(stray);
+        assertThat(meterRegistry.get("mfa.otp.purge.partitions.dropped").counter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    private MfaOtpPurgeJob job(int partitionsAhead) {
+        MfaOtpProperties properties = new MfaOtpProperties();
+        properties.getPurge().setMode("partition");
+        properties.getPurge().setPartitionsAhead(partitionsAhead);
+        MfaOtpPurgeJob job = new MfaOtpPurgeJob(transactionManager, properties, meterRegistry);
+        ReflectionTestUtils.setField(job, "entityManager", entityManager);
+        return job;
+    }
+
+    private UUID insert(Instant createdAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO auth_schema.mfa_otp (id, user_id, email, otp_hash, expires_at, created_at)"
+                        + " VALUES (?, 'user-1', 'user@example.com', 'hash', ?, ?)",
+                id, Timestamp.from(createdAt.plusSeconds(300)), Timestamp.from(createdAt));
+        return id;
+    }
+
+    private String partitionOf(UUID id) {
+        return jdbcTemplate.queryForObject("SELECT tableoid::regclass::text FROM auth_schema.mfa_otp WHERE id = ?",
+                String.class, id);
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    private static String partition(LocalDate day) {
+        return "mfa_otp_p" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+}
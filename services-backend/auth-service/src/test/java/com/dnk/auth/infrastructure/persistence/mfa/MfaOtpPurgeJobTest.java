@@ -0,0 +1,120 @@
+package com.dnk.auth.infrastructure.persistence.mfa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+import com.dnk.auth.infrastructure.persistence.EmbeddedAuthDatabase;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Delete mode against PostgreSQL: every spent row goes, however young, and live codes stay.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MfaOtpPurgeJobTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedAuthDatabase.register(registry);
+    }
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE auth_schema.mfa_otp");
+    }
+
+    @Test
+    void deletesVerifiedAndExpiredRowsAcrossBatches() {
+        Instant now = Instant.now();
+        for (int i = 0; i < 5; i++) {
+            insert(now.minus(Duration.ofHours(2)).plusSeconds(i), now.minus(Duration.ofHours(2)), null);
+        }
+        insert(now.minusSeconds(30), now.plusSeconds(270), now.minusSeconds(10));
+        // Left behind by invalidateAllForUser, which expires a code early instead of deleting it
+        insert(now.minusSeconds(20), now.minusSeconds(1), null);
+        UUID live = insert(now.minusSeconds(10), now.plusSeconds(290), null);
+
+        job(2).purge();
+
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM auth_schema.mfa_otp", UUID.class)).containsExactly(live);
+        assertThat(meterRegistry.get("mfa.otp.purge.rows").counter().count()).isEqualTo(7);
+    }
+
+    @Test
+    void walksPastRowsLockedByAnotherTransaction() throws Exception {
+        Instant expiredAt = Instant.now().minus(Duration.ofHours(2));
+        UUID locked = insert(expiredAt, expiredAt, null);
+        for (int i = 1; i <= 4; i++) {
+            insert(expiredAt.plusSeconds(i), expiredAt, null);
+        }
+
+        try (Connection other = dataSource.getConnection(); Statement statement = other.createStatement()) {
+            other.setAutoCommit(false);
+            statement.execute("SELECT 1 FROM auth_schema.mfa_otp WHERE id = '" + locked + "' FOR UPDATE");
+
+            job(2).purge();
+
+            other.rollback();
+        }
+
+        // The locked head row is skipped, not waited on, and the keyset still reaches the rows after it
+        assertThat(jdbcTemplate.queryForList("SELECT id FROM auth_schema.mfa_otp", UUID.class)).containsExactly(locked);
+        assertThat(meterRegistry.get("mfa.otp.purge.rows").counter().count()).isEqualTo(4);
+    }
+
+    private MfaOtpPurgeJob job(int batchSize) {
+        MfaOtpProperties properties = new MfaOtpProperties();
+        properties.getPurge().setMode("delete");
+        properties.getPurge().setBatchSize(batchSize);
+        MfaOtpPurgeJob job = new MfaOtpPurgeJob(transactionManager, properties, meterRegistry);
+        ReflectionTestUtils.setField(job, "entityManager", entityManager);
+        return job;
+    }
+
+    private UUID insert(Instant createdAt, Instant expiresAt, Instant verifiedAt) {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO auth_schema.mfa_otp (id, user_id, email, otp_hash, expires_at, verified_at, created_at)"
+                        + " VALUES (?, 'user-1', 'user@example.com', 'hash', ?, ?, ?)",
+                id, Timestamp.from(expiresAt), verifiedAt == null ? null : Timestamp.from(verifiedAt), Timestamp.from(createdAt));
+        return id;
+    }
+}
@@ -0,0 +1,166 @@
+package com.dnk.auth.infrastructure.persistence.mfa;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.dnk.auth.application.port.out.PasswordHashingPort;
+import com.dnk.auth.domain.model.MfaOtp;
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+import com.dnk.auth.infrastructure.persistence.EmbeddedAuthDatabase;
+import com.dnk.auth.infrastructure.security.BCryptPasswordHashingAdapter;
+import com.dnk.auth.infrastructure.security.HmacOtpHashingAdapter;
+
+/**
+ * Runs against PostgreSQL: an OTP must be consumable once, whichever hashing mode wrote it.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MfaOtpRepositoryAdapterTest {
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        EmbeddedAuthDatabase.register(registry);
+    }
+
+    @Autowired
+    private SpringDataMfaOtpRepository jpaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void emptyTable() {
+        jdbcTemplate.execute("TRUNCATE auth_schema.mfa_otp");
+    }
+
+    @Test
+    void concurrentConsumesOfASaltedHashHaveOneWinner() throws Exception {
+        // Both callers have read and matched the row before either tries to consume it
+        CyclicBarrier bothMatched = new CyclicBarrier(2);
+        PasswordHashingPort bcrypt = new BCryptPasswordHashingAdapter();
+        PasswordHashingPort racing = new PasswordHashingPort() {
+            @Override
+            public String hash(String raw) {
+                return bcrypt.hash(raw);
+            }
+
+            @Override
+            public boolean matches(String raw, String hash) {
+                boolean matches = bcrypt.matches(raw, hash);
+                try {
+                    bothMatched.await(5, TimeUnit.SECONDS);
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+                return matches;
+            }
+        };
+        TransactionalAdapter adapter = new TransactionalAdapter(racing);
+        adapter.save("user-1", "482913");
+
+        assertThat(winners(2, () -> adapter.consume("user-1", "482913"))).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentConsumesOfADeterministicHashHaveOneWinner() throws Exception {
+        TransactionalAdapter adapter = new TransactionalAdapter(hmac());
+        adapter.save("user-1", "482913");
+
+        assertThat(winners(8, () -> adapter.consume("user-1", "482913"))).isEqualTo(1);
+        assertThat(adapter.consume("user-1", "482913")).isEmpty();
+    }
+
+    @Test
+    void hmacModeStillConsumesARowHashedWithBcrypt() {
+        new TransactionalAdapter(new BCryptPasswordHashingAdapter()).save("user-1", "482913");
+        TransactionalAdapter adapter = new TransactionalAdapter(hmac());
+
+        assertThat(adapter.consume("user-1", "000000")).isEmpty();
+        assertThat(adapter.consume("user-1", "482913")).get().extracting(MfaOtp::getVerifiedAt).isNotNull();
+    }
+
+    @Test
+    void hmacModeSkipsTheSaltedLookupOnceNoBcryptRowIsLeft() {
+        TransactionalAdapter adapter = new TransactionalAdapter(hmac());
+        adapter.save("user-1", "482913");
+        assertThat(adapter.consume("user-1", "000000")).isEmpty();
+
+        // Only an instance still on bcrypt could write this row, and mixed modes are not supported
+        new TransactionalAdapter(new BCryptPasswordHashingAdapter()).save("user-2", "123456");
+
+        assertThat(adapter.consume("user-2", "123456")).isEmpty();
+        assertThat(adapter.consume("user-1", "482913")).isPresent();
+    }
+
+    private HmacOtpHashingAdapter hmac() {
+        MfaOtpProperties properties = new MfaOtpProperties();
+        properties.setHashing("hmac");
+        properties.setHmacSecret("otp-hmac-secret-of-at-least-32-chars");
+        return new HmacOtpHashingAdapter(properties);
+    }
+
+    private static int winners(int callers, Supplier<Optional<MfaOtp>> consume) throws Exception {
+        List<Future<Optional<MfaOtp>>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newFixedThreadPool(callers)) {
+            Callable<Optional<MfaOtp>> task = consume::get;
+            for (int i = 0; i < callers; i++) {
+                results.add(threads.submit(task));
+            }
+            int winners = 0;
+            for (Future<Optional<MfaOtp>> result : results) {
+                winners += result.get(10, TimeUnit.SECONDS).isPresent() ? 1 : 0;
+            }
+            return winners;
+        }
+    }
+
+    /**
+     * The adapter as the application calls it: every method in its own read-write transaction.
+     */
+    private final class TransactionalAdapter {
+
+        private final MfaOtpRepositoryAdapter adapter;
+        private final TransactionTemplate transactions = new TransactionTemplate(transactionManager);
+
+        private TransactionalAdapter(PasswordHashingPort hashing) {
+            this.adapter = new MfaOtpRepositoryAdapter(jpaRepository, hashing);
+        }
+
+        private void save(String userId, String code) {
+            transactions.executeWithoutResult(status ->
+                    adapter.save(new MfaOtp(null, userId, userId + "@example.com", code, null, null, null)));
+        }
+
+        private Optional<MfaOtp> consume(String userId, String code) {
+            return transactions.execute(status -> adapter.consumeValid(userId, code, Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.dnk.auth.infrastructure.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTest {
+
+    private static final long MINUTE = Duration.ofMinutes(1).toNanos();
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, now::get);
+
+    @Test
+    void allowsTheBurstThenAsksToWaitForOneToken() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("k", 5, MINUTE)).isEqualTo(0L);
+        }
+
+        // One token comes back every 12 seconds
+        assertThat(limiter.tryAcquire("k", 5, MINUTE)).isEqualTo(Duration.ofSeconds(12).toNanos());
+
+        now.addAndGet(Duration.ofSeconds(12).toNanos());
+        assertThat(limiter.tryAcquire("k", 5, MINUTE)).isEqualTo(0L);
+        assertThat(limiter.tryAcquire("k", 5, MINUTE) > 0).isTrue();
+    }
+
+    @Test
+    void keysDoNotShareBuckets() {
+        assertThat(limiter.tryAcquire("a", 1, MINUTE)).isEqualTo(0L);
+        assertThat(limiter.tryAcquire("a", 1, MINUTE) > 0).isTrue();
+        assertThat(limiter.tryAcquire("b", 1, MINUTE)).isEqualTo(0L);
+    }
+
+    @Test
+    void dropsOnlyBucketsThatHaveRefilled() {
+        limiter.tryAcquire("idle", 5, MINUTE);
+        now.addAndGet(Duration.ofSeconds(13).toNanos());
+        limiter.tryAcquire("busy", 5, MINUTE);
+
+        limiter.evictIdle();
+
+        assertThat(limiter.size()).isEqualTo(1);
+        // The surviving bucket still remembers the token it gave out
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire("busy", 5, MINUTE)).isEqualTo(0L);
+        }
+        assertThat(limiter.tryAcquire("busy", 5, MINUTE) > 0).isTrue();
+    }
+
+    @Test
+    void neverGrantsMoreThanTheCapacityUnderContention() throws Exception {
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1_000; i++) {
+            pool.execute(() -> {
+                if (limiter.tryAcquire("hot", 50, MINUTE) == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.SECONDS);
+
+        assertThat(granted.get()).isEqualTo(50);
+    }
+}
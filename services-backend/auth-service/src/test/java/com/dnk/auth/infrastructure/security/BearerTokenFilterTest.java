@@ -0,0 +1,76 @@
+package com.dnk.auth.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.dnk.auth.application.model.UserRights;
+import com.dnk.auth.application.model.VerifiedToken;
+import com.dnk.auth.infrastructure.config.JwtProperties;
+import com.dnk.auth.infrastructure.jwt.JwtTokenProvider;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class BearerTokenFilterTest {
+
+    private final JwtTokenProvider tokenProvider = tokenProvider();
+    private final BearerTokenFilter filter = new BearerTokenFilter(tokenProvider);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void authenticatesAccessTokens() throws Exception {
+        String accessToken = tokenProvider.generateAccessToken("user-1", "user@example.com", List.of("student"), List.of());
+
+        Authentication authentication = filter(accessToken);
+
+        assertThat(authentication).isNotNull();
+        assertThat(((VerifiedToken) authentication.getPrincipal()).userId()).isEqualTo("user-1");
+    }
+
+    @Test
+    void ignoresRefreshTokens() throws Exception {
+        UserRights rights = new UserRights(List.of("student"), List.of(), 3);
+
+        assertThat(filter(tokenProvider.generateRefreshToken("user-1", "user@example.com"))).isNull();
+        assertThat(filter(tokenProvider.generateRefreshToken("user-1", "user@example.com", rights))).isNull();
+    }
+
+    @Test
+    void accessTokensWithoutRightsAreNotMistakenForRefreshTokens() {
+        String accessToken = tokenProvider.generateAccessToken("user-1", "user@example.com", List.of(), List.of());
+
+        assertThat(tokenProvider.verify(accessToken)).hasValueSatisfying(token -> assertThat(token.refreshToken()).isFalse());
+    }
+
+    private Authentication filter(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static JwtTokenProvider tokenProvider() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("bearer-filter-test-secret-of-at-least-32-bytes");
+        properties.setIssuer("auth-service");
+        properties.setExpiration(900);
+
+        JwtTokenProvider provider = new JwtTokenProvider(properties, new ObjectMapper());
+        ReflectionTestUtils.invokeMethod(provider, "init");
+        return provider;
+    }
+}
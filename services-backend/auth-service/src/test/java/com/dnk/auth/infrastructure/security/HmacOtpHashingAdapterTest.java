@@ -0,0 +1,57 @@
+package com.dnk.auth.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.dnk.auth.infrastructure.config.MfaOtpProperties;
+
+class HmacOtpHashingAdapterTest {
+
+    private final HmacOtpHashingAdapter hashing = new HmacOtpHashingAdapter(properties("otp-hmac-secret-of-at-least-32-chars"));
+
+    @Test
+    void hmacHashMatchesItsCodeOnly() {
+        String hash = hashing.hash("482913");
+
+        assertThat(hash).startsWith("hmac-sha256$").doesNotContain("482913");
+        assertThat(hashing.matches("482913", hash)).isTrue();
+        assertThat(hashing.matches("482914", hash)).isFalse();
+        assertThat(hashing.matches(null, hash)).isFalse();
+        assertThat(hashing.matches("482913", "hmac-sha256$not*base64")).isFalse();
+    }
+
+    @Test
+    void hashIsDeterministicAndBoundToTheKey() {
+        HmacOtpHashingAdapter otherKey = new HmacOtpHashingAdapter(properties("another-hmac-secret-of-32-chars-!!"));
+
+        assertThat(hashing.isDeterministic()).isTrue();
+        assertThat(hashing.hash("482913")).isEqualTo(hashing.hash("482913"));
+        assertThat(otherKey.matches("482913", hashing.hash("482913"))).isFalse();
+    }
+
+    @Test
+    void legacyBcryptHashStillVerifies() {
+        String legacy = new BCryptPasswordEncoder().encode("482913");
+
+        assertThat(legacy).startsWith("$2a$");
+        assertThat(hashing.matches("482913", legacy)).isTrue();
+        assertThat(hashing.matches("000000", legacy)).isFalse();
+    }
+
+    @Test
+    void refusesAShortSecret() {
+        assertThatThrownBy(() -> new HmacOtpHashingAdapter(properties("too-short")))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("mfa.otp.hmac-secret");
+    }
+
+    private static MfaOtpProperties properties(String secret) {
+        MfaOtpProperties properties = new MfaOtpProperties();
+        properties.setHashing("hmac");
+        properties.setHmacSecret(secret);
+        return properties;
+    }
+}
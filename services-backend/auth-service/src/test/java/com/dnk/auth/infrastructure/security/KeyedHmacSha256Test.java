@@ -0,0 +1,43 @@
+package com.dnk.auth.infrastructure.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+class KeyedHmacSha256Test {
+
+    @Test
+    void matchesRfc4231TestCase2() {
+        KeyedHmacSha256 hmac = new KeyedHmacSha256("Jefe".getBytes(StandardCharsets.US_ASCII));
+
+        byte[] mac = hmac.doFinal("what do ya want for nothing?".getBytes(StandardCharsets.US_ASCII));
+
+        assertThat(HexFormat.of().formatHex(mac))
+                .isEqualTo("5bdcc146bf60754e6a042426089575c75a003f089d2739839dec58b964ec3843");
+    }
+
+    @Test
+    void sharedInstanceGivesTheSameMacOnManyVirtualThreads() throws Exception {
+        KeyedHmacSha256 hmac = new KeyedHmacSha256("a-shared-key-of-at-least-32-bytes!".getBytes(StandardCharsets.US_ASCII));
+        byte[] data = "payload".getBytes(StandardCharsets.US_ASCII);
+        byte[] expected = hmac.doFinal(data);
+
+        List<Future<byte[]>> results = new ArrayList<>();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 1_000; i++) {
+                results.add(threads.submit(() -> hmac.doFinal(data)));
+            }
+            for (Future<byte[]> result : results) {
+                assertThat(result.get()).isEqualTo(expected);
+            }
+        }
+    }
+}
@@ -10,17 +10,94 @@ CREATE SCHEMA enrollment_schema;
 --=======================================================================
 
 CREATE TABLE auth_schema.mfa_otp (
-    id          uuid PRIMARY KEY,
-    user_id     varchar(255) NOT NULL,
-    email       varchar(255) NOT NULL,
-    otp_hash    varchar(255) NOT NULL,
-    expires_at  timestamptz  NOT NULL,
-    verified_at timestamptz  NULL,
-    created_at  timestamptz  NOT NULL
+    id           uuid PRIMARY KEY,
+    user_id      varchar(255) NOT NULL,
+    email        varchar(255) NOT NULL,
+    otp_hash     varchar(255) NOT NULL,
+    expires_at   timestamptz  NOT NULL,
+    verified_at  timestamptz  NULL,
+    created_at   timestamptz  NOT NULL,
+    delivered_at timestamptz  NULL
 );
 
-CREATE INDEX idx_mfa_otp_user_valid
-ON auth_schema.mfa_otp (user_id, expires_at, verified_at);
+-- delivered_at: momento en que el correo se envió o quedó en el outbox. Un login repetido solo reutiliza
+-- un OTP entregado; uno cuyo envío falló se invalida y se emite otro. En bases existentes:
+ALTER TABLE auth_schema.mfa_otp ADD COLUMN IF NOT EXISTS delivered_at timestamptz NULL;
+
+-- Índice parcial: solo las filas sin verificar participan en la búsqueda y el consumo del OTP,
+-- así el índice no crece con los códigos ya usados.
+-- En bases existentes reemplaza al antiguo idx_mfa_otp_user_valid.
+DROP INDEX IF EXISTS auth_schema.idx_mfa_otp_user_valid;
+
+CREATE INDEX IF NOT EXISTS idx_mfa_otp_user_unverified
+ON auth_schema.mfa_otp (user_id, expires_at)
+WHERE verified_at IS NULL;
+
+-- Recorrido por antigüedad del job de purga (MFA_OTP_PURGE_*), que borra en lotes las filas ya verificadas o expiradas.
+CREATE INDEX IF NOT EXISTS idx_mfa_otp_created_at
+ON auth_schema.mfa_otp (created_at, id);
+
+-- Outbox de correos OTP (solo se usa con MFA_EMAIL_OUTBOX_ENABLED=true).
+-- El código se guarda cifrado con AES-GCM y la fila se elimina al entregarse o descartarse.
+CREATE TABLE IF NOT EXISTS auth_schema.otp_email_outbox (
+    id              uuid PRIMARY KEY,
+    to_email        varchar(255) NOT NULL,
+    otp_ciphertext  varchar(255) NOT NULL,
+    attempts        integer      NOT NULL DEFAULT 0,
+    next_attempt_at timestamptz  NOT NULL,
+    last_error      varchar(500) NULL,
+    created_at      timestamptz  NOT NULL
+);
+
+-- Migración desde la columna en texto plano: los correos pendientes se descartan (el usuario puede pedir otro código).
+ALTER TABLE auth_schema.otp_email_outbox ADD COLUMN IF NOT EXISTS otp_ciphertext varchar(255);
+DELETE FROM auth_schema.otp_email_outbox WHERE otp_ciphertext IS NULL;
+ALTER TABLE auth_schema.otp_email_outbox DROP COLUMN IF EXISTS otp_code;
+ALTER TABLE auth_schema.otp_email_outbox ALTER COLUMN otp_ciphertext SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_otp_email_outbox_due
+ON auth_schema.otp_email_outbox (next_attempt_at);
+
+-- Credenciales TOTP (app autenticadora, solo con MFA_TOTP_ENABLED=true).
+-- Los secretos se guardan cifrados con AES-GCM; last_used_step es el último paso de 30 s aceptado
+-- y evita reutilizar un código ya usado. secret_ciphertext es el secreto confirmado y activo;
+-- pending_secret_ciphertext el de un registro en curso, que solo lo sustituye al confirmarse.
+CREATE TABLE IF NOT EXISTS auth_schema.totp_credential (
+    user_id                   varchar(255) PRIMARY KEY,
+    email                     varchar(255) NOT NULL,
+    secret_ciphertext         varchar(255) NULL,
+    pending_secret_ciphertext varchar(255) NULL,
+    confirmed_at              timestamptz  NULL,
+    last_used_step            bigint       NOT NULL DEFAULT 0,
+    created_at                timestamptz  NOT NULL
+);
+
+-- Migración: los registros sin confirmar pasan su secreto a la columna del secreto pendiente.
+ALTER TABLE auth_schema.totp_credential ADD COLUMN IF NOT EXISTS pending_secret_ciphertext varchar(255) NULL;
+ALTER TABLE auth_schema.totp_credential ALTER COLUMN secret_ciphertext DROP NOT NULL;
+UPDATE auth_schema.totp_credential
+SET pending_secret_ciphertext = secret_ciphertext, secret_ciphertext = NULL
+WHERE confirmed_at IS NULL AND secret_ciphertext IS NOT NULL;
+
+-- Dispositivos de confianza (solo con AUTH_DEVICE_ENABLED=true): tras un MFA correcto con
+-- rememberDevice=true, los siguientes logins desde ese dispositivo omiten el OTP hasta expires_at
+-- o hasta que se revoque.
+CREATE TABLE IF NOT EXISTS auth_schema.trusted_device (
+    id         uuid PRIMARY KEY,
+    user_id    varchar(255) NOT NULL,
+    label      varchar(255) NULL,
+    created_at timestamptz  NOT NULL,
+    expires_at timestamptz  NOT NULL,
+    revoked_at timestamptz  NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_trusted_device_user
+ON auth_schema.trusted_device (user_id);
+
+-- Cada nodo consulta periódicamente las revocaciones recientes para actualizar su índice en memoria.
+CREATE INDEX IF NOT EXISTS idx_trusted_device_revoked_at
+ON auth_schema.trusted_device (revoked_at)
+WHERE revoked_at IS NOT NULL;
 
 --=======================================================================
 
@@ -66,6 +143,211 @@ CREATE INDEX IF NOT EXISTS idx_user_roles_role_id ON iam_schema.user_roles(role_
 CREATE INDEX IF NOT EXISTS idx_role_permissions_role_id ON iam_schema.role_permissions(role_id);
 CREATE INDEX IF NOT EXISTS idx_role_permissions_permission_id ON iam_schema.role_permissions(permission_id);
 
+-- Versión global de permisos: un contador que crece con cualquier cambio en roles, permisos, sus relaciones
+-- o la jerarquía, es decir, con lo que puede afectar a muchos usuarios a la vez. Las asignaciones de roles a
+-- un usuario (user_roles) solo incrementan su sello en user_rights_version. auth-service incluye la suma de
+-- ambos en los tokens (claim rv) y, si no cambió, renueva la sesión sin volver a consultar roles y permisos.
+CREATE TABLE IF NOT EXISTS iam_schema.rights_version (
+    id      smallint PRIMARY KEY CHECK (id = 1),
+    version bigint   NOT NULL
+);
+
+INSERT INTO iam_schema.rights_version (id, version) VALUES (1, 0)
+ON CONFLICT (id) DO NOTHING;
+
+CREATE OR REPLACE FUNCTION iam_schema.bump_rights_version() RETURNS trigger AS $$
+BEGIN
+    UPDATE iam_schema.rights_version SET version = version + 1 WHERE id = 1;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Un disparo por sentencia (no por fila), así una carga masiva incrementa la versión una sola vez.
+DROP TRIGGER IF EXISTS trg_roles_rights_version ON iam_schema.roles;
+CREATE TRIGGER trg_roles_rights_version
+AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON iam_schema.roles
+FOR EACH STATEMENT EXECUTE FUNCTION iam_schema.bump_rights_version();
+
+DROP TRIGGER IF EXISTS trg_permissions_rights_version ON iam_schema.permissions;
+CREATE TRIGGER trg_permissions_rights_version
+AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON iam_schema.permissions
+FOR EACH STATEMENT EXECUTE FUNCTION iam_schema.bump_rights_version();
+
+-- TRUNCATE no dispara triggers por fila y afecta a todos los usuarios, así que incrementa la versión global
+DROP TRIGGER IF EXISTS trg_user_roles_rights_version ON iam_schema.user_roles;
+CREATE TRIGGER trg_user_roles_rights_version
+AFTER TRUNCATE ON iam_schema.user_roles
+FOR EACH STATEMENT EXECUTE FUNCTION iam_schema.bump_rights_version();
+
+DROP TRIGGER IF EXISTS trg_role_permissions_rights_version ON iam_schema.role_permissions;
+CREATE TRIGGER trg_role_permissions_rights_version
+AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON iam_schema.role_permissions
+FOR EACH STATEMENT EXECUTE FUNCTION iam_schema.bump_rights_version();
+
+-- Sello de permisos por usuario: crece con cada cambio en sus filas de user_roles, sin tocar la versión
+-- global, de modo que el alta de un usuario no invalida las cachés de los demás. changed_at (hora del
+-- cambio, no de inicio de la transacción) permite a las cachés de otras instancias descartar solo a los
+-- usuarios que cambiaron.
+CREATE TABLE IF NOT EXISTS iam_schema.user_rights_version (
+    user_id    VARCHAR(255) PRIMARY KEY,
+    version    BIGINT NOT NULL,
+    changed_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_rights_version_changed_at ON iam_schema.user_rights_version(changed_at);
+
+CREATE OR REPLACE FUNCTION iam_schema.bump_user_rights_version() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO iam_schema.user_rights_version (user_id, version, changed_at)
+        VALUES (NEW.user_id, 1, clock_timestamp())
+        ON CONFLICT (user_id) DO UPDATE
+        SET version = iam_schema.user_rights_version.version + 1, changed_at = EXCLUDED.changed_at;
+    END IF;
+    IF TG_OP = 'DELETE' OR (TG_OP = 'UPDATE' AND OLD.user_id <> NEW.user_id) THEN
+        INSERT INTO iam_schema.user_rights_version (user_id, version, changed_at)
+        VALUES (OLD.user_id, 1, clock_timestamp())
+        ON CONFLICT (user_id) DO UPDATE
+        SET version = iam_schema.user_rights_version.version + 1, changed_at = EXCLUDED.changed_at;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_roles_user_rights_version ON iam_schema.user_roles;
+CREATE TRIGGER trg_user_roles_user_rights_version
+AFTER INSERT OR UPDATE OR DELETE ON iam_schema.user_roles
+FOR EACH ROW EXECUTE FUNCTION iam_schema.bump_user_rights_version();
+
+-- Permisos efectivos materializados (user_roles x role_permissions), mantenidos por iam-service de forma
+-- incremental al asignar roles y permisos. La clave primaria permite responder los permisos de un usuario
+-- con un index-only scan. Un job de consistencia repara cualquier diferencia con las tablas de origen.
+CREATE TABLE IF NOT EXISTS iam_schema.user_effective_permissions (
+    user_id         VARCHAR(255) NOT NULL,
+    permission_name VARCHAR(100) NOT NULL,
+    PRIMARY KEY (user_id, permission_name)
+);
+
+-- Jerarquía de roles: un rol hereda los permisos de los roles que extiende (role_inheritance). role_closure
+-- guarda para cada rol todos sus ancestores, incluido él mismo, con el número de caminos que los unen; así
+-- los permisos efectivos de un usuario salen de un solo join user_roles -> role_closure -> role_permissions.
+-- Los triggers mantienen el cierre de forma incremental al añadir o quitar una relación (el contador de
+-- caminos permite borrar una arista sin recalcular todo cuando hay herencia múltiple) y rechazan ciclos.
+CREATE TABLE IF NOT EXISTS iam_schema.role_inheritance (
+    role_id        UUID NOT NULL,
+    parent_role_id UUID NOT NULL,
+    created_at     TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (role_id, parent_role_id),
+    CHECK (role_id <> parent_role_id),
+    FOREIGN KEY (role_id) REFERENCES iam_schema.roles(id) ON DELETE CASCADE,
+    FOREIGN KEY (parent_role_id) REFERENCES iam_schema.roles(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS iam_schema.role_closure (
+    ancestor_id   UUID   NOT NULL,
+    descendant_id UUID   NOT NULL,
+    paths         BIGINT NOT NULL,
+    PRIMARY KEY (ancestor_id, descendant_id),
+    FOREIGN KEY (ancestor_id) REFERENCES iam_schema.roles(id) ON DELETE CASCADE,
+    FOREIGN KEY (descendant_id) REFERENCES iam_schema.roles(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_role_closure_descendant ON iam_schema.role_closure(descendant_id);
+
+CREATE OR REPLACE FUNCTION iam_schema.add_role_closure_self() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO iam_schema.role_closure (ancestor_id, descendant_id, paths)
+    VALUES (NEW.id, NEW.id, 1)
+    ON CONFLICT DO NOTHING;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_roles_closure_self ON iam_schema.roles;
+CREATE TRIGGER trg_roles_closure_self
+AFTER INSERT ON iam_schema.roles
+FOR EACH ROW EXECUTE FUNCTION iam_schema.add_role_closure_self();
+
+-- Roles creados antes de existir el trigger
+INSERT INTO iam_schema.role_closure (ancestor_id, descendant_id, paths)
+SELECT id, id, 1 FROM iam_schema.roles
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION iam_schema.maintain_role_closure() RETURNS trigger AS $$
+BEGIN
+    -- Serializa las ediciones de la jerarquía: dos aristas concurrentes no pueden cerrar un ciclo entre ambas
+    PERFORM 1 FROM iam_schema.rights_version WHERE id = 1 FOR UPDATE;
+
+    IF TG_OP = 'INSERT' THEN
+        IF EXISTS (SELECT 1 FROM iam_schema.role_closure
+                   WHERE ancestor_id = NEW.role_id AND descendant_id = NEW.parent_role_id) THEN
+            RAISE EXCEPTION 'Role inheritance cycle: % already inherits from %', NEW.parent_role_id, NEW.role_id;
+        END IF;
+
+        -- Cada ancestro del padre pasa a serlo de cada descendiente del hijo
+        INSERT INTO iam_schema.role_closure (ancestor_id, descendant_id, paths)
+        SELECT a.ancestor_id, d.descendant_id, a.paths * d.paths
+        FROM iam_schema.role_closure a, iam_schema.role_closure d
+        WHERE a.descendant_id = NEW.parent_role_id AND d.ancestor_id = NEW.role_id
+        ON CONFLICT (ancestor_id, descendant_id) DO UPDATE SET paths = iam_schema.role_closure.paths + EXCLUDED.paths;
+        RETURN NULL;
+    END IF;
+
+    UPDATE iam_schema.role_closure c
+    SET paths = c.paths - a.paths * d.paths
+    FROM iam_schema.role_closure a, iam_schema.role_closure d
+    WHERE a.descendant_id = OLD.parent_role_id AND d.ancestor_id = OLD.role_id
+      AND c.ancestor_id = a.ancestor_id AND c.descendant_id = d.descendant_id;
+    DELETE FROM iam_schema.role_closure WHERE paths <= 0;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_role_inheritance_closure ON iam_schema.role_inheritance;
+CREATE TRIGGER trg_role_inheritance_closure
+AFTER INSERT OR DELETE ON iam_schema.role_inheritance
+FOR EACH ROW EXECUTE FUNCTION iam_schema.maintain_role_closure();
+
+DROP TRIGGER IF EXISTS trg_role_inheritance_rights_version ON iam_schema.role_inheritance;
+CREATE TRIGGER trg_role_inheritance_rights_version
+AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON iam_schema.role_inheritance
+FOR EACH STATEMENT EXECUTE FUNCTION iam_schema.bump_rights_version();
+
+-- Registro de cambios RBAC que iam-service publica por SSE (/iam/rbac/changes). Cada asignación o alta de
+-- rol/permiso añade una fila en la misma transacción. El número de secuencia se asigna con el bloqueo de
+-- rights_version tomado, así el orden de seq coincide con el orden de commit y un consumidor que reanuda
+-- desde un cursor no se salta cambios confirmados más tarde con un seq menor. El trigger toma ese bloqueo
+-- por sí mismo: no depende de que el cambio registrado incremente la versión global (una asignación de rol
+-- a un usuario ya no lo hace).
+CREATE SEQUENCE IF NOT EXISTS iam_schema.rbac_changes_seq;
+
+CREATE TABLE IF NOT EXISTS iam_schema.rbac_changes (
+    seq              BIGINT PRIMARY KEY,
+    type             VARCHAR(50)  NOT NULL,
+    user_id          VARCHAR(255),
+    role_id          UUID,
+    role_name        VARCHAR(100),
+    permission_name  VARCHAR(100),
+    parent_role_id   UUID,
+    parent_role_name VARCHAR(100),
+    changed_at       TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_rbac_changes_changed_at ON iam_schema.rbac_changes(changed_at);
+
+CREATE OR REPLACE FUNCTION iam_schema.assign_rbac_change_seq() RETURNS trigger AS $$
+BEGIN
+    PERFORM 1 FROM iam_schema.rights_version WHERE id = 1 FOR UPDATE;
+    NEW.seq := nextval('iam_schema.rbac_changes_seq');
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_rbac_changes_seq ON iam_schema.rbac_changes;
+CREATE TRIGGER trg_rbac_changes_seq
+BEFORE INSERT ON iam_schema.rbac_changes
+FOR EACH ROW EXECUTE FUNCTION iam_schema.assign_rbac_change_seq();
+
 --=======================================================================
 
 -- Schema para enrollment-service
@@ -159,10 +441,18 @@ JOIN iam_schema.permissions p ON p.name IN ('courses:read','enrollments:read:all
 WHERE r.name = 'operator'
 ON CONFLICT DO NOTHING;
 
--- admin: todo
+-- admin: todo. Hereda lo de student y operator y solo añade la gestión de cursos
 INSERT INTO iam_schema.role_permissions (role_id, permission_id)
 SELECT r.id, p.id
 FROM iam_schema.roles r
-JOIN iam_schema.permissions p ON p.name IN ('courses:read','courses:create','courses:update','courses:delete','enrollments:create','enrollments:read:me','enrollments:read:all')
+JOIN iam_schema.permissions p ON p.name IN ('courses:create','courses:update','courses:delete')
+WHERE r.name = 'admin'
+ON CONFLICT DO NOTHING;
+
+-- 4) Jerarquía: admin extiende student y operator
+INSERT INTO iam_schema.role_inheritance (role_id, parent_role_id)
+SELECT r.id, parent.id
+FROM iam_schema.roles r
+JOIN iam_schema.roles parent ON parent.name IN ('student','operator')
 WHERE r.name = 'admin'
 ON CONFLICT DO NOTHING;
@@ -0,0 +1,57 @@
+-- Convierte auth_schema.mfa_otp en una tabla particionada por día según created_at.
+-- Opcional: solo es necesario con MFA_OTP_PURGE_MODE=partition. A partir de entonces el job de purga
+-- crea las particiones de los próximos días y elimina las que superan la retención.
+-- Ejecutar en una ventana de mantenimiento: los OTP pendientes se copian, el resto se descarta.
+
+BEGIN;
+
+ALTER TABLE auth_schema.mfa_otp RENAME TO mfa_otp_old;
+DROP INDEX IF EXISTS auth_schema.idx_mfa_otp_user_unverified;
+DROP INDEX IF EXISTS auth_schema.idx_mfa_otp_created_at;
+
+-- La clave primaria de una tabla particionada debe incluir la columna de partición
+CREATE TABLE auth_schema.mfa_otp (
+    id           uuid         NOT NULL,
+    user_id      varchar(255) NOT NULL,
+    email        varchar(255) NOT NULL,
+    otp_hash     varchar(255) NOT NULL,
+    expires_at   timestamptz  NOT NULL,
+    verified_at  timestamptz  NULL,
+    created_at   timestamptz  NOT NULL,
+    delivered_at timestamptz  NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_mfa_otp_user_unverified
+ON auth_schema.mfa_otp (user_id, expires_at)
+WHERE verified_at IS NULL;
+
+CREATE INDEX idx_mfa_otp_created_at
+ON auth_schema.mfa_otp (created_at, id);
+
+-- Partición DEFAULT: recoge las filas de un día cuya partición aún no existe, en lugar de rechazar el login.
+-- El job mueve esas filas a su partición diaria al crearla y borra las que superan la retención.
+CREATE TABLE auth_schema.mfa_otp_default PARTITION OF auth_schema.mfa_otp DEFAULT;
+
+-- Particiones de ayer, hoy y los dos días siguientes (UTC); el job mantiene las siguientes
+DO $$
+DECLARE
+    d date;
+BEGIN
+    FOR d IN SELECT generate_series((now() AT TIME ZONE 'UTC')::date - 1, (now() AT TIME ZONE 'UTC')::date + 2, interval '1 day')::date LOOP
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS auth_schema.%I PARTITION OF auth_schema.mfa_otp '
+            'FOR VALUES FROM (%L) TO (%L)',
+            'mfa_otp_p' || to_char(d, 'YYYYMMDD'),
+            d::text || ' 00:00:00+00',
+            (d + 1)::text || ' 00:00:00+00');
+    END LOOP;
+END $$;
+
+INSERT INTO auth_schema.mfa_otp
+SELECT * FROM auth_schema.mfa_otp_old
+WHERE verified_at IS NULL AND expires_at > now();
+
+DROP TABLE auth_schema.mfa_otp_old;
+
+COMMIT;
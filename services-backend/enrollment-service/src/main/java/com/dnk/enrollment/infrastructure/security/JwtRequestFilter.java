@@ -9,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
@@ -37,7 +38,7 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                 String userId = authenticatedUser.userId();
 
                 // Build authorities from Token Claims (Stateless)
-                java.util.List<SimpleGrantedAuthority> authorities = new java.util.ArrayList<>();
+                java.util.List<GrantedAuthority> authorities = new java.util.ArrayList<>();
                 
                 // Map Roles to ROLE_xxx
                 if (authenticatedUser.roles() != null) {
@@ -46,8 +47,10 @@ public class JwtRequestFilter extends OncePerRequestFilter {
                     );
                 }
 
-                // Map Permissions as is
-                if (authenticatedUser.permissions() != null) {
+                // Map Permissions as is (compact claims decode to shared authority instances)
+                if (authenticatedUser.permissions() instanceof PermissionSet permissionSet) {
+                    authorities.addAll(permissionSet.authorities());
+                } else if (authenticatedUser.permissions() != null) {
                     authenticatedUser.permissions().forEach(perm -> 
                         authorities.add(new SimpleGrantedAuthority(perm))
                     );
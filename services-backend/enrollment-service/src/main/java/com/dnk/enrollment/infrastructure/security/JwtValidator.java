@@ -11,6 +11,7 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.util.Base64;
 import java.util.Date;
 import jakarta.annotation.PostConstruct;
 
@@ -62,7 +63,8 @@ public class JwtValidator {
             @SuppressWarnings("unchecked")
             java.util.List<String> roles = claims.get("roles", java.util.List.class);
             @SuppressWarnings("unchecked")
-            java.util.List<String> permissions = claims.get("permissions", java.util.List.class);
+            java.util.List<String> permissionNames = claims.get("permissions", java.util.List.class);
+            PermissionSet permissions = PermissionSet.of(compactPermissions(claims), permissionNames);
 
             if (userId == null || email == null) {
                 throw new SecurityException("Invalid token: Missing required claims");
@@ -79,5 +81,20 @@ public class JwtValidator {
             throw new SecurityException("Error validating token: " + ex.getMessage(), ex);
         }
     }
+
+    // Decodes the optional pv/pbm claims; old tokens carry only the string "permissions" claim
+    private byte[] compactPermissions(Claims claims) {
+        String bitmask = claims.get("pbm", String.class);
+        if (bitmask == null) {
+            return null;
+        }
+        Integer version = claims.get("pv", Integer.class);
+        if (version == null || version != PermissionDictionary.VERSION) {
+            // Unknown dictionary: fail closed rather than map bits to the wrong permissions
+            log.warn("Ignoring compact permissions with unsupported dictionary version {}", version);
+            return null;
+        }
+        return Base64.getUrlDecoder().decode(bitmask);
+    }
 }
 
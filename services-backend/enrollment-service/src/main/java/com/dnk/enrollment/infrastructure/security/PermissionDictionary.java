@@ -0,0 +1,56 @@
+package com.dnk.enrollment.infrastructure.security;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Copy of auth-service's versioned permission index used to decode the compact {@code pbm} claim.
+ * Positions are bit indexes: keep this list identical to the issuer's and only ever append.
+ */
+public final class PermissionDictionary {
+
+    public static final int VERSION = 1;
+
+    private static final List<String> PERMISSIONS = List.of(
+            "courses:read",
+            "courses:create",
+            "courses:update",
+            "courses:delete",
+            "enrollments:create",
+            "enrollments:read:me",
+            "enrollments:read:all");
+
+    private static final Map<String, Integer> INDEX = new HashMap<>();
+    // One shared authority instance per permission instead of one per request
+    private static final GrantedAuthority[] AUTHORITIES = new GrantedAuthority[PERMISSIONS.size()];
+
+    static {
+        for (int i = 0; i < PERMISSIONS.size(); i++) {
+            INDEX.put(PERMISSIONS.get(i), i);
+            AUTHORITIES[i] = new SimpleGrantedAuthority(PERMISSIONS.get(i));
+        }
+    }
+
+    private PermissionDictionary() {
+    }
+
+    public static int size() {
+        return PERMISSIONS.size();
+    }
+
+    public static int indexOf(String permission) {
+        return INDEX.getOrDefault(permission, -1);
+    }
+
+    public static String permissionAt(int index) {
+        return PERMISSIONS.get(index);
+    }
+
+    public static GrantedAuthority authorityAt(int index) {
+        return AUTHORITIES[index];
+    }
+}
@@ -0,0 +1,80 @@
+package com.dnk.enrollment.infrastructure.security;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Immutable permission list backed by a {@link BitSet} over {@link PermissionDictionary}, with the few
+ * permissions outside the dictionary kept as plain strings. Membership checks are a bit lookup.
+ */
+public final class PermissionSet extends AbstractList<String> {
+
+    private final BitSet bits;
+    private final int[] setBits;
+    private final List<String> unmapped;
+
+    private PermissionSet(BitSet bits, List<String> unmapped) {
+        this.bits = bits;
+        this.setBits = bits.stream().toArray();
+        this.unmapped = List.copyOf(unmapped);
+    }
+
+    /**
+     * Builds the set from a compact {@code pbm} bitmask plus any string permissions sent alongside it
+     * (or instead of it, for tokens issued without the compact encoding).
+     */
+    public static PermissionSet of(byte[] bitmask, Collection<String> permissions) {
+        BitSet bits = bitmask != null ? BitSet.valueOf(bitmask) : new BitSet(PermissionDictionary.size());
+        // Bits past the dictionary come from a newer issuer version and cannot be named; drop them
+        if (bits.length() > PermissionDictionary.size()) {
+            bits.clear(PermissionDictionary.size(), bits.length());
+        }
+
+        List<String> unmapped = new ArrayList<>();
+        if (permissions != null) {
+            for (String permission : permissions) {
+                int index = PermissionDictionary.indexOf(permission);
+                if (index >= 0) {
+                    bits.set(index);
+                } else if (!unmapped.contains(permission)) {
+                    unmapped.add(permission);
+                }
+            }
+        }
+        return new PermissionSet(bits, unmapped);
+    }
+
+    public Collection<GrantedAuthority> authorities() {
+        List<GrantedAuthority> authorities = new ArrayList<>(size());
+        for (int index : setBits) {
+            authorities.add(PermissionDictionary.authorityAt(index));
+        }
+        unmapped.forEach(permission -> authorities.add(new SimpleGrantedAuthority(permission)));
+        return authorities;
+    }
+
+    @Override
+    public String get(int i) {
+        return i < setBits.length ? PermissionDictionary.permissionAt(setBits[i]) : unmapped.get(i - setBits.length);
+    }
+
+    @Override
+    public int size() {
+        return setBits.length + unmapped.size();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof String permission)) {
+            return false;
+        }
+        int index = PermissionDictionary.indexOf(permission);
+        return index >= 0 ? bits.get(index) : unmapped.contains(permission);
+    }
+}
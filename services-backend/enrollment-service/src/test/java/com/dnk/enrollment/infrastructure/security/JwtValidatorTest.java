@@ -0,0 +1,78 @@
+package com.dnk.enrollment.infrastructure.security;
+
+import com.dnk.enrollment.domain.model.AuthenticatedUser;
+import com.dnk.enrollment.infrastructure.config.JwtProperties;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtValidatorTest {
+
+    private static final String SECRET = "enrollment-test-secret-with-at-least-32-bytes";
+    private static final String ISSUER = "dnk-auth";
+
+    private JwtValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret(SECRET);
+        properties.setIssuer(ISSUER);
+        validator = new JwtValidator(properties);
+        validator.init();
+    }
+
+    @Test
+    void compactPermissionsOfTheKnownVersionBecomeAuthorities() {
+        AuthenticatedUser user = validator.validateAndExtractUser(bearer(1, "SQ", List.of("reports:export")));
+
+        assertThat(user.permissions())
+                .containsExactly("courses:read", "courses:delete", "enrollments:read:all", "reports:export");
+    }
+
+    @Test
+    void compactPermissionsOfAnotherVersionAreIgnored() {
+        AuthenticatedUser user = validator.validateAndExtractUser(bearer(2, "SQ", List.of("reports:export")));
+
+        assertThat(user.permissions()).containsExactly("reports:export");
+    }
+
+    @Test
+    void compactPermissionsWithoutVersionAreIgnored() {
+        AuthenticatedUser user = validator.validateAndExtractUser(bearer(null, "SQ", null));
+
+        assertThat(user.permissions()).isEmpty();
+    }
+
+    private static String bearer(Integer pv, String pbm, List<String> permissions) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("email", "user@example.com");
+        claims.put("roles", List.of("student"));
+        if (permissions != null) {
+            claims.put("permissions", permissions);
+        }
+        if (pv != null) {
+            claims.put("pv", pv);
+        }
+        claims.put("pbm", pbm);
+
+        return "Bearer " + Jwts.builder()
+                .setClaims(claims)
+                .setSubject("user-1")
+                .setIssuer(ISSUER)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
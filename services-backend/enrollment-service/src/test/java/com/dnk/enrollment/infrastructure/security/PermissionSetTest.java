@@ -0,0 +1,66 @@
+package com.dnk.enrollment.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PermissionSetTest {
+
+    // Dictionary version 1 as issued by auth-service; PermissionDictionaryTest there pins the same list and
+    // the same pbm fixture, so a drift in either copy fails one of the two builds
+    private static final List<String> VERSION_1 = List.of(
+            "courses:read",
+            "courses:create",
+            "courses:update",
+            "courses:delete",
+            "enrollments:create",
+            "enrollments:read:me",
+            "enrollments:read:all");
+
+    @Test
+    void dictionaryMatchesTheIssuersVersion1() {
+        assertThat(PermissionDictionary.VERSION).isEqualTo(1);
+        assertThat(IntStream.range(0, PermissionDictionary.size()).mapToObj(PermissionDictionary::permissionAt))
+                .containsExactlyElementsOf(VERSION_1);
+    }
+
+    @Test
+    void decodesTheIssuersBitmask() {
+        // courses:read, courses:delete and enrollments:read:all are bits 0, 3 and 6: 0x49
+        PermissionSet permissions = PermissionSet.of(Base64.getUrlDecoder().decode("SQ"), null);
+
+        assertThat(permissions).containsExactly("courses:read", "courses:delete", "enrollments:read:all");
+        assertThat(permissions.contains("courses:create")).isFalse();
+        assertThat(permissions.authorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("courses:read", "courses:delete", "enrollments:read:all");
+    }
+
+    @Test
+    void dropsBitsBeyondTheDictionary() {
+        // Bit 9 would come from a newer dictionary and cannot be named
+        PermissionSet permissions = PermissionSet.of(new byte[] {0x01, 0x02}, null);
+
+        assertThat(permissions).containsExactly("courses:read");
+    }
+
+    @Test
+    void mergesStringPermissionsWithTheBitmask() {
+        PermissionSet permissions = PermissionSet.of(new byte[] {0x01},
+                List.of("courses:update", "reports:export", "courses:read", "reports:export"));
+
+        assertThat(permissions).containsExactly("courses:read", "courses:update", "reports:export");
+        assertThat(permissions.contains("reports:export")).isTrue();
+    }
+
+    @Test
+    void tokenWithoutBitmaskUsesTheNamesOnly() {
+        PermissionSet permissions = PermissionSet.of(null, List.of("enrollments:create"));
+
+        assertThat(permissions).containsExactly("enrollments:create");
+    }
+}
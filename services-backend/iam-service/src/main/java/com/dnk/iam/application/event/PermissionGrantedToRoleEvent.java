@@ -0,0 +1,9 @@
+package com.dnk.iam.application.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a permission is assigned to a role; every user holding the role gains it.
+ */
+public record PermissionGrantedToRoleEvent(UUID roleId, String permissionName) {
+}
@@ -0,0 +1,7 @@
+package com.dnk.iam.application.event;
+
+/**
+ * Published by use cases that change roles, permissions or role-permission edges.
+ */
+public record RbacChangedEvent(String reason) {
+}
@@ -0,0 +1,9 @@
+package com.dnk.iam.application.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a role is assigned to a user; the user gains every permission of the role.
+ */
+public record RoleAssignedToUserEvent(String userId, UUID roleId) {
+}
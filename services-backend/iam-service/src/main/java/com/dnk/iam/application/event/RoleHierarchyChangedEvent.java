@@ -0,0 +1,10 @@
+package com.dnk.iam.application.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a role starts or stops extending another; the role and all its descendants may have
+ * gained or lost permissions.
+ */
+public record RoleHierarchyChangedEvent(UUID roleId) {
+}
@@ -0,0 +1,35 @@
+package com.dnk.iam.application.port.out;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface EffectivePermissionRepositoryPort {
+    
+    List<String> findPermissionNamesByUserId(String userId);
+    
+    /**
+     * Adds every permission of the role, inherited ones included, to the user's effective permissions.
+     */
+    void materializeUserRole(String userId, UUID roleId);
+    
+    /**
+     * Next page of users holding the role or a role inheriting from it, ordered by id and strictly after
+     * {@code afterUserId}.
+     */
+    List<String> findUserIdsByRoleId(UUID roleId, String afterUserId, int limit);
+    
+    /**
+     * Grants the permission to the role's users in {@code (afterUserId, lastUserId]}, in its own transaction.
+     */
+    int materializeRolePermission(UUID roleId, String permissionName, String afterUserId, String lastUserId);
+    
+    int insertMissing();
+    
+    int deleteStale();
+    
+    /**
+     * Brings the rows of every user holding the role or one of its descendants in line with the hierarchy,
+     * in its own transaction; returns the number of rows inserted plus deleted.
+     */
+    int refreshHoldersOfRole(UUID roleId);
+}
@@ -0,0 +1,34 @@
+package com.dnk.iam.application.port.out;
+
+import com.dnk.iam.domain.model.RbacChange;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+
+public interface RbacChangeLogPort {
+
+    /**
+     * Appends a change inside the caller's transaction; it becomes visible to the feed on commit.
+     */
+    void append(RbacChange change);
+
+    /**
+     * Committed changes with a sequence above {@code afterSequence}, in sequence order.
+     */
+    List<RbacChange> findAfter(long afterSequence, int limit);
+
+    /**
+     * Highest committed sequence still in the log, or 0 when the log is empty.
+     */
+    long latestSequence();
+
+    /**
+     * Highest sequence handed out so far, committed, in flight or rolled back; 0 before the first change.
+     */
+    long allocatedSequence();
+
+    OptionalLong oldestRetainedSequence();
+
+    int purgeBefore(Instant cutoff);
+}
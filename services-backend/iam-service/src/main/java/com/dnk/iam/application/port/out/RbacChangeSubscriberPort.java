@@ -0,0 +1,33 @@
+package com.dnk.iam.application.port.out;
+
+import com.dnk.iam.domain.model.RbacChange;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * One connected consumer of the RBAC change feed. Every message carries the cursor to resume from.
+ * A method that throws drops the subscriber.
+ */
+public interface RbacChangeSubscriberPort {
+
+    /**
+     * The subscriber is caught up at {@code cursor}; later changes follow as they commit.
+     */
+    void ready(long cursor) throws IOException;
+
+    /**
+     * The requested cursor can no longer be served (purged or from another database): drop everything
+     * cached and continue from {@code cursor}.
+     */
+    void reset(long cursor) throws IOException;
+
+    void changes(List<RbacChange> changes, long cursor) throws IOException;
+
+    void heartbeat() throws IOException;
+
+    /**
+     * Ends the connection, e.g. on shutdown; the consumer reconnects with its last cursor.
+     */
+    void close();
+}
@@ -0,0 +1,27 @@
+package com.dnk.iam.application.port.out;
+
+import com.dnk.iam.domain.model.RbacGraph;
+import com.dnk.iam.domain.model.UserRightsChanges;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RbacGraphLoaderPort {
+
+    /**
+     * Loads every role, permission and edge, stamping the result with {@code version}.
+     */
+    RbacGraph load(long version);
+
+    /**
+     * Current global rights version, or {@link RbacGraph#UNKNOWN_VERSION} when it cannot be read. Role
+     * assignments to users do not move it; see {@link #userRightsChangesSince}.
+     */
+    long currentVersion();
+
+    /**
+     * Users whose per-user rights stamp moved at or after {@code since} (database clock; {@code null} to only
+     * read the clock), or empty when the stamps cannot be read.
+     */
+    Optional<UserRightsChanges> userRightsChangesSince(Instant since);
+}
@@ -0,0 +1,26 @@
+package com.dnk.iam.application.port.out;
+
+import java.util.UUID;
+
+public interface RoleHierarchyRepositoryPort {
+    
+    /**
+     * Blocks other hierarchy edits until the current transaction ends.
+     */
+    void lock();
+    
+    /**
+     * True when {@code roleId} is {@code ancestorId} or inherits from it, directly or transitively.
+     */
+    boolean inheritsFrom(UUID roleId, UUID ancestorId);
+    
+    /**
+     * Returns false when the role already extended the parent.
+     */
+    boolean addParent(UUID roleId, UUID parentRoleId);
+    
+    /**
+     * Returns false when the role did not extend the parent.
+     */
+    boolean removeParent(UUID roleId, UUID parentRoleId);
+}
@@ -1,8 +1,11 @@
 package com.dnk.iam.application.port.out;
 
 import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.domain.model.UserRights;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 public interface UserRoleRepositoryPort {
@@ -10,4 +13,18 @@ public interface UserRoleRepositoryPort {
     void assignRole(String userId, UUID roleId);
     
     List<Role> findRolesByUserId(String userId);
+    
+    List<UUID> findRoleIdsByUserId(String userId);
+    
+    List<String> findPermissionNamesByUserId(String userId);
+    
+    /**
+     * Role ids of every given user in one statement; users without roles are absent from the map.
+     */
+    Map<String, List<UUID>> findRoleIdsByUserIds(Collection<String> userIds);
+    
+    /**
+     * Role and permission names of every given user in one statement; users without roles are absent.
+     */
+    Map<String, UserRights> findRightsByUserIds(Collection<String> userIds);
 }
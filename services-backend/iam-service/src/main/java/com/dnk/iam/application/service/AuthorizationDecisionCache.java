@@ -0,0 +1,212 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.event.PermissionGrantedToRoleEvent;
+import com.dnk.iam.application.event.RoleAssignedToUserEvent;
+import com.dnk.iam.application.event.RoleHierarchyChangedEvent;
+import com.dnk.iam.application.port.out.RbacGraphLoaderPort;
+import com.dnk.iam.domain.model.AuthorizationCheck;
+import com.dnk.iam.domain.model.RbacGraph;
+import com.dnk.iam.domain.model.UserRightsChanges;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Size-bounded (user, permission) -> decision cache, split into stripes by user so concurrent lookups for
+ * different users rarely contend on the same lock. Each stripe is an LRU map holding its share of
+ * {@code max-entries}.
+ * <p>
+ * Assignments only ever add rights, so they only have to drop cached denials: a role assignment drops the
+ * user's denials, and a permission granted to a role drops denials of that permission. A hierarchy edit
+ * can also take rights away from every holder of a whole subtree of roles, so it clears the cache. All of
+ * these run after commit. A stripe's generation is bumped on every invalidation, and a decision computed before the
+ * bump is not stored, so a lookup racing with a commit cannot put the old answer back. Changes made
+ * elsewhere show up either as a move of the global rights version, which clears the whole cache, or, for
+ * role assignments, as a moved per-user stamp, which drops only that user's decisions.
+ */
+@Slf4j
+@Service
+public class AuthorizationDecisionCache {
+
+    // A stamp is written before its transaction commits, so each poll looks back this far past the previous one
+    private static final Duration CHANGE_OVERLAP = Duration.ofSeconds(10);
+
+    private final RbacGraphLoaderPort versionSource;
+    private final boolean enabled;
+    private final Stripe[] stripes;
+    private final int mask;
+    private long lastSeenVersion = RbacGraph.UNKNOWN_VERSION;
+    private Instant lastUserChangesReadAt;
+
+    public AuthorizationDecisionCache(RbacGraphLoaderPort versionSource,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${iam.authorize.cache.enabled:true}") boolean enabled,
+                                      @Value("${iam.authorize.cache.max-entries:100000}") int maxEntries,
+                                      @Value("${iam.authorize.cache.stripes:16}") int stripeCount) {
+        if (maxEntries <= 0 || stripeCount <= 0) {
+            throw new IllegalArgumentException("Authorization cache sizes must be positive");
+        }
+        this.versionSource = versionSource;
+        this.enabled = enabled;
+
+        int count = Integer.highestOneBit(Math.min(stripeCount, maxEntries));
+        this.stripes = new Stripe[count];
+        this.mask = count - 1;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(Math.max(1, maxEntries / count));
+        }
+
+        Gauge.builder("iam.authorize.cache.entries", this, AuthorizationDecisionCache::size)
+                .description("Authorization decisions held in the cache")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Cached decision, or {@code null} on a miss.
+     */
+    public Boolean get(AuthorizationCheck check) {
+        Stripe stripe = stripeOf(check.userId());
+        synchronized (stripe) {
+            return stripe.entries.get(check);
+        }
+    }
+
+    /**
+     * Generation of the user's stripe; read it before computing a decision and hand it to {@link #put}.
+     */
+    public long generation(String userId) {
+        Stripe stripe = stripeOf(userId);
+        synchronized (stripe) {
+            return stripe.generation;
+        }
+    }
+
+    public void put(AuthorizationCheck check, boolean allowed, long generation) {
+        Stripe stripe = stripeOf(check.userId());
+        synchronized (stripe) {
+            if (stripe.generation == generation) {
+                stripe.entries.put(check, allowed);
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleAssigned(RoleAssignedToUserEvent event) {
+        Stripe stripe = stripeOf(event.userId());
+        synchronized (stripe) {
+            stripe.generation++;
+            stripe.entries.entrySet().removeIf(entry -> !entry.getValue() && entry.getKey().userId().equals(event.userId()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPermissionGranted(PermissionGrantedToRoleEvent event) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.generation++;
+                stripe.entries.entrySet().removeIf(entry -> !entry.getValue() && entry.getKey().permission().equals(event.permissionName()));
+            }
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleHierarchyChanged(RoleHierarchyChangedEvent event) {
+        clear();
+    }
+
+    @Scheduled(fixedDelayString = "${iam.authorize.cache.poll-interval:PT5S}", initialDelayString = "${iam.authorize.cache.poll-interval:PT5S}")
+    public void clearIfVersionMoved() {
+        if (!enabled) {
+            return;
+        }
+        long version = versionSource.currentVersion();
+        // Also clears on local changes, which were already handled precisely; the cost is only misses
+        if (version == RbacGraph.UNKNOWN_VERSION || version != lastSeenVersion) {
+            if (lastSeenVersion != RbacGraph.UNKNOWN_VERSION) {
+                log.debug("Rights version moved from {} to {}, clearing authorization cache", lastSeenVersion, version);
+            }
+            clear();
+            lastSeenVersion = version;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${iam.authorize.cache.poll-interval:PT5S}", initialDelayString = "${iam.authorize.cache.poll-interval:PT5S}")
+    public void evictUsersChangedElsewhere() {
+        if (!enabled) {
+            return;
+        }
+        Instant since = lastUserChangesReadAt != null ? lastUserChangesReadAt.minus(CHANGE_OVERLAP) : null;
+        Optional<UserRightsChanges> changes = versionSource.userRightsChangesSince(since);
+        if (changes.isEmpty() || since == null) {
+            // No window to compare against: anything could have changed, as with an unreadable version
+            clear();
+            lastUserChangesReadAt = changes.map(UserRightsChanges::readAt).orElse(null);
+            return;
+        }
+        changes.get().userIds().forEach(this::evictUser);
+        lastUserChangesReadAt = changes.get().readAt();
+    }
+
+    public void clear() {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.generation++;
+                stripe.entries.clear();
+            }
+        }
+    }
+
+    private void evictUser(String userId) {
+        Stripe stripe = stripeOf(userId);
+        synchronized (stripe) {
+            stripe.generation++;
+            stripe.entries.keySet().removeIf(check -> check.userId().equals(userId));
+        }
+    }
+
+    private int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Stripe stripeOf(String userId) {
+        int hash = userId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static final class Stripe {
+
+        private final LinkedHashMap<AuthorizationCheck, Boolean> entries;
+        private long generation;
+
+        private Stripe(int capacity) {
+            // Access order, so the least recently used decision is evicted first
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<AuthorizationCheck, Boolean> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.event.PermissionGrantedToRoleEvent;
+import com.dnk.iam.application.event.RoleHierarchyChangedEvent;
+import com.dnk.iam.application.port.out.EffectivePermissionRepositoryPort;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps {@code iam_schema.user_effective_permissions} in step with user_roles x role_closure x role_permissions.
+ * Assigning a role to a user adds that user's rows in the same transaction. Assigning a permission to a
+ * role fans out to every holder of the role after commit, in keyset batches that each commit on their
+ * own, so a role with many users never holds one long transaction. A hierarchy edit refreshes the holders
+ * of the edited role and of every role inheriting from it after commit. The consistency check inserts what is
+ * missing and deletes what no longer applies; it also backfills the table on first start, and reads are
+ * only served from it once that has succeeded.
+ */
+@Slf4j
+@Service
+public class EffectivePermissionService {
+
+    private final EffectivePermissionRepositoryPort effectivePermissionRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("effective-permissions").daemon().factory());
+    private volatile boolean ready;
+
+    public EffectivePermissionService(EffectivePermissionRepositoryPort effectivePermissionRepository,
+                                      @Value("${iam.rbac.materialized.enabled:false}") boolean enabled,
+                                      @Value("${iam.rbac.materialized.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Effective permission batch size must be positive");
+        }
+        this.effectivePermissionRepository = effectivePermissionRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public List<String> findPermissionNames(String userId) {
+        return effectivePermissionRepository.findPermissionNamesByUserId(userId);
+    }
+
+    /**
+     * Called inside the role assignment's transaction, so the user's rows commit together with it.
+     */
+    public void onRoleAssigned(String userId, UUID roleId) {
+        if (enabled) {
+            effectivePermissionRepository.materializeUserRole(userId, roleId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPermissionGranted(PermissionGrantedToRoleEvent event) {
+        if (enabled) {
+            worker.execute(() -> fanOut(event.roleId(), event.permissionName()));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleHierarchyChanged(RoleHierarchyChangedEvent event) {
+        if (enabled) {
+            worker.execute(() -> refreshHolders(event.roleId()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (enabled) {
+            worker.execute(this::checkConsistency);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${iam.rbac.materialized.check-interval:PT15M}", initialDelayString = "${iam.rbac.materialized.check-interval:PT15M}")
+    public void scheduledCheck() {
+        if (enabled) {
+            worker.execute(this::checkConsistency);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        worker.shutdownNow();
+    }
+
+    private void fanOut(UUID roleId, String permissionName) {
+        long start = System.nanoTime();
+        int batches = 0;
+        int inserted = 0;
+        String after = "";
+        try {
+            List<String> userIds;
+            while (!(userIds = effectivePermissionRepository.findUserIdsByRoleId(roleId, after, batchSize)).isEmpty()) {
+                String last = userIds.get(userIds.size() - 1);
+                inserted += effectivePermissionRepository.materializeRolePermission(roleId, permissionName, after, last);
+                after = last;
+                batches++;
+            }
+            log.info("AUDIT: Effective permissions fanned out - roleId: {}, permissionName: {}, batches: {}, rows: {}, took {} ms",
+                    roleId, permissionName, batches, inserted, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // Committed batches stay; the consistency check adds whatever the failed ones missed
+            log.error("Effective permission fan-out failed after {} batches - roleId: {}, permissionName: {}",
+                    batches, roleId, permissionName, ex);
+        }
+    }
+
+    private void refreshHolders(UUID roleId) {
+        long start = System.nanoTime();
+        try {
+            int rows = effectivePermissionRepository.refreshHoldersOfRole(roleId);
+            log.info("AUDIT: Effective permissions refreshed after hierarchy change - roleId: {}, rows: {}, took {} ms",
+                    roleId, rows, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            // The next consistency check repairs whatever this missed
+            log.error("Effective permission refresh failed - roleId: {}", roleId, ex);
+        }
+    }
+
+    private void checkConsistency() {
+        long start = System.nanoTime();
+        try {
+            int missing = effectivePermissionRepository.insertMissing();
+            int stale = effectivePermissionRepository.deleteStale();
+            long tookMs = (System.nanoTime() - start) / 1_000_000;
+            if (ready && (missing > 0 || stale > 0)) {
+                log.warn("Effective permissions drifted and were repaired - missing: {}, stale: {}, took {} ms", missing, stale, tookMs);
+            } else {
+                log.info("Effective permissions consistent - inserted: {}, deleted: {}, took {} ms", missing, stale, tookMs);
+            }
+            ready = true;
+        } catch (RuntimeException ex) {
+            log.error("Effective permission consistency check failed", ex);
+        }
+    }
+}
@@ -0,0 +1,337 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.event.RbacChangedEvent;
+import com.dnk.iam.application.event.RoleAssignedToUserEvent;
+import com.dnk.iam.application.port.out.RbacChangeLogPort;
+import com.dnk.iam.application.port.out.RbacChangeSubscriberPort;
+import com.dnk.iam.domain.model.RbacChange;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Streams {@code iam_schema.rbac_changes} to subscribers. A single dispatcher thread reads the log after
+ * the last sequence it delivered and queues the same batch for every subscriber, so the database sees one
+ * query per batch no matter how many consumers are connected. Each subscriber has its own bounded queue
+ * and sender thread: a consumer that stops reading only stalls itself, and is dropped once its queue is
+ * full, to reconnect later with its cursor. Commits made here wake the dispatcher at
+ * once; changes committed by other instances are picked up by polling. Wake-ups that arrive while a
+ * dispatch is pending are merged into it, and repeated changes to the same entry within a batch are
+ * collapsed to the latest.
+ * <p>
+ * A subscriber that resumes from a cursor is first replayed what it missed, by its own sender. If that part
+ * of the log has been purged it is told to reset instead.
+ */
+@Slf4j
+@Service
+public class RbacChangeFeedService {
+
+    private final RbacChangeLogPort changeLog;
+    private final int batchSize;
+    private final int subscriberQueueCapacity;
+    private final Duration retention;
+    private final long heartbeatNanos;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("rbac-change-feed").daemon().factory());
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("rbac-change-feed-sender-", 0).factory());
+    private final AtomicBoolean wakeScheduled = new AtomicBoolean();
+
+    // Only touched on the dispatcher thread
+    private final List<Outbox> subscribers = new ArrayList<>();
+    private long dispatched = -1;
+    private long lastSentNanos = System.nanoTime();
+
+    public RbacChangeFeedService(RbacChangeLogPort changeLog,
+                                 @Value("${iam.rbac.feed.batch-size:500}") int batchSize,
+                                 @Value("${iam.rbac.feed.subscriber-queue:64}") int subscriberQueueCapacity,
+                                 @Value("${iam.rbac.feed.retention:P7D}") Duration retention,
+                                 @Value("${iam.rbac.feed.heartbeat-interval:PT15S}") Duration heartbeatInterval) {
+        if (batchSize <= 0 || subscriberQueueCapacity <= 0) {
+            throw new IllegalArgumentException("RBAC change feed batch size and subscriber queue must be positive");
+        }
+        this.changeLog = changeLog;
+        this.batchSize = batchSize;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.retention = retention;
+        this.heartbeatNanos = heartbeatInterval.toNanos();
+    }
+
+    /**
+     * Called inside the changing use case's transaction, so the entry commits or rolls back with it.
+     */
+    public void record(RbacChange change) {
+        changeLog.append(change);
+    }
+
+    /**
+     * Starts delivering to {@code subscriber}: after {@code afterSequence} when given, otherwise from now.
+     */
+    public void subscribe(RbacChangeSubscriberPort subscriber, Long afterSequence) {
+        dispatcher.execute(() -> register(subscriber, afterSequence));
+    }
+
+    public void unsubscribe(RbacChangeSubscriberPort subscriber) {
+        dispatcher.execute(() -> subscribers.removeIf(outbox -> {
+            if (outbox.subscriber != subscriber) {
+                return false;
+            }
+            outbox.stop();
+            return true;
+        }));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRbacChanged(RbacChangedEvent event) {
+        wake();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRoleAssigned(RoleAssignedToUserEvent event) {
+        wake();
+    }
+
+    @Scheduled(fixedDelayString = "${iam.rbac.feed.poll-interval:PT1S}", initialDelayString = "${iam.rbac.feed.poll-interval:PT1S}")
+    public void poll() {
+        wake();
+    }
+
+    @Scheduled(fixedDelayString = "${iam.rbac.feed.purge-interval:PT1H}", initialDelayString = "${iam.rbac.feed.purge-interval:PT1H}")
+    public void purge() {
+        try {
+            int purged = changeLog.purgeBefore(Instant.now().minus(retention));
+            if (purged > 0) {
+                log.info("Purged {} RBAC change log entries older than {}", purged, retention);
+            }
+        } catch (RuntimeException ex) {
+            log.error("RBAC change log purge failed", ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        // Racy with the dispatcher thread, but it is being torn down and close() only ends connections
+        List.copyOf(subscribers).forEach(Outbox::close);
+        senders.shutdownNow();
+    }
+
+    private void wake() {
+        if (wakeScheduled.compareAndSet(false, true)) {
+            dispatcher.execute(() -> {
+                wakeScheduled.set(false);
+                dispatch();
+            });
+        }
+    }
+
+    private void dispatch() {
+        if (subscribers.isEmpty()) {
+            // Nobody listening: stop reading, and start again from the then-latest entry on the next subscribe
+            dispatched = -1;
+            return;
+        }
+        try {
+            List<RbacChange> batch;
+            do {
+                batch = changeLog.findAfter(dispatched, batchSize);
+                if (!batch.isEmpty()) {
+                    long cursor = batch.get(batch.size() - 1).sequence();
+                    List<RbacChange> coalesced = coalesce(batch);
+                    broadcast(subscriber -> subscriber.changes(coalesced, cursor));
+                    dispatched = cursor;
+                }
+            } while (batch.size() == batchSize && !subscribers.isEmpty());
+
+            if (System.nanoTime() - lastSentNanos >= heartbeatNanos) {
+                broadcast(RbacChangeSubscriberPort::heartbeat);
+            }
+        } catch (RuntimeException ex) {
+            log.error("RBAC change feed dispatch failed at sequence {}", dispatched, ex);
+        }
+    }
+
+    private void register(RbacChangeSubscriberPort subscriber, Long afterSequence) {
+        try {
+            if (dispatched < 0) {
+                dispatched = changeLog.latestSequence();
+            }
+
+            long caughtUp = dispatched;
+            Delivery greeting;
+            if (afterSequence == null) {
+                greeting = s -> s.ready(caughtUp);
+            } else if (!canResumeFrom(afterSequence)) {
+                log.info("RBAC change feed cursor {} cannot be resumed, sending reset at {}", afterSequence, caughtUp);
+                greeting = s -> s.reset(caughtUp);
+            } else {
+                // Replayed by the subscriber's own sender, ahead of any batch dispatched from here on
+                greeting = s -> {
+                    replay(s, afterSequence, caughtUp);
+                    s.ready(caughtUp);
+                };
+            }
+            Outbox outbox = new Outbox(subscriber);
+            outbox.offer(greeting);
+            subscribers.add(outbox);
+            outbox.start();
+        } catch (RuntimeException ex) {
+            log.debug("RBAC change feed subscriber failed during registration: {}", ex.getMessage());
+            subscriber.close();
+        }
+    }
+
+    private void replay(RbacChangeSubscriberPort subscriber, long afterSequence, long upTo) throws IOException {
+        long cursor = afterSequence;
+        while (cursor < upTo) {
+            List<RbacChange> batch = changeLog.findAfter(cursor, batchSize).stream()
+                    .filter(change -> change.sequence() <= upTo)
+                    .toList();
+            if (batch.isEmpty()) {
+                return;
+            }
+            cursor = batch.get(batch.size() - 1).sequence();
+            subscriber.changes(coalesce(batch), cursor);
+        }
+    }
+
+    /**
+     * A cursor ahead of every sequence handed out comes from another database. One more than a step
+     * behind the oldest retained entry may have missed purged changes; gaps left by rolled back
+     * transactions can cause a needless reset here, which costs the consumer a full flush but no correctness.
+     */
+    private boolean canResumeFrom(long afterSequence) {
+        if (afterSequence > changeLog.allocatedSequence()) {
+            return false;
+        }
+        OptionalLong oldest = changeLog.oldestRetainedSequence();
+        if (oldest.isEmpty()) {
+            return afterSequence >= changeLog.allocatedSequence();
+        }
+        return afterSequence + 1 >= oldest.getAsLong();
+    }
+
+    /**
+     * Queues the delivery for every subscriber without waiting on any of them. One whose sender has failed,
+     * or whose queue is still full of earlier deliveries, is dropped.
+     */
+    private void broadcast(Delivery delivery) {
+        lastSentNanos = System.nanoTime();
+        Iterator<Outbox> it = subscribers.iterator();
+        while (it.hasNext()) {
+            Outbox outbox = it.next();
+            if (!outbox.offer(delivery)) {
+                if (!outbox.isClosed()) {
+                    log.info("Dropping RBAC change feed subscriber that fell {} deliveries behind", subscriberQueueCapacity);
+                }
+                it.remove();
+                outbox.close();
+            }
+        }
+    }
+
+    private static List<RbacChange> coalesce(List<RbacChange> batch) {
+        Map<Object, RbacChange> latest = new LinkedHashMap<>();
+        for (RbacChange change : batch) {
+            // Re-inserting moves nothing in a LinkedHashMap, so drop first to keep the later position
+            latest.remove(change.coalescingKey());
+            latest.put(change.coalescingKey(), change);
+        }
+        return List.copyOf(latest.values());
+    }
+
+    @FunctionalInterface
+    private interface Delivery {
+        void deliver(RbacChangeSubscriberPort subscriber) throws IOException;
+    }
+
+    /**
+     * Deliveries waiting for one subscriber, sent in order by a virtual thread of its own.
+     */
+    private final class Outbox {
+
+        private final RbacChangeSubscriberPort subscriber;
+        private final BlockingQueue<Delivery> queue = new ArrayBlockingQueue<>(subscriberQueueCapacity);
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile Future<?> sender;
+
+        private Outbox(RbacChangeSubscriberPort subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        void start() {
+            sender = senders.submit(this::send);
+        }
+
+        boolean offer(Delivery delivery) {
+            return !closed.get() && queue.offer(delivery);
+        }
+
+        boolean isClosed() {
+            return closed.get();
+        }
+
+        /**
+         * Ends the connection. The emitter may be locked by a send stuck on a dead socket, so the close is
+         * made from a thread of its own rather than from the dispatcher.
+         */
+        void close() {
+            if (stop()) {
+                try {
+                    senders.execute(subscriber::close);
+                } catch (RejectedExecutionException ex) {
+                    subscriber.close();
+                }
+            }
+        }
+
+        /**
+         * Stops sending without closing, for a subscriber whose connection has already ended.
+         */
+        boolean stop() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            Future<?> running = sender;
+            if (running != null) {
+                running.cancel(true);
+            }
+            return true;
+        }
+
+        private void send() {
+            try {
+                while (!closed.get()) {
+                    queue.take().deliver(subscriber);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException ex) {
+                // The dispatcher removes it on its next delivery, finding it closed
+                log.debug("Dropping RBAC change feed subscriber: {}", ex.getMessage());
+                close();
+            }
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.event.RbacChangedEvent;
+import com.dnk.iam.application.port.out.RbacGraphLoaderPort;
+import com.dnk.iam.domain.model.RbacGraph;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the current {@link RbacGraph}. After every committed RBAC change made here a fresh graph is loaded
+ * on a background thread and swapped in; readers keep using the previous snapshot until then, so they
+ * never wait and never need a second connection. Changes made elsewhere (another instance, SQL run by
+ * hand) are picked up by polling the rights version, which the database bumps on every RBAC write.
+ */
+@Slf4j
+@Service
+public class RbacGraphService {
+
+    private final RbacGraphLoaderPort graphLoader;
+    private final boolean enabled;
+    private final AtomicReference<RbacGraph> snapshot = new AtomicReference<>();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final ExecutorService rebuilder = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("rbac-graph-rebuild").daemon().factory());
+    // Bumped on every change; a rebuild that started before the latest bump does not cover it
+    private final AtomicLong changes = new AtomicLong();
+    private long builtForChange = -1;
+
+    public RbacGraphService(RbacGraphLoaderPort graphLoader,
+                            @Value("${iam.rbac.graph.enabled:true}") boolean enabled) {
+        this.graphLoader = graphLoader;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public RbacGraph current() {
+        RbacGraph graph = snapshot.get();
+        if (graph != null) {
+            return graph;
+        }
+        // Only before the first background load finishes. The version is left unknown so that reading it
+        // cannot fail inside the caller's transaction; the next poll replaces this graph with a stamped one
+        return rebuild(false);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (enabled) {
+            rebuilder.execute(() -> rebuild(true));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onRbacChanged(RbacChangedEvent event) {
+        changes.incrementAndGet();
+        if (enabled) {
+            log.debug("Scheduling RBAC graph rebuild after change: {}", event.reason());
+            rebuilder.execute(() -> rebuild(true));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${iam.rbac.graph.poll-interval:PT5S}", initialDelayString = "${iam.rbac.graph.poll-interval:PT5S}")
+    public void refreshIfStale() {
+        RbacGraph graph = snapshot.get();
+        if (!enabled || graph == null) {
+            return;
+        }
+        long version = graphLoader.currentVersion();
+        // Without a readable version every poll reloads, which still bounds staleness to the interval
+        if (version == RbacGraph.UNKNOWN_VERSION || version != graph.version()) {
+            changes.incrementAndGet();
+            rebuilder.execute(() -> rebuild(true));
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    private RbacGraph rebuild(boolean readVersion) {
+        long wanted = changes.get();
+        rebuildLock.lock();
+        try {
+            // Whoever held the lock may already have loaded a graph that includes this change
+            RbacGraph current = snapshot.get();
+            if (current != null && builtForChange >= wanted) {
+                return current;
+            }
+
+            long seen = changes.get();
+            long start = System.nanoTime();
+            // Version first, so a snapshot is never stamped newer than what it contains
+            long version = readVersion ? graphLoader.currentVersion() : RbacGraph.UNKNOWN_VERSION;
+            RbacGraph graph = graphLoader.load(version);
+            snapshot.set(graph);
+            builtForChange = readVersion ? seen : -1;
+            log.info("RBAC graph loaded - version: {}, roles: {}, permissions: {}, took {} ms",
+                    graph.version(), graph.roleCount(), graph.permissionCount(), (System.nanoTime() - start) / 1_000_000);
+            return graph;
+        } catch (RuntimeException ex) {
+            RbacGraph previous = snapshot.get();
+            if (previous == null) {
+                throw ex;
+            }
+            log.error("RBAC graph rebuild failed, keeping the previous snapshot", ex);
+            return previous;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+}
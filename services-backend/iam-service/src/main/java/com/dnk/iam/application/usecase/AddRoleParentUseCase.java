@@ -0,0 +1,64 @@
+package com.dnk.iam.application.usecase;
+
+import com.dnk.iam.application.event.RbacChangedEvent;
+import com.dnk.iam.application.event.RoleHierarchyChangedEvent;
+import com.dnk.iam.application.port.out.RoleHierarchyRepositoryPort;
+import com.dnk.iam.application.port.out.RoleRepositoryPort;
+import com.dnk.iam.application.service.RbacChangeFeedService;
+import com.dnk.iam.domain.model.RbacChange;
+import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.application.exception.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AddRoleParentUseCase {
+
+    private final RoleRepositoryPort roleRepository;
+    private final RoleHierarchyRepositoryPort roleHierarchyRepository;
+    private final RbacChangeFeedService rbacChangeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void execute(String roleName, String parentRoleName) {
+        if (roleName == null || roleName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Role name cannot be empty");
+        }
+        if (parentRoleName == null || parentRoleName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Parent role name cannot be empty");
+        }
+
+        String trimmedRoleName = roleName.trim();
+        String trimmedParentRoleName = parentRoleName.trim();
+        if (trimmedRoleName.equals(trimmedParentRoleName)) {
+            throw new IllegalArgumentException("A role cannot extend itself");
+        }
+
+        log.info("AUDIT: Adding parent role - roleName: {}, parentRoleName: {}", trimmedRoleName, trimmedParentRoleName);
+        Role role = roleRepository.findByName(trimmedRoleName)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found: " + trimmedRoleName));
+        Role parent = roleRepository.findByName(trimmedParentRoleName)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found: " + trimmedParentRoleName));
+
+        // Under the lock a concurrent edit cannot close a cycle between the check and the insert
+        roleHierarchyRepository.lock();
+        if (roleHierarchyRepository.inheritsFrom(parent.id(), role.id())) {
+            throw new IllegalArgumentException("Role " + trimmedParentRoleName + " already inherits from "
+                    + trimmedRoleName + "; extending it would create a cycle");
+        }
+
+        if (!roleHierarchyRepository.addParent(role.id(), parent.id())) {
+            log.info("AUDIT: Role already extends parent - roleName: {}, parentRoleName: {}", trimmedRoleName, trimmedParentRoleName);
+            return;
+        }
+        rbacChangeFeedService.record(RbacChange.roleParentAdded(role, parent));
+        eventPublisher.publishEvent(new RoleHierarchyChangedEvent(role.id()));
+        eventPublisher.publishEvent(new RbacChangedEvent("role " + trimmedRoleName + " extends " + trimmedParentRoleName));
+        log.info("AUDIT: Parent role added successfully - roleName: {}, parentRoleName: {}", trimmedRoleName, trimmedParentRoleName);
+    }
+}
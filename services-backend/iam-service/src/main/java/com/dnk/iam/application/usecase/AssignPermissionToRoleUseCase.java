@@ -1,13 +1,18 @@
 package com.dnk.iam.application.usecase;
 
+import com.dnk.iam.application.event.PermissionGrantedToRoleEvent;
+import com.dnk.iam.application.event.RbacChangedEvent;
 import com.dnk.iam.application.port.out.PermissionRepositoryPort;
 import com.dnk.iam.application.port.out.RolePermissionRepositoryPort;
 import com.dnk.iam.application.port.out.RoleRepositoryPort;
+import com.dnk.iam.application.service.RbacChangeFeedService;
+import com.dnk.iam.domain.model.RbacChange;
 import com.dnk.iam.domain.model.Permission;
 import com.dnk.iam.domain.model.Role;
 import com.dnk.iam.application.exception.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +24,8 @@ public class AssignPermissionToRoleUseCase {
     private final RoleRepositoryPort roleRepository;
     private final PermissionRepositoryPort permissionRepository;
     private final RolePermissionRepositoryPort rolePermissionRepository;
+    private final RbacChangeFeedService rbacChangeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void execute(String roleName, String permissionName) {
@@ -40,6 +47,9 @@ public class AssignPermissionToRoleUseCase {
                 .orElseThrow(() -> new EntityNotFoundException("Permission not found: " + trimmedPermissionName));
         
         rolePermissionRepository.assignPermission(role.id(), permission.id());
+        rbacChangeFeedService.record(RbacChange.permissionAssignedToRole(role, permission));
+        eventPublisher.publishEvent(new PermissionGrantedToRoleEvent(role.id(), permission.name()));
+        eventPublisher.publishEvent(new RbacChangedEvent("permission " + trimmedPermissionName + " assigned to role " + trimmedRoleName));
         log.info("AUDIT: Permission assigned to role successfully - roleName: {}, permissionName: {}", trimmedRoleName, trimmedPermissionName);
     }
 }
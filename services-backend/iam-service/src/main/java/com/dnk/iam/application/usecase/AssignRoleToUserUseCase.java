@@ -1,11 +1,16 @@
 package com.dnk.iam.application.usecase;
 
+import com.dnk.iam.application.event.RoleAssignedToUserEvent;
 import com.dnk.iam.application.port.out.RoleRepositoryPort;
 import com.dnk.iam.application.port.out.UserRoleRepositoryPort;
+import com.dnk.iam.application.service.EffectivePermissionService;
+import com.dnk.iam.application.service.RbacChangeFeedService;
+import com.dnk.iam.domain.model.RbacChange;
 import com.dnk.iam.domain.model.Role;
 import com.dnk.iam.application.exception.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +21,9 @@ public class AssignRoleToUserUseCase {
 
     private final UserRoleRepositoryPort userRoleRepository;
     private final RoleRepositoryPort roleRepository;
+    private final EffectivePermissionService effectivePermissionService;
+    private final RbacChangeFeedService rbacChangeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public void execute(String userId, String roleName) {
@@ -34,6 +42,9 @@ public class AssignRoleToUserUseCase {
                 .orElseThrow(() -> new EntityNotFoundException("Role not found: " + trimmedRoleName));
         
         userRoleRepository.assignRole(trimmedUserId, role.id());
+        effectivePermissionService.onRoleAssigned(trimmedUserId, role.id());
+        rbacChangeFeedService.record(RbacChange.roleAssignedToUser(trimmedUserId, role));
+        eventPublisher.publishEvent(new RoleAssignedToUserEvent(trimmedUserId, role.id()));
         log.info("AUDIT: Role assigned to user successfully - userId: {}, roleName: {}", trimmedUserId, trimmedRoleName);
     }
 }
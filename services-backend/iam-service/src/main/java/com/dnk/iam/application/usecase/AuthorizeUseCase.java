@@ -0,0 +1,142 @@
+package com.dnk.iam.application.usecase;
+
+import com.dnk.iam.application.port.out.UserRoleRepositoryPort;
+import com.dnk.iam.application.service.AuthorizationDecisionCache;
+import com.dnk.iam.domain.model.AuthorizationCheck;
+import com.dnk.iam.domain.model.AuthorizationDecision;
+import com.dnk.iam.domain.model.UserRights;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Answers (user, permission) questions in bulk. Cached decisions are returned as is; the rest are
+ * resolved with one query for all of their users together. Misses read the database directly rather
+ * than the RBAC graph, whose rebuild after a change is asynchronous and could hand back a stale denial
+ * right after the cache dropped it.
+ */
+@Slf4j
+@Service
+public class AuthorizeUseCase {
+
+    private final UserRoleRepositoryPort userRoleRepository;
+    private final AuthorizationDecisionCache decisionCache;
+    private final int maxChecks;
+
+    private final Timer latency;
+    private final DistributionSummary batchSize;
+    private final Counter hits;
+    private final Counter misses;
+
+    public AuthorizeUseCase(UserRoleRepositoryPort userRoleRepository,
+                            AuthorizationDecisionCache decisionCache,
+                            MeterRegistry meterRegistry,
+                            @Value("${iam.authorize.max-checks:1000}") int maxChecks) {
+        if (maxChecks <= 0) {
+            throw new IllegalArgumentException("Authorization batch limit must be positive");
+        }
+        this.userRoleRepository = userRoleRepository;
+        this.decisionCache = decisionCache;
+        this.maxChecks = maxChecks;
+
+        this.latency = Timer.builder("iam.authorize.latency")
+                .description("Latency of authorization decision requests")
+                .publishPercentileHistogram()
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("iam.authorize.batch.size")
+                .description("Checks per authorization request")
+                .register(meterRegistry);
+        this.hits = decisionCounter(meterRegistry, "hit");
+        this.misses = decisionCounter(meterRegistry, "miss");
+    }
+
+    public List<AuthorizationDecision> execute(List<AuthorizationCheck> checks) {
+        if (checks == null || checks.isEmpty()) {
+            throw new IllegalArgumentException("Checks cannot be empty");
+        }
+        if (checks.size() > maxChecks) {
+            throw new IllegalArgumentException("At most " + maxChecks + " checks per request");
+        }
+        List<AuthorizationCheck> normalized = new ArrayList<>(checks.size());
+        for (AuthorizationCheck check : checks) {
+            if (check == null || isBlank(check.userId()) || isBlank(check.permission())) {
+                throw new IllegalArgumentException("User ID and permission cannot be empty");
+            }
+            normalized.add(new AuthorizationCheck(check.userId().trim(), check.permission().trim()));
+        }
+
+        batchSize.record(normalized.size());
+        return latency.record(() -> decide(normalized));
+    }
+
+    private List<AuthorizationDecision> decide(List<AuthorizationCheck> checks) {
+        Map<AuthorizationCheck, Boolean> decided = new HashMap<>();
+        Set<AuthorizationCheck> missing = new LinkedHashSet<>();
+        for (AuthorizationCheck check : checks) {
+            Boolean cached = decisionCache.isEnabled() ? decisionCache.get(check) : null;
+            if (cached != null) {
+                decided.put(check, cached);
+            } else {
+                missing.add(check);
+            }
+        }
+        hits.increment(decided.size());
+        misses.increment(missing.size());
+
+        if (!missing.isEmpty()) {
+            resolve(missing, decided);
+        }
+
+        List<AuthorizationDecision> decisions = new ArrayList<>(checks.size());
+        for (AuthorizationCheck check : checks) {
+            decisions.add(new AuthorizationDecision(check.userId(), check.permission(), decided.get(check)));
+        }
+        return decisions;
+    }
+
+    private void resolve(Set<AuthorizationCheck> missing, Map<AuthorizationCheck, Boolean> decided) {
+        Set<String> userIds = new LinkedHashSet<>();
+        missing.forEach(check -> userIds.add(check.userId()));
+
+        // Generations before the query: an invalidation committed meanwhile keeps these answers out of the cache
+        Map<String, Long> generations = new HashMap<>();
+        userIds.forEach(userId -> generations.put(userId, decisionCache.generation(userId)));
+
+        Map<String, UserRights> rights = userRoleRepository.findRightsByUserIds(userIds);
+        Map<String, Set<String>> permissions = new HashMap<>();
+        rights.forEach((userId, userRights) -> permissions.put(userId, new HashSet<>(userRights.permissions())));
+
+        for (AuthorizationCheck check : missing) {
+            boolean allowed = permissions.getOrDefault(check.userId(), Set.of()).contains(check.permission());
+            decided.put(check, allowed);
+            if (decisionCache.isEnabled()) {
+                decisionCache.put(check, allowed, generations.get(check.userId()));
+            }
+        }
+        log.debug("Resolved {} authorization checks for {} users from the database", missing.size(), userIds.size());
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("iam.authorize.decisions")
+                .tag("result", result)
+                .description("Authorization decisions by cache outcome")
+                .register(meterRegistry);
+    }
+}
@@ -1,9 +1,13 @@
 package com.dnk.iam.application.usecase;
 
+import com.dnk.iam.application.event.RbacChangedEvent;
 import com.dnk.iam.application.port.out.PermissionRepositoryPort;
+import com.dnk.iam.application.service.RbacChangeFeedService;
+import com.dnk.iam.domain.model.RbacChange;
 import com.dnk.iam.domain.model.Permission;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +19,8 @@ import java.util.UUID;
 public class CreatePermissionUseCase {
 
     private final PermissionRepositoryPort permissionRepository;
+    private final RbacChangeFeedService rbacChangeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Permission execute(String permissionName) {
@@ -26,6 +32,8 @@ public class CreatePermissionUseCase {
         log.info("AUDIT: Creating new permission - permissionName: {}", trimmedPermissionName);
         Permission permission = new Permission(UUID.randomUUID(), trimmedPermissionName);
         Permission savedPermission = permissionRepository.save(permission);
+        rbacChangeFeedService.record(RbacChange.permissionCreated(savedPermission));
+        eventPublisher.publishEvent(new RbacChangedEvent("permission created: " + trimmedPermissionName));
         log.info("AUDIT: Permission created successfully - permissionName: {}, permissionId: {}", trimmedPermissionName, savedPermission.id());
         return savedPermission;
     }
@@ -1,9 +1,13 @@
 package com.dnk.iam.application.usecase;
 
+import com.dnk.iam.application.event.RbacChangedEvent;
 import com.dnk.iam.application.port.out.RoleRepositoryPort;
+import com.dnk.iam.application.service.RbacChangeFeedService;
+import com.dnk.iam.domain.model.RbacChange;
 import com.dnk.iam.domain.model.Role;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -15,6 +19,8 @@ import java.util.UUID;
 public class CreateRoleUseCase {
 
     private final RoleRepositoryPort roleRepository;
+    private final RbacChangeFeedService rbacChangeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Role execute(String roleName) {
@@ -26,6 +32,8 @@ public class CreateRoleUseCase {
         log.info("AUDIT: Creating new role - roleName: {}", trimmedRoleName);
         Role role = new Role(UUID.randomUUID(), trimmedRoleName);
         Role savedRole = roleRepository.save(role);
+        rbacChangeFeedService.record(RbacChange.roleCreated(savedRole));
+        eventPublisher.publishEvent(new RbacChangedEvent("role created: " + trimmedRoleName));
         log.info("AUDIT: Role created successfully - roleName: {}, roleId: {}", trimmedRoleName, savedRole.id());
         return savedRole;
     }
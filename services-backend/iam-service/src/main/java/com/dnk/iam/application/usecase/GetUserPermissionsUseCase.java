@@ -1,25 +1,41 @@
 package com.dnk.iam.application.usecase;
 
-import com.dnk.iam.application.port.out.RolePermissionRepositoryPort;
 import com.dnk.iam.application.port.out.UserRoleRepositoryPort;
-import com.dnk.iam.domain.model.Permission;
-import com.dnk.iam.domain.model.Role;
-import lombok.RequiredArgsConstructor;
+import com.dnk.iam.application.service.EffectivePermissionService;
+import com.dnk.iam.application.service.RbacGraphService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class GetUserPermissionsUseCase {
 
     private final UserRoleRepositoryPort userRoleRepository;
-    private final RolePermissionRepositoryPort rolePermissionRepository;
+    private final RbacGraphService rbacGraphService;
+    private final EffectivePermissionService effectivePermissionService;
+
+    // Same timer name per source, so the three strategies can be compared side by side
+    private final Timer materializedLookups;
+    private final Timer graphLookups;
+    private final Timer joinLookups;
+
+    public GetUserPermissionsUseCase(UserRoleRepositoryPort userRoleRepository,
+                                     RbacGraphService rbacGraphService,
+                                     EffectivePermissionService effectivePermissionService,
+                                     MeterRegistry meterRegistry) {
+        this.userRoleRepository = userRoleRepository;
+        this.rbacGraphService = rbacGraphService;
+        this.effectivePermissionService = effectivePermissionService;
+        this.materializedLookups = lookupTimer(meterRegistry, "materialized");
+        this.graphLookups = lookupTimer(meterRegistry, "graph");
+        this.joinLookups = lookupTimer(meterRegistry, "join");
+    }
 
     public List<String> execute(String userId) {
         if (userId == null || userId.trim().isEmpty()) {
@@ -27,12 +43,25 @@ public class GetUserPermissionsUseCase {
         }
 
         log.debug("Fetching permissions for user: {}", userId);
-        List<Role> userRoles = userRoleRepository.findRolesByUserId(userId.trim());
-        
-        return userRoles.stream()
-                .flatMap(role -> rolePermissionRepository.findPermissionsByRoleId(role.id()).stream())
-                .map(Permission::name)
-                .distinct()
-                .collect(Collectors.toList());
+        String trimmedUserId = userId.trim();
+        if (effectivePermissionService.isReady()) {
+            // Index-only scan on the materialized rows, identical on every node
+            return materializedLookups.record(() -> effectivePermissionService.findPermissionNames(trimmedUserId));
+        }
+        if (rbacGraphService.isEnabled()) {
+            // One query for the role ids; the role -> permission step is answered from memory
+            return graphLookups.record(() ->
+                    rbacGraphService.current().permissionNamesOf(userRoleRepository.findRoleIdsByUserId(trimmedUserId)));
+        }
+
+        return joinLookups.record(() -> userRoleRepository.findPermissionNamesByUserId(trimmedUserId));
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String source) {
+        return Timer.builder("iam.permissions.lookup")
+                .tag("source", source)
+                .description("Latency of user permission resolution")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
     }
 }
@@ -1,6 +1,7 @@
 package com.dnk.iam.application.usecase;
 
 import com.dnk.iam.application.port.out.UserRoleRepositoryPort;
+import com.dnk.iam.application.service.RbacGraphService;
 import com.dnk.iam.domain.model.Role;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -13,9 +14,13 @@ import java.util.List;
 public class GetUserRolesUseCase {
 
     private final UserRoleRepositoryPort userRoleRepositoryPort;
+    private final RbacGraphService rbacGraphService;
 
     @Transactional(readOnly = true)
     public List<Role> execute(String userId) {
+        if (rbacGraphService.isEnabled()) {
+            return rbacGraphService.current().rolesOf(userRoleRepositoryPort.findRoleIdsByUserId(userId));
+        }
         return userRoleRepositoryPort.findRolesByUserId(userId);
     }
 }
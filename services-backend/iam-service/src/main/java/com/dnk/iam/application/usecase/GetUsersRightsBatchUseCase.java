@@ -0,0 +1,102 @@
+package com.dnk.iam.application.usecase;
+
+import com.dnk.iam.application.port.out.UserRoleRepositoryPort;
+import com.dnk.iam.application.service.RbacGraphService;
+import com.dnk.iam.domain.model.RbacGraph;
+import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.domain.model.UserRights;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Resolves roles and permissions for many users at once. Users are handled in chunks, one set-based
+ * statement per chunk, each holding a pooled connection only for that statement; results are handed to
+ * the caller chunk by chunk so they can be streamed out without buffering the whole answer.
+ */
+@Slf4j
+@Service
+public class GetUsersRightsBatchUseCase {
+
+    private final UserRoleRepositoryPort userRoleRepository;
+    private final RbacGraphService rbacGraphService;
+    private final int maxUsers;
+    private final int chunkSize;
+
+    public GetUsersRightsBatchUseCase(UserRoleRepositoryPort userRoleRepository,
+                                      RbacGraphService rbacGraphService,
+                                      @Value("${iam.rbac.batch.max-users:5000}") int maxUsers,
+                                      @Value("${iam.rbac.batch.chunk-size:500}") int chunkSize) {
+        if (maxUsers <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Batch rights limits must be positive");
+        }
+        this.userRoleRepository = userRoleRepository;
+        this.rbacGraphService = rbacGraphService;
+        this.maxUsers = maxUsers;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Trims and de-duplicates the ids, keeping their order. Call before writing any response, so a bad
+     * request still gets a proper error status.
+     */
+    public List<String> normalize(List<String> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new IllegalArgumentException("User IDs cannot be empty");
+        }
+        Set<String> unique = new LinkedHashSet<>();
+        for (String userId : userIds) {
+            if (userId == null || userId.trim().isEmpty()) {
+                throw new IllegalArgumentException("User ID cannot be empty");
+            }
+            unique.add(userId.trim());
+        }
+        if (unique.size() > maxUsers) {
+            throw new IllegalArgumentException("At most " + maxUsers + " user IDs per request");
+        }
+        return new ArrayList<>(unique);
+    }
+
+    /**
+     * Passes each chunk's rights to {@code sink} in request order; users without roles get empty rights.
+     */
+    public void execute(List<String> userIds, Consumer<Map<String, UserRights>> sink) {
+        log.debug("Resolving rights for {} users in chunks of {}", userIds.size(), chunkSize);
+        for (int from = 0; from < userIds.size(); from += chunkSize) {
+            List<String> chunk = userIds.subList(from, Math.min(from + chunkSize, userIds.size()));
+            sink.accept(rbacGraphService.isEnabled() ? fromGraph(chunk) : fromJoin(chunk));
+        }
+    }
+
+    private Map<String, UserRights> fromGraph(List<String> chunk) {
+        RbacGraph graph = rbacGraphService.current();
+        Map<String, List<UUID>> roleIds = userRoleRepository.findRoleIdsByUserIds(chunk);
+
+        Map<String, UserRights> rights = new LinkedHashMap<>();
+        for (String userId : chunk) {
+            List<UUID> ids = roleIds.getOrDefault(userId, List.of());
+            List<String> roles = graph.rolesOf(ids).stream().map(Role::name).toList();
+            rights.put(userId, new UserRights(roles, graph.permissionNamesOf(ids)));
+        }
+        return rights;
+    }
+
+    private Map<String, UserRights> fromJoin(List<String> chunk) {
+        Map<String, UserRights> found = userRoleRepository.findRightsByUserIds(chunk);
+
+        Map<String, UserRights> rights = new LinkedHashMap<>();
+        for (String userId : chunk) {
+            rights.put(userId, found.getOrDefault(userId, UserRights.NONE));
+        }
+        return rights;
+    }
+}
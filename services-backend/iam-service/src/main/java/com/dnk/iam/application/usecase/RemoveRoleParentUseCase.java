@@ -0,0 +1,53 @@
+package com.dnk.iam.application.usecase;
+
+import com.dnk.iam.application.event.RbacChangedEvent;
+import com.dnk.iam.application.event.RoleHierarchyChangedEvent;
+import com.dnk.iam.application.port.out.RoleHierarchyRepositoryPort;
+import com.dnk.iam.application.port.out.RoleRepositoryPort;
+import com.dnk.iam.application.service.RbacChangeFeedService;
+import com.dnk.iam.domain.model.RbacChange;
+import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.application.exception.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RemoveRoleParentUseCase {
+
+    private final RoleRepositoryPort roleRepository;
+    private final RoleHierarchyRepositoryPort roleHierarchyRepository;
+    private final RbacChangeFeedService rbacChangeFeedService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public void execute(String roleName, String parentRoleName) {
+        if (roleName == null || roleName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Role name cannot be empty");
+        }
+        if (parentRoleName == null || parentRoleName.trim().isEmpty()) {
+            throw new IllegalArgumentException("Parent role name cannot be empty");
+        }
+
+        String trimmedRoleName = roleName.trim();
+        String trimmedParentRoleName = parentRoleName.trim();
+
+        log.info("AUDIT: Removing parent role - roleName: {}, parentRoleName: {}", trimmedRoleName, trimmedParentRoleName);
+        Role role = roleRepository.findByName(trimmedRoleName)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found: " + trimmedRoleName));
+        Role parent = roleRepository.findByName(trimmedParentRoleName)
+                .orElseThrow(() -> new EntityNotFoundException("Role not found: " + trimmedParentRoleName));
+
+        if (!roleHierarchyRepository.removeParent(role.id(), parent.id())) {
+            throw new EntityNotFoundException("Role " + trimmedRoleName + " does not extend " + trimmedParentRoleName);
+        }
+        rbacChangeFeedService.record(RbacChange.roleParentRemoved(role, parent));
+        eventPublisher.publishEvent(new RoleHierarchyChangedEvent(role.id()));
+        eventPublisher.publishEvent(new RbacChangedEvent("role " + trimmedRoleName + " no longer extends " + trimmedParentRoleName));
+        log.info("AUDIT: Parent role removed successfully - roleName: {}, parentRoleName: {}", trimmedRoleName, trimmedParentRoleName);
+    }
+}
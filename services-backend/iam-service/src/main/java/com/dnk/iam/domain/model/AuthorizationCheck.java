@@ -0,0 +1,4 @@
+package com.dnk.iam.domain.model;
+
+public record AuthorizationCheck(String userId, String permission) {
+}
@@ -0,0 +1,4 @@
+package com.dnk.iam.domain.model;
+
+public record AuthorizationDecision(String userId, String permission, boolean allowed) {
+}
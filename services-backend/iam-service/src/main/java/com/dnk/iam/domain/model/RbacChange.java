@@ -0,0 +1,62 @@
+package com.dnk.iam.domain.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of the RBAC change feed. {@code sequence} and {@code changedAt} are assigned by the database
+ * when the change is appended; the other fields say which cached entries a consumer has to drop.
+ */
+public record RbacChange(long sequence,
+                         Type type,
+                         String userId,
+                         UUID roleId,
+                         String roleName,
+                         String permissionName,
+                         UUID parentRoleId,
+                         String parentRoleName,
+                         Instant changedAt) {
+
+    public enum Type {
+        ROLE_CREATED,
+        PERMISSION_CREATED,
+        ROLE_ASSIGNED_TO_USER,
+        PERMISSION_ASSIGNED_TO_ROLE,
+        ROLE_PARENT_ADDED,
+        ROLE_PARENT_REMOVED
+    }
+
+    public static RbacChange roleCreated(Role role) {
+        return new RbacChange(0, Type.ROLE_CREATED, null, role.id(), role.name(), null, null, null, null);
+    }
+
+    public static RbacChange permissionCreated(Permission permission) {
+        return new RbacChange(0, Type.PERMISSION_CREATED, null, null, null, permission.name(), null, null, null);
+    }
+
+    public static RbacChange roleAssignedToUser(String userId, Role role) {
+        return new RbacChange(0, Type.ROLE_ASSIGNED_TO_USER, userId, role.id(), role.name(), null, null, null, null);
+    }
+
+    public static RbacChange permissionAssignedToRole(Role role, Permission permission) {
+        return new RbacChange(0, Type.PERMISSION_ASSIGNED_TO_ROLE, null, role.id(), role.name(), permission.name(), null, null, null);
+    }
+
+    public static RbacChange roleParentAdded(Role role, Role parent) {
+        return new RbacChange(0, Type.ROLE_PARENT_ADDED, null, role.id(), role.name(), null, parent.id(), parent.name(), null);
+    }
+
+    public static RbacChange roleParentRemoved(Role role, Role parent) {
+        return new RbacChange(0, Type.ROLE_PARENT_REMOVED, null, role.id(), role.name(), null, parent.id(), parent.name(), null);
+    }
+
+    /**
+     * Identity of what changed, ignoring when; two changes with the same key invalidate the same entries.
+     */
+    public Object coalescingKey() {
+        return new Key(type, userId, roleId, permissionName, parentRoleId);
+    }
+
+    private record Key(Type type, String userId, UUID roleId, String permissionName, UUID parentRoleId) {
+    }
+}
@@ -0,0 +1,161 @@
+package com.dnk.iam.domain.model;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable snapshot of roles, permissions, the role-permission edges and the role hierarchy. Each role's
+ * effective permissions (its own plus everything it inherits) are precomputed as a bitset over permission
+ * indexes, so resolving a user's permissions is one OR per held role. A change produces a new snapshot
+ * instead of mutating this one, so readers never need a lock. {@code version} is the rights version read
+ * before the snapshot was loaded, or -1 if unknown.
+ */
+public final class RbacGraph {
+
+    public static final long UNKNOWN_VERSION = -1;
+
+    private final long version;
+    private final Map<UUID, Role> roles;
+    private final Map<UUID, BitSet> effectivePermissions;
+    private final String[] permissionNames;
+
+    private RbacGraph(long version, Map<UUID, Role> roles, Map<UUID, BitSet> effectivePermissions,
+                      String[] permissionNames) {
+        this.version = version;
+        this.roles = roles;
+        this.effectivePermissions = effectivePermissions;
+        this.permissionNames = permissionNames;
+    }
+
+    public static RbacGraph of(long version,
+                               Collection<Role> roles,
+                               Collection<Permission> permissions,
+                               Collection<RolePermission> rolePermissions,
+                               Collection<RoleInheritance> inheritance) {
+        Map<UUID, Role> rolesById = new HashMap<>();
+        for (Role role : roles) {
+            rolesById.put(role.id(), role);
+        }
+        Map<UUID, Integer> permissionIndexes = new HashMap<>();
+        String[] names = new String[permissions.size()];
+        for (Permission permission : permissions) {
+            int index = permissionIndexes.size();
+            permissionIndexes.put(permission.id(), index);
+            names[index] = permission.name();
+        }
+
+        Map<UUID, BitSet> own = new HashMap<>();
+        for (RolePermission edge : rolePermissions) {
+            Integer index = permissionIndexes.get(edge.permissionId());
+            // Dangling edges are skipped, as the per-row lookups always did
+            if (index != null && rolesById.containsKey(edge.roleId())) {
+                own.computeIfAbsent(edge.roleId(), id -> new BitSet(names.length)).set(index);
+            }
+        }
+        Map<UUID, List<UUID>> parents = new HashMap<>();
+        for (RoleInheritance edge : inheritance) {
+            if (rolesById.containsKey(edge.roleId()) && rolesById.containsKey(edge.parentRoleId())) {
+                parents.computeIfAbsent(edge.roleId(), id -> new ArrayList<>()).add(edge.parentRoleId());
+            }
+        }
+
+        Map<UUID, BitSet> effective = closure(rolesById.keySet(), own, parents);
+        return new RbacGraph(version, Map.copyOf(rolesById), Map.copyOf(effective), names);
+    }
+
+    /**
+     * Effective permissions of every role: parents are finished before their children, so each role costs
+     * one OR per direct parent. Iterative, so a deep chain cannot overflow the stack; an edge that would
+     * close a cycle (the database refuses those) is ignored rather than looping.
+     */
+    private static Map<UUID, BitSet> closure(Collection<UUID> roleIds, Map<UUID, BitSet> own,
+                                             Map<UUID, List<UUID>> parents) {
+        Map<UUID, BitSet> effective = new HashMap<>();
+        Map<UUID, Boolean> visiting = new HashMap<>();
+        Deque<UUID> stack = new ArrayDeque<>();
+
+        for (UUID start : roleIds) {
+            if (effective.containsKey(start)) {
+                continue;
+            }
+            stack.push(start);
+            while (!stack.isEmpty()) {
+                UUID roleId = stack.peek();
+                if (effective.containsKey(roleId)) {
+                    stack.pop();
+                    continue;
+                }
+                if (visiting.putIfAbsent(roleId, Boolean.TRUE) == null) {
+                    for (UUID parentId : parents.getOrDefault(roleId, List.of())) {
+                        if (!effective.containsKey(parentId) && !visiting.containsKey(parentId)) {
+                            stack.push(parentId);
+                        }
+                    }
+                    continue;
+                }
+
+                BitSet bits = (BitSet) own.getOrDefault(roleId, new BitSet()).clone();
+                for (UUID parentId : parents.getOrDefault(roleId, List.of())) {
+                    BitSet inherited = effective.get(parentId);
+                    if (inherited != null) {
+                        bits.or(inherited);
+                    }
+                }
+                effective.put(roleId, bits);
+                stack.pop();
+            }
+        }
+        return effective;
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Roles for the given ids in the same order; ids that no longer exist are skipped.
+     */
+    public List<Role> rolesOf(Collection<UUID> roleIds) {
+        List<Role> result = new ArrayList<>(roleIds.size());
+        for (UUID roleId : roleIds) {
+            Role role = roles.get(roleId);
+            if (role != null) {
+                result.add(role);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Distinct permission names granted by the given roles, inherited ones included, in load order.
+     */
+    public List<String> permissionNamesOf(Collection<UUID> roleIds) {
+        BitSet union = new BitSet(permissionNames.length);
+        for (UUID roleId : roleIds) {
+            BitSet bits = effectivePermissions.get(roleId);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        List<String> names = new ArrayList<>(union.cardinality());
+        for (int index = union.nextSetBit(0); index >= 0; index = union.nextSetBit(index + 1)) {
+            names.add(permissionNames[index]);
+        }
+        return names;
+    }
+
+    public int roleCount() {
+        return roles.size();
+    }
+
+    public int permissionCount() {
+        return permissionNames.length;
+    }
+}
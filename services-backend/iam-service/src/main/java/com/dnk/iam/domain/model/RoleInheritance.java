@@ -0,0 +1,15 @@
+package com.dnk.iam.domain.model;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * {@code roleId} extends {@code parentRoleId} and inherits every permission it has, directly or inherited.
+ */
+public record RoleInheritance(UUID roleId, UUID parentRoleId) {
+
+    public RoleInheritance {
+        Objects.requireNonNull(roleId, "roleId must not be null");
+        Objects.requireNonNull(parentRoleId, "parentRoleId must not be null");
+    }
+}
@@ -0,0 +1,8 @@
+package com.dnk.iam.domain.model;
+
+import java.util.List;
+
+public record UserRights(List<String> roles, List<String> permissions) {
+
+    public static final UserRights NONE = new UserRights(List.of(), List.of());
+}
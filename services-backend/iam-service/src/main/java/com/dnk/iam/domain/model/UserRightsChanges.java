@@ -0,0 +1,11 @@
+package com.dnk.iam.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Users whose role assignments changed since some point, read at {@code readAt} on the database clock;
+ * the next read picks up from there.
+ */
+public record UserRightsChanges(List<String> userIds, Instant readAt) {
+}
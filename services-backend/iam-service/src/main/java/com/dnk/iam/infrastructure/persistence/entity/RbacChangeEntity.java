@@ -0,0 +1,48 @@
+package com.dnk.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Read side of {@code iam_schema.rbac_changes}; rows are inserted natively so the database trigger can
+ * assign {@code seq}.
+ */
+@Entity
+@Table(name = "rbac_changes", schema = "iam_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RbacChangeEntity {
+
+    @Id
+    private Long seq;
+
+    @Column(nullable = false, length = 50)
+    private String type;
+
+    @Column(name = "user_id")
+    private String userId;
+
+    @Column(name = "role_id")
+    private UUID roleId;
+
+    @Column(name = "role_name")
+    private String roleName;
+
+    @Column(name = "permission_name")
+    private String permissionName;
+
+    @Column(name = "parent_role_id")
+    private UUID parentRoleId;
+
+    @Column(name = "parent_role_name")
+    private String parentRoleName;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+}
@@ -0,0 +1,36 @@
+package com.dnk.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Read side of {@code iam_schema.role_closure}: one row per (ancestor, descendant) pair, including every
+ * role paired with itself. Maintained by database triggers on roles and role_inheritance.
+ */
+@Entity
+@Table(name = "role_closure", schema = "iam_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleClosureEntity {
+    
+    @EmbeddedId
+    private RoleClosureId id;
+    
+    @Column(nullable = false)
+    private long paths;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleClosureId implements Serializable {
+        private UUID ancestorId;
+        private UUID descendantId;
+    }
+}
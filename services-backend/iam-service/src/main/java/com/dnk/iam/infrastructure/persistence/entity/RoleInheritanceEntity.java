@@ -0,0 +1,38 @@
+package com.dnk.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+
+@Entity
+@Table(name = "role_inheritance", schema = "iam_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleInheritanceEntity {
+    
+    @EmbeddedId
+    private RoleInheritanceId id;
+    
+    @Column(name = "created_at", updatable = false)
+    private Instant createdAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        createdAt = Instant.now();
+    }
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RoleInheritanceId implements Serializable {
+        private UUID roleId;
+        private UUID parentRoleId;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dnk.iam.infrastructure.persistence.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.NoArgsConstructor;
+import lombok.Data;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "user_effective_permissions", schema = "iam_schema")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEffectivePermissionEntity {
+    
+    @EmbeddedId
+    private UserEffectivePermissionId id;
+    
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UserEffectivePermissionId implements Serializable {
+        private String userId;
+        private String permissionName;
+    }
+}
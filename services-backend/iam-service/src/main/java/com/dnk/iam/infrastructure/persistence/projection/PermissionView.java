@@ -0,0 +1,9 @@
+package com.dnk.iam.infrastructure.persistence.projection;
+
+import java.util.UUID;
+
+/**
+ * Permission columns selected straight from a join, without loading a managed entity.
+ */
+public record PermissionView(UUID id, String name) {
+}
@@ -0,0 +1,59 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.application.port.out.EffectivePermissionRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class EffectivePermissionRepositoryAdapter implements EffectivePermissionRepositoryPort {
+
+    private final UserEffectivePermissionJpaRepository effectivePermissionJpaRepository;
+    private final UserRoleJpaRepository userRoleJpaRepository;
+
+    @Override
+    public List<String> findPermissionNamesByUserId(String userId) {
+        return effectivePermissionJpaRepository.findPermissionNamesByUserId(userId);
+    }
+
+    @Override
+    @Transactional
+    public void materializeUserRole(String userId, UUID roleId) {
+        effectivePermissionJpaRepository.materializeUserRole(userId, roleId);
+    }
+
+    @Override
+    public List<String> findUserIdsByRoleId(UUID roleId, String afterUserId, int limit) {
+        return userRoleJpaRepository.findUserIdsByRoleIdAfter(roleId, afterUserId, limit);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int materializeRolePermission(UUID roleId, String permissionName, String afterUserId, String lastUserId) {
+        return effectivePermissionJpaRepository.materializeRolePermission(roleId, permissionName, afterUserId, lastUserId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int insertMissing() {
+        return effectivePermissionJpaRepository.insertMissing();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int deleteStale() {
+        return effectivePermissionJpaRepository.deleteStale();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int refreshHoldersOfRole(UUID roleId) {
+        return effectivePermissionJpaRepository.insertMissingForRole(roleId)
+                + effectivePermissionJpaRepository.deleteStaleForRole(roleId);
+    }
+}
@@ -0,0 +1,46 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.infrastructure.persistence.entity.RbacChangeEntity;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RbacChangeJpaRepository extends JpaRepository<RbacChangeEntity, Long> {
+
+    // seq and changed_at come from the trigger and the column default; ids are bound as text so a null
+    // does not reach PostgreSQL as an untyped bytea
+    @Modifying
+    @Query(value = "INSERT INTO iam_schema.rbac_changes " +
+                   "(type, user_id, role_id, role_name, permission_name, parent_role_id, parent_role_name) " +
+                   "VALUES (:type, :userId, CAST(:roleId AS uuid), :roleName, :permissionName, " +
+                   "CAST(:parentRoleId AS uuid), :parentRoleName)", nativeQuery = true)
+    void append(@Param("type") String type,
+                @Param("userId") String userId,
+                @Param("roleId") String roleId,
+                @Param("roleName") String roleName,
+                @Param("permissionName") String permissionName,
+                @Param("parentRoleId") String parentRoleId,
+                @Param("parentRoleName") String parentRoleName);
+
+    List<RbacChangeEntity> findBySeqGreaterThanOrderBySeqAsc(Long seq, Limit limit);
+
+    Optional<RbacChangeEntity> findFirstByOrderBySeqAsc();
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM RbacChangeEntity c")
+    long latestSequence();
+
+    @Query(value = "SELECT CASE WHEN is_called THEN last_value ELSE 0 END FROM iam_schema.rbac_changes_seq", nativeQuery = true)
+    long allocatedSequence();
+
+    @Modifying
+    @Query("DELETE FROM RbacChangeEntity c WHERE c.changedAt < :cutoff")
+    int deleteByChangedAtBefore(@Param("cutoff") Instant cutoff);
+}
@@ -0,0 +1,76 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.application.port.out.RbacChangeLogPort;
+import com.dnk.iam.domain.model.RbacChange;
+import com.dnk.iam.infrastructure.persistence.entity.RbacChangeEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+
+@Repository
+@RequiredArgsConstructor
+public class RbacChangeLogAdapter implements RbacChangeLogPort {
+
+    private final RbacChangeJpaRepository rbacChangeJpaRepository;
+
+    @Override
+    @Transactional
+    public void append(RbacChange change) {
+        rbacChangeJpaRepository.append(
+                change.type().name(),
+                change.userId(),
+                change.roleId() != null ? change.roleId().toString() : null,
+                change.roleName(),
+                change.permissionName(),
+                change.parentRoleId() != null ? change.parentRoleId().toString() : null,
+                change.parentRoleName());
+    }
+
+    @Override
+    public List<RbacChange> findAfter(long afterSequence, int limit) {
+        return rbacChangeJpaRepository.findBySeqGreaterThanOrderBySeqAsc(afterSequence, Limit.of(limit)).stream()
+                .map(this::toDomain)
+                .toList();
+    }
+
+    @Override
+    public long latestSequence() {
+        return rbacChangeJpaRepository.latestSequence();
+    }
+
+    @Override
+    public long allocatedSequence() {
+        return rbacChangeJpaRepository.allocatedSequence();
+    }
+
+    @Override
+    public OptionalLong oldestRetainedSequence() {
+        return rbacChangeJpaRepository.findFirstByOrderBySeqAsc()
+                .map(entity -> OptionalLong.of(entity.getSeq()))
+                .orElse(OptionalLong.empty());
+    }
+
+    @Override
+    @Transactional
+    public int purgeBefore(Instant cutoff) {
+        return rbacChangeJpaRepository.deleteByChangedAtBefore(cutoff);
+    }
+
+    private RbacChange toDomain(RbacChangeEntity entity) {
+        return new RbacChange(
+                entity.getSeq(),
+                RbacChange.Type.valueOf(entity.getType()),
+                entity.getUserId(),
+                entity.getRoleId(),
+                entity.getRoleName(),
+                entity.getPermissionName(),
+                entity.getParentRoleId(),
+                entity.getParentRoleName(),
+                entity.getChangedAt());
+    }
+}
@@ -0,0 +1,110 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.application.port.out.RbacGraphLoaderPort;
+import com.dnk.iam.domain.model.Permission;
+import com.dnk.iam.domain.model.RbacGraph;
+import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.domain.model.RoleInheritance;
+import com.dnk.iam.domain.model.RolePermission;
+import com.dnk.iam.domain.model.UserRightsChanges;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Loads the whole role-permission graph and role hierarchy in four queries, whatever their size.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class RbacGraphLoaderAdapter implements RbacGraphLoaderPort {
+
+    private static final String VERSION_SQL = "SELECT version FROM iam_schema.rights_version WHERE id = 1";
+    private static final String CLOCK_SQL = "SELECT clock_timestamp()";
+    private static final String CHANGED_USERS_SQL =
+            "SELECT user_id FROM iam_schema.user_rights_version WHERE changed_at >= :since";
+
+    private final RoleJpaRepository roleJpaRepository;
+    private final PermissionJpaRepository permissionJpaRepository;
+    private final RolePermissionJpaRepository rolePermissionJpaRepository;
+    private final RoleInheritanceJpaRepository roleInheritanceJpaRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private volatile boolean versionUnavailableLogged;
+    private volatile boolean userChangesUnavailableLogged;
+
+    @Override
+    @Transactional(readOnly = true)
+    public RbacGraph load(long version) {
+        List<Role> roles = roleJpaRepository.findAll().stream()
+                .map(entity -> new Role(entity.getId(), entity.getName()))
+                .toList();
+        List<Permission> permissions = permissionJpaRepository.findAll().stream()
+                .map(entity -> new Permission(entity.getId(), entity.getName()))
+                .toList();
+        List<RolePermission> edges = rolePermissionJpaRepository.findAll().stream()
+                .map(entity -> new RolePermission(entity.getId().getRoleId(), entity.getId().getPermissionId()))
+                .toList();
+        List<RoleInheritance> inheritance = roleInheritanceJpaRepository.findAll().stream()
+                .map(entity -> new RoleInheritance(entity.getId().getRoleId(), entity.getId().getParentRoleId()))
+                .toList();
+        return RbacGraph.of(version, roles, permissions, edges, inheritance);
+    }
+
+    @Override
+    public long currentVersion() {
+        try {
+            Object value = entityManager.createNativeQuery(VERSION_SQL).getSingleResult();
+            return ((Number) value).longValue();
+        } catch (RuntimeException ex) {
+            if (!versionUnavailableLogged) {
+                versionUnavailableLogged = true;
+                log.warn("Rights version unavailable, RBAC graph falls back to periodic reloads: {}", ex.getMessage());
+            }
+            return RbacGraph.UNKNOWN_VERSION;
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<UserRightsChanges> userRightsChangesSince(Instant since) {
+        try {
+            // Clock first, so a change stamped while the query runs is seen again by the next read
+            Instant readAt = toInstant(entityManager.createNativeQuery(CLOCK_SQL).getSingleResult());
+            List<String> userIds = List.of();
+            if (since != null) {
+                userIds = entityManager.createNativeQuery(CHANGED_USERS_SQL)
+                        .setParameter("since", since)
+                        .getResultList();
+            }
+            return Optional.of(new UserRightsChanges(userIds, readAt));
+        } catch (RuntimeException ex) {
+            if (!userChangesUnavailableLogged) {
+                userChangesUnavailableLogged = true;
+                log.warn("User rights stamps unavailable, remote role assignments clear the whole cache: {}", ex.getMessage());
+            }
+            return Optional.empty();
+        }
+    }
+
+    private static Instant toInstant(Object timestamp) {
+        if (timestamp instanceof Instant instant) {
+            return instant;
+        }
+        if (timestamp instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        return ((Timestamp) timestamp).toInstant();
+    }
+}
@@ -0,0 +1,38 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.application.port.out.RoleHierarchyRepositoryPort;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class RoleHierarchyRepositoryAdapter implements RoleHierarchyRepositoryPort {
+
+    private final RoleInheritanceJpaRepository roleInheritanceJpaRepository;
+
+    @Override
+    @Transactional
+    public void lock() {
+        roleInheritanceJpaRepository.lockHierarchy();
+    }
+
+    @Override
+    public boolean inheritsFrom(UUID roleId, UUID ancestorId) {
+        return roleInheritanceJpaRepository.existsPath(ancestorId, roleId);
+    }
+
+    @Override
+    @Transactional
+    public boolean addParent(UUID roleId, UUID parentRoleId) {
+        return roleInheritanceJpaRepository.addParent(roleId, parentRoleId) > 0;
+    }
+
+    @Override
+    @Transactional
+    public boolean removeParent(UUID roleId, UUID parentRoleId) {
+        return roleInheritanceJpaRepository.removeParent(roleId, parentRoleId) > 0;
+    }
+}
@@ -0,0 +1,33 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.infrastructure.persistence.entity.RoleInheritanceEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface RoleInheritanceJpaRepository extends JpaRepository<RoleInheritanceEntity, RoleInheritanceEntity.RoleInheritanceId> {
+    
+    // Native so the closure trigger runs inside this statement and a conflict is reported as a count
+    @Modifying
+    @Query(value = "INSERT INTO iam_schema.role_inheritance (role_id, parent_role_id) VALUES (:roleId, :parentRoleId) " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addParent(@Param("roleId") UUID roleId, @Param("parentRoleId") UUID parentRoleId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM iam_schema.role_inheritance WHERE role_id = :roleId AND parent_role_id = :parentRoleId",
+           nativeQuery = true)
+    int removeParent(@Param("roleId") UUID roleId, @Param("parentRoleId") UUID parentRoleId);
+    
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM iam_schema.role_closure " +
+                   "WHERE ancestor_id = :ancestorId AND descendant_id = :descendantId)", nativeQuery = true)
+    boolean existsPath(@Param("ancestorId") UUID ancestorId, @Param("descendantId") UUID descendantId);
+    
+    // Same row lock the closure trigger takes, acquired before the cycle check reads the closure
+    @Query(value = "SELECT version FROM iam_schema.rights_version WHERE id = 1 FOR UPDATE", nativeQuery = true)
+    long lockHierarchy();
+}
@@ -1,6 +1,7 @@
 package com.dnk.iam.infrastructure.persistence.repository;
 
 import com.dnk.iam.infrastructure.persistence.entity.RolePermissionEntity;
+import com.dnk.iam.infrastructure.persistence.projection.PermissionView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,4 +15,9 @@ public interface RolePermissionJpaRepository extends JpaRepository<RolePermissio
     
     @Query("SELECT rp FROM RolePermissionEntity rp WHERE rp.id.roleId = :roleId")
     List<RolePermissionEntity> findByRoleId(@Param("roleId") UUID roleId);
+    
+    @Query("SELECT new com.dnk.iam.infrastructure.persistence.projection.PermissionView(p.id, p.name) " +
+           "FROM RolePermissionEntity rp JOIN PermissionEntity p ON p.id = rp.id.permissionId " +
+           "WHERE rp.id.roleId = :roleId")
+    List<PermissionView> findPermissionViewsByRoleId(@Param("roleId") UUID roleId);
 }
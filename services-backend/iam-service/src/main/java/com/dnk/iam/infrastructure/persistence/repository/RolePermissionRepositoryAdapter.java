@@ -7,7 +7,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -16,7 +15,6 @@ import java.util.stream.Collectors;
 public class RolePermissionRepositoryAdapter implements RolePermissionRepositoryPort {
 
     private final RolePermissionJpaRepository rolePermissionJpaRepository;
-    private final PermissionJpaRepository permissionJpaRepository;
 
     @Override
     public void assignPermission(UUID roleId, UUID permissionId) {
@@ -28,12 +26,8 @@ public class RolePermissionRepositoryAdapter implements RolePermissionRepository
 
     @Override
     public List<Permission> findPermissionsByRoleId(UUID roleId) {
-        return rolePermissionJpaRepository.findByRoleId(roleId).stream()
-                .map(entity -> entity.getId().getPermissionId())
-                .map(permissionId -> permissionJpaRepository.findById(permissionId))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(entity -> new Permission(entity.getId(), entity.getName()))
+        return rolePermissionJpaRepository.findPermissionViewsByRoleId(roleId).stream()
+                .map(view -> new Permission(view.id(), view.name()))
                 .collect(Collectors.toList());
     }
 }
@@ -0,0 +1,82 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.infrastructure.persistence.entity.UserEffectivePermissionEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserEffectivePermissionJpaRepository
+        extends JpaRepository<UserEffectivePermissionEntity, UserEffectivePermissionEntity.UserEffectivePermissionId> {
+    
+    @Query("SELECT e.id.permissionName FROM UserEffectivePermissionEntity e WHERE e.id.userId = :userId")
+    List<String> findPermissionNamesByUserId(@Param("userId") String userId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO iam_schema.user_effective_permissions (user_id, permission_name) " +
+                   "SELECT DISTINCT :userId, p.name FROM iam_schema.role_closure rc " +
+                   "JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+                   "JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+                   "WHERE rc.descendant_id = :roleId " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int materializeUserRole(@Param("userId") String userId, @Param("roleId") UUID roleId);
+    
+    // One keyset window of the role's users, inheriting roles included: (afterUserId, lastUserId]
+    @Modifying
+    @Query(value = "INSERT INTO iam_schema.user_effective_permissions (user_id, permission_name) " +
+                   "SELECT DISTINCT ur.user_id, :permissionName FROM iam_schema.user_roles ur " +
+                   "JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "WHERE rc.ancestor_id = :roleId AND ur.user_id > :afterUserId AND ur.user_id <= :lastUserId " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int materializeRolePermission(@Param("roleId") UUID roleId,
+                                  @Param("permissionName") String permissionName,
+                                  @Param("afterUserId") String afterUserId,
+                                  @Param("lastUserId") String lastUserId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO iam_schema.user_effective_permissions (user_id, permission_name) " +
+                   "SELECT DISTINCT ur.user_id, p.name FROM iam_schema.user_roles ur " +
+                   "JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+                   "JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissing();
+    
+    @Modifying
+    @Query(value = "DELETE FROM iam_schema.user_effective_permissions e " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM iam_schema.user_roles ur " +
+                   "JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+                   "JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+                   "WHERE ur.user_id = e.user_id AND p.name = e.permission_name)", nativeQuery = true)
+    int deleteStale();
+    
+    // insertMissing and deleteStale restricted to the holders of the role or of a role inheriting from it
+    @Modifying
+    @Query(value = "INSERT INTO iam_schema.user_effective_permissions (user_id, permission_name) " +
+                   "SELECT DISTINCT ur.user_id, p.name FROM iam_schema.role_closure affected " +
+                   "JOIN iam_schema.user_roles ur ON ur.role_id = affected.descendant_id " +
+                   "JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+                   "JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+                   "WHERE affected.ancestor_id = :roleId " +
+                   "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertMissingForRole(@Param("roleId") UUID roleId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM iam_schema.user_effective_permissions e " +
+                   "WHERE e.user_id IN (SELECT ur.user_id FROM iam_schema.role_closure affected " +
+                   "JOIN iam_schema.user_roles ur ON ur.role_id = affected.descendant_id " +
+                   "WHERE affected.ancestor_id = :roleId) " +
+                   "AND NOT EXISTS (SELECT 1 FROM iam_schema.user_roles ur " +
+                   "JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+                   "JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+                   "WHERE ur.user_id = e.user_id AND p.name = e.permission_name)", nativeQuery = true)
+    int deleteStaleForRole(@Param("roleId") UUID roleId);
+}
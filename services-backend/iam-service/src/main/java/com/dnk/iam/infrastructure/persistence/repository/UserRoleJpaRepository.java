@@ -1,16 +1,56 @@
 package com.dnk.iam.infrastructure.persistence.repository;
 
 import com.dnk.iam.infrastructure.persistence.entity.UserRoleEntity;
+import com.dnk.iam.infrastructure.persistence.projection.RoleView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.UUID;
 
 @Repository
 public interface UserRoleJpaRepository extends JpaRepository<UserRoleEntity, UserRoleEntity.UserRoleId> {
     
     @Query("SELECT ur FROM UserRoleEntity ur WHERE ur.id.userId = :userId")
     List<UserRoleEntity> findByUserId(@Param("userId") String userId);
+    
+    @Query("SELECT ur.id.roleId FROM UserRoleEntity ur WHERE ur.id.userId = :userId")
+    List<UUID> findRoleIdsByUserId(@Param("userId") String userId);
+    
+    @Query("SELECT new com.dnk.iam.infrastructure.persistence.projection.RoleView(r.id, r.name) " +
+           "FROM UserRoleEntity ur JOIN RoleEntity r ON r.id = ur.id.roleId " +
+           "WHERE ur.id.userId = :userId")
+    List<RoleView> findRoleViewsByUserId(@Param("userId") String userId);
+    
+    // The closure pairs every held role with itself and each role it inherits from
+    @Query("SELECT DISTINCT p.name FROM UserRoleEntity ur " +
+           "JOIN RoleClosureEntity rc ON rc.id.descendantId = ur.id.roleId " +
+           "JOIN RolePermissionEntity rp ON rp.id.roleId = rc.id.ancestorId " +
+           "JOIN PermissionEntity p ON p.id = rp.id.permissionId " +
+           "WHERE ur.id.userId = :userId")
+    List<String> findPermissionNamesByUserId(@Param("userId") String userId);
+    
+    // Holders of the role itself or of any role that inherits from it
+    @Query(value = "SELECT DISTINCT ur.user_id FROM iam_schema.user_roles ur " +
+                   "JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "WHERE rc.ancestor_id = :roleId AND ur.user_id > :afterUserId " +
+                   "ORDER BY ur.user_id LIMIT :limit", nativeQuery = true)
+    List<String> findUserIdsByRoleIdAfter(@Param("roleId") UUID roleId,
+                                          @Param("afterUserId") String afterUserId,
+                                          @Param("limit") int limit);
+    
+    @Query(value = "SELECT user_id, role_id FROM iam_schema.user_roles WHERE user_id = ANY(:userIds)", nativeQuery = true)
+    List<Object[]> findRoleIdRowsByUserIds(@Param("userIds") String[] userIds);
+    
+    // One row per (user, role, permission), inherited permissions included; roles without permissions come
+    // back with a null permission
+    @Query(value = "SELECT ur.user_id, r.name, p.name FROM iam_schema.user_roles ur " +
+                   "JOIN iam_schema.roles r ON r.id = ur.role_id " +
+                   "LEFT JOIN iam_schema.role_closure rc ON rc.descendant_id = ur.role_id " +
+                   "LEFT JOIN iam_schema.role_permissions rp ON rp.role_id = rc.ancestor_id " +
+                   "LEFT JOIN iam_schema.permissions p ON p.id = rp.permission_id " +
+                   "WHERE ur.user_id = ANY(:userIds)", nativeQuery = true)
+    List<Object[]> findRightsRowsByUserIds(@Param("userIds") String[] userIds);
 }
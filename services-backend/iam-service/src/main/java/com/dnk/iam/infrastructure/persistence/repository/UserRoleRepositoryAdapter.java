@@ -2,12 +2,18 @@ package com.dnk.iam.infrastructure.persistence.repository;
 
 import com.dnk.iam.application.port.out.UserRoleRepositoryPort;
 import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.domain.model.UserRights;
 import com.dnk.iam.infrastructure.persistence.entity.UserRoleEntity;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -16,7 +22,6 @@ import java.util.stream.Collectors;
 public class UserRoleRepositoryAdapter implements UserRoleRepositoryPort {
 
     private final UserRoleJpaRepository userRoleJpaRepository;
-    private final RoleJpaRepository roleJpaRepository;
 
     @Override
     public void assignRole(String userId, UUID roleId) {
@@ -28,12 +33,46 @@ public class UserRoleRepositoryAdapter implements UserRoleRepositoryPort {
 
     @Override
     public List<Role> findRolesByUserId(String userId) {
-        return userRoleJpaRepository.findByUserId(userId).stream()
-                .map(entity -> entity.getId().getRoleId())
-                .map(roleId -> roleJpaRepository.findById(roleId))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .map(entity -> new Role(entity.getId(), entity.getName()))
+        return userRoleJpaRepository.findRoleViewsByUserId(userId).stream()
+                .map(view -> new Role(view.id(), view.name()))
                 .collect(Collectors.toList());
     }
+
+    @Override
+    public List<UUID> findRoleIdsByUserId(String userId) {
+        return userRoleJpaRepository.findRoleIdsByUserId(userId);
+    }
+
+    @Override
+    public List<String> findPermissionNamesByUserId(String userId) {
+        return userRoleJpaRepository.findPermissionNamesByUserId(userId);
+    }
+
+    @Override
+    public Map<String, List<UUID>> findRoleIdsByUserIds(Collection<String> userIds) {
+        Map<String, List<UUID>> roleIds = new HashMap<>();
+        for (Object[] row : userRoleJpaRepository.findRoleIdRowsByUserIds(userIds.toArray(String[]::new))) {
+            roleIds.computeIfAbsent((String) row[0], id -> new ArrayList<>()).add((UUID) row[1]);
+        }
+        return roleIds;
+    }
+
+    @Override
+    public Map<String, UserRights> findRightsByUserIds(Collection<String> userIds) {
+        Map<String, Set<String>> roles = new HashMap<>();
+        Map<String, Set<String>> permissions = new HashMap<>();
+        for (Object[] row : userRoleJpaRepository.findRightsRowsByUserIds(userIds.toArray(String[]::new))) {
+            String userId = (String) row[0];
+            roles.computeIfAbsent(userId, id -> new LinkedHashSet<>()).add((String) row[1]);
+            Set<String> userPermissions = permissions.computeIfAbsent(userId, id -> new LinkedHashSet<>());
+            if (row[2] != null) {
+                userPermissions.add((String) row[2]);
+            }
+        }
+
+        Map<String, UserRights> rights = new HashMap<>();
+        roles.forEach((userId, names) ->
+                rights.put(userId, new UserRights(List.copyOf(names), List.copyOf(permissions.get(userId)))));
+        return rights;
+    }
 }
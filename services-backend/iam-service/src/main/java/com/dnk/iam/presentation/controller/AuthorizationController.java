@@ -0,0 +1,23 @@
+package com.dnk.iam.presentation.controller;
+
+import com.dnk.iam.application.usecase.AuthorizeUseCase;
+import com.dnk.iam.presentation.dto.AuthorizeRequest;
+import com.dnk.iam.presentation.dto.AuthorizeResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/iam/authorize")
+@RequiredArgsConstructor
+@Validated
+public class AuthorizationController {
+
+    private final AuthorizeUseCase authorizeUseCase;
+
+    @PostMapping
+    public AuthorizeResponse authorize(@Valid @RequestBody AuthorizeRequest request) {
+        return AuthorizeResponse.from(authorizeUseCase.execute(request.toChecks()));
+    }
+}
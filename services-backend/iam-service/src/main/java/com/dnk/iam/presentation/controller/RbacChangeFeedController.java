@@ -0,0 +1,56 @@
+package com.dnk.iam.presentation.controller;
+
+import com.dnk.iam.application.service.RbacChangeFeedService;
+import com.dnk.iam.presentation.sse.SseRbacChangeSubscriber;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/iam/rbac/changes")
+public class RbacChangeFeedController {
+
+    private final RbacChangeFeedService rbacChangeFeedService;
+    private final long emitterTimeoutMillis;
+
+    public RbacChangeFeedController(RbacChangeFeedService rbacChangeFeedService,
+                                    @Value("${iam.rbac.feed.connection-timeout:PT30M}") Duration connectionTimeout) {
+        this.rbacChangeFeedService = rbacChangeFeedService;
+        this.emitterTimeoutMillis = connectionTimeout.toMillis();
+    }
+
+    /**
+     * Resumes after {@code after}, or after the {@code Last-Event-ID} an EventSource sends on reconnect;
+     * with neither, only changes committed from now on are sent.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(required = false) Long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Long cursor = after != null ? after : parseCursor(lastEventId);
+
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        SseRbacChangeSubscriber subscriber = new SseRbacChangeSubscriber(emitter);
+        emitter.onCompletion(() -> rbacChangeFeedService.unsubscribe(subscriber));
+        emitter.onError(error -> rbacChangeFeedService.unsubscribe(subscriber));
+        // Ending the stream on timeout lets the client reconnect with its cursor instead of getting an error
+        emitter.onTimeout(emitter::complete);
+
+        rbacChangeFeedService.subscribe(subscriber, cursor);
+        return emitter;
+    }
+
+    private static Long parseCursor(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + lastEventId);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.dnk.iam.presentation.controller;
+
+import com.dnk.iam.application.usecase.AddRoleParentUseCase;
+import com.dnk.iam.application.usecase.RemoveRoleParentUseCase;
+import com.dnk.iam.presentation.dto.AddParentRoleRequest;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/iam/roles/{roleName}/parents")
+@RequiredArgsConstructor
+@Validated
+public class RoleHierarchyController {
+
+    private final AddRoleParentUseCase addRoleParentUseCase;
+    private final RemoveRoleParentUseCase removeRoleParentUseCase;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void addParentRole(
+            @PathVariable @NotBlank String roleName,
+            @Valid @RequestBody AddParentRoleRequest request
+    ) {
+        addRoleParentUseCase.execute(roleName, request.parent());
+    }
+
+    @DeleteMapping("/{parentRoleName}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void removeParentRole(
+            @PathVariable @NotBlank String roleName,
+            @PathVariable @NotBlank String parentRoleName
+    ) {
+        removeRoleParentUseCase.execute(roleName, parentRoleName);
+    }
+}
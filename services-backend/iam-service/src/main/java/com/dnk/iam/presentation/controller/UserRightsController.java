@@ -0,0 +1,77 @@
+package com.dnk.iam.presentation.controller;
+
+import com.dnk.iam.application.usecase.GetUsersRightsBatchUseCase;
+import com.dnk.iam.domain.model.UserRights;
+import com.dnk.iam.presentation.dto.BatchRightsRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/iam/users")
+@RequiredArgsConstructor
+@Validated
+public class UserRightsController {
+
+    private final GetUsersRightsBatchUseCase getUsersRightsBatchUseCase;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Streams {@code {"users":{"<userId>":{"roles":[...],"permissions":[...]}, ...},"complete":true}}, one chunk
+     * at a time. The status is already sent when a later chunk fails, so such a response is left unterminated and
+     * without {@code "complete":true} instead of being closed into JSON that looks whole.
+     */
+    @PostMapping(value = "/rights:batch", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getUsersRights(
+            @Valid @RequestBody BatchRightsRequest request,
+            HttpServletResponse response) throws IOException {
+        // Validate before the first byte, while an error can still change the status
+        List<String> userIds = getUsersRightsBatchUseCase.normalize(request.userIds());
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(response.getOutputStream())) {
+            // Otherwise close() would balance the open objects after a failed chunk
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            json.writeStartObject();
+            json.writeObjectFieldStart("users");
+            getUsersRightsBatchUseCase.execute(userIds, chunk -> writeChunk(json, chunk));
+            json.writeEndObject();
+            json.writeBooleanField("complete", true);
+            json.writeEndObject();
+        }
+    }
+
+    private static void writeChunk(JsonGenerator json, Map<String, UserRights> chunk) {
+        try {
+            for (Map.Entry<String, UserRights> entry : chunk.entrySet()) {
+                json.writeObjectFieldStart(entry.getKey());
+                writeArray(json, "roles", entry.getValue().roles());
+                writeArray(json, "permissions", entry.getValue().permissions());
+                json.writeEndObject();
+            }
+            // Push each chunk to the client instead of letting the whole answer pile up in the buffer
+            json.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static void writeArray(JsonGenerator json, String field, List<String> values) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+    }
+}
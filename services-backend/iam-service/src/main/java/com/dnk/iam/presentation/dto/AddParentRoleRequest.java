@@ -0,0 +1,8 @@
+package com.dnk.iam.presentation.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record AddParentRoleRequest(
+    @NotBlank(message = "Parent role name is required")
+    String parent
+) {}
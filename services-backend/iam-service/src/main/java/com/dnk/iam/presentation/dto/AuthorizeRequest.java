@@ -0,0 +1,27 @@
+package com.dnk.iam.presentation.dto;
+
+import com.dnk.iam.domain.model.AuthorizationCheck;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record AuthorizeRequest(
+    @NotEmpty(message = "Checks are required")
+    List<@Valid Check> checks
+) {
+    public record Check(
+        @NotBlank(message = "User ID is required")
+        String userId,
+
+        @NotBlank(message = "Permission is required")
+        String permission
+    ) {}
+
+    public List<AuthorizationCheck> toChecks() {
+        return checks.stream()
+                .map(check -> new AuthorizationCheck(check.userId(), check.permission()))
+                .toList();
+    }
+}
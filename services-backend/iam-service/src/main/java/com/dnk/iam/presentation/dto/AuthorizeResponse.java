@@ -0,0 +1,13 @@
+package com.dnk.iam.presentation.dto;
+
+import com.dnk.iam.domain.model.AuthorizationDecision;
+
+import java.util.List;
+
+public record AuthorizeResponse(
+    List<AuthorizationDecision> decisions
+) {
+    public static AuthorizeResponse from(List<AuthorizationDecision> decisions) {
+        return new AuthorizeResponse(decisions);
+    }
+}
@@ -0,0 +1,10 @@
+package com.dnk.iam.presentation.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record BatchRightsRequest(
+    @NotEmpty(message = "User IDs are required")
+    List<String> userIds
+) {}
@@ -0,0 +1,14 @@
+package com.dnk.iam.presentation.dto;
+
+import com.dnk.iam.domain.model.RbacChange;
+
+import java.util.List;
+
+public record RbacChangesResponse(
+    long cursor,
+    List<RbacChange> changes
+) {
+    public static RbacChangesResponse from(long cursor, List<RbacChange> changes) {
+        return new RbacChangesResponse(cursor, changes);
+    }
+}
@@ -0,0 +1,55 @@
+package com.dnk.iam.presentation.sse;
+
+import com.dnk.iam.application.port.out.RbacChangeSubscriberPort;
+import com.dnk.iam.domain.model.RbacChange;
+import com.dnk.iam.presentation.dto.RbacChangesResponse;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Feed subscriber backed by an {@link SseEmitter}. Every event carries the cursor as its SSE id, so a
+ * client that reconnects with {@code Last-Event-ID} resumes where it stopped.
+ */
+public class SseRbacChangeSubscriber implements RbacChangeSubscriberPort {
+
+    private final SseEmitter emitter;
+
+    public SseRbacChangeSubscriber(SseEmitter emitter) {
+        this.emitter = emitter;
+    }
+
+    @Override
+    public void ready(long cursor) throws IOException {
+        send("ready", cursor, RbacChangesResponse.from(cursor, List.of()));
+    }
+
+    @Override
+    public void reset(long cursor) throws IOException {
+        send("reset", cursor, RbacChangesResponse.from(cursor, List.of()));
+    }
+
+    @Override
+    public void changes(List<RbacChange> changes, long cursor) throws IOException {
+        send("rbac-changes", cursor, RbacChangesResponse.from(cursor, changes));
+    }
+
+    @Override
+    public void heartbeat() throws IOException {
+        emitter.send(SseEmitter.event().comment("heartbeat"));
+    }
+
+    @Override
+    public void close() {
+        emitter.complete();
+    }
+
+    private void send(String name, long cursor, RbacChangesResponse payload) throws IOException {
+        emitter.send(SseEmitter.event()
+                .id(Long.toString(cursor))
+                .name(name)
+                .data(payload, MediaType.APPLICATION_JSON));
+    }
+}
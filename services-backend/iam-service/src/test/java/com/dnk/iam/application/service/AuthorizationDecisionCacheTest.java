@@ -0,0 +1,94 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.port.out.RbacGraphLoaderPort;
+import com.dnk.iam.domain.model.AuthorizationCheck;
+import com.dnk.iam.domain.model.RbacGraph;
+import com.dnk.iam.domain.model.UserRightsChanges;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Role assignments made on another instance only reach this cache through the per-user stamps, and must
+ * not cost the other users their cached decisions.
+ */
+class AuthorizationDecisionCacheTest {
+
+    private final FakeVersionSource versionSource = new FakeVersionSource();
+    private final AuthorizationDecisionCache cache =
+            new AuthorizationDecisionCache(versionSource, new SimpleMeterRegistry(), true, 1000, 4);
+
+    @Test
+    void remoteRoleAssignmentDropsOnlyThatUsersDecisions() {
+        cache.evictUsersChangedElsewhere();
+        AuthorizationCheck changed = new AuthorizationCheck("user-1", "COURSE_READ");
+        AuthorizationCheck untouched = new AuthorizationCheck("user-2", "COURSE_READ");
+        cache.put(changed, false, cache.generation("user-1"));
+        cache.put(untouched, true, cache.generation("user-2"));
+
+        versionSource.changedUsers = List.of("user-1");
+        cache.evictUsersChangedElsewhere();
+
+        assertThat(cache.get(changed)).isNull();
+        assertThat(cache.get(untouched)).isTrue();
+        assertThat(versionSource.sinceRequested).last().isNotNull();
+    }
+
+    @Test
+    void unreadableStampsClearEverything() {
+        cache.evictUsersChangedElsewhere();
+        AuthorizationCheck check = new AuthorizationCheck("user-2", "COURSE_READ");
+        cache.put(check, true, cache.generation("user-2"));
+
+        versionSource.available = false;
+        cache.evictUsersChangedElsewhere();
+
+        assertThat(cache.get(check)).isNull();
+    }
+
+    @Test
+    void globalVersionIsUntouchedByRoleAssignments() {
+        cache.clearIfVersionMoved();
+        cache.evictUsersChangedElsewhere();
+        AuthorizationCheck check = new AuthorizationCheck("user-2", "COURSE_READ");
+        cache.put(check, true, cache.generation("user-2"));
+
+        versionSource.changedUsers = List.of("user-1");
+        cache.clearIfVersionMoved();
+        cache.evictUsersChangedElsewhere();
+
+        assertThat(cache.get(check)).isTrue();
+    }
+
+    private static final class FakeVersionSource implements RbacGraphLoaderPort {
+
+        private final List<Instant> sinceRequested = new ArrayList<>();
+        private List<String> changedUsers = List.of();
+        private boolean available = true;
+
+        @Override
+        public RbacGraph load(long version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long currentVersion() {
+            return 7;
+        }
+
+        @Override
+        public Optional<UserRightsChanges> userRightsChangesSince(Instant since) {
+            sinceRequested.add(since);
+            if (!available) {
+                return Optional.empty();
+            }
+            return Optional.of(new UserRightsChanges(since != null ? changedUsers : List.of(), Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.event.PermissionGrantedToRoleEvent;
+import com.dnk.iam.application.event.RoleHierarchyChangedEvent;
+import com.dnk.iam.application.port.out.EffectivePermissionRepositoryPort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A permission granted to a role reaches its holders in keyset batches, and the consistency check is what
+ * both opens reads and repairs whatever a failed fan-out left behind.
+ */
+class EffectivePermissionServiceTest {
+
+    private static final UUID ROLE_ID = UUID.randomUUID();
+
+    private final FakeEffectivePermissions repository = new FakeEffectivePermissions();
+    private final EffectivePermissionService service = new EffectivePermissionService(repository, true, 2);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void grantFansOutToEveryHolderInBatches() throws Exception {
+        repository.holders.addAll(List.of("user-1", "user-2", "user-3", "user-4", "user-5"));
+
+        service.onPermissionGranted(new PermissionGrantedToRoleEvent(ROLE_ID, "courses:create"));
+        drain(service);
+
+        assertThat(repository.batches).containsExactly("(,user-2]", "(user-2,user-4]", "(user-4,user-5]");
+        assertThat(repository.granted).containsExactlyInAnyOrder(
+                "user-1:courses:create", "user-2:courses:create", "user-3:courses:create",
+                "user-4:courses:create", "user-5:courses:create");
+    }
+
+    @Test
+    void grantToARoleWithoutHoldersWritesNothing() throws Exception {
+        service.onPermissionGranted(new PermissionGrantedToRoleEvent(ROLE_ID, "courses:create"));
+        drain(service);
+
+        assertThat(repository.batches).isEmpty();
+    }
+
+    @Test
+    void failedBatchKeepsEarlierOnesAndTheCheckRepairsTheRest() throws Exception {
+        repository.holders.addAll(List.of("user-1", "user-2", "user-3", "user-4"));
+        repository.failingBatch = 2;
+
+        service.onPermissionGranted(new PermissionGrantedToRoleEvent(ROLE_ID, "courses:create"));
+        drain(service);
+
+        assertThat(repository.granted).containsExactlyInAnyOrder("user-1:courses:create", "user-2:courses:create");
+
+        repository.missing = 2;
+        service.scheduledCheck();
+        drain(service);
+
+        assertThat(repository.insertMissingCalls).isEqualTo(1);
+        assertThat(repository.deleteStaleCalls).isEqualTo(1);
+    }
+
+    @Test
+    void hierarchyChangeRefreshesTheHoldersOfTheEditedRole() throws Exception {
+        service.onRoleHierarchyChanged(new RoleHierarchyChangedEvent(ROLE_ID));
+        drain(service);
+
+        assertThat(repository.refreshedRoles).containsExactly(ROLE_ID);
+    }
+
+    @Test
+    void readsAreServedOnlyOnceTheBackfillSucceeded() throws Exception {
+        assertThat(service.isReady()).isFalse();
+
+        repository.checkFails = true;
+        service.backfill();
+        drain(service);
+        assertThat(service.isReady()).isFalse();
+
+        repository.checkFails = false;
+        service.scheduledCheck();
+        drain(service);
+        assertThat(service.isReady()).isTrue();
+    }
+
+    @Test
+    void disabledServiceNeverTouchesTheTable() throws Exception {
+        EffectivePermissionService disabled = new EffectivePermissionService(repository, false, 2);
+        repository.holders.add("user-1");
+
+        disabled.onRoleAssigned("user-1", ROLE_ID);
+        disabled.onPermissionGranted(new PermissionGrantedToRoleEvent(ROLE_ID, "courses:create"));
+        disabled.onRoleHierarchyChanged(new RoleHierarchyChangedEvent(ROLE_ID));
+        disabled.backfill();
+        drain(disabled);
+        disabled.shutdown();
+
+        assertThat(disabled.isReady()).isFalse();
+        assertThat(repository.batches).isEmpty();
+        assertThat(repository.refreshedRoles).isEmpty();
+        assertThat(repository.insertMissingCalls).isZero();
+        assertThat(repository.assignedRoles).isEmpty();
+    }
+
+    @Test
+    void rejectsANonPositiveBatchSize() {
+        assertThatThrownBy(() -> new EffectivePermissionService(repository, true, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Waits until the single worker has run everything queued before this call.
+     */
+    private static void drain(EffectivePermissionService service) throws Exception {
+        ExecutorService worker = (ExecutorService) ReflectionTestUtils.getField(service, "worker");
+        worker.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static final class FakeEffectivePermissions implements EffectivePermissionRepositoryPort {
+
+        private final List<String> holders = new ArrayList<>();
+        private final Set<String> granted = ConcurrentHashMap.newKeySet();
+        private final List<String> batches = new CopyOnWriteArrayList<>();
+        private final List<UUID> refreshedRoles = new CopyOnWriteArrayList<>();
+        private final List<String> assignedRoles = new CopyOnWriteArrayList<>();
+        private volatile int failingBatch = -1;
+        private volatile boolean checkFails;
+        private volatile int missing;
+        private volatile int insertMissingCalls;
+        private volatile int deleteStaleCalls;
+
+        @Override
+        public List<String> findPermissionNamesByUserId(String userId) {
+            return List.of();
+        }
+
+        @Override
+        public void materializeUserRole(String userId, UUID roleId) {
+            assignedRoles.add(userId);
+        }
+
+        @Override
+        public List<String> findUserIdsByRoleId(UUID roleId, String afterUserId, int limit) {
+            return holders.stream().filter(id -> id.compareTo(afterUserId) > 0).sorted().limit(limit).toList();
+        }
+
+        @Override
+        public int materializeRolePermission(UUID roleId, String permissionName, String afterUserId, String lastUserId) {
+            if (batches.size() == failingBatch - 1) {
+                throw new IllegalStateException("Batch failed");
+            }
+            batches.add("(" + afterUserId + "," + lastUserId + "]");
+            List<String> users = holders.stream()
+                    .filter(id -> id.compareTo(afterUserId) > 0 && id.compareTo(lastUserId) <= 0)
+                    .toList();
+            users.forEach(id -> granted.add(id + ":" + permissionName));
+            return users.size();
+        }
+
+        @Override
+        public int insertMissing() {
+            insertMissingCalls++;
+            if (checkFails) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            return missing;
+        }
+
+        @Override
+        public int deleteStale() {
+            deleteStaleCalls++;
+            return 0;
+        }
+
+        @Override
+        public int refreshHoldersOfRole(UUID roleId) {
+            refreshedRoles.add(roleId);
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.port.out.RbacChangeLogPort;
+import com.dnk.iam.application.port.out.RbacChangeSubscriberPort;
+import com.dnk.iam.domain.model.RbacChange;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Subscribers are replayed what they missed or told to reset, receive coalesced batches, and cannot hold
+ * each other up: a consumer that stops reading is dropped once its queue is full.
+ */
+class RbacChangeFeedServiceTest {
+
+    private static final UUID ROLE_ID = UUID.randomUUID();
+
+    private final FakeChangeLog changeLog = new FakeChangeLog();
+    private final RbacChangeFeedService feed =
+            new RbacChangeFeedService(changeLog, 2, 2, Duration.ofDays(7), Duration.ofHours(1));
+
+    @AfterEach
+    void shutdown() {
+        feed.shutdown();
+    }
+
+    @Test
+    void newSubscriberStartsAtTheLatestSequenceAndGetsLaterBatches() throws Exception {
+        changeLog.append(1, "user-1");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        feed.subscribe(subscriber, null);
+        subscriber.awaitEvents(1);
+        changeLog.append(2, "user-2");
+        feed.poll();
+
+        subscriber.awaitEvents(2);
+        assertThat(subscriber.events).containsExactly("ready:1", "changes:[2]@2");
+    }
+
+    @Test
+    void resumedSubscriberIsReplayedWhatItMissedInBatches() throws Exception {
+        for (long sequence = 1; sequence <= 5; sequence++) {
+            changeLog.append(sequence, "user-" + sequence);
+        }
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        feed.subscribe(subscriber, 1L);
+
+        subscriber.awaitEvents(3);
+        assertThat(subscriber.events).containsExactly("changes:[2, 3]@3", "changes:[4, 5]@5", "ready:5");
+    }
+
+    @Test
+    void cursorBehindThePurgedPartOfTheLogIsReset() throws Exception {
+        changeLog.append(4, "user-4");
+        changeLog.append(5, "user-5");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        feed.subscribe(subscriber, 1L);
+
+        subscriber.awaitEvents(1);
+        assertThat(subscriber.events).containsExactly("reset:5");
+    }
+
+    @Test
+    void cursorFromAnotherDatabaseIsReset() throws Exception {
+        changeLog.append(1, "user-1");
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+
+        feed.subscribe(subscriber, 99L);
+
+        subscriber.awaitEvents(1);
+        assertThat(subscriber.events).containsExactly("reset:1");
+    }
+
+    @Test
+    void cursorOnAnEmptyLogResumesOnlyIfNothingWasEverAllocated() throws Exception {
+        changeLog.allocated = 3;
+        RecordingSubscriber behind = new RecordingSubscriber();
+        RecordingSubscriber current = new RecordingSubscriber();
+
+        feed.subscribe(behind, 1L);
+        feed.subscribe(current, 3L);
+
+        behind.awaitEvents(1);
+        current.awaitEvents(1);
+        assertThat(behind.events).containsExactly("reset:0");
+        assertThat(current.events).containsExactly("ready:0");
+    }
+
+    @Test
+    void repeatedChangesToTheSameEntryAreCoalescedToTheLatest() throws Exception {
+        RbacChangeFeedService largeBatches =
+                new RbacChangeFeedService(changeLog, 100, 2, Duration.ofDays(7), Duration.ofHours(1));
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        largeBatches.subscribe(subscriber, null);
+        subscriber.awaitEvents(1);
+
+        changeLog.append(1, "user-1");
+        changeLog.append(2, "user-2");
+        changeLog.append(3, "user-1");
+        largeBatches.poll();
+
+        subscriber.awaitEvents(2);
+        largeBatches.shutdown();
+        assertThat(subscriber.events).startsWith("ready:0", "changes:[2, 3]@3");
+    }
+
+    @Test
+    void stalledSubscriberIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+        StalledSubscriber stalled = new StalledSubscriber();
+        RecordingSubscriber healthy = new RecordingSubscriber();
+        feed.subscribe(stalled, null);
+        feed.subscribe(healthy, null);
+        assertThat(stalled.entered.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // One delivery is stuck in the socket; two more fill its queue and the next one overflows it
+        for (long sequence = 1; sequence <= 4; sequence++) {
+            changeLog.append(sequence, "user-" + sequence);
+            feed.poll();
+            healthy.awaitEvents((int) sequence + 1);
+        }
+
+        assertThat(healthy.events).containsExactly(
+                "ready:0", "changes:[1]@1", "changes:[2]@2", "changes:[3]@3", "changes:[4]@4");
+        assertThat(stalled.closed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // A new subscriber is still served while the dropped one is gone
+        RecordingSubscriber late = new RecordingSubscriber();
+        feed.subscribe(late, 2L);
+        late.awaitEvents(2);
+        assertThat(late.events).containsExactly("changes:[3, 4]@4", "ready:4");
+    }
+
+    @Test
+    void unsubscribedConsumerReceivesNothingMore() throws Exception {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        feed.subscribe(subscriber, null);
+        subscriber.awaitEvents(1);
+
+        feed.unsubscribe(subscriber);
+        changeLog.append(1, "user-1");
+        feed.poll();
+        drainDispatcher();
+
+        assertThat(subscriber.events).containsExactly("ready:0");
+    }
+
+    private void drainDispatcher() throws Exception {
+        ExecutorService dispatcher = (ExecutorService) ReflectionTestUtils.getField(feed, "dispatcher");
+        dispatcher.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static final class FakeChangeLog implements RbacChangeLogPort {
+
+        private final List<RbacChange> entries = new CopyOnWriteArrayList<>();
+        private volatile long allocated;
+
+        void append(long sequence, String userId) {
+            entries.add(new RbacChange(sequence, RbacChange.Type.ROLE_ASSIGNED_TO_USER, userId, ROLE_ID, "student",
+                    null, null, null, Instant.now()));
+            allocated = Math.max(allocated, sequence);
+        }
+
+        @Override
+        public void append(RbacChange change) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<RbacChange> findAfter(long afterSequence, int limit) {
+            return entries.stream().filter(change -> change.sequence() > afterSequence).limit(limit).toList();
+        }
+
+        @Override
+        public long latestSequence() {
+            return entries.stream().mapToLong(RbacChange::sequence).max().orElse(0);
+        }
+
+        @Override
+        public long allocatedSequence() {
+            return allocated;
+        }
+
+        @Override
+        public OptionalLong oldestRetainedSequence() {
+            return entries.stream().mapToLong(RbacChange::sequence).min();
+        }
+
+        @Override
+        public int purgeBefore(Instant cutoff) {
+            return 0;
+        }
+    }
+
+    private static class RecordingSubscriber implements RbacChangeSubscriberPort {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void ready(long cursor) throws IOException {
+            events.add("ready:" + cursor);
+        }
+
+        @Override
+        public void reset(long cursor) throws IOException {
+            events.add("reset:" + cursor);
+        }
+
+        @Override
+        public void changes(List<RbacChange> changes, long cursor) throws IOException {
+            String sequences = changes.stream()
+                    .map(change -> Long.toString(change.sequence()))
+                    .collect(Collectors.joining(", ", "[", "]"));
+            events.add("changes:" + sequences + "@" + cursor);
+        }
+
+        @Override
+        public void heartbeat() throws IOException {
+            events.add("heartbeat");
+        }
+
+        @Override
+        public void close() {
+            events.add("closed");
+        }
+
+        void awaitEvents(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (events.size() < count && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(events).hasSizeGreaterThanOrEqualTo(count);
+        }
+    }
+
+    /**
+     * A consumer whose connection stopped draining: every send blocks until the sender is interrupted.
+     */
+    private static final class StalledSubscriber extends RecordingSubscriber {
+
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private final CountDownLatch closed = new CountDownLatch(1);
+
+        @Override
+        public void ready(long cursor) throws IOException {
+            entered.countDown();
+            try {
+                new CountDownLatch(1).await();
+            } catch (InterruptedException ex) {
+                throw new IOException("Interrupted while sending");
+            }
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+    }
+}
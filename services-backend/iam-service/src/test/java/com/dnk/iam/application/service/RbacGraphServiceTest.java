@@ -0,0 +1,165 @@
+package com.dnk.iam.application.service;
+
+import com.dnk.iam.application.event.RbacChangedEvent;
+import com.dnk.iam.application.port.out.RbacGraphLoaderPort;
+import com.dnk.iam.domain.model.Permission;
+import com.dnk.iam.domain.model.RbacGraph;
+import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.domain.model.RolePermission;
+import com.dnk.iam.domain.model.UserRightsChanges;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Readers always get a complete snapshot: a change swaps in a freshly loaded graph, and a failed load
+ * leaves the previous one in place.
+ */
+class RbacGraphServiceTest {
+
+    private static final Role STUDENT = new Role(UUID.randomUUID(), "student");
+
+    private final FakeGraphLoader loader = new FakeGraphLoader();
+    private final RbacGraphService service = new RbacGraphService(loader, true);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void readBeforeWarmUpLoadsOnceWithoutAVersion() {
+        RbacGraph first = service.current();
+
+        assertThat(first.version()).isEqualTo(RbacGraph.UNKNOWN_VERSION);
+        assertThat(service.current()).isSameAs(first);
+        assertThat(loader.loads).isEqualTo(1);
+    }
+
+    @Test
+    void changeSwapsInANewSnapshotAndLeavesTheOldOneIntact() throws Exception {
+        service.warmUp();
+        drain();
+        RbacGraph before = service.current();
+
+        loader.permissions.add("courses:create");
+        loader.version = 2;
+        service.onRbacChanged(new RbacChangedEvent("permission granted"));
+        drain();
+        RbacGraph after = service.current();
+
+        assertThat(after).isNotSameAs(before);
+        assertThat(after.version()).isEqualTo(2);
+        assertThat(after.permissionNamesOf(List.of(STUDENT.id()))).containsExactly("courses:read", "courses:create");
+        assertThat(before.version()).isEqualTo(1);
+        assertThat(before.permissionNamesOf(List.of(STUDENT.id()))).containsExactly("courses:read");
+    }
+
+    @Test
+    void failedRebuildKeepsThePreviousSnapshot() throws Exception {
+        service.warmUp();
+        drain();
+        RbacGraph before = service.current();
+
+        loader.failing = true;
+        service.onRbacChanged(new RbacChangedEvent("role created"));
+        drain();
+
+        assertThat(service.current()).isSameAs(before);
+    }
+
+    @Test
+    void pollReloadsOnlyWhenTheVersionMoved() throws Exception {
+        service.warmUp();
+        drain();
+
+        service.refreshIfStale();
+        drain();
+        assertThat(loader.loads).isEqualTo(1);
+
+        loader.version = 2;
+        service.refreshIfStale();
+        drain();
+        assertThat(loader.loads).isEqualTo(2);
+        assertThat(service.current().version()).isEqualTo(2);
+    }
+
+    @Test
+    void unstampedGraphIsReplacedByTheNextLoad() throws Exception {
+        RbacGraph unstamped = service.current();
+
+        service.onRbacChanged(new RbacChangedEvent("role created"));
+        drain();
+
+        assertThat(service.current()).isNotSameAs(unstamped);
+        assertThat(service.current().version()).isEqualTo(1);
+    }
+
+    @Test
+    void disabledServiceDoesNotRebuildInTheBackground() throws Exception {
+        RbacGraphService disabled = new RbacGraphService(loader, false);
+
+        disabled.warmUp();
+        disabled.onRbacChanged(new RbacChangedEvent("role created"));
+        disabled.refreshIfStale();
+        drain(disabled);
+        disabled.shutdown();
+
+        assertThat(loader.loads).isZero();
+    }
+
+    private void drain() throws Exception {
+        drain(service);
+    }
+
+    /**
+     * Waits until the single rebuild thread has run everything queued before this call.
+     */
+    private static void drain(RbacGraphService service) throws Exception {
+        ExecutorService rebuilder = (ExecutorService) ReflectionTestUtils.getField(service, "rebuilder");
+        rebuilder.submit(() -> { }).get(5, TimeUnit.SECONDS);
+    }
+
+    private static final class FakeGraphLoader implements RbacGraphLoaderPort {
+
+        private final List<String> permissions = new ArrayList<>(List.of("courses:read"));
+        private volatile long version = 1;
+        private volatile boolean failing;
+        private volatile int loads;
+
+        @Override
+        public RbacGraph load(long version) {
+            if (failing) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            loads++;
+            List<Permission> loaded = permissions.stream()
+                    .map(name -> new Permission(UUID.randomUUID(), name))
+                    .toList();
+            List<RolePermission> grants = loaded.stream()
+                    .map(permission -> new RolePermission(STUDENT.id(), permission.id()))
+                    .toList();
+            return RbacGraph.of(version, List.of(STUDENT), loaded, grants, List.of());
+        }
+
+        @Override
+        public long currentVersion() {
+            return version;
+        }
+
+        @Override
+        public Optional<UserRightsChanges> userRightsChangesSince(Instant since) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.dnk.iam.application.usecase;
+
+import com.dnk.iam.application.event.PermissionGrantedToRoleEvent;
+import com.dnk.iam.application.event.RoleAssignedToUserEvent;
+import com.dnk.iam.application.port.out.RbacGraphLoaderPort;
+import com.dnk.iam.application.port.out.UserRoleRepositoryPort;
+import com.dnk.iam.application.service.AuthorizationDecisionCache;
+import com.dnk.iam.domain.model.AuthorizationCheck;
+import com.dnk.iam.domain.model.AuthorizationDecision;
+import com.dnk.iam.domain.model.RbacGraph;
+import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.domain.model.UserRights;
+import com.dnk.iam.domain.model.UserRightsChanges;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Misses are answered with one query per request and cached; the assignment events drop exactly the
+ * cached denials they may have turned into grants.
+ */
+class AuthorizeUseCaseTest {
+
+    private final FakeUserRoles userRoles = new FakeUserRoles();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AuthorizationDecisionCache cache =
+            new AuthorizationDecisionCache(new UnusedVersionSource(), meterRegistry, true, 1000, 4);
+    private final AuthorizeUseCase useCase = new AuthorizeUseCase(userRoles, cache, meterRegistry, 3);
+
+    @Test
+    void missesAreResolvedInOneQueryAndThenServedFromTheCache() {
+        userRoles.grant("user-1", "courses:read");
+        List<AuthorizationCheck> checks = List.of(
+                new AuthorizationCheck("user-1", "courses:read"),
+                new AuthorizationCheck(" user-2 ", "courses:read"),
+                new AuthorizationCheck("user-1", "courses:delete"));
+
+        List<AuthorizationDecision> first = useCase.execute(checks);
+        List<AuthorizationDecision> second = useCase.execute(checks);
+
+        assertThat(first).containsExactly(
+                new AuthorizationDecision("user-1", "courses:read", true),
+                new AuthorizationDecision("user-2", "courses:read", false),
+                new AuthorizationDecision("user-1", "courses:delete", false));
+        assertThat(second).isEqualTo(first);
+        assertThat(userRoles.queries).containsExactly(Set.of("user-1", "user-2"));
+        assertThat(meterRegistry.get("iam.authorize.decisions").tag("result", "miss").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("iam.authorize.decisions").tag("result", "hit").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("iam.authorize.latency").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void roleAssignmentDropsThatUsersCachedDenials() {
+        AuthorizationCheck check = new AuthorizationCheck("user-1", "courses:create");
+        assertThat(useCase.execute(List.of(check))).extracting(AuthorizationDecision::allowed).containsExactly(false);
+
+        userRoles.grant("user-1", "courses:create");
+        cache.onRoleAssigned(new RoleAssignedToUserEvent("user-1", UUID.randomUUID()));
+
+        assertThat(useCase.execute(List.of(check))).extracting(AuthorizationDecision::allowed).containsExactly(true);
+        assertThat(userRoles.queries).hasSize(2);
+    }
+
+    @Test
+    void permissionGrantDropsOnlyDenialsOfThatPermission() {
+        AuthorizationCheck granted = new AuthorizationCheck("user-1", "courses:create");
+        AuthorizationCheck other = new AuthorizationCheck("user-2", "courses:delete");
+        useCase.execute(List.of(granted, other));
+
+        userRoles.grant("user-1", "courses:create");
+        cache.onPermissionGranted(new PermissionGrantedToRoleEvent(UUID.randomUUID(), "courses:create"));
+
+        assertThat(useCase.execute(List.of(granted, other))).extracting(AuthorizationDecision::allowed)
+                .containsExactly(true, false);
+        assertThat(userRoles.queries).containsExactly(Set.of("user-1", "user-2"), Set.of("user-1"));
+    }
+
+    @Test
+    void decisionReadBeforeAConcurrentInvalidationIsNotCached() {
+        AuthorizationCheck check = new AuthorizationCheck("user-1", "courses:create");
+        // The assignment commits while the query is running, after it read the old rows
+        userRoles.duringQuery = () -> cache.onRoleAssigned(new RoleAssignedToUserEvent("user-1", UUID.randomUUID()));
+
+        assertThat(useCase.execute(List.of(check))).extracting(AuthorizationDecision::allowed).containsExactly(false);
+
+        assertThat(cache.get(check)).isNull();
+    }
+
+    @Test
+    void disabledCacheQueriesEveryTime() {
+        AuthorizationDecisionCache disabled =
+                new AuthorizationDecisionCache(new UnusedVersionSource(), new SimpleMeterRegistry(), false, 1000, 4);
+        AuthorizeUseCase uncached = new AuthorizeUseCase(userRoles, disabled, new SimpleMeterRegistry(), 3);
+        List<AuthorizationCheck> checks = List.of(new AuthorizationCheck("user-1", "courses:read"));
+
+        uncached.execute(checks);
+        uncached.execute(checks);
+
+        assertThat(userRoles.queries).hasSize(2);
+    }
+
+    @Test
+    void rejectsEmptyOversizedAndBlankBatches() {
+        AuthorizationCheck check = new AuthorizationCheck("user-1", "courses:read");
+
+        assertThatThrownBy(() -> useCase.execute(List.of())).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> useCase.execute(List.of(check, check, check, check)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("At most 3 checks per request");
+        assertThatThrownBy(() -> useCase.execute(List.of(new AuthorizationCheck(" ", "courses:read"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(userRoles.queries).isEmpty();
+    }
+
+    private static final class FakeUserRoles implements UserRoleRepositoryPort {
+
+        private final Map<String, List<String>> permissions = new HashMap<>();
+        private final List<Set<String>> queries = new ArrayList<>();
+        private Runnable duringQuery;
+
+        void grant(String userId, String permission) {
+            permissions.computeIfAbsent(userId, id -> new ArrayList<>()).add(permission);
+        }
+
+        @Override
+        public Map<String, UserRights> findRightsByUserIds(Collection<String> userIds) {
+            queries.add(Set.copyOf(userIds));
+            Map<String, UserRights> rights = new HashMap<>();
+            for (String userId : userIds) {
+                if (permissions.containsKey(userId)) {
+                    rights.put(userId, new UserRights(List.of("student"), List.copyOf(permissions.get(userId))));
+                }
+            }
+            if (duringQuery != null) {
+                duringQuery.run();
+            }
+            return rights;
+        }
+
+        @Override
+        public void assignRole(String userId, UUID roleId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Role> findRolesByUserId(String userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<UUID> findRoleIdsByUserId(String userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> findPermissionNamesByUserId(String userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<String, List<UUID>> findRoleIdsByUserIds(Collection<String> userIds) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Only the scheduled polls read versions; these tests drive invalidation through the events.
+     */
+    private static final class UnusedVersionSource implements RbacGraphLoaderPort {
+
+        @Override
+        public RbacGraph load(long version) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long currentVersion() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<UserRightsChanges> userRightsChangesSince(Instant since) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
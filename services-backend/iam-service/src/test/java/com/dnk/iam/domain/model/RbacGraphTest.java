@@ -0,0 +1,104 @@
+package com.dnk.iam.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Effective permissions through the precomputed closure, on hierarchies much deeper and wider than real
+ * ones, so a recursive or per-lookup walk would show up as a stack overflow or a slow test.
+ */
+class RbacGraphTest {
+
+    @Test
+    void deepChainInheritsEveryAncestorsPermission() {
+        int depth = 10_000;
+        List<Role> roles = new ArrayList<>();
+        List<Permission> permissions = new ArrayList<>();
+        List<RolePermission> grants = new ArrayList<>();
+        List<RoleInheritance> inheritance = new ArrayList<>();
+        for (int i = 0; i < depth; i++) {
+            Role role = new Role(UUID.randomUUID(), "level-" + i);
+            Permission permission = new Permission(UUID.randomUUID(), "perm-" + i);
+            roles.add(role);
+            permissions.add(permission);
+            grants.add(new RolePermission(role.id(), permission.id()));
+            if (i > 0) {
+                inheritance.add(new RoleInheritance(role.id(), roles.get(i - 1).id()));
+            }
+        }
+
+        RbacGraph graph = RbacGraph.of(1, roles, permissions, grants, inheritance);
+
+        assertThat(graph.permissionNamesOf(List.of(roles.get(depth - 1).id())).size()).isEqualTo(depth);
+        assertThat(graph.permissionNamesOf(List.of(roles.get(0).id()))).isEqualTo(List.of("perm-0"));
+        assertThat(graph.permissionNamesOf(List.of(roles.get(2).id()))).isEqualTo(List.of("perm-0", "perm-1", "perm-2"));
+    }
+
+    @Test
+    void wideRoleInheritsFromEveryParent() {
+        int width = 5_000;
+        Role root = new Role(UUID.randomUUID(), "root");
+        Permission rootPermission = new Permission(UUID.randomUUID(), "root-perm");
+        List<Role> roles = new ArrayList<>(List.of(root));
+        List<Permission> permissions = new ArrayList<>(List.of(rootPermission));
+        List<RolePermission> grants = new ArrayList<>(List.of(new RolePermission(root.id(), rootPermission.id())));
+        List<RoleInheritance> inheritance = new ArrayList<>();
+        for (int i = 0; i < width; i++) {
+            Role parent = new Role(UUID.randomUUID(), "parent-" + i);
+            Permission permission = new Permission(UUID.randomUUID(), "perm-" + i);
+            roles.add(parent);
+            permissions.add(permission);
+            grants.add(new RolePermission(parent.id(), permission.id()));
+            inheritance.add(new RoleInheritance(root.id(), parent.id()));
+        }
+
+        RbacGraph graph = RbacGraph.of(1, roles, permissions, grants, inheritance);
+
+        assertThat(graph.permissionNamesOf(List.of(root.id())).size()).isEqualTo(width + 1);
+        assertThat(graph.permissionNamesOf(List.of(roles.get(1).id()))).isEqualTo(List.of("perm-0"));
+    }
+
+    @Test
+    void diamondCountsSharedAncestorOnce() {
+        Role base = new Role(UUID.randomUUID(), "student");
+        Role left = new Role(UUID.randomUUID(), "operator");
+        Role right = new Role(UUID.randomUUID(), "teacher");
+        Role top = new Role(UUID.randomUUID(), "admin");
+        Permission read = new Permission(UUID.randomUUID(), "courses:read");
+        Permission manage = new Permission(UUID.randomUUID(), "courses:create");
+
+        RbacGraph graph = RbacGraph.of(1,
+                List.of(base, left, right, top),
+                List.of(read, manage),
+                List.of(new RolePermission(base.id(), read.id()), new RolePermission(top.id(), manage.id())),
+                List.of(new RoleInheritance(left.id(), base.id()),
+                        new RoleInheritance(right.id(), base.id()),
+                        new RoleInheritance(top.id(), left.id()),
+                        new RoleInheritance(top.id(), right.id())));
+
+        assertThat(graph.permissionNamesOf(List.of(top.id()))).isEqualTo(List.of("courses:read", "courses:create"));
+        assertThat(graph.permissionNamesOf(List.of(left.id(), right.id()))).isEqualTo(List.of("courses:read"));
+    }
+
+    @Test
+    void cycleIsIgnoredInsteadOfLooping() {
+        Role a = new Role(UUID.randomUUID(), "a");
+        Role b = new Role(UUID.randomUUID(), "b");
+        Permission pa = new Permission(UUID.randomUUID(), "pa");
+        Permission pb = new Permission(UUID.randomUUID(), "pb");
+
+        RbacGraph graph = RbacGraph.of(1,
+                List.of(a, b),
+                List.of(pa, pb),
+                List.of(new RolePermission(a.id(), pa.id()), new RolePermission(b.id(), pb.id())),
+                List.of(new RoleInheritance(a.id(), b.id()), new RoleInheritance(b.id(), a.id())));
+
+        assertThat(Set.copyOf(graph.permissionNamesOf(List.of(a.id(), b.id())))).isEqualTo(Set.of("pa", "pb"));
+    }
+}
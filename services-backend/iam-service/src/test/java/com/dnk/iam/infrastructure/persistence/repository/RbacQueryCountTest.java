@@ -0,0 +1,144 @@
+package com.dnk.iam.infrastructure.persistence.repository;
+
+import com.dnk.iam.domain.model.Permission;
+import com.dnk.iam.domain.model.Role;
+import com.dnk.iam.infrastructure.persistence.entity.PermissionEntity;
+import com.dnk.iam.infrastructure.persistence.entity.RoleClosureEntity;
+import com.dnk.iam.infrastructure.persistence.entity.RoleEntity;
+import com.dnk.iam.infrastructure.persistence.entity.RolePermissionEntity;
+import com.dnk.iam.infrastructure.persistence.entity.UserRoleEntity;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keeps each RBAC read at a single SQL statement, however many roles and permissions are involved. Runs on an
+ * in-memory H2 in PostgreSQL mode, so it needs neither the DB_* environment nor a running database.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rbac-query-count;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.default_schema=iam_schema",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({UserRoleRepositoryAdapter.class, RolePermissionRepositoryAdapter.class})
+class RbacQueryCountTest {
+
+    private static final String USER_ID = "firebase-uid-1";
+    private static final String INHERITING_USER_ID = "firebase-uid-2";
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserRoleRepositoryAdapter userRoleRepository;
+
+    @Autowired
+    private RolePermissionRepositoryAdapter rolePermissionRepository;
+
+    private UUID adminRoleId;
+
+    @BeforeEach
+    void seed() {
+        RoleEntity admin = entityManager.persist(RoleEntity.builder().name("admin").build());
+        RoleEntity student = entityManager.persist(RoleEntity.builder().name("student").build());
+        RoleEntity superAdmin = entityManager.persist(RoleEntity.builder().name("super-admin").build());
+        adminRoleId = admin.getId();
+
+        // The database triggers that maintain the closure do not exist in H2; these are the rows they would write
+        closure(admin.getId(), admin.getId());
+        closure(student.getId(), student.getId());
+        closure(superAdmin.getId(), superAdmin.getId());
+        closure(admin.getId(), superAdmin.getId());
+
+        List<String> names = List.of("courses:read", "courses:create", "courses:update", "enrollments:read:all");
+        for (String name : names) {
+            PermissionEntity permission = entityManager.persist(PermissionEntity.builder().id(UUID.randomUUID()).name(name).build());
+            grant(admin.getId(), permission.getId());
+            if (name.equals("courses:read")) {
+                grant(student.getId(), permission.getId());
+            }
+        }
+        assign(USER_ID, admin.getId());
+        assign(USER_ID, student.getId());
+        assign(INHERITING_USER_ID, superAdmin.getId());
+
+        // Nothing may be served from the persistence context, or an N+1 would go unnoticed
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void rolesOfUserTakeOneQuery() {
+        List<Role> roles = userRoleRepository.findRolesByUserId(USER_ID);
+
+        assertThat(roles).extracting(Role::name).containsExactlyInAnyOrder("admin", "student");
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void permissionsOfRoleTakeOneQuery() {
+        List<Permission> permissions = rolePermissionRepository.findPermissionsByRoleId(adminRoleId);
+
+        assertThat(permissions).hasSize(4);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void permissionNamesOfUserTakeOneQueryAndAreDistinct() {
+        List<String> names = userRoleRepository.findPermissionNamesByUserId(USER_ID);
+
+        assertThat(names).containsExactlyInAnyOrder("courses:read", "courses:create", "courses:update", "enrollments:read:all");
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void inheritedPermissionNamesTakeOneQuery() {
+        List<String> names = userRoleRepository.findPermissionNamesByUserId(INHERITING_USER_ID);
+
+        assertThat(names).containsExactlyInAnyOrder("courses:read", "courses:create", "courses:update", "enrollments:read:all");
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private void grant(UUID roleId, UUID permissionId) {
+        RolePermissionEntity entity = new RolePermissionEntity();
+        entity.setId(new RolePermissionEntity.RolePermissionId(roleId, permissionId));
+        entityManager.persist(entity);
+    }
+
+    private void assign(String userId, UUID roleId) {
+        UserRoleEntity entity = new UserRoleEntity();
+        entity.setId(new UserRoleEntity.UserRoleId(userId, roleId));
+        entityManager.persist(entity);
+    }
+
+    private void closure(UUID ancestorId, UUID descendantId) {
+        entityManager.persist(new RoleClosureEntity(new RoleClosureEntity.RoleClosureId(ancestorId, descendantId), 1));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,70 @@
+package com.dnk.iam.presentation.controller;
+
+import com.dnk.iam.application.usecase.GetUsersRightsBatchUseCase;
+import com.dnk.iam.domain.model.UserRights;
+import com.dnk.iam.presentation.dto.BatchRightsRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserRightsControllerTest {
+
+    private static final List<String> USER_IDS = List.of("uid1", "uid2");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GetUsersRightsBatchUseCase useCase = mock(GetUsersRightsBatchUseCase.class);
+    private final UserRightsController controller = new UserRightsController(useCase, objectMapper);
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    void finishedResponseEndsWithComplete() throws Exception {
+        when(useCase.normalize(USER_IDS)).thenReturn(USER_IDS);
+        streamChunks(false);
+
+        controller.getUsersRights(new BatchRightsRequest(USER_IDS), response);
+
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertThat(body.get("complete").asBoolean()).isTrue();
+        assertThat(body.get("users").get("uid2").get("roles").get(0).asText()).isEqualTo("admin");
+    }
+
+    @Test
+    void failureAfterTheFirstChunkLeavesTheBodyUnterminated() throws Exception {
+        when(useCase.normalize(USER_IDS)).thenReturn(USER_IDS);
+        streamChunks(true);
+
+        assertThatThrownBy(() -> controller.getUsersRights(new BatchRightsRequest(USER_IDS), response))
+                .isInstanceOf(IllegalStateException.class);
+
+        String body = response.getContentAsString();
+        assertThat(body).contains("uid1").doesNotContain("complete");
+        assertThatThrownBy(() -> objectMapper.readTree(body)).isInstanceOf(JsonProcessingException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void streamChunks(boolean failSecond) {
+        doAnswer(invocation -> {
+            Consumer<Map<String, UserRights>> sink = invocation.getArgument(1);
+            sink.accept(Map.of("uid1", new UserRights(List.of("student"), List.of("courses:read"))));
+            if (failSecond) {
+                throw new IllegalStateException("database unavailable");
+            }
+            sink.accept(Map.of("uid2", new UserRights(List.of("admin"), List.of("courses:create"))));
+            return null;
+        }).when(useCase).execute(anyList(), any(Consumer.class));
+    }
+}